@@ -0,0 +1,105 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.exception.GlobalExceptionHandler;
+import com.ecommerce.exception.GlobalExceptionHandler.ErrorResponse;
+import com.ecommerce.exception.ResourceNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 錯誤回應成本基準測試
+ *
+ * 比較三條路徑從「服務層拋出」到「ResponseEntity 建好」的成本：
+ * - ok:            正常的 200 回應
+ * - notFound:      DomainException（無堆疊追蹤、延遲訊息）+ 預先建立的 ErrorTemplate
+ * - legacyNotFound: 原本的做法，一般 RuntimeException + String.format + builder + LocalDateTime.now()
+ *
+ * depth 模擬 Spring MVC 呼叫鏈的堆疊深度（實際請求約 100 層），
+ * 一般例外的成本會隨深度線性成長，DomainException 不受影響。
+ *
+ * 執行：./gradlew :spring-boot-basics:jmh -Pjmh.includes=ErrorResponseBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorResponseBenchmark {
+
+    @Param({"20", "100"})
+    public int depth;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> ok() {
+        return atDepth(depth, () -> ResponseEntity.ok(
+            new ErrorResponse(LocalDateTime.now(), 200, "OK", "商品 999")));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFound() {
+        try {
+            return atDepth(depth, () -> {
+                throw new ResourceNotFoundException("商品", "id", 999L);
+            });
+        } catch (ResourceNotFoundException ex) {
+            return handler.handleDomainException(ex);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> legacyNotFound() {
+        try {
+            return atDepth(depth, () -> {
+                throw new LegacyNotFoundException(String.format("%s 不存在: %s = '%s'", "商品", "id", 999L));
+            });
+        } catch (LegacyNotFoundException ex) {
+            ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .error("Not Found")
+                .message(ex.getMessage())
+                .build();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
+    /**
+     * 以遞迴墊高堆疊，再在最深處執行 action
+     */
+    private static <T> T atDepth(int remaining, Action<T> action) {
+        if (remaining == 0) {
+            return action.run();
+        }
+        return atDepth(remaining - 1, action);
+    }
+
+    @FunctionalInterface
+    private interface Action<T> {
+        T run();
+    }
+
+    /**
+     * 調整前的例外寫法：建構時填入完整堆疊追蹤並立即格式化訊息
+     */
+    private static class LegacyNotFoundException extends RuntimeException {
+        LegacyNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.DomainEventBus;
+import com.ecommerce.event.DomainEventConsumer;
+import com.ecommerce.event.EventBusProperties;
+import com.ecommerce.event.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事件發布成本基準測試（請求執行緒上的成本）
+ *
+ * - ringBuffer:     DomainEventBus.publish，預先配置的槽位，只寫入參照並推進游標
+ * - executorSubmit: 對照組，每個事件交給單執行緒 ExecutorService（每次配置任務物件、經過鎖）
+ *
+ * 消費者不做任何事，量到的是發布端本身的成本。
+ *
+ * 執行：./gradlew :spring-boot-basics:jmh -Pjmh.includes=EventBusPublishBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBusPublishBenchmark {
+
+    private final DomainEvent event = new ProductChangedEvent(1L, ProductChangedEvent.Change.UPDATED);
+
+    private DomainEventBus bus;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DomainEventConsumer noop = new DomainEventConsumer() {
+            @Override
+            public String getName() {
+                return "noop";
+            }
+
+            @Override
+            public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+            }
+        };
+        bus = new DomainEventBus(List.of(noop), new EventBusProperties(), new SimpleMeterRegistry());
+        bus.start();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bus.stop();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean ringBuffer() {
+        return bus.publish(event);
+    }
+
+    @Benchmark
+    public Object executorSubmit() {
+        return executor.submit(() -> consume(event));
+    }
+
+    private static void consume(DomainEvent event) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.search.FuzzyIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模糊搜尋索引基準測試（合成商品名稱）
+ *
+ * - build:  從零建立整份索引的時間（SingleShotTime，每次迭代重建一次）
+ * - search: 拼錯字查詢的延遲
+ *
+ * Setup 會印出索引規模、估計的記憶體用量與 GC 後的實際堆積增量，兩者可以互相對照。
+ *
+ * 執行：./gradlew :spring-boot-basics:jmh -Pjmh.includes=FuzzySearchBenchmark -Pjmh.args='-p productCount=1000000'
+ * （1M 商品建議 -Xmx4g 以上：-Pjmh.args='-jvmArgs -Xmx4g -p productCount=1000000'）
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FuzzySearchBenchmark {
+
+    private static final String[] BRANDS = {"apple", "samsung", "sony", "asus", "acer", "lenovo", "xiaomi",
+        "logitech", "philips", "panasonic", "dyson", "nikon", "canon", "garmin", "huawei", "oppo"};
+    private static final String[] NOUNS = {"iphone", "galaxy", "notebook", "monitor", "keyboard", "mouse",
+        "headphones", "speaker", "camera", "tablet", "charger", "cable", "router", "watch", "vacuum", "手機殼",
+        "充電線", "藍牙耳機", "保護貼", "行動電源"};
+    private static final String[] SUFFIXES = {"pro", "max", "ultra", "mini", "lite", "plus", "air", "se"};
+
+    private static final List<String> QUERIES = List.of("iphnoe pro", "smasung galxy", "heaphones", "keybaord",
+        "充電線", "vacum cleaner", "logitec mose");
+
+    @Param({"100000", "1000000"})
+    private int productCount;
+
+    private String[] names;
+    private FuzzyIndex index;
+    private int query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        names = new String[productCount];
+        for (int i = 0; i < productCount; i++) {
+            // 型號讓詞彙表隨商品數成長（真實目錄的詞彙表也是如此）
+            names[i] = BRANDS[random.nextInt(BRANDS.length)] + " "
+                + NOUNS[random.nextInt(NOUNS.length)] + " "
+                + SUFFIXES[random.nextInt(SUFFIXES.length)] + " "
+                + Character.toString('a' + random.nextInt(26)) + random.nextInt(productCount / 10 + 1);
+        }
+
+        System.gc();
+        long heapBefore = usedHeap();
+        index = build();
+        System.gc();
+        long heapAfter = usedHeap();
+        FuzzyIndex.Stats stats = index.stats();
+        System.out.printf("%nproducts=%d tokens=%d trigrams=%d postings=%d estimatedMB=%d heapDeltaMB=%d%n",
+            stats.products(), stats.tokens(), stats.trigrams(), stats.postings(),
+            stats.estimatedBytes() >> 20, (heapAfter - heapBefore) >> 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public FuzzyIndex build() {
+        FuzzyIndex built = new FuzzyIndex(2);
+        for (int i = 0; i < names.length; i++) {
+            built.put(i + 1, names[i]);
+        }
+        return built;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public List<FuzzyIndex.Match> search() {
+        query = (query + 1) % QUERIES.size();
+        return index.search(QUERIES.get(query), 20);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.ECommerceApplication;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import org.apache.logging.log4j.core.async.AsyncLoggerContextSelector;
+import org.apache.logging.log4j.core.selector.ClassLoaderContextSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /api/v1/orders 延遲基準測試：同步 Logger 對比非同步 Logger
+ *
+ * 每個 @Param 組合在獨立的 JVM 中啟動完整應用程式（含 Tomcat），
+ * 以 SampleTime 模式取得 p99 等百分位數。
+ * com.ecommerce 開到 DEBUG 並寫入檔案，放大日誌在請求路徑上的成本。
+ *
+ * 執行：./gradlew :spring-boot-basics:jmh -Pjmh.includes=OrderCreateBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class OrderCreateBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Application {
+
+        @Param({"sync", "async"})
+        public String logging;
+
+        ConfigurableApplicationContext context;
+        HttpClient client;
+        URI ordersUri;
+
+        @Setup(Level.Trial)
+        public void start() {
+            // 系統屬性優先於 log4j2.component.properties，必須在 LoggerContext 建立前設定
+            System.setProperty("log4j2.contextSelector", "async".equals(logging)
+                ? AsyncLoggerContextSelector.class.getName()
+                : ClassLoaderContextSelector.class.getName());
+
+            // 以命令列參數傳入，優先於 application.yml（builder.properties() 只是預設值）
+            context = new SpringApplicationBuilder(ECommerceApplication.class)
+                .run(
+                    "--server.port=0",
+                    "--logging.level.com.ecommerce=DEBUG",
+                    "--logging.threshold.console=OFF",
+                    "--logging.file.name=build/jmh/order-create-" + logging + ".log",
+                    "--ecommerce.sql-stats.response-headers=false",
+                    "--ecommerce.job.scheduling-enabled=false");
+
+            String port = context.getEnvironment().getProperty("local.server.port");
+            ordersUri = URI.create("http://localhost:" + port + "/api/v1/orders");
+            client = HttpClient.newHttpClient();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    /**
+     * 每個執行緒使用自己的商品，避免同一列的鎖競爭掩蓋日誌的差異
+     */
+    @State(Scope.Thread)
+    public static class Customer {
+
+        HttpRequest request;
+
+        @Setup(Level.Trial)
+        public void createProduct(Application application) {
+            Product product = application.context.getBean(ProductRepository.class).save(
+                Product.builder()
+                    .name("基準測試商品")
+                    .price(new BigDecimal("100.00"))
+                    .stockQuantity(Integer.MAX_VALUE)
+                    .build());
+
+            String body = """
+                {"customerName":"基準測試","customerEmail":"bench@example.com",\
+                "shippingAddress":"台北市","items":[{"productId":%d,"quantity":1}]}"""
+                .formatted(product.getId());
+            request = HttpRequest.newBuilder(application.ordersUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        }
+    }
+
+    @Benchmark
+    public int createOrder(Application application, Customer customer) throws Exception {
+        HttpResponse<Void> response = application.client.send(
+            customer.request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("預期 201，實際 " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.catalog.CatalogProduct;
+import com.ecommerce.catalog.OffHeapProductStore;
+import com.ecommerce.dto.ProductDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 商品資料放在堆積上（HashMap&lt;Long, CatalogProduct&gt;）與堆積外（OffHeapProductStore）的比較
+ *
+ * - get: 隨機 ID 查詢並轉成 ProductDTO 的延遲（堆積外每次都要解碼字串與 BigDecimal）
+ *
+ * Setup 會印出 GC 後的堆積增量、direct memory 用量，以及帶著這份資料做一次 Full GC 的時間。
+ *
+ * 執行：./gradlew :spring-boot-basics:jmh -Pjmh.includes=ProductRecordStoreBenchmark -Pjmh.args='-p productCount=1000000'
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ProductRecordStoreBenchmark {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"100000", "1000000"})
+    private int productCount;
+
+    @Param({"heap", "offheap"})
+    private String storage;
+
+    private Map<Long, CatalogProduct> heap;
+    private OffHeapProductStore offHeap;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        System.gc();
+        long heapBefore = usedHeap();
+        if ("heap".equals(storage)) {
+            heap = new HashMap<>(productCount * 4 / 3 + 1);
+            for (int i = 1; i <= productCount; i++) {
+                heap.put((long) i, product(i));
+            }
+        } else {
+            offHeap = new OffHeapProductStore(OffHeapProductStore.DEFAULT_SEGMENT_BYTES, productCount);
+            for (int i = 1; i <= productCount; i++) {
+                offHeap.put(product(i));
+            }
+        }
+        System.gc();
+        long heapAfter = usedHeap();
+
+        long gcStart = System.nanoTime();
+        System.gc();
+        long gcMillis = (System.nanoTime() - gcStart) / 1_000_000;
+        System.out.printf("%nstorage=%s products=%d heapDeltaMB=%d offHeapMB=%d fullGcMillis=%d%n",
+            storage, productCount, (heapAfter - heapBefore) >> 20,
+            offHeap != null ? offHeap.allocatedBytes() >> 20 : 0, gcMillis);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public ProductDTO get() {
+        long id = random.nextInt(productCount) + 1;
+        CatalogProduct product = heap != null ? heap.get(id) : offHeap.get(id);
+        return ProductDTO.fromSnapshot(product);
+    }
+
+    private static CatalogProduct product(int id) {
+        return new CatalogProduct(id, "商品 " + id + " wireless headphones",
+            BigDecimal.valueOf(100_00L + id % 50_000, 2),
+            "高音質藍牙耳機，續航 30 小時，型號 " + id, id % 500,
+            "https://cdn.example.com/products/" + id + ".png", id % 10 != 0,
+            (long) (id % 200 + 1), "分類 " + (id % 200 + 1), CREATED.plusSeconds(id), CREATED.plusSeconds(id * 2L),
+            1, CREATED);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
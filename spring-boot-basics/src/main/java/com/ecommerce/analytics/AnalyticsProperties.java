@@ -0,0 +1,38 @@
+package com.ecommerce.analytics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 銷售統計配置
+ */
+@Data
+@ConfigurationProperties(prefix = "ecommerce.analytics")
+public class AnalyticsProperties {
+
+    /**
+     * 保留最近幾天的統計（立方體的日期維度大小）
+     */
+    private int retentionDays = 400;
+
+    /**
+     * 啟動時是否從資料庫重建統計立方體並預熱熱銷排行（完成前應用程式不會進入 ready 狀態）
+     */
+    private boolean rebuildOnStartup = true;
+
+    /**
+     * 重建時平行掃描的執行緒數；0 表示使用 CPU 核心數
+     */
+    private int rebuildParallelism = 0;
+
+    /**
+     * 每個掃描任務涵蓋的訂單 ID 範圍
+     */
+    private int rebuildPartitionSize = 10_000;
+
+    /**
+     * 熱銷排行每個區段保留的商品數（Space-Saving 計數器數），
+     * 誤差上界為視窗內總件數 / bestSellerCapacity
+     */
+    private int bestSellerCapacity = 200;
+}
@@ -0,0 +1,170 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.DomainEventConsumer;
+import com.ecommerce.event.OrderCreatedEvent;
+import com.ecommerce.event.OrderStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 熱銷商品排行（依售出件數）
+ *
+ * 每個範圍（全站、各分類）× 每個時間視窗各一組 PanedTopK，
+ * 記憶體 = 範圍數 × 區段數 × capacity，與商品數量無關。
+ * - 建立訂單：依訂單建立時間加到對應區段
+ * - 取消訂單（狀態變為 CANCELLED）：從原本的區段扣回；區段已離開視窗則不必處理
+ *
+ * 件數是上界估計，誤差上界為視窗內總件數 / capacity（見 SpaceSavingSketch）。
+ * 啟動時從最近一週的訂單預熱；預熱涵蓋的訂單（ID <= warmUpHighWater）之後送達的建立事件會略過。
+ */
+@Service
+@Slf4j
+public class BestSellerTracker implements DomainEventConsumer, ApplicationRunner {
+
+    private static final String WARM_UP_SQL =
+        "SELECT o.created_at, i.product_id, p.category_id, i.quantity " +
+        "FROM orders o " +
+        "JOIN order_items i ON i.order_id = o.id " +
+        "JOIN products p ON p.id = i.product_id " +
+        "WHERE o.id <= ? AND o.created_at >= ? AND o.status <> 'CANCELLED'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnalyticsProperties properties;
+    private final LongSupplier clock;
+    private final Map<BestSellerWindow, PanedTopK> global = new EnumMap<>(BestSellerWindow.class);
+    private final Map<Long, Map<BestSellerWindow, PanedTopK>> byCategory = new HashMap<>();
+    private long warmUpHighWater;
+
+    @Autowired
+    public BestSellerTracker(JdbcTemplate jdbcTemplate, AnalyticsProperties properties) {
+        this(jdbcTemplate, properties, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock 目前時間（epoch 毫秒，測試時可替換）
+     */
+    BestSellerTracker(JdbcTemplate jdbcTemplate, AnalyticsProperties properties, LongSupplier clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isRebuildOnStartup()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * 從最近一週未取消的訂單建立排行
+     */
+    void warmUp() {
+        long startNanos = System.nanoTime();
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders", Long.class);
+        long highWater = maxId != null ? maxId : 0;
+        Duration week = BestSellerWindow.WEEK.getPane().multipliedBy(BestSellerWindow.WEEK.getPanes());
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(clock.getAsLong()), ZoneId.systemDefault())
+            .minus(week);
+        synchronized (this) {
+            // 之前套用的事件都屬於 ID <= highWater 的訂單，由掃描重新計算
+            global.clear();
+            byCategory.clear();
+            warmUpHighWater = highWater;
+            long now = clock.getAsLong();
+            int[] rows = {0};
+            jdbcTemplate.query(WARM_UP_SQL, rs -> {
+                long categoryId = rs.getLong(3);
+                record(rs.getTimestamp(1).getTime(), now, rs.getLong(2),
+                    rs.wasNull() ? SalesAnalyticsService.UNCATEGORIZED : categoryId, rs.getInt(4), 1);
+                rows[0]++;
+            }, highWater, Timestamp.valueOf(since));
+            log.info("熱銷排行已預熱 orders<={} items={} millis={}",
+                highWater, rows[0], (System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+
+    /**
+     * 視窗內售出件數最多的商品
+     *
+     * @param categoryId 為 null 時為全站排行
+     */
+    public synchronized List<SpaceSavingSketch.Entry> top(BestSellerWindow window, Long categoryId, int limit) {
+        Map<BestSellerWindow, PanedTopK> scope = categoryId == null ? global : byCategory.get(categoryId);
+        if (scope == null || !scope.containsKey(window)) {
+            return List.of();
+        }
+        return scope.get(window).top(clock.getAsLong(), limit);
+    }
+
+    public int getCapacity() {
+        return properties.getBestSellerCapacity();
+    }
+
+    @Override
+    public String getName() {
+        return "best-sellers";
+    }
+
+    @Override
+    public synchronized void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (event instanceof OrderCreatedEvent created) {
+            if (created.orderId() > warmUpHighWater) {
+                apply(created.createdAt(), created.items(), 1);
+            }
+        } else if (event instanceof OrderStatusChangedEvent changed) {
+            boolean wasCancelled = changed.previousStatus() == OrderStatus.CANCELLED;
+            boolean isCancelled = changed.status() == OrderStatus.CANCELLED;
+            if (isCancelled && !wasCancelled) {
+                apply(changed.createdAt(), changed.items(), -1);
+            } else if (wasCancelled && !isCancelled) {
+                apply(changed.createdAt(), changed.items(), 1);
+            }
+        }
+    }
+
+    private void apply(LocalDateTime createdAt, List<OrderCreatedEvent.Item> items, int sign) {
+        long time = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long now = clock.getAsLong();
+        for (OrderCreatedEvent.Item item : items) {
+            long categoryId = item.categoryId() != null ? item.categoryId() : SalesAnalyticsService.UNCATEGORIZED;
+            record(time, now, item.productId(), categoryId, item.quantity(), sign);
+        }
+    }
+
+    private void record(long time, long now, long productId, long categoryId, long quantity, int sign) {
+        update(global, time, now, productId, quantity, sign);
+        update(byCategory.computeIfAbsent(categoryId, id -> new EnumMap<>(BestSellerWindow.class)),
+            time, now, productId, quantity, sign);
+    }
+
+    private void update(Map<BestSellerWindow, PanedTopK> scope, long time, long now,
+                        long productId, long quantity, int sign) {
+        for (BestSellerWindow window : BestSellerWindow.values()) {
+            PanedTopK topK = scope.computeIfAbsent(window,
+                w -> new PanedTopK(w, properties.getBestSellerCapacity()));
+            if (sign > 0) {
+                topK.add(time, now, productId, quantity);
+            } else {
+                topK.remove(time, now, productId, quantity);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.analytics;
+
+import java.time.Duration;
+
+/**
+ * 熱銷排行的時間視窗
+ *
+ * 每個視窗由固定長度的滾動區段（tumbling pane）組成，例如 DAY = 最近 24 個整點小時；
+ * 最舊的區段在新區段開始時整個丟棄，因此視窗的實際長度在 (panes - 1) 到 panes 個區段之間。
+ */
+public enum BestSellerWindow {
+
+    HOUR(Duration.ofMinutes(5), 12),
+    DAY(Duration.ofHours(1), 24),
+    WEEK(Duration.ofDays(1), 7);
+
+    private final Duration pane;
+    private final int panes;
+
+    BestSellerWindow(Duration pane, int panes) {
+        this.pane = pane;
+        this.panes = panes;
+    }
+
+    public Duration getPane() {
+        return pane;
+    }
+
+    public int getPanes() {
+        return panes;
+    }
+}
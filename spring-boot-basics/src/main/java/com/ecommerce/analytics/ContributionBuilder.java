@@ -0,0 +1,51 @@
+package com.ecommerce.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 組出一張訂單的 OrderContribution：同分類的項目合併成一筆
+ *
+ * 可重複使用（reset），平行重建時每個執行緒一個，不是執行緒安全的
+ */
+final class ContributionBuilder {
+
+    private LocalDate day;
+    private long[] categoryIds = new long[4];
+    private long[] units = new long[4];
+    private long[] revenueCents = new long[4];
+    private int size;
+
+    ContributionBuilder reset(LocalDate day) {
+        this.day = day;
+        this.size = 0;
+        return this;
+    }
+
+    ContributionBuilder add(long categoryId, int quantity, BigDecimal unitPrice) {
+        long revenue = unitPrice.movePointRight(2).longValue() * quantity;
+        for (int i = 0; i < size; i++) {
+            if (categoryIds[i] == categoryId) {
+                units[i] += quantity;
+                revenueCents[i] += revenue;
+                return this;
+            }
+        }
+        if (size == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, size * 2);
+            units = Arrays.copyOf(units, size * 2);
+            revenueCents = Arrays.copyOf(revenueCents, size * 2);
+        }
+        categoryIds[size] = categoryId;
+        units[size] = quantity;
+        revenueCents[size] = revenue;
+        size++;
+        return this;
+    }
+
+    OrderContribution build() {
+        return new OrderContribution(day,
+            Arrays.copyOf(categoryIds, size), Arrays.copyOf(units, size), Arrays.copyOf(revenueCents, size));
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * 一張訂單對統計立方體的貢獻：下單日期，以及依分類彙總的件數與營收
+ *
+ * 三個陣列同一索引對應同一個分類，分類不重複
+ */
+public record OrderContribution(LocalDate day, long[] categoryIds, long[] units, long[] revenueCents) {
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 以環形排列的滾動區段組成的時間視窗，每個區段一個 SpaceSavingSketch
+ *
+ * 查詢時合併視窗內的區段（Space-Saving 摘要可合併）：
+ * 項目在某區段未被追蹤時，以該區段的最小計數作為它在該區段的上界並計入誤差，
+ * 因此合併結果仍不會低估，誤差上界為各區段 N / capacity 的總和 = 視窗總權重 / capacity。
+ *
+ * 區段在第一次寫入時才配置；非執行緒安全，由呼叫端同步。
+ */
+final class PanedTopK {
+
+    private final long paneMillis;
+    private final int capacity;
+    private final SpaceSavingSketch[] panes;
+    private final long[] paneIds;
+
+    PanedTopK(BestSellerWindow window, int capacity) {
+        this.paneMillis = window.getPane().toMillis();
+        this.capacity = capacity;
+        this.panes = new SpaceSavingSketch[window.getPanes()];
+        this.paneIds = new long[window.getPanes()];
+        Arrays.fill(paneIds, Long.MIN_VALUE);
+    }
+
+    /**
+     * @param timeMillis 銷售發生的時間（訂單建立時間）；已超出視窗則忽略
+     */
+    void add(long timeMillis, long nowMillis, long item, long weight) {
+        SpaceSavingSketch pane = paneFor(timeMillis, nowMillis, true);
+        if (pane != null) {
+            pane.add(item, weight);
+        }
+    }
+
+    /**
+     * 從銷售發生時的區段扣回；該區段已被丟棄則忽略
+     */
+    void remove(long timeMillis, long nowMillis, long item, long weight) {
+        SpaceSavingSketch pane = paneFor(timeMillis, nowMillis, false);
+        if (pane != null) {
+            pane.remove(item, weight);
+        }
+    }
+
+    /**
+     * 視窗內計數最高的 n 個項目（不含全部取消、計數為 0 的項目）
+     */
+    List<SpaceSavingSketch.Entry> top(long nowMillis, int n) {
+        long current = Math.floorDiv(nowMillis, paneMillis);
+        List<SpaceSavingSketch> active = new ArrayList<>(panes.length);
+        for (int i = 0; i < panes.length; i++) {
+            if (panes[i] != null && paneIds[i] > current - panes.length && paneIds[i] <= current) {
+                active.add(panes[i]);
+            }
+        }
+        if (active.size() == 1) {
+            return active.get(0).top(n).stream().filter(entry -> entry.count() > 0).toList();
+        }
+
+        // 每個項目：{已追蹤區段的計數和, 誤差和, 已追蹤區段的最小計數和}
+        Map<Long, long[]> merged = new HashMap<>();
+        long minSum = 0;
+        for (SpaceSavingSketch pane : active) {
+            long min = pane.getMinCount();
+            minSum += min;
+            pane.forEach((item, count, error) -> {
+                long[] acc = merged.computeIfAbsent(item, k -> new long[3]);
+                acc[0] += count;
+                acc[1] += error;
+                acc[2] += min;
+            });
+        }
+        List<SpaceSavingSketch.Entry> entries = new ArrayList<>(merged.size());
+        for (Map.Entry<Long, long[]> e : merged.entrySet()) {
+            long[] acc = e.getValue();
+            long untracked = minSum - acc[2];
+            if (acc[0] + untracked == 0) {
+                continue;
+            }
+            entries.add(new SpaceSavingSketch.Entry(e.getKey(), acc[0] + untracked, acc[1] + untracked));
+        }
+        entries.sort(Comparator.comparingLong(SpaceSavingSketch.Entry::count).reversed()
+            .thenComparingLong(SpaceSavingSketch.Entry::item));
+        return entries.size() > n ? List.copyOf(entries.subList(0, n)) : entries;
+    }
+
+    private SpaceSavingSketch paneFor(long timeMillis, long nowMillis, boolean create) {
+        long id = Math.floorDiv(timeMillis, paneMillis);
+        long current = Math.floorDiv(nowMillis, paneMillis);
+        if (id <= current - panes.length) {
+            return null;
+        }
+        int slot = (int) Math.floorMod(id, (long) panes.length);
+        if (paneIds[slot] == id) {
+            return panes[slot];
+        }
+        if (!create || paneIds[slot] > id) {
+            return null;
+        }
+        // 槽位屬於已離開視窗的舊區段，清空重用
+        if (panes[slot] == null) {
+            panes[slot] = new SpaceSavingSketch(capacity);
+        } else {
+            panes[slot].clear();
+        }
+        paneIds[slot] = id;
+        return panes[slot];
+    }
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.DomainEventConsumer;
+import com.ecommerce.event.OrderCreatedEvent;
+import com.ecommerce.event.OrderStatusChangedEvent;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.StockChangedEvent;
+import com.ecommerce.exception.JobAlreadyRunningException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 即時銷售統計
+ *
+ * 儀表板查詢直接讀記憶體中的 SalesCube，不對 orders / order_items 做 GROUP BY：
+ * - 啟動時（ApplicationRunner）以平行掃描重建
+ * - 之後由事件匯流排的訂單事件增量更新（建立 +1、狀態變更從舊狀態移到新狀態）
+ *
+ * 重建期間收到的事件先暫存，重建完成後補上掃描沒涵蓋的訂單（ID 大於 highWater）；
+ * 掃描範圍內訂單在重建期間的狀態變更無法判斷是否已反映，會被略過，再重建一次即可校正。
+ */
+@Service
+@Slf4j
+public class SalesAnalyticsService implements DomainEventConsumer, ApplicationRunner {
+
+    /**
+     * 沒有分類的商品歸在這個分類 ID
+     */
+    public static final long UNCATEGORIZED = 0;
+
+    private final SalesCubeLoader loader;
+    private final AnalyticsProperties properties;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ContributionBuilder builder = new ContributionBuilder();
+    private final Object applyLock = new Object();
+
+    private volatile SalesCube cube;
+    private List<DomainEvent> deferred;
+
+    public SalesAnalyticsService(SalesCubeLoader loader, AnalyticsProperties properties) {
+        this.loader = loader;
+        this.properties = properties;
+        this.cube = new SalesCube(properties.getRetentionDays());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 從資料庫重建
+     *
+     * @throws JobAlreadyRunningException 已有重建在執行
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new JobAlreadyRunningException("sales-cube-rebuild");
+        }
+        try {
+            synchronized (applyLock) {
+                deferred = new ArrayList<>();
+            }
+            SalesCubeLoader.Snapshot snapshot = loader.load();
+            synchronized (applyLock) {
+                SalesCube rebuilt = snapshot.cube();
+                for (DomainEvent event : deferred) {
+                    if (orderIdOf(event) > snapshot.highWaterOrderId()) {
+                        apply(rebuilt, event);
+                    }
+                }
+                cube = rebuilt;
+            }
+        } finally {
+            synchronized (applyLock) {
+                deferred = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    // ---------------------------------------------------------------- 查詢
+
+    public SalesTotals total(LocalDate from, LocalDate to, Long categoryId, OrderStatus status) {
+        return cube.total(from, to, categoryId, status);
+    }
+
+    public Map<LocalDate, SalesTotals> byDay(LocalDate from, LocalDate to, Long categoryId, OrderStatus status) {
+        return cube.byDay(from, to, categoryId, status);
+    }
+
+    public Map<Long, SalesTotals> byCategory(LocalDate from, LocalDate to, OrderStatus status) {
+        return cube.byCategory(from, to, status);
+    }
+
+    public Map<OrderStatus, SalesTotals> byStatus(LocalDate from, LocalDate to, Long categoryId) {
+        return cube.byStatus(from, to, categoryId);
+    }
+
+    // ---------------------------------------------------------------- 事件
+
+    @Override
+    public String getName() {
+        return "sales-analytics";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (!(event instanceof OrderCreatedEvent || event instanceof OrderStatusChangedEvent)) {
+            return;
+        }
+        synchronized (applyLock) {
+            if (deferred != null) {
+                deferred.add(event);
+            } else {
+                apply(cube, event);
+            }
+        }
+    }
+
+    private void apply(SalesCube target, DomainEvent event) {
+        switch (event) {
+            // 新訂單一律為 PENDING（OrderService.createOrder）
+            case OrderCreatedEvent created -> target.apply(
+                contribution(created.createdAt(), created.items()), OrderStatus.PENDING, 1);
+            case OrderStatusChangedEvent changed -> target.move(
+                contribution(changed.createdAt(), changed.items()), changed.previousStatus(), changed.status());
+            case StockChangedEvent ignored -> {
+            }
+            case ProductChangedEvent ignored -> {
+            }
+        }
+    }
+
+    private OrderContribution contribution(LocalDateTime createdAt, List<OrderCreatedEvent.Item> items) {
+        builder.reset(createdAt.toLocalDate());
+        for (OrderCreatedEvent.Item item : items) {
+            builder.add(item.categoryId() != null ? item.categoryId() : UNCATEGORIZED,
+                item.quantity(), item.unitPrice());
+        }
+        return builder.build();
+    }
+
+    private static long orderIdOf(DomainEvent event) {
+        return switch (event) {
+            case OrderCreatedEvent created -> created.orderId();
+            case OrderStatusChangedEvent changed -> changed.orderId();
+            default -> -1;
+        };
+    }
+}
@@ -0,0 +1,368 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.entity.OrderStatus;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 記憶體銷售統計立方體：日期 × 分類 × 訂單狀態
+ *
+ * 以扁平的 long[] 存放，索引 = (日期槽位 × 分類數 + 分類索引) × 狀態數 + 狀態序號：
+ * - 日期是環形槽位（epochDay % days），只保留最近 days 天，舊資料被新的一天覆蓋
+ * - 分類 ID 映射成連續索引；出現新分類時重新配置陣列（很少發生）
+ * - 訂單數另外以「日期 × 狀態」記一份：一張訂單含多個分類時，分類維度會各算一次，
+ *   不分分類的總訂單數不能用加總的
+ *
+ * 單一寫入者（事件消費者）、多個讀取者（API）：
+ * 寫入取寫鎖；讀取先用 StampedLock 樂觀讀，期間有寫入才退回讀鎖。
+ */
+public class SalesCube {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int S = STATUSES.length;
+    private static final long EMPTY_DAY = Long.MIN_VALUE;
+
+    private final int days;
+    private final StampedLock lock = new StampedLock();
+    private final Map<Long, Integer> categoryIndex = new HashMap<>();
+
+    private long[] categoryIds = new long[0];
+    private int categories;
+    private final long[] slotDay;
+    private long[] units;
+    private long[] revenueCents;
+    private long[] categoryOrders;
+    private final long[] orders;
+
+    public SalesCube(int days) {
+        this.days = days;
+        this.slotDay = new long[days];
+        Arrays.fill(slotDay, EMPTY_DAY);
+        this.orders = new long[days * S];
+        allocate(0);
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * 加入（sign = 1）或移除（sign = -1）一張訂單在某狀態下的貢獻
+     */
+    public void apply(OrderContribution order, OrderStatus status, int sign) {
+        long stamp = lock.writeLock();
+        try {
+            applyLocked(order, status.ordinal(), sign);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 訂單狀態變更：整張訂單從舊狀態移到新狀態
+     */
+    public void move(OrderContribution order, OrderStatus from, OrderStatus to) {
+        long stamp = lock.writeLock();
+        try {
+            applyLocked(order, from.ordinal(), -1);
+            applyLocked(order, to.ordinal(), 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 把另一個立方體（平行重建時各工作執行緒的部分結果）加進來
+     */
+    public void merge(SalesCube other) {
+        long stamp = lock.writeLock();
+        try {
+            for (int slot = 0; slot < other.days; slot++) {
+                long day = other.slotDay[slot];
+                if (day == EMPTY_DAY || !prepareSlot(day)) {
+                    continue;
+                }
+                int target = slot(day);
+                for (int s = 0; s < S; s++) {
+                    orders[target * S + s] += other.orders[slot * S + s];
+                }
+                for (int c = 0; c < other.categories; c++) {
+                    // 先取得索引：新分類會重新配置陣列並改變 categories
+                    int index = indexOf(other.categoryIds[c]);
+                    int src = (slot * other.categories + c) * S;
+                    int dst = (target * categories + index) * S;
+                    for (int s = 0; s < S; s++) {
+                        units[dst + s] += other.units[src + s];
+                        revenueCents[dst + s] += other.revenueCents[src + s];
+                        categoryOrders[dst + s] += other.categoryOrders[src + s];
+                    }
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 區間合計
+     *
+     * @param categoryId 為 null 時不限分類
+     * @param status     為 null 時不限狀態
+     */
+    public SalesTotals total(LocalDate from, LocalDate to, Long categoryId, OrderStatus status) {
+        return read(() -> {
+            long[] acc = new long[3];
+            int c = categoryFilter(categoryId);
+            if (c == MISSING) {
+                return SalesTotals.EMPTY;
+            }
+            forEachDay(from, to, (day, slot) -> accumulate(slot, c, status, acc, 0));
+            return totals(acc, 0);
+        });
+    }
+
+    /**
+     * 依日期分組（只包含有資料的日期，依日期排序）
+     */
+    public Map<LocalDate, SalesTotals> byDay(LocalDate from, LocalDate to, Long categoryId, OrderStatus status) {
+        return read(() -> {
+            Map<LocalDate, SalesTotals> result = new TreeMap<>();
+            int c = categoryFilter(categoryId);
+            if (c == MISSING) {
+                return result;
+            }
+            long[] acc = new long[3];
+            forEachDay(from, to, (day, slot) -> {
+                Arrays.fill(acc, 0);
+                accumulate(slot, c, status, acc, 0);
+                if (acc[0] != 0 || acc[1] != 0 || acc[2] != 0) {
+                    result.put(LocalDate.ofEpochDay(day), totals(acc, 0));
+                }
+            });
+            return result;
+        });
+    }
+
+    /**
+     * 依分類分組（訂單數為含該分類的訂單數）
+     */
+    public Map<Long, SalesTotals> byCategory(LocalDate from, LocalDate to, OrderStatus status) {
+        return read(() -> {
+            long[] acc = new long[categories * 3];
+            forEachDay(from, to, (day, slot) -> {
+                for (int c = 0; c < categories; c++) {
+                    accumulate(slot, c, status, acc, c * 3);
+                }
+            });
+            Map<Long, SalesTotals> result = new LinkedHashMap<>();
+            for (int c = 0; c < categories; c++) {
+                if (acc[c * 3] != 0 || acc[c * 3 + 1] != 0 || acc[c * 3 + 2] != 0) {
+                    result.put(categoryIds[c], totals(acc, c * 3));
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 依訂單狀態分組
+     */
+    public Map<OrderStatus, SalesTotals> byStatus(LocalDate from, LocalDate to, Long categoryId) {
+        return read(() -> {
+            Map<OrderStatus, SalesTotals> result = new LinkedHashMap<>();
+            int c = categoryFilter(categoryId);
+            if (c == MISSING) {
+                return result;
+            }
+            long[] acc = new long[S * 3];
+            forEachDay(from, to, (day, slot) -> {
+                for (OrderStatus status : STATUSES) {
+                    accumulate(slot, c, status, acc, status.ordinal() * 3);
+                }
+            });
+            for (OrderStatus status : STATUSES) {
+                int offset = status.ordinal() * 3;
+                if (acc[offset] != 0 || acc[offset + 1] != 0 || acc[offset + 2] != 0) {
+                    result.put(status, totals(acc, offset));
+                }
+            }
+            return result;
+        });
+    }
+
+    // ---------------------------------------------------------------- 寫入
+
+    private void applyLocked(OrderContribution order, int status, int sign) {
+        long day = order.day().toEpochDay();
+        if (!prepareSlot(day)) {
+            return;
+        }
+        int slot = slot(day);
+        orders[slot * S + status] += sign;
+        long[] ids = order.categoryIds();
+        for (int i = 0; i < ids.length; i++) {
+            int index = indexOf(ids[i]);
+            int cell = (slot * categories + index) * S + status;
+            units[cell] += sign * order.units()[i];
+            revenueCents[cell] += sign * order.revenueCents()[i];
+            categoryOrders[cell] += sign;
+        }
+    }
+
+    /**
+     * 確保槽位屬於這一天；槽位原本是較舊的日期則清空重用
+     *
+     * @return false 表示這一天已超出保留範圍
+     */
+    private boolean prepareSlot(long day) {
+        int slot = slot(day);
+        long current = slotDay[slot];
+        if (current == day) {
+            return true;
+        }
+        if (current != EMPTY_DAY && current > day) {
+            return false;
+        }
+        slotDay[slot] = day;
+        Arrays.fill(orders, slot * S, (slot + 1) * S, 0);
+        int from = slot * categories * S;
+        int to = from + categories * S;
+        Arrays.fill(units, from, to, 0);
+        Arrays.fill(revenueCents, from, to, 0);
+        Arrays.fill(categoryOrders, from, to, 0);
+        return true;
+    }
+
+    private int indexOf(long categoryId) {
+        Integer index = categoryIndex.get(categoryId);
+        if (index != null) {
+            return index;
+        }
+        int added = categories;
+        grow(categories + 1);
+        categoryIds[added] = categoryId;
+        categoryIndex.put(categoryId, added);
+        return added;
+    }
+
+    private void grow(int newCategories) {
+        long[] oldUnits = units;
+        long[] oldRevenue = revenueCents;
+        long[] oldOrders = categoryOrders;
+        int oldCategories = categories;
+        allocate(newCategories);
+        categoryIds = Arrays.copyOf(categoryIds, newCategories);
+        for (int slot = 0; slot < days; slot++) {
+            int src = slot * oldCategories * S;
+            int dst = slot * newCategories * S;
+            System.arraycopy(oldUnits, src, units, dst, oldCategories * S);
+            System.arraycopy(oldRevenue, src, revenueCents, dst, oldCategories * S);
+            System.arraycopy(oldOrders, src, categoryOrders, dst, oldCategories * S);
+        }
+    }
+
+    private void allocate(int newCategories) {
+        categories = newCategories;
+        int cells = days * newCategories * S;
+        units = new long[cells];
+        revenueCents = new long[cells];
+        categoryOrders = new long[cells];
+    }
+
+    // ---------------------------------------------------------------- 讀取
+
+    private static final int ALL = -1;
+    private static final int MISSING = -2;
+
+    private int categoryFilter(Long categoryId) {
+        if (categoryId == null) {
+            return ALL;
+        }
+        Integer index = categoryIndex.get(categoryId);
+        return index != null ? index : MISSING;
+    }
+
+    private void accumulate(int slot, int category, OrderStatus status, long[] acc, int offset) {
+        int fromStatus = status != null ? status.ordinal() : 0;
+        int toStatus = status != null ? fromStatus + 1 : S;
+        if (category == ALL) {
+            for (int s = fromStatus; s < toStatus; s++) {
+                acc[offset] += orders[slot * S + s];
+            }
+            for (int c = 0; c < categories; c++) {
+                int base = (slot * categories + c) * S;
+                for (int s = fromStatus; s < toStatus; s++) {
+                    acc[offset + 1] += units[base + s];
+                    acc[offset + 2] += revenueCents[base + s];
+                }
+            }
+        } else {
+            int base = (slot * categories + category) * S;
+            for (int s = fromStatus; s < toStatus; s++) {
+                acc[offset] += categoryOrders[base + s];
+                acc[offset + 1] += units[base + s];
+                acc[offset + 2] += revenueCents[base + s];
+            }
+        }
+    }
+
+    private void forEachDay(LocalDate from, LocalDate to, DayVisitor visitor) {
+        long first = Math.max(from.toEpochDay(), to.toEpochDay() - days + 1);
+        for (long day = first; day <= to.toEpochDay(); day++) {
+            int slot = slot(day);
+            if (slotDay[slot] == day) {
+                visitor.visit(day, slot);
+            }
+        }
+    }
+
+    private int slot(long day) {
+        return (int) Math.floorMod(day, (long) days);
+    }
+
+    private static SalesTotals totals(long[] acc, int offset) {
+        return new SalesTotals(acc[offset], acc[offset + 1], acc[offset + 2]);
+    }
+
+    /**
+     * 樂觀讀：讀取期間沒有寫入就直接採用結果，否則在讀鎖下重讀
+     * （樂觀讀期間可能讀到寫到一半的陣列，包含重新配置時的索引越界，驗證失敗時一律捨棄）
+     */
+    private <T> T read(Reader<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.read();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.read();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> {
+        T read();
+    }
+
+    @FunctionalInterface
+    private interface DayVisitor {
+        void visit(long day, int slot);
+    }
+}
@@ -0,0 +1,140 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.entity.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 從資料庫平行重建銷售統計立方體
+ *
+ * 依訂單 ID 切成多個範圍，各範圍在自己的執行緒上以 JDBC 逐列讀取（不建立實體），
+ * 累加到執行緒自己的立方體，最後合併；掃描期間彼此不共用任何可變狀態。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SalesCubeLoader {
+
+    private static final String SCAN_SQL =
+        "SELECT o.id, o.created_at, o.status, p.category_id, i.quantity, i.unit_price " +
+        "FROM orders o " +
+        "JOIN order_items i ON i.order_id = o.id " +
+        "JOIN products p ON p.id = i.product_id " +
+        "WHERE o.id > ? AND o.id <= ? AND o.created_at >= ? " +
+        "ORDER BY o.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnalyticsProperties properties;
+
+    /**
+     * 重建結果
+     *
+     * @param highWaterOrderId 掃描涵蓋的最大訂單 ID，之後建立的訂單要由事件補上
+     */
+    public record Snapshot(SalesCube cube, long highWaterOrderId) {
+    }
+
+    public Snapshot load() {
+        long startNanos = System.nanoTime();
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders", Long.class);
+        long highWater = maxId != null ? maxId : 0;
+        LocalDate firstDay = LocalDate.now().minusDays(properties.getRetentionDays() - 1L);
+
+        int parallelism = properties.getRebuildParallelism() > 0
+            ? properties.getRebuildParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "sales-cube-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<SalesCube>> partials = new ArrayList<>();
+            for (long from = 0; from < highWater; from += properties.getRebuildPartitionSize()) {
+                long lower = from;
+                long upper = Math.min(highWater, from + properties.getRebuildPartitionSize());
+                partials.add(executor.submit(() -> scan(lower, upper, firstDay)));
+            }
+            SalesCube cube = new SalesCube(properties.getRetentionDays());
+            for (Future<SalesCube> partial : partials) {
+                cube.merge(partial.get());
+            }
+            log.info("銷售統計已重建 orders<={} partitions={} parallelism={} millis={}",
+                highWater, partials.size(), parallelism, (System.nanoTime() - startNanos) / 1_000_000);
+            return new Snapshot(cube, highWater);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("銷售統計重建被中斷", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("銷售統計重建失敗", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 掃描一個訂單 ID 範圍；結果依訂單 ID 排序，同一張訂單的項目相鄰
+     */
+    private SalesCube scan(long afterId, long toId, LocalDate firstDay) {
+        SalesCube cube = new SalesCube(properties.getRetentionDays());
+        OrderAccumulator accumulator = new OrderAccumulator(cube);
+        jdbcTemplate.query(SCAN_SQL, accumulator, afterId, toId, firstDay.atStartOfDay());
+        accumulator.flush();
+        return cube;
+    }
+
+    /**
+     * 把同一張訂單的多列項目彙總成一個 OrderContribution
+     */
+    private static final class OrderAccumulator implements RowCallbackHandler {
+
+        private final SalesCube cube;
+        private final ContributionBuilder builder = new ContributionBuilder();
+        private long orderId = -1;
+        private OrderStatus status;
+
+        OrderAccumulator(SalesCube cube) {
+            this.cube = cube;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (id != orderId) {
+                flush();
+                orderId = id;
+                Timestamp createdAt = rs.getTimestamp(2);
+                status = OrderStatus.valueOf(rs.getString(3));
+                builder.reset(createdAt.toLocalDateTime().toLocalDate());
+            }
+            long categoryId = rs.getLong(4);
+            if (rs.wasNull()) {
+                categoryId = SalesAnalyticsService.UNCATEGORIZED;
+            }
+            BigDecimal unitPrice = rs.getBigDecimal(6);
+            builder.add(categoryId, rs.getInt(5), unitPrice);
+        }
+
+        void flush() {
+            if (orderId >= 0) {
+                cube.apply(builder.build(), status, 1);
+                orderId = -1;
+            }
+        }
+    }
+}
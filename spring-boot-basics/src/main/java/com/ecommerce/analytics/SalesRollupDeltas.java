@@ -0,0 +1,96 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.event.OrderCreatedEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一批訂單事件對銷售彙總表的差異
+ *
+ * 先在記憶體中依彙總鍵累加，同一天同一商品的多筆事件只產生一次 MERGE；
+ * 每個值為 {訂單數, 件數, 營收（分）}。
+ */
+public class SalesRollupDeltas {
+
+    record DayKey(LocalDate day, OrderStatus status) {
+    }
+
+    record ProductKey(LocalDate day, long productId, long categoryId, OrderStatus status) {
+    }
+
+    record CategoryKey(LocalDate day, long categoryId, OrderStatus status) {
+    }
+
+    private final Map<DayKey, long[]> daily = new LinkedHashMap<>();
+    private final Map<ProductKey, long[]> products = new LinkedHashMap<>();
+    private final Map<CategoryKey, long[]> categories = new LinkedHashMap<>();
+
+    /**
+     * 加入（sign = 1）或移除（sign = -1）一張訂單在某狀態下的貢獻
+     *
+     * 訂單數以「含該商品／分類的訂單」計：同一商品在訂單中出現多次也只算一張
+     */
+    public void addOrder(LocalDate day, OrderStatus status, int sign, List<OrderCreatedEvent.Item> items) {
+        Map<Long, Long> productCategories = new HashMap<>();
+        Map<Long, long[]> byProduct = new HashMap<>();
+        Map<Long, long[]> byCategory = new HashMap<>();
+        long units = 0;
+        long revenueCents = 0;
+        for (OrderCreatedEvent.Item item : items) {
+            long cents = item.unitPrice().movePointRight(2).longValueExact() * item.quantity();
+            units += item.quantity();
+            revenueCents += cents;
+            long categoryId = item.categoryId() != null ? item.categoryId() : SalesAnalyticsService.UNCATEGORIZED;
+            productCategories.put(item.productId(), categoryId);
+            accumulate(byProduct.computeIfAbsent(item.productId(), id -> new long[3]), item.quantity(), cents);
+            accumulate(byCategory.computeIfAbsent(categoryId, id -> new long[3]), item.quantity(), cents);
+        }
+        add(daily.computeIfAbsent(new DayKey(day, status), k -> new long[3]), sign, units, revenueCents);
+        byProduct.forEach((productId, totals) -> add(products.computeIfAbsent(
+            new ProductKey(day, productId, productCategories.get(productId), status), k -> new long[3]),
+            sign, totals[1], totals[2]));
+        byCategory.forEach((categoryId, totals) -> add(categories.computeIfAbsent(
+            new CategoryKey(day, categoryId, status), k -> new long[3]),
+            sign, totals[1], totals[2]));
+    }
+
+    public boolean isEmpty() {
+        return daily.isEmpty();
+    }
+
+    Map<DayKey, long[]> getDaily() {
+        return daily;
+    }
+
+    Map<ProductKey, long[]> getProducts() {
+        return products;
+    }
+
+    Map<CategoryKey, long[]> getCategories() {
+        return categories;
+    }
+
+    private static void accumulate(long[] totals, long units, long revenueCents) {
+        totals[1] += units;
+        totals[2] += revenueCents;
+    }
+
+    private static void add(long[] totals, int sign, long units, long revenueCents) {
+        totals[0] += sign;
+        totals[1] += sign * units;
+        totals[2] += sign * revenueCents;
+    }
+
+    /**
+     * 轉回金額（元）
+     */
+    static BigDecimal revenue(long[] totals) {
+        return BigDecimal.valueOf(totals[2], 2);
+    }
+}
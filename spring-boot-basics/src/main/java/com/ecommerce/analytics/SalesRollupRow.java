@@ -0,0 +1,11 @@
+package com.ecommerce.analytics;
+
+import java.math.BigDecimal;
+
+/**
+ * 銷售彙總表的查詢結果（JPQL 建構子投影）
+ *
+ * @param key 分組鍵：日期、商品 ID 或分類 ID
+ */
+public record SalesRollupRow(Object key, Long orders, Long units, BigDecimal revenue) {
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.event.OrderCreatedEvent;
+import com.ecommerce.event.OrderStatusChangedEvent;
+import com.ecommerce.outbox.OutboxMessage;
+import com.ecommerce.outbox.OutboxSink;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 以 outbox 事件增量維護銷售彙總表
+ *
+ * 在 OutboxRelay 的批次交易中執行：彙總表的更新與 outbox 事件的刪除一起提交，
+ * 批次回滾則兩者都不生效，因此每個事件剛好套用一次（不需要另外去重）。
+ *
+ * 不在下單交易中直接更新彙總表：每張訂單都會更新同一天的 daily_sales 資料列，
+ * 所有結帳交易會在這一列上排隊；改由 relay 單一寫入者整批 MERGE，結帳流程不受影響。
+ * 彙總表因此比訂單晚一個輪詢週期（ecommerce.outbox.poll-interval）。
+ *
+ * - ORDER_CREATED：加到 PENDING
+ * - ORDER_STATUS_CHANGED：從舊狀態移到新狀態（取消也是狀態變更）
+ * 分類取事件發生時商品所屬的分類；商品改分類後，舊訂單的狀態變更會記到新分類，重算該日期分區即可校正。
+ *
+ * 無法解析的事件是永久錯誤，重送也不會成功：記錄並略過（ecommerce.analytics.rollup.malformed），
+ * 不丟出例外讓整批回滾；略過的訂單重算該日期分區即可補上。
+ */
+@Component
+@Slf4j
+public class SalesRollupSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final SalesRollupWriter writer;
+    private final Counter malformedCounter;
+
+    public SalesRollupSink(ObjectMapper objectMapper, SalesRollupWriter writer, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.writer = writer;
+        this.malformedCounter = Counter.builder("ecommerce.analytics.rollup.malformed")
+            .description("無法解析而略過的 outbox 事件數")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return "sales-rollup";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        SalesRollupDeltas deltas = new SalesRollupDeltas();
+        for (OutboxMessage message : messages) {
+            try {
+                apply(deltas, message);
+            } catch (JsonProcessingException e) {
+                malformedCounter.increment();
+                log.error("略過無法解析的 outbox 事件 {} ({})", message.id(), message.type(), e);
+            }
+        }
+        if (!deltas.isEmpty()) {
+            writer.apply(deltas);
+        }
+    }
+
+    private void apply(SalesRollupDeltas deltas, OutboxMessage message) throws JsonProcessingException {
+        switch (message.type()) {
+            case ORDER_CREATED -> {
+                OrderCreatedEvent created = objectMapper.readValue(message.payload(), OrderCreatedEvent.class);
+                deltas.addOrder(created.createdAt().toLocalDate(), OrderStatus.PENDING, 1, created.items());
+            }
+            case ORDER_STATUS_CHANGED -> {
+                OrderStatusChangedEvent changed =
+                    objectMapper.readValue(message.payload(), OrderStatusChangedEvent.class);
+                LocalDate day = changed.createdAt().toLocalDate();
+                deltas.addOrder(day, changed.previousStatus(), -1, changed.items());
+                deltas.addOrder(day, changed.status(), 1, changed.items());
+            }
+            default -> {
+            }
+        }
+    }
+}
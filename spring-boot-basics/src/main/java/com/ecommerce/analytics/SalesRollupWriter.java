@@ -0,0 +1,172 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.entity.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 銷售彙總表（daily_sales、daily_product_sales、daily_category_sales）的 SQL 寫入
+ *
+ * - 增量：把一批差異以 MERGE 加到既有資料列（不存在則新增），每張表一次 JDBC batch
+ * - 重算：刪除日期區間內的彙總後以 INSERT ... SELECT ... GROUP BY 從訂單重新計算
+ *
+ * 兩者都必須在呼叫端的交易中執行，與觸發它們的資料變更一起提交或回滾。
+ */
+@Component
+@RequiredArgsConstructor
+public class SalesRollupWriter {
+
+    private static final String MERGE_DAILY_SQL =
+        "MERGE INTO daily_sales t " +
+        "USING (VALUES (CAST(? AS DATE), CAST(? AS VARCHAR(20)), " +
+        "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS DECIMAL(19, 2)))) " +
+        "AS s(sales_date, status, orders, units, revenue) " +
+        "ON t.sales_date = s.sales_date AND t.status = s.status " +
+        "WHEN MATCHED THEN UPDATE SET orders = t.orders + s.orders, units = t.units + s.units, " +
+        "revenue = t.revenue + s.revenue " +
+        "WHEN NOT MATCHED THEN INSERT (sales_date, status, orders, units, revenue) " +
+        "VALUES (s.sales_date, s.status, s.orders, s.units, s.revenue)";
+
+    private static final String MERGE_PRODUCT_SQL =
+        "MERGE INTO daily_product_sales t " +
+        "USING (VALUES (CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS VARCHAR(20)), " +
+        "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS DECIMAL(19, 2)))) " +
+        "AS s(sales_date, product_id, category_id, status, orders, units, revenue) " +
+        "ON t.sales_date = s.sales_date AND t.product_id = s.product_id AND t.status = s.status " +
+        "WHEN MATCHED THEN UPDATE SET orders = t.orders + s.orders, units = t.units + s.units, " +
+        "revenue = t.revenue + s.revenue " +
+        "WHEN NOT MATCHED THEN INSERT (sales_date, product_id, category_id, status, orders, units, revenue) " +
+        "VALUES (s.sales_date, s.product_id, s.category_id, s.status, s.orders, s.units, s.revenue)";
+
+    private static final String MERGE_CATEGORY_SQL =
+        "MERGE INTO daily_category_sales t " +
+        "USING (VALUES (CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS VARCHAR(20)), " +
+        "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS DECIMAL(19, 2)))) " +
+        "AS s(sales_date, category_id, status, orders, units, revenue) " +
+        "ON t.sales_date = s.sales_date AND t.category_id = s.category_id AND t.status = s.status " +
+        "WHEN MATCHED THEN UPDATE SET orders = t.orders + s.orders, units = t.units + s.units, " +
+        "revenue = t.revenue + s.revenue " +
+        "WHEN NOT MATCHED THEN INSERT (sales_date, category_id, status, orders, units, revenue) " +
+        "VALUES (s.sales_date, s.category_id, s.status, s.orders, s.units, s.revenue)";
+
+    private static final String DAY = "CAST(o.created_at AS DATE)";
+    private static final String CATEGORY = "COALESCE(p.category_id, " + SalesAnalyticsService.UNCATEGORIZED + ")";
+    private static final String SOURCE =
+        "FROM orders o " +
+        "JOIN order_items i ON i.order_id = o.id " +
+        "JOIN products p ON p.id = i.product_id " +
+        "WHERE o.created_at >= ? AND o.created_at < ? ";
+
+    private static final String REBUILD_DAILY_SQL =
+        "INSERT INTO daily_sales (sales_date, status, orders, units, revenue) " +
+        "SELECT " + DAY + ", o.status, COUNT(DISTINCT o.id), SUM(i.quantity), SUM(i.unit_price * i.quantity) " +
+        SOURCE +
+        "GROUP BY " + DAY + ", o.status";
+
+    private static final String REBUILD_PRODUCT_SQL =
+        "INSERT INTO daily_product_sales (sales_date, product_id, category_id, status, orders, units, revenue) " +
+        "SELECT " + DAY + ", i.product_id, " + CATEGORY + ", o.status, " +
+        "COUNT(DISTINCT o.id), SUM(i.quantity), SUM(i.unit_price * i.quantity) " +
+        SOURCE +
+        "GROUP BY " + DAY + ", i.product_id, " + CATEGORY + ", o.status";
+
+    private static final String REBUILD_CATEGORY_SQL =
+        "INSERT INTO daily_category_sales (sales_date, category_id, status, orders, units, revenue) " +
+        "SELECT " + DAY + ", " + CATEGORY + ", o.status, " +
+        "COUNT(DISTINCT o.id), SUM(i.quantity), SUM(i.unit_price * i.quantity) " +
+        SOURCE +
+        "GROUP BY " + DAY + ", " + CATEGORY + ", o.status";
+
+    private static final List<String> TABLES = List.of("daily_sales", "daily_product_sales", "daily_category_sales");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 把一批差異加到彙總表
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(SalesRollupDeltas deltas) {
+        List<Object[]> daily = new ArrayList<>();
+        for (Map.Entry<SalesRollupDeltas.DayKey, long[]> e : deltas.getDaily().entrySet()) {
+            if (isZero(e.getValue())) {
+                continue;
+            }
+            SalesRollupDeltas.DayKey key = e.getKey();
+            daily.add(row(e.getValue(), Date.valueOf(key.day()), key.status().name()));
+        }
+        List<Object[]> products = new ArrayList<>();
+        for (Map.Entry<SalesRollupDeltas.ProductKey, long[]> e : deltas.getProducts().entrySet()) {
+            if (isZero(e.getValue())) {
+                continue;
+            }
+            SalesRollupDeltas.ProductKey key = e.getKey();
+            products.add(row(e.getValue(), Date.valueOf(key.day()), key.productId(), key.categoryId(),
+                key.status().name()));
+        }
+        List<Object[]> categories = new ArrayList<>();
+        for (Map.Entry<SalesRollupDeltas.CategoryKey, long[]> e : deltas.getCategories().entrySet()) {
+            if (isZero(e.getValue())) {
+                continue;
+            }
+            SalesRollupDeltas.CategoryKey key = e.getKey();
+            categories.add(row(e.getValue(), Date.valueOf(key.day()), key.categoryId(), key.status().name()));
+        }
+        batch(MERGE_DAILY_SQL, daily);
+        batch(MERGE_PRODUCT_SQL, products);
+        batch(MERGE_CATEGORY_SQL, categories);
+    }
+
+    /**
+     * 從訂單重算日期區間（含頭尾）的彙總
+     *
+     * @return 重算後寫入的資料列數
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int rebuild(LocalDate from, LocalDate to) {
+        Date fromDate = Date.valueOf(from);
+        Date toDate = Date.valueOf(to);
+        for (String table : TABLES) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE sales_date BETWEEN ? AND ?", fromDate, toDate);
+        }
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+        return jdbcTemplate.update(REBUILD_DAILY_SQL, start, end)
+            + jdbcTemplate.update(REBUILD_PRODUCT_SQL, start, end)
+            + jdbcTemplate.update(REBUILD_CATEGORY_SQL, start, end);
+    }
+
+    /**
+     * 鍵值欄位之後接上 orders、units、revenue
+     */
+    private static Object[] row(long[] totals, Object... keys) {
+        Object[] row = new Object[keys.length + 3];
+        System.arraycopy(keys, 0, row, 0, keys.length);
+        row[keys.length] = totals[0];
+        row[keys.length + 1] = totals[1];
+        row[keys.length + 2] = SalesRollupDeltas.revenue(totals);
+        return row;
+    }
+
+    /**
+     * 同一批內互相抵銷（例如建立後立即取消的 PENDING）的差異不必寫入
+     */
+    private static boolean isZero(long[] totals) {
+        return totals[0] == 0 && totals[1] == 0 && totals[2] == 0;
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.analytics;
+
+/**
+ * 銷售彙總值
+ *
+ * @param revenueCents 營收（以「分」為單位的整數，避免浮點誤差；1 元 = 100）
+ */
+public record SalesTotals(long orders, long units, long revenueCents) {
+
+    public static final SalesTotals EMPTY = new SalesTotals(0, 0, 0);
+}
@@ -0,0 +1,213 @@
+package com.ecommerce.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving 熱門項目（heavy hitters）摘要，支援加權
+ *
+ * 只保留 capacity 個計數器，記憶體與項目總數（商品目錄大小）無關：
+ * - 已追蹤的項目：計數直接加上權重
+ * - 未追蹤且計數器已滿：取代計數最小的項目，新計數 = 最小計數 + 權重，誤差 = 最小計數
+ *
+ * 保證（N = 加入的總權重）：
+ * - 估計值不會低估：真實值 <= count，且 count - error <= 真實值
+ * - error <= N / capacity，因此真實值大於 N / capacity 的項目一定在摘要中
+ *
+ * 移除（取消訂單）只作用在仍被追蹤的項目，計數減少、誤差不超過新計數；
+ * 已被取代的項目忽略移除，只會高估，不會破壞上界。
+ * 移除會讓最小計數降到比已被取代項目的計數還低，因此另外記下被取代過的最高計數（evictedFloor）：
+ * 取代時以 max(最小計數, evictedFloor) 作為新項目的基準，未追蹤項目的上界（getMinCount）也取兩者較大者，
+ * 被取代後再次出現的項目才不會被低估。N 以「加入的總權重」計，取消越多，誤差上界相對於淨銷量越寬鬆。
+ *
+ * 計數器存放在平行的 long[] 中，以索引式最小堆維護最小計數（更新 O(log capacity)）。
+ * 非執行緒安全，由呼叫端同步。
+ */
+public class SpaceSavingSketch {
+
+    /**
+     * 摘要中的一個項目
+     *
+     * @param count 估計值（上界）
+     * @param error 最大高估量
+     */
+    public record Entry(long item, long count, long error) {
+    }
+
+    private final int capacity;
+    private final long[] items;
+    private final long[] counts;
+    private final long[] errors;
+    /** 堆積位置 → 計數器索引 */
+    private final int[] heap;
+    /** 計數器索引 → 堆積位置 */
+    private final int[] position;
+    private final Map<Long, Integer> index;
+    private int size;
+    private long totalWeight;
+    /** 被取代過的計數器中最高的計數：未追蹤項目的真實值不會超過它 */
+    private long evictedFloor;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity 必須大於 0");
+        }
+        this.capacity = capacity;
+        this.items = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.index = new HashMap<>(capacity * 2);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 加入的總權重 N（不扣除移除的權重）
+     */
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * 未被追蹤項目的計數上界：計數器已滿時為最小計數與被取代過的最高計數之較大者，否則為 0
+     */
+    public long getMinCount() {
+        return size == capacity ? Math.max(counts[heap[0]], evictedFloor) : 0;
+    }
+
+    public void add(long item, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        totalWeight += weight;
+        Integer slot = index.get(item);
+        if (slot != null) {
+            counts[slot] += weight;
+            siftDown(position[slot]);
+        } else if (size < capacity) {
+            int added = size++;
+            items[added] = item;
+            counts[added] = weight;
+            errors[added] = 0;
+            heap[added] = added;
+            position[added] = added;
+            index.put(item, added);
+            siftUp(added);
+        } else {
+            int min = heap[0];
+            evictedFloor = Math.max(evictedFloor, counts[min]);
+            index.remove(items[min]);
+            items[min] = item;
+            errors[min] = evictedFloor;
+            counts[min] = evictedFloor + weight;
+            index.put(item, min);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * 扣回先前加入的權重（只影響仍被追蹤的項目）
+     */
+    public void remove(long item, long weight) {
+        Integer slot = index.get(item);
+        if (slot == null || weight <= 0) {
+            return;
+        }
+        counts[slot] = Math.max(0, counts[slot] - weight);
+        errors[slot] = Math.min(errors[slot], counts[slot]);
+        siftUp(position[slot]);
+    }
+
+    /**
+     * 計數最高的 n 個項目（計數由高到低）
+     */
+    public List<Entry> top(int n) {
+        Integer[] slots = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = i;
+        }
+        Arrays.sort(slots, Comparator.comparingLong((Integer s) -> counts[s]).reversed()
+            .thenComparingLong(s -> items[s]));
+        List<Entry> result = new ArrayList<>(Math.min(n, size));
+        for (int i = 0; i < Math.min(n, size); i++) {
+            int s = slots[i];
+            result.add(new Entry(items[s], counts[s], errors[s]));
+        }
+        return result;
+    }
+
+    /**
+     * 把所有追蹤中的項目交給 visitor（順序不定）
+     */
+    void forEach(EntryVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            visitor.visit(items[i], counts[i], errors[i]);
+        }
+    }
+
+    /**
+     * 查詢某項目；未被追蹤時回傳 null
+     */
+    public Entry get(long item) {
+        Integer slot = index.get(item);
+        return slot != null ? new Entry(item, counts[slot], errors[slot]) : null;
+    }
+
+    public void clear() {
+        index.clear();
+        size = 0;
+        totalWeight = 0;
+        evictedFloor = 0;
+    }
+
+    // ---------------------------------------------------------------- 最小堆
+
+    private void siftUp(int pos) {
+        int slot = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (counts[heap[parent]] <= counts[slot]) {
+                break;
+            }
+            place(heap[parent], pos);
+            pos = parent;
+        }
+        place(slot, pos);
+    }
+
+    private void siftDown(int pos) {
+        int slot = heap[pos];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < size && counts[heap[right]] < counts[heap[child]]) {
+                child = right;
+            }
+            if (counts[slot] <= counts[heap[child]]) {
+                break;
+            }
+            place(heap[child], pos);
+            pos = child;
+        }
+        place(slot, pos);
+    }
+
+    private void place(int slot, int pos) {
+        heap[pos] = slot;
+        position[slot] = pos;
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor {
+        void visit(long item, long count, long error);
+    }
+}
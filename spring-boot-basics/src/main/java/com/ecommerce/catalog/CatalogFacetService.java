@@ -0,0 +1,158 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.DomainEventConsumer;
+import com.ecommerce.event.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 分面瀏覽（分類 × 價格區間）
+ *
+ * - 啟動時與每 refreshInterval 整份重建 FacetIndex
+ * - 之後由事件匯流排的 ProductChangedEvent 增量更新（新增、修改、停用、批次調價提交後）
+ * - 查詢共用讀鎖，增量更新取寫鎖
+ *
+ * 重建期間收到的事件先記下商品 ID，重建完成後重新讀取這些商品再套用一次
+ */
+@Service
+@Slf4j
+public class CatalogFacetService implements DomainEventConsumer, ApplicationRunner {
+
+    private final FacetIndexLoader loader;
+    private final CatalogProperties properties;
+    private final long[] bucketBounds;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object applyLock = new Object();
+
+    private volatile FacetIndex index;
+    private List<Long> deferred;
+
+    public CatalogFacetService(FacetIndexLoader loader, CatalogProperties properties) {
+        this.loader = loader;
+        this.properties = properties;
+        this.bucketBounds = properties.getPriceBuckets().stream()
+            .mapToLong(bound -> bound.movePointRight(2).longValueExact())
+            .sorted()
+            .toArray();
+        this.index = new FacetIndex(bucketBounds);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 整份重建；已有重建在執行時直接略過（由排程呼叫，下一輪再更新即可）
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.debug("分面索引重建中，略過");
+            return;
+        }
+        try {
+            long startNanos = System.nanoTime();
+            synchronized (applyLock) {
+                deferred = new ArrayList<>();
+            }
+            FacetIndex rebuilt = new FacetIndex(bucketBounds);
+            for (FacetIndexLoader.ProductRow row : loader.loadActiveProducts()) {
+                rebuilt.put(row.id(), row.priceCents(), row.categoryId());
+            }
+            synchronized (applyLock) {
+                index = rebuilt;
+                for (Long productId : deferred) {
+                    apply(productId);
+                }
+            }
+            log.info("分面索引已重建 products={} millis={}",
+                rebuilt.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        } finally {
+            synchronized (applyLock) {
+                deferred = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 一次取得結果頁與所有分面計數
+     */
+    public FacetIndex.Result query(List<Long> categoryIds, BigDecimal minPrice, BigDecimal maxPrice,
+                                   boolean descending, int page, int size) {
+        int limit = Math.max(1, Math.min(size, properties.getMaxPageSize()));
+        FacetIndex.Query query = new FacetIndex.Query(categoryIds,
+            cents(minPrice, RoundingMode.CEILING), cents(maxPrice, RoundingMode.FLOOR),
+            descending, Math.max(0, page) * limit, limit);
+        lock.readLock().lock();
+        try {
+            return index.query(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] getBucketBounds() {
+        return bucketBounds.clone();
+    }
+
+    /**
+     * 價格轉成分；下限無條件進位、上限無條件捨去，不會把區間外的商品算進來
+     */
+    private static Long cents(BigDecimal price, RoundingMode rounding) {
+        return price != null ? price.movePointRight(2).setScale(0, rounding).longValueExact() : null;
+    }
+
+    // ---------------------------------------------------------------- 事件
+
+    @Override
+    public String getName() {
+        return "catalog-facets";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (!(event instanceof ProductChangedEvent changed)) {
+            return;
+        }
+        synchronized (applyLock) {
+            if (deferred != null) {
+                deferred.add(changed.productId());
+            } else {
+                apply(changed.productId());
+            }
+        }
+    }
+
+    /**
+     * 重新讀取商品並更新索引（資料庫查詢在鎖外）
+     */
+    private void apply(long productId) {
+        Optional<FacetIndexLoader.ProductRow> row = loader.loadProduct(productId);
+        lock.writeLock().lock();
+        try {
+            if (row.isPresent() && row.get().active()) {
+                index.put(productId, row.get().priceCents(), row.get().categoryId());
+            } else {
+                index.remove(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
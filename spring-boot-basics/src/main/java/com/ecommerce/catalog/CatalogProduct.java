@@ -0,0 +1,28 @@
+package com.ecommerce.catalog;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 商品目錄快照中的一筆商品（不可變）
+ *
+ * 分類名稱在載入時一併 JOIN 進來，讀取時不必再查分類；
+ * updatedAt 為資料庫中的最後修改時間，從快照檔暖啟動時以它決定要補讀哪些商品
+ *
+ * @param categoryId        未分類為 null
+ * @param version           Product.version（樂觀鎖版本），商品或庫存每次提交都會遞增，組成 ETag
+ * @param categoryUpdatedAt 載入時分類的最後修改時間（分類改名不會改變商品的 version），未分類為 null
+ */
+public record CatalogProduct(long id, String name, BigDecimal price, String description, int stockQuantity,
+                             String imageUrl, boolean active, Long categoryId, String categoryName,
+                             LocalDateTime createdAt, LocalDateTime updatedAt, long version,
+                             LocalDateTime categoryUpdatedAt) {
+
+    /**
+     * @param version 庫存事件帶來的提交後版本；0（未知）時沿用原本的版本
+     */
+    public CatalogProduct withStockQuantity(int quantity, long version) {
+        return new CatalogProduct(id, name, price, description, quantity, imageUrl, active,
+            categoryId, categoryName, createdAt, updatedAt, version > 0 ? version : this.version, categoryUpdatedAt);
+    }
+}
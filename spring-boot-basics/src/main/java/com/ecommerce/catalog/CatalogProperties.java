@@ -0,0 +1,67 @@
+package com.ecommerce.catalog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 商品目錄（記憶體快照）配置
+ */
+@Data
+@ConfigurationProperties(prefix = "ecommerce.catalog")
+public class CatalogProperties {
+
+    /**
+     * 價格分面的區間邊界（遞增）；n 個邊界切出 n + 1 個區間，最後一個沒有上限
+     */
+    private List<BigDecimal> priceBuckets = List.of(
+        new BigDecimal("1000"), new BigDecimal("5000"), new BigDecimal("10000"), new BigDecimal("30000"));
+
+    /**
+     * 分面瀏覽每頁最多幾筆
+     */
+    private int maxPageSize = 100;
+
+    /**
+     * 定期整份重建的間隔：補上沒有發布事件的批次更新（例如批次停用缺貨商品）
+     */
+    private Duration refreshInterval = Duration.ofMinutes(10);
+
+    /**
+     * 啟動時是否建立快照
+     */
+    private boolean rebuildOnStartup = true;
+
+    /**
+     * 是否在記憶體中保留完整的商品目錄（CatalogReplicaService）；
+     * 開啟後商品列表、單筆、分類、關鍵字查詢都由快照回應，不查資料庫
+     */
+    private boolean replicaEnabled = false;
+
+    /**
+     * 是否把商品資料放在堆積外（ProductRecordStoreService）；
+     * 開啟後單筆查詢與分面瀏覽、容錯搜尋的結果商品由它解碼，不查資料庫
+     */
+    private boolean recordStoreEnabled = false;
+
+    /**
+     * 商品目錄快照檔；每次從資料庫重建後寫入，啟動時若檔案有效就直接映射載入（暖啟動），
+     * 再補讀檔案之後修改過的商品。未設定時不使用
+     */
+    private Path snapshotFile;
+
+    /**
+     * 暖啟動補讀時往前多讀的時間：涵蓋寫檔當下尚未提交、updated_at 較早的交易
+     */
+    private Duration snapshotCatchUpMargin = Duration.ofMinutes(1);
+
+    /**
+     * 商品列表 ETag（CatalogVersion）查詢結果在本節點快取多久；
+     * 本節點的異動提交後立即失效，其他節點的異動最多晚這麼久反映。0 表示每次都查詢
+     */
+    private Duration listingVersionTtl = Duration.ofSeconds(1);
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.catalog;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 以 JDBC 讀取商品目錄快照需要的欄位（含分類名稱與分類的修改時間，不建立實體）
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogReplicaLoader {
+
+    private static final String SELECT = """
+        SELECT p.id, p.name, p.price, p.description, p.stock_quantity, p.image_url, p.active,
+               p.category_id, c.name, p.created_at, p.updated_at, p.version, c.updated_at
+        FROM products p LEFT JOIN categories c ON c.id = p.category_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 逐筆讀取所有商品（含已停用），不把整份結果留在 List 中
+     */
+    public void loadAll(Consumer<CatalogProduct> consumer) {
+        jdbcTemplate.query(SELECT, rs -> {
+            consumer.accept(row(rs));
+        });
+    }
+
+    /**
+     * 最後修改時間不早於 since 的商品（從快照檔暖啟動後補讀）
+     *
+     * 只看得到經由實體寫入的變更；JPQL 批次更新不會更新 updated_at，交給定期重建
+     */
+    public void loadChangedSince(LocalDateTime since, Consumer<CatalogProduct> consumer) {
+        jdbcTemplate.query(SELECT + " WHERE p.updated_at >= ?", rs -> {
+            consumer.accept(row(rs));
+        }, Timestamp.valueOf(since));
+    }
+
+    /**
+     * 逐筆讀取所有商品的 ID（走主鍵索引），暖啟動時比對快照檔中已被刪除的商品
+     */
+    public void loadIds(LongConsumer consumer) {
+        jdbcTemplate.query("SELECT id FROM products", rs -> {
+            consumer.accept(rs.getLong(1));
+        });
+    }
+
+    public Optional<CatalogProduct> loadProduct(long id) {
+        return jdbcTemplate.query(SELECT + " WHERE p.id = ?", (rs, rowNum) -> row(rs), id).stream().findFirst();
+    }
+
+    private static CatalogProduct row(ResultSet rs) throws SQLException {
+        long categoryId = rs.getLong(8);
+        Long category = rs.wasNull() ? null : categoryId;
+        return new CatalogProduct(rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getString(4),
+            rs.getInt(5), rs.getString(6), rs.getBoolean(7), category, rs.getString(9),
+            localDateTime(rs.getTimestamp(10)), localDateTime(rs.getTimestamp(11)), rs.getLong(12),
+            localDateTime(rs.getTimestamp(13)));
+    }
+
+    private static LocalDateTime localDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
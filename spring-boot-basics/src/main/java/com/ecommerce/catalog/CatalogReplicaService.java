@@ -0,0 +1,271 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.DomainEventConsumer;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.StockChangedEvent;
+import com.ecommerce.event.StockVersionFilter;
+import com.ecommerce.recommendation.LongIntHashMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 記憶體中的完整商品目錄（ecommerce.catalog.replica-enabled 開啟時）
+ *
+ * - 啟動時與每 refreshInterval 從資料庫整份建立 CatalogSnapshot
+ * - 設定 snapshotFile 時，每次重建後寫入快照檔；啟動時若快照檔有效，直接映射載入並補讀之後修改過的商品，
+ *   不必整份查詢資料庫（CatalogSnapshotFile）
+ * - ProductChangedEvent（新增、修改、停用、批次調價提交後）重新讀取該商品，產生新快照
+ * - StockChangedEvent（下單、取消、管理端修改）直接帶新庫存，不查資料庫；
+ *   發布順序可能與提交相反，版本比已套用的舊的事件略過（StockVersionFilter）
+ * - 新快照以 volatile 參照發布；讀取端只讀一次參照，不取鎖，寫入量再大也不會被阻擋
+ *
+ * 只有事件匯流排的消費者執行緒與重建會產生新快照（以 applyLock 串行化）；
+ * 重建期間收到的事件先記下商品 ID，重建完成後重新讀取這些商品再套用一次
+ *
+ * 指標 ecommerce.catalog.replica.version / products 以 MeterBinder 在建構完成後註冊
+ */
+@Service
+@Slf4j
+public class CatalogReplicaService implements DomainEventConsumer, ApplicationRunner, MeterBinder {
+
+    private final CatalogReplicaLoader loader;
+    private final CatalogProperties properties;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final StockVersionFilter stockVersions = new StockVersionFilter();
+    private final Object applyLock = new Object();
+
+    /**
+     * 第一次建立完成前為 null，此時讀取改走資料庫
+     */
+    private volatile CatalogSnapshot snapshot;
+    private List<Long> deferred;
+
+    public CatalogReplicaService(CatalogReplicaLoader loader, CatalogProperties properties) {
+        this.loader = loader;
+        this.properties = properties;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("ecommerce.catalog.replica.version", this,
+                service -> service.current().map(CatalogSnapshot::getVersion).orElse(0L))
+            .register(meterRegistry);
+        Gauge.builder("ecommerce.catalog.replica.products", this,
+                service -> service.current().map(CatalogSnapshot::size).orElse(0))
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isRebuildOnStartup() && !warmStart()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 目前的快照；未開啟或尚未建立完成時為 empty
+     */
+    public Optional<CatalogSnapshot> current() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    /**
+     * 整份重建；未開啟時不做事，已有重建在執行時直接略過（由排程呼叫，下一輪再更新即可）
+     */
+    public void rebuild() {
+        if (!properties.isReplicaEnabled()) {
+            return;
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.debug("商品目錄快照重建中，略過");
+            return;
+        }
+        try {
+            long startNanos = System.nanoTime();
+            synchronized (applyLock) {
+                deferred = new ArrayList<>();
+            }
+            CatalogSnapshot.Builder builder = CatalogSnapshot.builder();
+            loader.loadAll(builder::add);
+            CatalogSnapshot rebuilt;
+            synchronized (applyLock) {
+                // 接續重建期間增量更新過的版本號
+                rebuilt = builder.build(snapshot != null ? snapshot.getVersion() + 1 : 1);
+                publish(rebuilt);
+            }
+            log.info("商品目錄快照已重建 products={} active={} version={} millis={}",
+                rebuilt.size(), rebuilt.activeCount(), rebuilt.getVersion(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+            writeSnapshotFile();
+        } finally {
+            synchronized (applyLock) {
+                deferred = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 從快照檔載入（只在還沒有快照時）；成功時回傳 true，檔案不存在或無效時回傳 false，由呼叫端改從資料庫重建
+     *
+     * 載入後補讀 updated_at 不早於「檔案中最新的修改時間 - snapshotCatchUpMargin」的商品。
+     * JPQL 批次更新會一併設定 updated_at，補讀得到；刪除沒有留下可補讀的資料列，
+     * 補讀後再讀一次所有商品 ID（只有主鍵），移除快照中資料庫已不存在的商品
+     */
+    public boolean warmStart() {
+        Path file = properties.getSnapshotFile();
+        if (!properties.isReplicaEnabled() || file == null || snapshot != null) {
+            return false;
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            long startNanos = System.nanoTime();
+            synchronized (applyLock) {
+                deferred = new ArrayList<>();
+            }
+            Optional<CatalogSnapshot> loaded = CatalogSnapshotFile.read(file);
+            if (loaded.isEmpty() || loaded.get().getWatermark() == null) {
+                return false;
+            }
+            long mappedNanos = System.nanoTime();
+            CatalogSnapshot warm = loaded.get();
+            List<CatalogProduct> changed = new ArrayList<>();
+            loader.loadChangedSince(warm.getWatermark().minus(properties.getSnapshotCatchUpMargin()), changed::add);
+            for (CatalogProduct product : changed) {
+                warm = warm.with(product);
+            }
+            List<Long> deleted = findDeleted(warm);
+            for (Long productId : deleted) {
+                warm = warm.without(productId);
+            }
+            synchronized (applyLock) {
+                publish(warm);
+            }
+            log.info("商品目錄快照已從快照檔載入 products={} caughtUp={} deleted={} version={} loadMillis={} catchUpMillis={}",
+                warm.size(), changed.size(), deleted.size(), warm.getVersion(),
+                (mappedNanos - startNanos) / 1_000_000, (System.nanoTime() - mappedNanos) / 1_000_000);
+            return true;
+        } catch (IOException e) {
+            log.warn("無法讀取商品目錄快照檔 path={}", file, e);
+            return false;
+        } finally {
+            synchronized (applyLock) {
+                deferred = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 快照中有、資料庫已不存在的商品 ID
+     */
+    private List<Long> findDeleted(CatalogSnapshot warm) {
+        LongIntHashMap existing = new LongIntHashMap(warm.size());
+        loader.loadIds(id -> existing.put(id, 1));
+        List<Long> deleted = new ArrayList<>();
+        warm.forEach(product -> {
+            if (existing.get(product.id()) == 0) {
+                deleted.add(product.id());
+            }
+        });
+        return deleted;
+    }
+
+    /**
+     * 發布新快照，再套用期間記下的商品；之後的事件直接套用（呼叫端持有 applyLock）
+     */
+    private void publish(CatalogSnapshot next) {
+        snapshot = next;
+        for (Long productId : deferred) {
+            apply(productId);
+        }
+        deferred = null;
+    }
+
+    /**
+     * 寫入失敗只記錄警告：下次啟動找不到有效的檔案時會改從資料庫重建
+     */
+    private void writeSnapshotFile() {
+        Path file = properties.getSnapshotFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            long startNanos = System.nanoTime();
+            CatalogSnapshot current = snapshot;
+            CatalogSnapshotFile.write(file, current);
+            log.info("商品目錄快照檔已寫入 path={} version={} millis={}",
+                file, current.getVersion(), (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("無法寫入商品目錄快照檔 path={}", file, e);
+        }
+    }
+
+    // ---------------------------------------------------------------- 事件
+
+    @Override
+    public String getName() {
+        return "catalog-replica";
+    }
+
+    /**
+     * 被丟棄的事件不會再送達，整份重建後快照才會與資料庫一致
+     */
+    @Override
+    public void onDropped() {
+        rebuild();
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (!properties.isReplicaEnabled()) {
+            return;
+        }
+        if (event instanceof ProductChangedEvent changed) {
+            synchronized (applyLock) {
+                if (deferred != null) {
+                    deferred.add(changed.productId());
+                } else {
+                    apply(changed.productId());
+                }
+            }
+        } else if (event instanceof StockChangedEvent stock) {
+            if (!stockVersions.accept(stock)) {
+                return;
+            }
+            synchronized (applyLock) {
+                if (deferred != null) {
+                    deferred.add(stock.productId());
+                } else if (snapshot != null) {
+                    snapshot = snapshot.withStockQuantity(stock.productId(), stock.quantity(), stock.version());
+                }
+            }
+        }
+    }
+
+    /**
+     * 重新讀取商品並發布新快照（呼叫端持有 applyLock；讀取端不受影響）
+     */
+    private void apply(long productId) {
+        if (snapshot == null) {
+            return;
+        }
+        Optional<CatalogProduct> product = loader.loadProduct(productId);
+        snapshot = product.isPresent() ? snapshot.with(product.get()) : snapshot.without(productId);
+    }
+}
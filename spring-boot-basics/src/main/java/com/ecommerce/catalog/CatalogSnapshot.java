@@ -0,0 +1,314 @@
+package com.ecommerce.catalog;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 商品目錄的不可變快照（含版本號）
+ *
+ * - products: 所有商品（含已停用，對應 findById）
+ * - active: 上架中的商品，依 ID 排序；ID 由資料庫依序產生，ID 順序即建立順序（createdAt）
+ * - activeByCategory: 分類 ID → 該分類上架中的商品
+ *
+ * 三份對應表都是 {@link PersistentIdMap}：with / without 產生新版本時只複製變動的路徑，
+ * 其餘節點與舊快照共用；讀取端拿到快照參照後不需要任何鎖，也不會看到改到一半的狀態。
+ *
+ * 依名稱、價格、庫存排序的分頁第一次查詢時整份排序一次，只記下排序後的商品 ID，分頁時再以 ID 取出目前的商品。
+ * 產生新版本時，上架商品沒有增減、變動的商品排序欄位的值也沒變（如只改庫存時依名稱、價格的排序），
+ * 排序結果直接帶到新版本，不必在每個庫存事件之後整份重排。
+ */
+public final class CatalogSnapshot {
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, null,
+        PersistentIdMap.empty(), PersistentIdMap.empty(), PersistentIdMap.empty());
+
+    /**
+     * 依 ID 順序就能回應的排序欄位
+     */
+    private static final Set<String> ID_ORDER = Set.of("id", "createdAt");
+
+    private static final Map<String, Comparator<CatalogProduct>> SORTABLE = Map.of(
+        "id", Comparator.comparingLong(CatalogProduct::id),
+        "createdAt", Comparator.comparing(CatalogProduct::createdAt, Comparator.nullsFirst(Comparator.naturalOrder())),
+        "name", Comparator.comparing(CatalogProduct::name),
+        "price", Comparator.comparing(CatalogProduct::price),
+        "stockQuantity", Comparator.comparingInt(CatalogProduct::stockQuantity));
+
+    private final long version;
+    private final LocalDateTime watermark;
+    private final PersistentIdMap<CatalogProduct> products;
+    private final PersistentIdMap<CatalogProduct> active;
+    private final PersistentIdMap<PersistentIdMap<CatalogProduct>> activeByCategory;
+    /**
+     * 排序 → 依序排列的上架商品 ID（陣列建立後不再修改，可在版本之間共用）
+     */
+    private final Map<Sort, long[]> sortedActive;
+
+    private CatalogSnapshot(long version, LocalDateTime watermark, PersistentIdMap<CatalogProduct> products,
+                            PersistentIdMap<CatalogProduct> active,
+                            PersistentIdMap<PersistentIdMap<CatalogProduct>> activeByCategory) {
+        this(version, watermark, products, active, activeByCategory, new ConcurrentHashMap<>());
+    }
+
+    private CatalogSnapshot(long version, LocalDateTime watermark, PersistentIdMap<CatalogProduct> products,
+                            PersistentIdMap<CatalogProduct> active,
+                            PersistentIdMap<PersistentIdMap<CatalogProduct>> activeByCategory,
+                            Map<Sort, long[]> sortedActive) {
+        this.version = version;
+        this.watermark = watermark;
+        this.products = products;
+        this.active = active;
+        this.activeByCategory = activeByCategory;
+        this.sortedActive = sortedActive;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 每次變更遞增；重建時由呼叫端接續舊版本號，不會倒退
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 快照中最新的商品修改時間（updatedAt）；沒有商品時為 null
+     */
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    public int activeCount() {
+        return active.size();
+    }
+
+    // ---------------------------------------------------------------- 查詢
+
+    public Optional<CatalogProduct> get(long id) {
+        return Optional.ofNullable(products.get(id));
+    }
+
+    /**
+     * 上架中的商品分頁；排序欄位不支援時回傳 empty（由呼叫端改查資料庫）
+     */
+    public Optional<Page<CatalogProduct>> findActive(Pageable pageable) {
+        int offset = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE) : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        Sort sort = pageable.getSort();
+        Sort.Order first = sort.stream().findFirst().orElse(null);
+
+        List<CatalogProduct> content;
+        if (first == null || (ID_ORDER.contains(first.getProperty()) && !first.isIgnoreCase())) {
+            content = active.slice(offset, limit, first != null && first.isDescending());
+        } else {
+            Comparator<CatalogProduct> comparator = comparator(sort);
+            if (comparator == null) {
+                return Optional.empty();
+            }
+            long[] sorted = sortedActive.computeIfAbsent(sort, key -> sortActive(comparator));
+            int from = Math.min(offset, sorted.length);
+            int to = (int) Math.min((long) from + limit, sorted.length);
+            content = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                content.add(products.get(sorted[i]));
+            }
+        }
+        return Optional.of(new PageImpl<>(content, pageable, active.size()));
+    }
+
+    /**
+     * 分類中上架的商品（依 ID 排序）
+     */
+    public List<CatalogProduct> findActiveByCategory(long categoryId) {
+        PersistentIdMap<CatalogProduct> members = activeByCategory.get(categoryId);
+        return members == null ? List.of() : members.slice(0, members.size(), false);
+    }
+
+    /**
+     * 依 ID 遞增順序走訪所有商品（含已停用）
+     */
+    public void forEach(Consumer<CatalogProduct> action) {
+        products.forEach(action);
+    }
+
+    /**
+     * 名稱包含 keyword 的商品（含已停用，區分大小寫），與 findByNameContaining 相同；線性掃描
+     */
+    public List<CatalogProduct> searchByName(String keyword) {
+        List<CatalogProduct> result = new ArrayList<>();
+        products.forEach(product -> {
+            if (product.name().contains(keyword)) {
+                result.add(product);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 每個排序欄位都支援時回傳比較器（最後以 ID 決定同值的順序），否則回傳 null
+     */
+    private static Comparator<CatalogProduct> comparator(Sort sort) {
+        Comparator<CatalogProduct> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<CatalogProduct> field = SORTABLE.get(order.getProperty());
+            if (field == null || order.isIgnoreCase()) {
+                return null;
+            }
+            field = order.isDescending() ? field.reversed() : field;
+            result = result == null ? field : result.thenComparing(field);
+        }
+        return result == null ? null : result.thenComparingLong(CatalogProduct::id);
+    }
+
+    private long[] sortActive(Comparator<CatalogProduct> comparator) {
+        CatalogProduct[] sorted = active.slice(0, active.size(), false).toArray(new CatalogProduct[0]);
+        Arrays.sort(sorted, comparator);
+        long[] ids = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].id();
+        }
+        return ids;
+    }
+
+    /**
+     * 這個版本是否已有該排序的結果（測試用）
+     */
+    boolean isSorted(Sort sort) {
+        return sortedActive.containsKey(sort);
+    }
+
+    /**
+     * 上架中的商品被取代、且每個排序欄位的值都沒變時，沿用該排序的結果；其他情況一律在新版本重新排序
+     */
+    private Map<Sort, long[]> carrySorted(CatalogProduct previous, CatalogProduct product) {
+        Map<Sort, long[]> carried = new ConcurrentHashMap<>();
+        if (previous == null || !previous.active() || !product.active()) {
+            return carried;
+        }
+        sortedActive.forEach((sort, ids) -> {
+            if (sort.stream().allMatch(order -> SORTABLE.get(order.getProperty()).compare(previous, product) == 0)) {
+                carried.put(sort, ids);
+            }
+        });
+        return carried;
+    }
+
+    // ---------------------------------------------------------------- 變更（回傳新快照）
+
+    /**
+     * 新增或取代商品（含停用 / 換分類），版本號 + 1
+     */
+    public CatalogSnapshot with(CatalogProduct product) {
+        CatalogProduct previous = products.get(product.id());
+        PersistentIdMap<PersistentIdMap<CatalogProduct>> categories = removeFromCategory(activeByCategory, previous);
+        return new CatalogSnapshot(version + 1, later(watermark, product.updatedAt()),
+            products.with(product.id(), product),
+            product.active() ? active.with(product.id(), product) : active.without(product.id()),
+            addToCategory(categories, product), carrySorted(previous, product));
+    }
+
+    /**
+     * 移除商品（資料庫中已不存在）；不存在時回傳自己
+     */
+    public CatalogSnapshot without(long id) {
+        CatalogProduct previous = products.get(id);
+        if (previous == null) {
+            return this;
+        }
+        return new CatalogSnapshot(version + 1, watermark, products.without(id), active.without(id),
+            removeFromCategory(activeByCategory, previous));
+    }
+
+    /**
+     * 只更新庫存與版本；商品不存在或數量沒變時回傳自己
+     *
+     * @param productVersion 庫存事件帶來的提交後商品版本，0 表示未知
+     */
+    public CatalogSnapshot withStockQuantity(long id, int quantity, long productVersion) {
+        CatalogProduct previous = products.get(id);
+        if (previous == null || previous.stockQuantity() == quantity) {
+            return this;
+        }
+        return with(previous.withStockQuantity(quantity, productVersion));
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a == null || (b != null && b.isAfter(a)) ? b : a;
+    }
+
+    private static PersistentIdMap<PersistentIdMap<CatalogProduct>> removeFromCategory(
+            PersistentIdMap<PersistentIdMap<CatalogProduct>> categories, CatalogProduct product) {
+        if (product == null || !product.active() || product.categoryId() == null) {
+            return categories;
+        }
+        PersistentIdMap<CatalogProduct> members = categories.get(product.categoryId());
+        if (members == null) {
+            return categories;
+        }
+        PersistentIdMap<CatalogProduct> rest = members.without(product.id());
+        return rest.isEmpty() ? categories.without(product.categoryId()) : categories.with(product.categoryId(), rest);
+    }
+
+    private static PersistentIdMap<PersistentIdMap<CatalogProduct>> addToCategory(
+            PersistentIdMap<PersistentIdMap<CatalogProduct>> categories, CatalogProduct product) {
+        if (!product.active() || product.categoryId() == null) {
+            return categories;
+        }
+        PersistentIdMap<CatalogProduct> members = categories.get(product.categoryId());
+        return categories.with(product.categoryId(),
+            (members != null ? members : PersistentIdMap.<CatalogProduct>empty()).with(product.id(), product));
+    }
+
+    /**
+     * 整份建立（重建時使用），節點原地填入；每個商品只能加入一次
+     */
+    public static final class Builder {
+
+        private final PersistentIdMap.Builder<CatalogProduct> products = PersistentIdMap.builder();
+        private final PersistentIdMap.Builder<CatalogProduct> active = PersistentIdMap.builder();
+        private final Map<Long, PersistentIdMap.Builder<CatalogProduct>> categories = new HashMap<>();
+        private LocalDateTime watermark;
+
+        private Builder() {
+        }
+
+        public Builder add(CatalogProduct product) {
+            products.put(product.id(), product);
+            watermark = later(watermark, product.updatedAt());
+            if (product.active()) {
+                active.put(product.id(), product);
+                if (product.categoryId() != null) {
+                    categories.computeIfAbsent(product.categoryId(), id -> PersistentIdMap.builder())
+                        .put(product.id(), product);
+                }
+            }
+            return this;
+        }
+
+        public CatalogSnapshot build(long version) {
+            PersistentIdMap.Builder<PersistentIdMap<CatalogProduct>> byCategory = PersistentIdMap.builder();
+            categories.forEach((categoryId, members) -> byCategory.put(categoryId, members.build()));
+            return new CatalogSnapshot(version, watermark, products.build(), active.build(), byCategory.build());
+        }
+    }
+}
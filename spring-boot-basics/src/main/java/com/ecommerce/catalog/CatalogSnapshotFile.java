@@ -0,0 +1,239 @@
+package com.ecommerce.catalog;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 商品目錄快照檔（新執行個體暖啟動用）
+ *
+ * 格式（big-endian）：
+ * <pre>
+ * header（64 bytes）: magic、格式版本、快照版本、watermark、商品數、字串區大小、本文 CRC32C
+ * 字串區: 每個字串為 int 長度 + UTF-8，相同字串（例如分類名稱）只存一次
+ * 商品區: 固定長度的紀錄（RECORD_BYTES），依 ID 遞增；字串欄位存字串區的位移，null 為 -1
+ * </pre>
+ *
+ * 讀取時以 FileChannel.map 映射整個檔案，直接在映射的緩衝區上驗證 checksum、
+ * 依位移讀取固定長度的紀錄（不經過 Java 序列化，也不查資料庫）；
+ * 格式版本、大小或 checksum 不符時視為沒有快照檔，改從資料庫重建。
+ *
+ * 寫入先寫到同目錄的暫存檔再以 ATOMIC_MOVE 取代，讀取端不會看到寫到一半的檔案
+ */
+@Slf4j
+public final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x45434154;   // "ECAT"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    private static final int RECORD_BYTES = 96;
+    private static final int NULL = -1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final byte[] RECORD_PADDING = new byte[76 - 73];
+
+    private CatalogSnapshotFile() {
+    }
+
+    /**
+     * 寫入快照（含已停用的商品）
+     */
+    public static void write(Path path, CatalogSnapshot snapshot) throws IOException {
+        List<CatalogProduct> products = new ArrayList<>(snapshot.size());
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        long[] heapBytes = {0};
+        snapshot.forEach(product -> {
+            products.add(product);
+            for (String value : new String[]{product.name(), product.description(), product.imageUrl(),
+                product.categoryName()}) {
+                if (value != null && !strings.containsKey(value)) {
+                    strings.put(value, (int) heapBytes[0]);
+                    heapBytes[0] += Integer.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+        });
+        if (heapBytes[0] + (long) products.size() * RECORD_BYTES > Integer.MAX_VALUE - HEADER_BYTES) {
+            throw new IOException("快照檔超過 2 GB，無法以單一區段映射 products=" + products.size());
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(HEADER_BYTES);
+            CRC32C checksum = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Channels.newOutputStream(channel), checksum), 1 << 16));
+            for (String value : strings.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            for (CatalogProduct product : products) {
+                writeRecord(out, product, strings);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(snapshot.getVersion());
+            putTime(header, snapshot.getWatermark());
+            header.putInt(products.size())
+                .putLong(heapBytes[0])
+                .putLong(checksum.getValue())
+                .position(HEADER_BYTES)
+                .flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 讀取快照；檔案不存在或驗證失敗時回傳 empty
+     */
+    public static Optional<CatalogSnapshot> read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                return invalid(path, "檔案大小不符 bytes=" + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                return invalid(path, "格式版本不符");
+            }
+            // 16 ~ 28 為 watermark，由商品的 updatedAt 重新計算，這裡不需要
+            long version = buffer.getLong(8);
+            int count = buffer.getInt(28);
+            long heapBytes = buffer.getLong(32);
+            long expectedChecksum = buffer.getLong(40);
+            if (count < 0 || heapBytes < 0 || HEADER_BYTES + heapBytes + (long) count * RECORD_BYTES != size) {
+                return invalid(path, "商品數或字串區大小與檔案大小不符");
+            }
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(HEADER_BYTES, (int) size - HEADER_BYTES));
+            if (checksum.getValue() != expectedChecksum) {
+                return invalid(path, "checksum 不符");
+            }
+
+            ByteBuffer heap = buffer.slice(HEADER_BYTES, (int) heapBytes);
+            Map<Integer, String> categoryNames = new HashMap<>();
+            CatalogSnapshot.Builder builder = CatalogSnapshot.builder();
+            int base = HEADER_BYTES + (int) heapBytes;
+            for (int i = 0; i < count; i++) {
+                builder.add(readRecord(buffer, base + i * RECORD_BYTES, heap, categoryNames));
+            }
+            return Optional.of(builder.build(version));
+        }
+    }
+
+    private static Optional<CatalogSnapshot> invalid(Path path, String reason) {
+        log.warn("略過商品目錄快照檔 path={} reason={}", path, reason);
+        return Optional.empty();
+    }
+
+    // ---------------------------------------------------------------- 紀錄
+
+    /**
+     * 0 id、8 name、12 price（unscaled）、20 scale、24 description、28 stock、32 imageUrl、
+     * 36 categoryName、40 categoryId、48 createdAt、60 updatedAt、72 active、76 version、84 分類 updatedAt
+     */
+    private static void writeRecord(DataOutputStream out, CatalogProduct product, Map<String, Integer> strings)
+            throws IOException {
+        out.writeLong(product.id());
+        out.writeInt(strings.get(product.name()));
+        out.writeLong(product.price().unscaledValue().longValueExact());
+        out.writeInt(product.price().scale());
+        out.writeInt(offset(strings, product.description()));
+        out.writeInt(product.stockQuantity());
+        out.writeInt(offset(strings, product.imageUrl()));
+        out.writeInt(offset(strings, product.categoryName()));
+        out.writeLong(product.categoryId() != null ? product.categoryId() : NULL);
+        writeTime(out, product.createdAt());
+        writeTime(out, product.updatedAt());
+        out.writeByte(product.active() ? 1 : 0);
+        out.write(RECORD_PADDING);
+        out.writeLong(product.version());
+        writeTime(out, product.categoryUpdatedAt());
+    }
+
+    private static CatalogProduct readRecord(ByteBuffer buffer, int at, ByteBuffer heap,
+                                             Map<Integer, String> categoryNames) {
+        long categoryId = buffer.getLong(at + 40);
+        int categoryName = buffer.getInt(at + 36);
+        return new CatalogProduct(
+            buffer.getLong(at),
+            string(heap, buffer.getInt(at + 8)),
+            BigDecimal.valueOf(buffer.getLong(at + 12), buffer.getInt(at + 20)),
+            string(heap, buffer.getInt(at + 24)),
+            buffer.getInt(at + 28),
+            string(heap, buffer.getInt(at + 32)),
+            buffer.get(at + 72) != 0,
+            categoryId != NULL ? categoryId : null,
+            categoryName != NULL ? categoryNames.computeIfAbsent(categoryName, offset -> string(heap, offset)) : null,
+            getTime(buffer, at + 48),
+            getTime(buffer, at + 60),
+            buffer.getLong(at + 76),
+            getTime(buffer, at + 84));
+    }
+
+    private static int offset(Map<String, Integer> strings, String value) {
+        return value != null ? strings.get(value) : NULL;
+    }
+
+    private static String string(ByteBuffer heap, int offset) {
+        if (offset == NULL) {
+            return null;
+        }
+        int length = heap.getInt(offset);
+        byte[] bytes = new byte[length];
+        heap.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * LocalDateTime 以 UTC 的 epoch 秒 + 奈秒存放（只是編碼，不做時區轉換）；null 為 NO_TIME
+     */
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time != null ? time.toEpochSecond(ZoneOffset.UTC) : NO_TIME);
+        out.writeInt(time != null ? time.getNano() : 0);
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        buffer.putLong(time != null ? time.toEpochSecond(ZoneOffset.UTC) : NO_TIME);
+        buffer.putInt(time != null ? time.getNano() : 0);
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer, int at) {
+        long seconds = buffer.getLong(at);
+        return seconds != NO_TIME ? LocalDateTime.ofEpochSecond(seconds, buffer.getInt(at + 8), ZoneOffset.UTC) : null;
+    }
+}
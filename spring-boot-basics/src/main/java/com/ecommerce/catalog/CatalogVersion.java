@@ -0,0 +1,115 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.StockChangedEvent;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.ProductTableVersion;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 商品列表的版本號（列表 API 條件式 GET 的 ETag）
+ *
+ * - 記憶體快照存在時，列表由這個節點的快照回應，以快照版本作為 ETag（帶上啟動時間，與其他節點、重啟前不會相同）
+ * - 否則列表直接查資料庫，ETag 也取自所有節點共用的資料：商品表的最後修改時間與筆數（ProductTableVersion）。
+ *   任何節點的新增、修改、批次更新都會推進 updated_at，刪除會改變筆數，其他節點不會誤回 304
+ *
+ * 資料庫版本在本節點快取 listingVersionTtl：本節點的商品、庫存異動提交後立即失效；
+ * 不發布事件的批次更新在交易中呼叫 markChangedAfterCommit。其他節點的異動最多晚 listingVersionTtl 反映。
+ */
+@Component
+public class CatalogVersion {
+
+    private final CatalogReplicaService catalogReplicaService;
+    private final ProductRepository productRepository;
+    private final CatalogProperties properties;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * 每次失效加一；查詢期間若有失效，查到的結果可能早於該次提交，不放進快取
+     */
+    private final AtomicLong generation = new AtomicLong();
+    private volatile CachedTag cached;
+
+    public CatalogVersion(CatalogReplicaService catalogReplicaService, ProductRepository productRepository,
+                          CatalogProperties properties) {
+        this.catalogReplicaService = catalogReplicaService;
+        this.productRepository = productRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * 商品或庫存異動提交後讓快取失效；沒有交易時（fallbackExecution）立即失效
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(DomainEvent event) {
+        if (event instanceof ProductChangedEvent || event instanceof StockChangedEvent) {
+            invalidate();
+        }
+    }
+
+    /**
+     * 在目前的交易提交後讓快取失效；沒有交易時立即失效
+     */
+    public void markChangedAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    /**
+     * 商品列表（全部、分類、關鍵字搜尋）的強 ETag
+     *
+     * 必須在讀取列表內容之前取得：ETag 只會比回應內容舊，之後的請求最多多回應一次 200，不會把新內容誤判為未修改
+     */
+    public String listingETag() {
+        return catalogReplicaService.current()
+            .map(snapshot -> "\"s" + epoch + "-" + Long.toString(snapshot.getVersion(), 36) + "\"")
+            .orElseGet(this::tableETag);
+    }
+
+    private String tableETag() {
+        CachedTag current = cached;
+        long now = System.nanoTime();
+        if (current != null && now - current.loadedAtNanos() < properties.getListingVersionTtl().toNanos()) {
+            return current.etag();
+        }
+        long loadingGeneration = generation.get();
+        ProductTableVersion version = productRepository.findTableVersion();
+        String etag = "\"t" + encode(version) + "\"";
+        if (generation.get() == loadingGeneration) {
+            cached = new CachedTag(etag, now);
+        }
+        return etag;
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        cached = null;
+    }
+
+    private static String encode(ProductTableVersion version) {
+        String count = Long.toString(version.count(), 36);
+        if (version.lastModified() == null) {
+            return "0-" + count;
+        }
+        return Long.toString(version.lastModified().toEpochSecond(ZoneOffset.UTC), 36) + "."
+            + Integer.toString(version.lastModified().getNano(), 36) + "-" + count;
+    }
+
+    private record CachedTag(String etag, long loadedAtNanos) {
+    }
+}
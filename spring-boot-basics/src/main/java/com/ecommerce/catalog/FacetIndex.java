@@ -0,0 +1,271 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.recommendation.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 上架商品的欄式（columnar）快照與分面計數
+ *
+ * 每個商品佔一個槽位，各欄位分開存成原生陣列：
+ * - productIds / priceCents / categoryOrdinals：依槽位存放
+ * - categoryBitmaps：每個分類一個 BitSet，位元 i 表示槽位 i 的商品屬於該分類
+ * - byPrice：上架商品的槽位依（價格, 商品 ID）排序，價格區間以二分搜尋找到連續的一段
+ *
+ * 一次查詢同時算出結果與所有分面計數（多選分面的慣例：各分面的計數套用「其他」分面的條件）：
+ * - 分類計數：套用價格條件，不套用分類條件（勾選其他分類時的數字）
+ * - 價格區間計數：套用分類條件，不套用價格條件
+ *
+ * 商品更新以槽位為單位增量修改；停用的槽位放回 freeSlots 重複使用。
+ * 非執行緒安全：寫入需要獨佔，查詢可以並行（見 CatalogFacetService）。
+ */
+public final class FacetIndex {
+
+    /**
+     * 未分類商品的分類 ID
+     */
+    public static final long UNCATEGORIZED = 0;
+
+    private final long[] bucketBounds;
+
+    private long[] productIds = new long[1024];
+    private long[] priceCents = new long[1024];
+    private int[] categoryOrdinals = new int[1024];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /**
+     * 商品 ID → 槽位 + 1（0 表示不在索引中）
+     */
+    private final LongIntHashMap slotByProduct = new LongIntHashMap(1024);
+
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final Map<Long, Integer> categoryOrdinalById = new LinkedHashMap<>();
+    private final List<BitSet> categoryBitmaps = new ArrayList<>();
+
+    private int[] byPrice = new int[1024];
+    private int size;
+
+    /**
+     * @param bucketBounds 價格區間的邊界（分，遞增）；n 個邊界切出 n + 1 個區間，最後一個沒有上限
+     */
+    public FacetIndex(long[] bucketBounds) {
+        this.bucketBounds = bucketBounds.clone();
+    }
+
+    /**
+     * 查詢條件
+     *
+     * @param categoryIds   為空時不限分類；多個分類為「或」
+     * @param minPriceCents 含，null 表示不限
+     * @param maxPriceCents 含，null 表示不限
+     */
+    public record Query(List<Long> categoryIds, Long minPriceCents, Long maxPriceCents,
+                       boolean descending, int offset, int limit) {
+    }
+
+    /**
+     * 查詢結果
+     *
+     * @param productIds     這一頁的商品 ID，依價格排序
+     * @param categoryCounts 分類 ID → 商品數（只列出數量大於 0 的分類）
+     * @param bucketCounts   各價格區間的商品數，與 bucketBounds 對應
+     */
+    public record Result(int total, long[] productIds, Map<Long, Integer> categoryCounts, int[] bucketCounts) {
+    }
+
+    // ---------------------------------------------------------------- 寫入
+
+    /**
+     * 加入或更新一個上架商品
+     *
+     * @param categoryId 未分類為 null
+     */
+    public void put(long productId, long priceCents, Long categoryId) {
+        remove(productId);
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : newSlot();
+        productIds[slot] = productId;
+        this.priceCents[slot] = priceCents;
+        int ordinal = categoryOrdinal(categoryId != null ? categoryId : UNCATEGORIZED);
+        categoryOrdinals[slot] = ordinal;
+        categoryBitmaps.get(ordinal).set(slot);
+        slotByProduct.put(productId, slot + 1);
+
+        int position = -pricePosition(priceCents, productId) - 1;
+        if (size == byPrice.length) {
+            byPrice = Arrays.copyOf(byPrice, size * 2);
+        }
+        System.arraycopy(byPrice, position, byPrice, position + 1, size - position);
+        byPrice[position] = slot;
+        size++;
+    }
+
+    /**
+     * 移除商品（停用或刪除）；不在索引中時不做任何事
+     */
+    public void remove(long productId) {
+        int slot = slotByProduct.get(productId) - 1;
+        if (slot < 0) {
+            return;
+        }
+        slotByProduct.put(productId, 0);
+        int position = pricePosition(priceCents[slot], productId);
+        System.arraycopy(byPrice, position + 1, byPrice, position, size - position - 1);
+        size--;
+        categoryBitmaps.get(categoryOrdinals[slot]).clear(slot);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int newSlot() {
+        if (slotCount == productIds.length) {
+            int capacity = slotCount * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            categoryOrdinals = Arrays.copyOf(categoryOrdinals, capacity);
+        }
+        return slotCount++;
+    }
+
+    private int categoryOrdinal(long categoryId) {
+        Integer ordinal = categoryOrdinalById.get(categoryId);
+        if (ordinal == null) {
+            ordinal = categoryIds.size();
+            categoryIds.add(categoryId);
+            categoryOrdinalById.put(categoryId, ordinal);
+            categoryBitmaps.add(new BitSet());
+        }
+        return ordinal;
+    }
+
+    /**
+     * 在 byPrice 中以（價格, 商品 ID）二分搜尋
+     *
+     * @return 找到時為位置，否則為 -(插入位置) - 1
+     */
+    private int pricePosition(long price, long productId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int slot = byPrice[mid];
+            int cmp = priceCents[slot] != price
+                ? Long.compare(priceCents[slot], price)
+                : Long.compare(productIds[slot], productId);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * byPrice 中第一個價格 ≥ price 的位置
+     */
+    private int lowerBound(long price) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (priceCents[byPrice[mid]] < price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // ---------------------------------------------------------------- 查詢
+
+    public Result query(Query query) {
+        int from = query.minPriceCents() != null ? lowerBound(query.minPriceCents()) : 0;
+        int to = query.maxPriceCents() != null && query.maxPriceCents() < Long.MAX_VALUE
+            ? lowerBound(query.maxPriceCents() + 1) : size;
+        BitSet categoryFilter = categoryFilter(query.categoryIds());
+
+        // 結果與分類計數：走過價格區間內的槽位
+        int[] categoryCounts = new int[categoryIds.size()];
+        long[] page = new long[Math.max(0, query.limit())];
+        int pageSize = 0;
+        int total = 0;
+        for (int i = from; i < to; i++) {
+            int slot = byPrice[query.descending() ? to - 1 - (i - from) : i];
+            categoryCounts[categoryOrdinals[slot]]++;
+            if (categoryFilter == null || categoryFilter.get(slot)) {
+                if (total >= query.offset() && pageSize < page.length) {
+                    page[pageSize++] = productIds[slot];
+                }
+                total++;
+            }
+        }
+
+        Map<Long, Integer> categories = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < categoryCounts.length; ordinal++) {
+            if (categoryCounts[ordinal] > 0) {
+                categories.put(categoryIds.get(ordinal), categoryCounts[ordinal]);
+            }
+        }
+        return new Result(total, Arrays.copyOf(page, pageSize), categories, bucketCounts(categoryFilter));
+    }
+
+    /**
+     * 價格區間計數：沒有分類條件時直接由 byPrice 的位置相減；
+     * 有分類條件時只走訪分類點陣圖中的槽位
+     */
+    private int[] bucketCounts(BitSet categoryFilter) {
+        int[] counts = new int[bucketBounds.length + 1];
+        if (categoryFilter == null) {
+            int previous = 0;
+            for (int bucket = 0; bucket < bucketBounds.length; bucket++) {
+                int bound = lowerBound(bucketBounds[bucket]);
+                counts[bucket] = bound - previous;
+                previous = bound;
+            }
+            counts[bucketBounds.length] = size - previous;
+            return counts;
+        }
+        for (int slot = categoryFilter.nextSetBit(0); slot >= 0; slot = categoryFilter.nextSetBit(slot + 1)) {
+            int bucket = Arrays.binarySearch(bucketBounds, priceCents[slot]);
+            counts[bucket >= 0 ? bucket + 1 : -bucket - 1]++;
+        }
+        return counts;
+    }
+
+    /**
+     * @return 不限分類時為 null
+     */
+    private BitSet categoryFilter(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+        BitSet filter = new BitSet();
+        for (Long id : ids) {
+            Integer ordinal = categoryOrdinalById.get(id);
+            if (ordinal != null) {
+                filter.or(categoryBitmaps.get(ordinal));
+            }
+        }
+        return filter;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long[] getBucketBounds() {
+        return bucketBounds.clone();
+    }
+}
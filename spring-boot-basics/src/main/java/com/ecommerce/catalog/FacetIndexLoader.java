@@ -0,0 +1,43 @@
+package com.ecommerce.catalog;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 以 JDBC 讀取分面索引需要的欄位（不建立實體）
+ */
+@Component
+@RequiredArgsConstructor
+public class FacetIndexLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param categoryId 未分類為 null
+     */
+    public record ProductRow(long id, long priceCents, Long categoryId, boolean active) {
+    }
+
+    public List<ProductRow> loadActiveProducts() {
+        return jdbcTemplate.query("SELECT id, price, category_id, active FROM products WHERE active = TRUE",
+            (rs, rowNum) -> row(rs));
+    }
+
+    public Optional<ProductRow> loadProduct(long id) {
+        return jdbcTemplate.query("SELECT id, price, category_id, active FROM products WHERE id = ?",
+            (rs, rowNum) -> row(rs), id).stream().findFirst();
+    }
+
+    private static ProductRow row(ResultSet rs) throws SQLException {
+        long categoryId = rs.getLong(3);
+        Long category = rs.wasNull() ? null : categoryId;
+        return new ProductRow(rs.getLong(1), rs.getBigDecimal(2).movePointRight(2).longValueExact(),
+            category, rs.getBoolean(4));
+    }
+}
@@ -0,0 +1,271 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.recommendation.LongIntHashMap;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 堆積外（direct memory）的商品資料
+ *
+ * 每個商品是一筆固定欄位配置的紀錄，後面接著 UTF-8 字串（名稱、描述、圖片網址、分類名稱）：
+ * <pre>
+ * 0 id | 8 price（unscaled）| 16 scale | 20 stock | 24 categoryId | 32 createdAt 秒 | 40 createdAt 奈秒
+ * 44 updatedAt 奈秒 | 48 updatedAt 秒 | 56 active | 60 ~ 76 四個字串的長度（null 為 -1）
+ * 76 分類 updatedAt 奈秒 | 80 分類 updatedAt 秒 | 88 version | 96 字串
+ * </pre>
+ *
+ * - 紀錄依序附加到固定大小的 direct ByteBuffer 區段，起點對齊 8 bytes；
+ *   ID → 位址以 LongIntHashMap（原生陣列）對應，位址以 8 bytes 為單位，最多 16 GB
+ * - 數值欄位直接從緩衝區讀；字串欄位要用時才解碼（例如先看 active 再決定要不要解碼整筆）
+ * - 修改商品時附加新紀錄、舊紀錄成為垃圾（garbageBytes），由整份重建回收；庫存與版本原地更新
+ *
+ * 堆積上只有索引陣列與區段的 ByteBuffer 物件，一百萬筆商品不會有數百萬個 String / BigDecimal 進入老年代。
+ * direct memory 受 -XX:MaxDirectMemorySize 限制（預設與 -Xmx 相同），ByteBuffer 被回收時才釋放。
+ * 非執行緒安全。
+ */
+public final class OffHeapProductStore {
+
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+
+    private static final int ALIGNMENT_SHIFT = 3;
+    private static final int STRINGS = 96;
+    private static final int NULL = -1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final int segmentBytes;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final LongIntHashMap addresses;
+    private ByteBuffer current;
+    private int size;
+    private long usedBytes;
+    private long garbageBytes;
+
+    /**
+     * @param segmentBytes 每個區段的大小（8 的倍數）；單筆紀錄不可超過
+     */
+    public OffHeapProductStore(int segmentBytes, int expectedSize) {
+        if (segmentBytes <= STRINGS || segmentBytes % (1 << ALIGNMENT_SHIFT) != 0) {
+            throw new IllegalArgumentException("segmentBytes 必須是 8 的倍數且大於 " + STRINGS);
+        }
+        this.segmentBytes = segmentBytes;
+        this.addresses = new LongIntHashMap(expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 已配置的 direct memory
+     */
+    public long allocatedBytes() {
+        return (long) segments.size() * segmentBytes;
+    }
+
+    /**
+     * 已寫入的紀錄（含已被取代、尚未回收的舊紀錄）
+     */
+    public long usedBytes() {
+        return usedBytes;
+    }
+
+    public long garbageBytes() {
+        return garbageBytes;
+    }
+
+    // ---------------------------------------------------------------- 寫入
+
+    /**
+     * 新增或取代（附加一筆新紀錄）
+     */
+    public void put(CatalogProduct product) {
+        byte[] name = utf8(product.name());
+        byte[] description = utf8(product.description());
+        byte[] imageUrl = utf8(product.imageUrl());
+        byte[] categoryName = utf8(product.categoryName());
+        int length = STRINGS + bytes(name) + bytes(description) + bytes(imageUrl) + bytes(categoryName);
+        int aligned = (length + (1 << ALIGNMENT_SHIFT) - 1) & -(1 << ALIGNMENT_SHIFT);
+        if (aligned > segmentBytes) {
+            throw new IllegalArgumentException("商品資料超過區段大小 id=" + product.id() + " bytes=" + aligned);
+        }
+        if (current == null || current.remaining() < aligned) {
+            current = ByteBuffer.allocateDirect(segmentBytes);
+            segments.add(current);
+        }
+
+        int at = current.position();
+        long address = ((long) (segments.size() - 1) * segmentBytes + at) >>> ALIGNMENT_SHIFT;
+        if (address >= Integer.MAX_VALUE) {
+            throw new IllegalStateException("超過 16 GB 的位址範圍");
+        }
+        ByteBuffer buffer = current;
+        buffer.putLong(at, product.id())
+            .putLong(at + 8, product.price().unscaledValue().longValueExact())
+            .putInt(at + 16, product.price().scale())
+            .putInt(at + 20, product.stockQuantity())
+            .putLong(at + 24, product.categoryId() != null ? product.categoryId() : NULL)
+            .put(at + 56, (byte) (product.active() ? 1 : 0))
+            .putLong(at + 88, product.version());
+        putTime(buffer, at + 32, at + 40, product.createdAt());
+        putTime(buffer, at + 48, at + 44, product.updatedAt());
+        putTime(buffer, at + 80, at + 76, product.categoryUpdatedAt());
+        int offset = at + STRINGS;
+        int field = at + 60;
+        for (byte[] value : new byte[][]{name, description, imageUrl, categoryName}) {
+            buffer.putInt(field, value != null ? value.length : NULL);
+            if (value != null) {
+                buffer.put(offset, value);
+                offset += value.length;
+            }
+            field += Integer.BYTES;
+        }
+        current.position(at + aligned);
+        usedBytes += aligned;
+
+        int previous = addresses.put(product.id(), (int) address + 1);
+        if (previous != 0) {
+            garbageBytes += recordBytes(previous - 1);
+        } else {
+            size++;
+        }
+    }
+
+    public boolean remove(long id) {
+        int previous = addresses.put(id, 0);
+        if (previous == 0) {
+            return false;
+        }
+        garbageBytes += recordBytes(previous - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * 原地更新庫存與版本；不存在時回傳 false
+     *
+     * @param version 庫存事件帶來的提交後商品版本；0（未知）時不改版本
+     */
+    public boolean updateStockQuantity(long id, int quantity, long version) {
+        int address = addresses.get(id);
+        if (address == 0) {
+            return false;
+        }
+        ByteBuffer buffer = segment(address - 1);
+        int at = position(address - 1);
+        buffer.putInt(at + 20, quantity);
+        if (version > 0) {
+            buffer.putLong(at + 88, version);
+        }
+        return true;
+    }
+
+    // ---------------------------------------------------------------- 讀取
+
+    public boolean contains(long id) {
+        return addresses.get(id) != 0;
+    }
+
+    /**
+     * 不解碼字串，只讀 active 欄位；不存在時回傳 false
+     */
+    public boolean isActive(long id) {
+        int address = addresses.get(id);
+        return address != 0 && segment(address - 1).get(position(address - 1) + 56) != 0;
+    }
+
+    /**
+     * 只解碼名稱；不存在時回傳 null
+     */
+    public String name(long id) {
+        int address = addresses.get(id);
+        return address != 0 ? string(segment(address - 1), position(address - 1), 0) : null;
+    }
+
+    /**
+     * 解碼整筆紀錄；不存在時回傳 null
+     */
+    public CatalogProduct get(long id) {
+        int address = addresses.get(id);
+        if (address == 0) {
+            return null;
+        }
+        ByteBuffer buffer = segment(address - 1);
+        int at = position(address - 1);
+        long categoryId = buffer.getLong(at + 24);
+        return new CatalogProduct(
+            buffer.getLong(at),
+            string(buffer, at, 0),
+            BigDecimal.valueOf(buffer.getLong(at + 8), buffer.getInt(at + 16)),
+            string(buffer, at, 1),
+            buffer.getInt(at + 20),
+            string(buffer, at, 2),
+            buffer.get(at + 56) != 0,
+            categoryId != NULL ? categoryId : null,
+            string(buffer, at, 3),
+            getTime(buffer, at + 32, at + 40),
+            getTime(buffer, at + 48, at + 44),
+            buffer.getLong(at + 88),
+            getTime(buffer, at + 80, at + 76));
+    }
+
+    // ---------------------------------------------------------------- 內部
+
+    private ByteBuffer segment(int address) {
+        return segments.get((int) (((long) address << ALIGNMENT_SHIFT) / segmentBytes));
+    }
+
+    private int position(int address) {
+        return (int) (((long) address << ALIGNMENT_SHIFT) % segmentBytes);
+    }
+
+    private int recordBytes(int address) {
+        ByteBuffer buffer = segment(address);
+        int at = position(address);
+        int length = STRINGS;
+        for (int field = 0; field < 4; field++) {
+            length += Math.max(0, buffer.getInt(at + 60 + field * Integer.BYTES));
+        }
+        return (length + (1 << ALIGNMENT_SHIFT) - 1) & -(1 << ALIGNMENT_SHIFT);
+    }
+
+    /**
+     * 第 index 個字串：位置是前面字串長度的總和
+     */
+    private static String string(ByteBuffer buffer, int at, int index) {
+        int offset = at + STRINGS;
+        for (int field = 0; field < index; field++) {
+            offset += Math.max(0, buffer.getInt(at + 60 + field * Integer.BYTES));
+        }
+        int length = buffer.getInt(at + 60 + index * Integer.BYTES);
+        if (length == NULL) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int bytes(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+
+    private static void putTime(ByteBuffer buffer, int secondsAt, int nanosAt, LocalDateTime time) {
+        buffer.putLong(secondsAt, time != null ? time.toEpochSecond(ZoneOffset.UTC) : NO_TIME);
+        buffer.putInt(nanosAt, time != null ? time.getNano() : 0);
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer, int secondsAt, int nanosAt) {
+        long seconds = buffer.getLong(secondsAt);
+        return seconds != NO_TIME ? LocalDateTime.ofEpochSecond(seconds, buffer.getInt(nanosAt), ZoneOffset.UTC) : null;
+    }
+}
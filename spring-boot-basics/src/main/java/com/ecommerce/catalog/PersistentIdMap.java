@@ -0,0 +1,262 @@
+package com.ecommerce.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 以 ID 為鍵的不可變（持久化）對應表：32 路的 bitmap-free trie
+ *
+ * - ID 每 5 個位元決定一層的分支，樹高隨最大 ID 增長（100 萬筆約 4 層）
+ * - with / without 只複製根到葉的路徑（path copying），其餘節點與舊版本共用（structural sharing）
+ * - 每個節點記錄子樹的筆數，依名次定位（分頁的 offset）是 O(log n)，不必從頭走訪
+ * - 走訪順序就是 ID 遞增順序
+ *
+ * 舊版本永遠不會被修改，讀取端拿到參照後不需要任何鎖。
+ * 大量建立時使用 {@link Builder}：節點屬於同一個 builder 時直接原地修改，不產生路徑副本。
+ *
+ * @param <V> 值（不可為 null）
+ */
+public final class PersistentIdMap<V> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentIdMap<?> EMPTY = new PersistentIdMap<>(null, 0);
+
+    /**
+     * 第 0 層的 slots 放值，其他層放子節點；count 為子樹筆數
+     *
+     * edit 不為 null 時節點屬於該 builder，只有它可以原地修改；build() 之後換新的 edit，舊節點即凍結
+     */
+    private static final class Node {
+        final Object[] slots;
+        final Object edit;
+        int count;
+
+        Node(Object[] slots, int count, Object edit) {
+            this.slots = slots;
+            this.count = count;
+            this.edit = edit;
+        }
+
+        Node editable(Object owner) {
+            return owner != null && edit == owner ? this : new Node(slots.clone(), count, owner);
+        }
+    }
+
+    private final Node root;
+    private final int shift;
+
+    private PersistentIdMap(Node root, int shift) {
+        this.root = root;
+        this.shift = shift;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIdMap<V> empty() {
+        return (PersistentIdMap<V>) EMPTY;
+    }
+
+    public static <V> Builder<V> builder() {
+        return new Builder<>();
+    }
+
+    public int size() {
+        return root == null ? 0 : root.count;
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long id) {
+        if (root == null || id < 0 || !fits(id, shift)) {
+            return null;
+        }
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.slots[index(id, level)];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (V) node.slots[index(id, 0)];
+    }
+
+    /**
+     * 新增或取代，回傳新版本（自己不變）
+     */
+    public PersistentIdMap<V> with(long id, V value) {
+        checkId(id);
+        if (value == null) {
+            throw new IllegalArgumentException("value 不可為 null");
+        }
+        int delta = get(id) == null ? 1 : 0;
+        Node newRoot = root;
+        int newShift = shift;
+        while (!fits(id, newShift)) {
+            newRoot = grow(newRoot, null);
+            newShift += BITS;
+        }
+        return new PersistentIdMap<>(assoc(newRoot, newShift, id, value, delta, null), newShift);
+    }
+
+    /**
+     * 移除，回傳新版本；不存在時回傳自己
+     */
+    public PersistentIdMap<V> without(long id) {
+        if (get(id) == null) {
+            return this;
+        }
+        Node newRoot = dissoc(root, shift, id, null);
+        return newRoot == null ? empty() : new PersistentIdMap<>(newRoot, shift);
+    }
+
+    /**
+     * 依 ID 順序（或反序）略過 offset 筆後取最多 limit 筆；以子樹筆數整段略過，O(log n + limit)
+     */
+    public List<V> slice(int offset, int limit, boolean descending) {
+        List<V> result = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        if (root != null && offset < root.count && limit > 0) {
+            collect(root, shift, Math.max(0, offset), limit, descending, result);
+        }
+        return result;
+    }
+
+    /**
+     * 依 ID 遞增順序走訪
+     */
+    public void forEach(Consumer<? super V> action) {
+        if (root != null) {
+            forEach(root, shift, action);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> int collect(Node node, int level, int skip, int limit, boolean descending, List<V> out) {
+        for (int k = 0; k < WIDTH && out.size() < limit; k++) {
+            Object slot = node.slots[descending ? MASK - k : k];
+            if (slot == null) {
+                continue;
+            }
+            if (level == 0) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    out.add((V) slot);
+                }
+            } else {
+                Node child = (Node) slot;
+                if (skip >= child.count) {
+                    skip -= child.count;
+                } else {
+                    skip = collect(child, level - BITS, skip, limit, descending, out);
+                }
+            }
+        }
+        return skip;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void forEach(Node node, int level, Consumer<? super V> action) {
+        for (Object slot : node.slots) {
+            if (slot == null) {
+                continue;
+            }
+            if (level == 0) {
+                action.accept((V) slot);
+            } else {
+                forEach((Node) slot, level - BITS, action);
+            }
+        }
+    }
+
+    private static Node assoc(Node node, int level, long id, Object value, int delta, Object edit) {
+        Node copy = node == null ? new Node(new Object[WIDTH], 0, edit) : node.editable(edit);
+        copy.count += delta;
+        int i = index(id, level);
+        if (level == 0) {
+            copy.slots[i] = value;
+        } else {
+            copy.slots[i] = assoc((Node) copy.slots[i], level - BITS, id, value, delta, edit);
+        }
+        return copy;
+    }
+
+    /**
+     * 呼叫端已確認 ID 存在；子樹清空時回傳 null，由上一層拿掉
+     */
+    private static Node dissoc(Node node, int level, long id, Object edit) {
+        if (node.count == 1) {
+            return null;
+        }
+        Node copy = node.editable(edit);
+        copy.count--;
+        int i = index(id, level);
+        copy.slots[i] = level == 0 ? null : dissoc((Node) copy.slots[i], level - BITS, id, edit);
+        return copy;
+    }
+
+    private static Node grow(Node root, Object edit) {
+        if (root == null) {
+            return null;
+        }
+        Object[] slots = new Object[WIDTH];
+        slots[0] = root;
+        return new Node(slots, root.count, edit);
+    }
+
+    /**
+     * 根節點在 level 層時可容納的 ID 是否包含 id（非負 ID 最多 63 位元）
+     */
+    private static boolean fits(long id, int level) {
+        return level + BITS >= Long.SIZE - 1 || (id >>> (level + BITS)) == 0;
+    }
+
+    private static int index(long id, int level) {
+        return (int) ((id >>> level) & MASK);
+    }
+
+    private static void checkId(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("id 不可為負數: " + id);
+        }
+    }
+
+    /**
+     * 大量建立（例如從資料庫整份載入）：節點原地修改，不產生路徑副本
+     *
+     * 同一個 builder 只能由一條執行緒使用；build() 之後可以繼續 put，已回傳的版本不受影響
+     */
+    public static final class Builder<V> {
+
+        private Node root;
+        private int shift;
+        private Object edit = new Object();
+
+        private Builder() {
+        }
+
+        public Builder<V> put(long id, V value) {
+            checkId(id);
+            if (value == null) {
+                throw new IllegalArgumentException("value 不可為 null");
+            }
+            while (!fits(id, shift)) {
+                root = grow(root, edit);
+                shift += BITS;
+            }
+            int delta = new PersistentIdMap<V>(root, shift).get(id) == null ? 1 : 0;
+            root = assoc(root, shift, id, value, delta, edit);
+            return this;
+        }
+
+        public PersistentIdMap<V> build() {
+            edit = new Object();
+            return root == null ? empty() : new PersistentIdMap<>(root, shift);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.DomainEventConsumer;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.StockChangedEvent;
+import com.ecommerce.event.StockVersionFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * 堆積外的商品資料（ecommerce.catalog.record-store-enabled 開啟時）
+ *
+ * - 啟動時與每 refreshInterval 整份重建 OffHeapProductStore（同時回收被取代的舊紀錄）
+ * - ProductChangedEvent 重新讀取該商品並附加新紀錄；StockChangedEvent 原地更新庫存
+ *   （發布順序可能與提交相反，版本比已套用的舊的事件略過，見 StockVersionFilter）
+ * - 查詢共用讀鎖，增量更新取寫鎖
+ *
+ * 重建期間收到的事件先記下商品 ID，重建完成後重新讀取這些商品再套用一次
+ *
+ * 指標 ecommerce.catalog.records.* 以 MeterBinder 在建構完成後註冊
+ */
+@Service
+@Slf4j
+public class ProductRecordStoreService implements DomainEventConsumer, ApplicationRunner, MeterBinder {
+
+    private final CatalogReplicaLoader loader;
+    private final CatalogProperties properties;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final StockVersionFilter stockVersions = new StockVersionFilter();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object applyLock = new Object();
+
+    /**
+     * 第一次建立完成前為 null，此時讀取改走資料庫
+     */
+    private volatile OffHeapProductStore store;
+    private List<Long> deferred;
+
+    public ProductRecordStoreService(CatalogReplicaLoader loader, CatalogProperties properties) {
+        this.loader = loader;
+        this.properties = properties;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("ecommerce.catalog.records.products", this, service -> service.stat(OffHeapProductStore::size))
+            .register(meterRegistry);
+        Gauge.builder("ecommerce.catalog.records.allocated.bytes", this,
+                service -> service.stat(OffHeapProductStore::allocatedBytes))
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("ecommerce.catalog.records.garbage.bytes", this,
+                service -> service.stat(OffHeapProductStore::garbageBytes))
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return store != null;
+    }
+
+    /**
+     * 整份重建；未開啟時不做事，已有重建在執行時直接略過（由排程呼叫，下一輪再更新即可）
+     */
+    public void rebuild() {
+        if (!properties.isRecordStoreEnabled()) {
+            return;
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.debug("堆積外商品資料重建中，略過");
+            return;
+        }
+        try {
+            long startNanos = System.nanoTime();
+            synchronized (applyLock) {
+                deferred = new ArrayList<>();
+            }
+            OffHeapProductStore current = store;
+            OffHeapProductStore rebuilt = new OffHeapProductStore(OffHeapProductStore.DEFAULT_SEGMENT_BYTES,
+                current != null ? current.size() : 1024);
+            loader.loadAll(rebuilt::put);
+            synchronized (applyLock) {
+                lock.writeLock().lock();
+                try {
+                    store = rebuilt;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                for (Long productId : deferred) {
+                    apply(productId);
+                }
+            }
+            log.info("堆積外商品資料已重建 products={} allocatedMB={} millis={}",
+                rebuilt.size(), rebuilt.allocatedBytes() >> 20, (System.nanoTime() - startNanos) / 1_000_000);
+        } finally {
+            synchronized (applyLock) {
+                deferred = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    // ---------------------------------------------------------------- 查詢
+
+    /**
+     * 解碼整筆商品（呼叫端先以 isReady 確認已建立完成，否則改查資料庫）
+     */
+    public Optional<CatalogProduct> find(long productId) {
+        lock.readLock().lock();
+        try {
+            return store != null ? Optional.ofNullable(store.get(productId)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 依傳入順序解碼多筆商品，略過不存在的商品；activeOnly 時先讀 active 欄位，已停用的不解碼字串
+     */
+    public List<CatalogProduct> findAll(Collection<Long> productIds, boolean activeOnly) {
+        lock.readLock().lock();
+        try {
+            List<CatalogProduct> result = new ArrayList<>(productIds.size());
+            if (store == null) {
+                return result;
+            }
+            for (Long productId : productIds) {
+                if (activeOnly ? store.isActive(productId) : store.contains(productId)) {
+                    result.add(store.get(productId));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long stat(ToLongFunction<OffHeapProductStore> stat) {
+        lock.readLock().lock();
+        try {
+            return store != null ? stat.applyAsLong(store) : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------- 事件
+
+    @Override
+    public String getName() {
+        return "product-records";
+    }
+
+    /**
+     * 被丟棄的事件不會再送達，整份重建後商品資料才會與資料庫一致
+     */
+    @Override
+    public void onDropped() {
+        rebuild();
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (!properties.isRecordStoreEnabled()) {
+            return;
+        }
+        if (event instanceof ProductChangedEvent changed) {
+            synchronized (applyLock) {
+                if (deferred != null) {
+                    deferred.add(changed.productId());
+                } else {
+                    apply(changed.productId());
+                }
+            }
+        } else if (event instanceof StockChangedEvent stock) {
+            if (!stockVersions.accept(stock)) {
+                return;
+            }
+            synchronized (applyLock) {
+                if (deferred != null) {
+                    deferred.add(stock.productId());
+                    return;
+                }
+                lock.writeLock().lock();
+                try {
+                    if (store != null) {
+                        store.updateStockQuantity(stock.productId(), stock.quantity(), stock.version());
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * 重新讀取商品並更新（資料庫查詢在鎖外）
+     */
+    private void apply(long productId) {
+        if (store == null) {
+            return;
+        }
+        Optional<CatalogProduct> product = loader.loadProduct(productId);
+        lock.writeLock().lock();
+        try {
+            if (product.isPresent()) {
+                store.put(product.get());
+            } else {
+                store.remove(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
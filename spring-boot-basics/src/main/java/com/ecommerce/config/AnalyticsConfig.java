@@ -0,0 +1,13 @@
+package com.ecommerce.config;
+
+import com.ecommerce.analytics.AnalyticsProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 即時銷售統計配置（SalesAnalyticsService）
+ */
+@Configuration
+@EnableConfigurationProperties(AnalyticsProperties.class)
+public class AnalyticsConfig {
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.config;
+
+import com.ecommerce.catalog.CatalogFacetService;
+import com.ecommerce.catalog.CatalogProperties;
+import com.ecommerce.catalog.CatalogReplicaService;
+import com.ecommerce.catalog.ProductRecordStoreService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * 商品目錄配置（CatalogFacetService、CatalogReplicaService、ProductRecordStoreService）
+ *
+ * 定期整份重建分面索引、商品目錄快照與堆積外商品資料（開啟時）；第一次在 refreshInterval 之後，啟動時的建立交給 ApplicationRunner
+ */
+@Configuration
+@EnableConfigurationProperties(CatalogProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogConfig implements SchedulingConfigurer {
+
+    private final CatalogProperties properties;
+    private final CatalogFacetService catalogFacetService;
+    private final CatalogReplicaService catalogReplicaService;
+    private final ProductRecordStoreService productRecordStoreService;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(new FixedDelayTask(catalogFacetService::rebuild,
+            properties.getRefreshInterval(), properties.getRefreshInterval()));
+        log.info("已啟動分面索引重建 refreshInterval={}", properties.getRefreshInterval());
+        if (properties.isReplicaEnabled()) {
+            registrar.addFixedDelayTask(new FixedDelayTask(catalogReplicaService::rebuild,
+                properties.getRefreshInterval(), properties.getRefreshInterval()));
+            log.info("已啟動商品目錄快照重建 refreshInterval={}", properties.getRefreshInterval());
+        }
+        if (properties.isRecordStoreEnabled()) {
+            registrar.addFixedDelayTask(new FixedDelayTask(productRecordStoreService::rebuild,
+                properties.getRefreshInterval(), properties.getRefreshInterval()));
+            log.info("已啟動堆積外商品資料重建 refreshInterval={}", properties.getRefreshInterval());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.config;
+
+import com.ecommerce.monitoring.RepositoryMethodTracker;
+import com.ecommerce.monitoring.SlowQueryEndpoint;
+import com.ecommerce.monitoring.SlowQueryListener;
+import com.ecommerce.monitoring.SlowQueryLog;
+import com.ecommerce.monitoring.SqlStatementListener;
+import com.ecommerce.monitoring.SqlStatsFilter;
+import com.ecommerce.monitoring.SqlStatsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource 代理配置
+ *
+ * 以 datasource-proxy 包裝應用程式的 DataSource，攔截所有 JDBC 語句，
+ * 供 SqlStatsFilter 統計每個請求的 SQL 數量、資料列數與耗時，
+ * 並將超過門檻的慢查詢連同執行計畫記錄到 SlowQueryLog（/actuator/slowqueries）。
+ *
+ * @ConditionalOnProperty: ecommerce.sql-stats.enabled=false 時完全不包裝
+ */
+@Configuration
+@EnableConfigurationProperties(SqlStatsProperties.class)
+@ConditionalOnProperty(prefix = "ecommerce.sql-stats", name = "enabled", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    /**
+     * BeanPostProcessor 必須宣告為 static，避免提前初始化配置類
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyBeanPostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    SqlStatementListener listener = new SqlStatementListener();
+                    return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(listener)
+                        .listener(new SlowQueryListener(SingletonSupplier.of(slowQueryLog::getIfAvailable)))
+                        .methodListener(listener)
+                        .proxyResultSet()
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 在每個 Spring Data Repository 代理上加入 RepositoryMethodTracker，
+     * 讓慢查詢能標示觸發它的 Repository 方法
+     */
+    @Bean
+    public static BeanPostProcessor repositoryMethodTrackerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                        factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryMethodTracker(
+                                repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SlowQueryLog slowQueryLog(SqlStatsProperties properties) {
+        return new SlowQueryLog(properties.getSlowQuery());
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+
+    /**
+     * 註冊 SQL 統計過濾器，排在最前面以涵蓋整個請求
+     */
+    @Bean
+    public FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(SqlStatsProperties properties,
+                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatsFilter> registration =
+            new FilterRegistrationBean<>(new SqlStatsFilter(properties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.config;
+
+import com.ecommerce.event.EventBusProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process 事件匯流排配置（DomainEventBus）
+ */
+@Configuration
+@EnableConfigurationProperties(EventBusProperties.class)
+public class EventBusConfig {
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.config;
+
+import com.ecommerce.dto.OrderDTO;
+import com.ecommerce.idempotency.IdempotencyProperties;
+import com.ecommerce.idempotency.IdempotencyStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 冪等鍵配置
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    /**
+     * 建立訂單的冪等鍵存放區，值為第一次建立的訂單
+     */
+    @Bean
+    public IdempotencyStore<OrderDTO> orderIdempotencyStore(IdempotencyProperties properties) {
+        return new IdempotencyStore<>(properties.getMaxEntries(), properties.getTtl());
+    }
+}
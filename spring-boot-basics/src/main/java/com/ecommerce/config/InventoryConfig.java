@@ -0,0 +1,33 @@
+package com.ecommerce.config;
+
+import com.ecommerce.inventory.InventoryProperties;
+import com.ecommerce.inventory.LowStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * 庫存索引配置（LowStockService）
+ *
+ * 定期整份重建庫存索引；第一次在 refreshInterval 之後，啟動時的建立交給 ApplicationRunner
+ */
+@Configuration
+@EnableConfigurationProperties(InventoryProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryConfig implements SchedulingConfigurer {
+
+    private final InventoryProperties properties;
+    private final LowStockService lowStockService;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(new FixedDelayTask(lowStockService::rebuild,
+            properties.getRefreshInterval(), properties.getRefreshInterval()));
+        log.info("已啟動庫存索引重建 refreshInterval={}", properties.getRefreshInterval());
+    }
+}
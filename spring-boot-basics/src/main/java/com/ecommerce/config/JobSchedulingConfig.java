@@ -0,0 +1,42 @@
+package com.ecommerce.config;
+
+import com.ecommerce.job.JobProperties;
+import com.ecommerce.job.JobRunner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.util.StringUtils;
+
+/**
+ * 背景工作排程配置
+ *
+ * SchedulingConfigurer: 依 ecommerce.job.definitions.*.cron 動態註冊排程，
+ * 不必在程式碼裡寫死 @Scheduled。
+ * 排程執行緒只負責觸發，工作本身在 JobRunner 為每個工作建立的執行器上執行。
+ */
+@Configuration
+@EnableConfigurationProperties(JobProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class JobSchedulingConfig implements SchedulingConfigurer {
+
+    private final JobProperties properties;
+    private final JobRunner jobRunner;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (!properties.isSchedulingEnabled()) {
+            log.info("背景工作排程已關閉，只能透過管理 API 手動執行");
+            return;
+        }
+        jobRunner.getDefinitions().forEach((name, definition) -> {
+            if (definition.isEnabled() && StringUtils.hasText(definition.getCron())) {
+                registrar.addCronTask(() -> jobRunner.trigger(name), definition.getCron());
+                log.info("已排程背景工作 job={} cron={}", name, definition.getCron());
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.config;
+
+import com.ecommerce.outbox.OutboxProperties;
+import com.ecommerce.outbox.OutboxRelay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Outbox Relay 排程配置
+ *
+ * 以 fixed delay 輪詢：上一輪處理完才開始計時，積壓時不會有多輪同時執行
+ */
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxConfig implements SchedulingConfigurer {
+
+    private final OutboxProperties properties;
+    private final OutboxRelay outboxRelay;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (!properties.isRelayEnabled()) {
+            log.info("outbox relay 已關閉，事件只寫入不發送");
+            return;
+        }
+        registrar.addFixedDelayTask(outboxRelay::relay, properties.getPollInterval());
+        log.info("已啟動 outbox relay pollInterval={} batchSize={}",
+            properties.getPollInterval(), properties.getBatchSize());
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.config;
+
+import com.ecommerce.stream.ProductStreamProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 商品異動串流配置（ProductStreamService）
+ *
+ * 每個訂閱是一個長時間保持的非同步請求，不佔用請求執行緒；
+ * 同時連線數受 server.tomcat.max-connections 與作業系統的檔案描述子上限（ulimit -n）限制
+ */
+@Configuration
+@EnableConfigurationProperties(ProductStreamProperties.class)
+public class ProductStreamConfig {
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.config;
+
+import com.ecommerce.recommendation.RecommendationProperties;
+import com.ecommerce.recommendation.RelatedProductsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * 商品推薦配置（RelatedProductsService）
+ *
+ * 定期壓縮共同購買模型，讓長尾配對不會無限累積
+ */
+@Configuration
+@EnableConfigurationProperties(RecommendationProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationConfig implements SchedulingConfigurer {
+
+    private final RecommendationProperties properties;
+    private final RelatedProductsService relatedProductsService;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(relatedProductsService::compact, properties.getCompactionInterval());
+        log.info("已啟動共同購買模型壓縮 interval={} topK={}",
+            properties.getCompactionInterval(), properties.getTopK());
+    }
+}
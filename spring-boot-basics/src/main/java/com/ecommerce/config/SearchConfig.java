@@ -0,0 +1,38 @@
+package com.ecommerce.config;
+
+import com.ecommerce.search.FuzzySearchService;
+import com.ecommerce.search.ProductSuggestService;
+import com.ecommerce.search.SearchProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * 商品搜尋配置（ProductSuggestService、FuzzySearchService）
+ *
+ * 定期整份重建自動完成索引（更新人氣）與模糊搜尋索引（清掉墓碑）；第一次在 refreshInterval 之後，
+ * 啟動時的建立交給 ApplicationRunner
+ */
+@Configuration
+@EnableConfigurationProperties(SearchProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class SearchConfig implements SchedulingConfigurer {
+
+    private final SearchProperties properties;
+    private final ProductSuggestService productSuggestService;
+    private final FuzzySearchService fuzzySearchService;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(new FixedDelayTask(productSuggestService::rebuild,
+            properties.getRefreshInterval(), properties.getRefreshInterval()));
+        registrar.addFixedDelayTask(new FixedDelayTask(fuzzySearchService::rebuild,
+            properties.getRefreshInterval(), properties.getRefreshInterval()));
+        log.info("已啟動搜尋索引重建 refreshInterval={}", properties.getRefreshInterval());
+    }
+}
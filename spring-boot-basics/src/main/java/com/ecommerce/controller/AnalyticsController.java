@@ -0,0 +1,100 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.analytics.SalesAnalyticsService;
+import com.ecommerce.dto.SalesSummaryDTO;
+import com.ecommerce.entity.OrderStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 即時銷售統計 API
+ *
+ * 直接讀取記憶體中的統計立方體，不查詢資料庫；
+ * 日期區間預設為含今天在內的最近 30 天
+ */
+@RestController
+@RequestMapping("/api/v1/analytics")
+@RequiredArgsConstructor
+@Tag(name = "銷售統計", description = "依日期、分類、訂單狀態彙總的即時銷售數據")
+public class AnalyticsController {
+
+    private static final int DEFAULT_DAYS = 30;
+
+    private final SalesAnalyticsService analyticsService;
+
+    @Operation(summary = "區間銷售合計")
+    @GetMapping("/sales")
+    public ResponseEntity<SalesSummaryDTO> getSales(
+            @Parameter(description = "起始日期（含）", example = "2024-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "結束日期（含）", example = "2024-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "分類 ID") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "訂單狀態") @RequestParam(required = false) OrderStatus status) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        return ResponseEntity.ok(SalesSummaryDTO.of(null,
+            analyticsService.total(start, end, categoryId, status)));
+    }
+
+    @Operation(summary = "每日銷售", description = "只列出有銷售的日期")
+    @GetMapping("/sales/daily")
+    public ResponseEntity<List<SalesSummaryDTO>> getDailySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) OrderStatus status) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        return ResponseEntity.ok(analyticsService.byDay(start, end, categoryId, status).entrySet().stream()
+            .map(e -> SalesSummaryDTO.of(e.getKey(), e.getValue()))
+            .toList());
+    }
+
+    @Operation(summary = "依分類銷售", description = "分類 ID 0 為未分類商品")
+    @GetMapping("/sales/by-category")
+    public ResponseEntity<List<SalesSummaryDTO>> getSalesByCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) OrderStatus status) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        return ResponseEntity.ok(analyticsService.byCategory(start, end, status).entrySet().stream()
+            .map(e -> SalesSummaryDTO.of(e.getKey(), e.getValue()))
+            .toList());
+    }
+
+    @Operation(summary = "依訂單狀態銷售")
+    @GetMapping("/sales/by-status")
+    public ResponseEntity<List<SalesSummaryDTO>> getSalesByStatus(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long categoryId) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        return ResponseEntity.ok(analyticsService.byStatus(start, end, categoryId).entrySet().stream()
+            .map(e -> SalesSummaryDTO.of(e.getKey(), e.getValue()))
+            .toList());
+    }
+
+    @Operation(summary = "從資料庫重建統計", description = "同步執行，完成後返回")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "重建完成"),
+        @ApiResponse(responseCode = "409", description = "已有重建在執行")
+    })
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        analyticsService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
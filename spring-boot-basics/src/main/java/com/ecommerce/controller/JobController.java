@@ -0,0 +1,60 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.job.JobRun;
+import com.ecommerce.job.JobRunner;
+import com.ecommerce.job.JobSummary;
+import com.ecommerce.job.JobTrigger;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 背景工作管理 API
+ */
+@RestController
+@RequestMapping("/api/v1/admin/jobs")
+@RequiredArgsConstructor
+@Tag(name = "背景工作", description = "排程維護工作的查詢與手動觸發")
+public class JobController {
+
+    private final JobRunner jobRunner;
+
+    @Operation(summary = "查詢所有工作", description = "列出工作設定、是否執行中與最近一次執行結果")
+    @GetMapping
+    public ResponseEntity<List<JobSummary>> getJobs() {
+        return ResponseEntity.ok(jobRunner.getSummaries());
+    }
+
+    @Operation(summary = "查詢執行記錄", description = "由新到舊列出工作的執行記錄")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "查詢成功"),
+        @ApiResponse(responseCode = "404", description = "工作不存在")
+    })
+    @GetMapping("/{name}/history")
+    public ResponseEntity<List<JobRun>> getHistory(
+            @Parameter(description = "工作名稱", required = true, example = "cancel-unpaid-orders")
+            @PathVariable String name) {
+        return ResponseEntity.ok(jobRunner.getHistory(name));
+    }
+
+    @Operation(summary = "手動執行工作", description = "在工作專屬的執行器上非同步執行，立即返回")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "已開始執行"),
+        @ApiResponse(responseCode = "404", description = "工作不存在"),
+        @ApiResponse(responseCode = "409", description = "工作正在執行中")
+    })
+    @PostMapping("/{name}/run")
+    public ResponseEntity<Void> runJob(
+            @Parameter(description = "工作名稱", required = true, example = "cancel-unpaid-orders")
+            @PathVariable String name) {
+        jobRunner.submit(name, JobTrigger.MANUAL);
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -3,6 +3,8 @@ package com.ecommerce.controller;
 import com.ecommerce.dto.CreateOrderRequest;
 import com.ecommerce.dto.OrderDTO;
 import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.idempotency.IdempotentResult;
+import com.ecommerce.service.IdempotentOrderService;
 import com.ecommerce.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,6 +19,7 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * 訂單 API 控制器
@@ -27,38 +30,64 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "訂單管理", description = "訂單相關操作 API")
 public class OrderController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final IdempotentOrderService idempotentOrderService;
 
     /**
      * 創建訂單
+     *
+     * 帶 Idempotency-Key 標頭時，同一個鍵只會建立一張訂單：
+     * 重試會得到第一次建立的訂單，並加上 Idempotent-Replayed: true 標頭
      */
-    @Operation(summary = "創建訂單", description = "創建新的訂單，會自動扣減商品庫存")
+    @Operation(summary = "創建訂單", description = "創建新的訂單，會自動扣減商品庫存；可帶 Idempotency-Key 讓重試不會重複下單")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "201", description = "訂單創建成功"),
-        @ApiResponse(responseCode = "400", description = "請求參數驗證失敗或庫存不足"),
-        @ApiResponse(responseCode = "404", description = "商品不存在")
+        @ApiResponse(responseCode = "201", description = "訂單創建成功（或重播先前的結果）"),
+        @ApiResponse(responseCode = "400", description = "請求參數驗證失敗、庫存不足或 Idempotency-Key 格式不正確"),
+        @ApiResponse(responseCode = "404", description = "商品不存在"),
+        @ApiResponse(responseCode = "409", description = "相同 Idempotency-Key 的請求仍在處理中"),
+        @ApiResponse(responseCode = "422", description = "Idempotency-Key 已用於內容不同的請求")
     })
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<OrderDTO> createOrder(
+            @Parameter(description = "冪等鍵，建議使用 UUID", example = "6f1c2a3e-8d4b-4f5a-9c7e-1b2d3e4f5a6b")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Parameter(description = "訂單資訊", required = true)
             @Valid @RequestBody CreateOrderRequest request) {
-        OrderDTO created = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        if (idempotencyKey == null) {
+            OrderDTO created = orderService.createOrder(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        }
+        IdempotentResult<OrderDTO> result = idempotentOrderService.createOrder(idempotencyKey, request);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (result.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(result.value());
     }
 
     /**
      * 根據 ID 查詢訂單
+     *
+     * 條件式 GET：先只查訂單的最後修改時間產生 ETag，If-None-Match 相符時回應 304，不載入訂單與訂單項目
      */
     @Operation(summary = "查詢訂單", description = "根據訂單 ID 查詢訂單詳情")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "查詢成功"),
+        @ApiResponse(responseCode = "304", description = "If-None-Match 相符，內容未修改"),
         @ApiResponse(responseCode = "404", description = "訂單不存在")
     })
     @GetMapping("/{id}")
     public ResponseEntity<OrderDTO> getOrderById(
             @Parameter(description = "訂單 ID", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(orderService.getOrderETag(id))) {
+            return null;
+        }
         return ResponseEntity.ok(orderService.getOrderById(id));
     }
 
@@ -69,7 +98,11 @@ public class OrderController {
     @GetMapping("/number/{orderNumber}")
     public ResponseEntity<OrderDTO> getOrderByNumber(
             @Parameter(description = "訂單編號", required = true, example = "ORD-20240101-ABCD1234")
-            @PathVariable String orderNumber) {
+            @PathVariable String orderNumber,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(orderService.getOrderETagByNumber(orderNumber))) {
+            return null;
+        }
         return ResponseEntity.ok(orderService.getOrderByNumber(orderNumber));
     }
 
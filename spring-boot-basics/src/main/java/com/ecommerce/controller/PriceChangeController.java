@@ -0,0 +1,71 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.PriceChangeDTO;
+import com.ecommerce.dto.PriceChangeRequest;
+import com.ecommerce.service.PriceChangeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+/**
+ * 批次調價管理 API
+ *
+ * 提交後立即返回 202，透過 GET /{id} 輪詢進度
+ */
+@RestController
+@RequestMapping("/api/v1/admin/price-changes")
+@RequiredArgsConstructor
+@Tag(name = "批次調價", description = "依分類分區塊調整商品價格，可中斷續跑")
+public class PriceChangeController {
+
+    private final PriceChangeService priceChangeService;
+
+    @Operation(summary = "提交批次調價", description = "將分類下所有商品價格乘上指定乘數，由背景工作分區塊處理")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "已提交"),
+        @ApiResponse(responseCode = "400", description = "請求參數錯誤"),
+        @ApiResponse(responseCode = "404", description = "分類不存在")
+    })
+    @PostMapping
+    public ResponseEntity<PriceChangeDTO> submit(@Valid @RequestBody PriceChangeRequest request) {
+        PriceChangeDTO change = priceChangeService.submit(request);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+            .path("/{id}")
+            .buildAndExpand(change.getId())
+            .toUri();
+        return ResponseEntity.accepted().location(location).body(change);
+    }
+
+    @Operation(summary = "查詢批次調價進度")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "查詢成功"),
+        @ApiResponse(responseCode = "404", description = "作業不存在")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<PriceChangeDTO> getPriceChange(
+            @Parameter(description = "作業 ID", required = true, example = "1")
+            @PathVariable Long id) {
+        return ResponseEntity.ok(priceChangeService.getPriceChange(id));
+    }
+
+    @Operation(summary = "重新執行失敗的批次調價", description = "從檢查點繼續，已調整的商品不會重複調整")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "已重新提交"),
+        @ApiResponse(responseCode = "404", description = "作業不存在")
+    })
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<PriceChangeDTO> resume(
+            @Parameter(description = "作業 ID", required = true, example = "1")
+            @PathVariable Long id) {
+        return ResponseEntity.accepted().body(priceChangeService.resume(id));
+    }
+}
@@ -1,9 +1,19 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.analytics.BestSellerWindow;
+import com.ecommerce.dto.BestSellerDTO;
+import com.ecommerce.dto.CatalogBrowseDTO;
 import com.ecommerce.dto.CreateProductRequest;
+import com.ecommerce.dto.LowStockAlertDTO;
 import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductSuggestionDTO;
+import com.ecommerce.dto.RelatedProductDTO;
 import com.ecommerce.dto.UpdateProductRequest;
+import com.ecommerce.service.CatalogReadService;
+import com.ecommerce.service.ProductInsightService;
+import com.ecommerce.service.ProductSearchService;
 import com.ecommerce.service.ProductService;
+import com.ecommerce.stream.ProductStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,8 +29,13 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 商品 API 控制器
@@ -28,6 +43,9 @@ import java.util.List;
  * @RestController: 組合 @Controller 和 @ResponseBody，自動將返回值轉為 JSON
  * @RequestMapping: 指定基礎 URL 路徑
  * @Tag: Swagger 標籤，用於 API 分組
+ *
+ * 寫入走 ProductService（交易）；查詢走 CatalogReadService，
+ * 搜尋與瀏覽、低庫存與排行分別由 ProductSearchService、ProductInsightService 組合記憶體索引與商品資料
  */
 @RestController
 @RequestMapping("/api/v1/products")
@@ -36,53 +54,83 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogReadService catalogReadService;
+    private final ProductSearchService productSearchService;
+    private final ProductInsightService productInsightService;
+    private final ProductStreamService productStreamService;
 
     /**
      * 查詢所有商品（分頁）
      *
      * @GetMapping: 處理 HTTP GET 請求
      * @PageableDefault: 設定分頁預設值
+     * WebRequest.checkNotModified: 條件式 GET，If-None-Match 與目前的 ETag 相符時直接回應 304（回傳 null），
+     * 不必查詢與轉換列表；ETag 由商品列表的版本號（CatalogVersion）產生，最多一次輕量查詢
      */
     @Operation(summary = "查詢所有商品", description = "分頁查詢所有上架中的商品")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "查詢成功")
+        @ApiResponse(responseCode = "200", description = "查詢成功"),
+        @ApiResponse(responseCode = "304", description = "If-None-Match 相符，內容未修改")
     })
     @GetMapping
     public ResponseEntity<Page<ProductDTO>> getAllProducts(
             @Parameter(description = "分頁參數")
-            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
+            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogReadService.getListingETag())) {
+            return null;
+        }
+        return ResponseEntity.ok(catalogReadService.getAllProducts(pageable));
     }
 
     /**
      * 根據 ID 查詢商品
      *
      * @PathVariable: 從 URL 路徑中提取變數
+     * ETag 只由版本欄位產生（快照或輕量查詢），304 時不載入商品
      */
     @Operation(summary = "查詢單一商品", description = "根據商品 ID 查詢商品詳情")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "查詢成功"),
+        @ApiResponse(responseCode = "304", description = "If-None-Match 相符，內容未修改"),
         @ApiResponse(responseCode = "404", description = "商品不存在",
             content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
     })
     @GetMapping("/{id}")
     public ResponseEntity<ProductDTO> getProductById(
             @Parameter(description = "商品 ID", required = true, example = "1")
-            @PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogReadService.getProductETag(id))) {
+            return null;
+        }
+        return ResponseEntity.ok(catalogReadService.getProductById(id));
     }
 
     /**
      * 搜尋商品
      *
      * @RequestParam: 獲取 URL 查詢參數
+     * 一般搜尋支援條件式 GET；容錯搜尋由非同步更新的索引回應，不帶 ETag
      */
-    @Operation(summary = "搜尋商品", description = "根據關鍵字搜尋商品名稱")
+    @Operation(summary = "搜尋商品",
+        description = "根據關鍵字搜尋商品名稱；fuzzy=true 時容許拼錯字（編輯距離有上限），依相似度排序")
     @GetMapping("/search")
     public ResponseEntity<List<ProductDTO>> searchProducts(
             @Parameter(description = "搜尋關鍵字", required = true, example = "iPhone")
-            @RequestParam String keyword) {
-        return ResponseEntity.ok(productService.searchProducts(keyword));
+            @RequestParam String keyword,
+            @Parameter(description = "容錯搜尋（拼錯字也找得到）", example = "false")
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @Parameter(description = "容錯搜尋的筆數", example = "20")
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        if (fuzzy) {
+            return ResponseEntity.ok(productSearchService.fuzzySearchProducts(keyword, limit));
+        }
+        if (webRequest.checkNotModified(catalogReadService.getListingETag())) {
+            return null;
+        }
+        return ResponseEntity.ok(catalogReadService.searchProducts(keyword));
     }
 
     /**
@@ -92,8 +140,12 @@ public class ProductController {
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<List<ProductDTO>> getProductsByCategory(
             @Parameter(description = "分類 ID", required = true, example = "1")
-            @PathVariable Long categoryId) {
-        return ResponseEntity.ok(productService.getProductsByCategory(categoryId));
+            @PathVariable Long categoryId,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogReadService.getListingETag())) {
+            return null;
+        }
+        return ResponseEntity.ok(catalogReadService.getProductsByCategory(categoryId));
     }
 
     /**
@@ -127,7 +179,8 @@ public class ProductController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "更新成功"),
         @ApiResponse(responseCode = "404", description = "商品不存在"),
-        @ApiResponse(responseCode = "400", description = "請求參數驗證失敗")
+        @ApiResponse(responseCode = "400", description = "請求參數驗證失敗"),
+        @ApiResponse(responseCode = "409", description = "商品在讀取後已被其他請求修改（如下單扣庫存），請重試")
     })
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> updateProduct(
@@ -165,6 +218,117 @@ public class ProductController {
     public ResponseEntity<List<ProductDTO>> getLowStockProducts(
             @Parameter(description = "庫存閾值", example = "10")
             @RequestParam(defaultValue = "10") int threshold) {
-        return ResponseEntity.ok(productService.getLowStockProducts(threshold));
+        return ResponseEntity.ok(productInsightService.getLowStockProducts(threshold));
+    }
+
+    /**
+     * 低庫存警示串流
+     */
+    @Operation(summary = "低庫存警示",
+        description = "上架商品的庫存跨過警示門檻的紀錄，依序號排序；輪詢時帶上一次收到的最後一個序號")
+    @GetMapping("/low-stock/alerts")
+    public ResponseEntity<List<LowStockAlertDTO>> getLowStockAlerts(
+            @Parameter(description = "只回傳序號大於此值的警示", example = "0")
+            @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "回傳筆數（1 ~ 1000）", example = "100")
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(productInsightService.getLowStockAlerts(after, limit));
+    }
+
+    /**
+     * 商品異動串流（Server-Sent Events）
+     *
+     * 不宣告 produces：訂閱失敗時錯誤回應仍以 JSON 回傳
+     */
+    @Operation(summary = "商品異動串流",
+        description = "訂閱商品或分類的庫存與價格異動（text/event-stream）。同一商品在合併時間窗內的異動只送最新值，"
+            + "每批為一個 delta 事件（JSON 陣列）；閒置時送心跳註解行。重連後請重新查詢商品")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "訂閱成功"),
+        @ApiResponse(responseCode = "400", description = "沒有指定商品或分類，或數量超過上限",
+            content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse"))),
+        @ApiResponse(responseCode = "503", description = "這個節點的訂閱已滿",
+            content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
+    })
+    @GetMapping("/stream")
+    public SseEmitter streamProductChanges(
+            @Parameter(description = "商品 ID（可多個）", example = "1,2")
+            @RequestParam(required = false) List<Long> productIds,
+            @Parameter(description = "分類 ID（可多個）", example = "3")
+            @RequestParam(required = false) List<Long> categoryIds) {
+        return productStreamService.subscribe(
+            productIds != null ? new HashSet<>(productIds) : Set.of(),
+            categoryIds != null ? new HashSet<>(categoryIds) : Set.of());
+    }
+
+    /**
+     * 分面瀏覽
+     */
+    @Operation(summary = "分面瀏覽",
+        description = "依分類（可多選）與價格篩選，一次回傳一頁商品與分類、價格區間的計數")
+    @GetMapping("/browse")
+    public ResponseEntity<CatalogBrowseDTO> browseProducts(
+            @Parameter(description = "分類 ID，可重複指定（或）", example = "1")
+            @RequestParam(required = false) List<Long> category,
+            @Parameter(description = "最低價格（含）", example = "1000")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "最高價格（含）", example = "50000")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "依價格由高到低排序", example = "false")
+            @RequestParam(defaultValue = "false") boolean desc,
+            @Parameter(description = "頁碼（從 0 開始）", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "每頁筆數", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productSearchService.browseProducts(category, minPrice, maxPrice, desc, page, size));
+    }
+
+    /**
+     * 商品名稱自動完成
+     */
+    @Operation(summary = "商品名稱自動完成",
+        description = "搜尋框每次按鍵呼叫：比對商品名稱中任一詞的開頭（不分全形半形與大小寫），依人氣排序，只回傳 ID 與名稱")
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggestProducts(
+            @Parameter(description = "已輸入的文字", required = true, example = "iph")
+            @RequestParam String prefix,
+            @Parameter(description = "筆數", example = "8")
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productSearchService.suggestProducts(prefix, limit));
+    }
+
+    /**
+     * 熱銷商品排行
+     */
+    @Operation(summary = "熱銷商品排行",
+        description = "依視窗內售出件數排序（取消的訂單會扣回）；件數為估計值，maxOverestimate 為最多高估的件數")
+    @GetMapping("/best-sellers")
+    public ResponseEntity<List<BestSellerDTO>> getBestSellers(
+            @Parameter(description = "時間視窗：HOUR（最近 1 小時）、DAY（最近 24 小時）、WEEK（最近 7 天）", example = "DAY")
+            @RequestParam(defaultValue = "DAY") BestSellerWindow window,
+            @Parameter(description = "分類 ID；未指定時為全站排行", example = "1")
+            @RequestParam(required = false) Long category,
+            @Parameter(description = "筆數", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productInsightService.getBestSellers(window, category, limit));
+    }
+
+    /**
+     * 共同購買商品
+     */
+    @Operation(summary = "共同購買商品",
+        description = "買了這個商品的人也買了：依同一張訂單出現的次數排序（取消的訂單不扣回）")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "查詢成功"),
+        @ApiResponse(responseCode = "404", description = "商品不存在",
+            content = @Content(schema = @Schema(ref = "#/components/schemas/ErrorResponse")))
+    })
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<RelatedProductDTO>> getRelatedProducts(
+            @Parameter(description = "商品 ID", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "筆數", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productInsightService.getRelatedProducts(id, limit));
     }
 }
@@ -0,0 +1,92 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.SalesSummaryDTO;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.service.SalesReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 銷售報表 API
+ *
+ * 讀取持久化的每日彙總表，適合跨年度的財務報表；
+ * 即時儀表板請用 /api/v1/analytics（記憶體統計，只保留最近一段時間）。
+ * 日期區間預設為含今天在內的最近 30 天
+ */
+@RestController
+@RequestMapping("/api/v1/reports/sales")
+@RequiredArgsConstructor
+@Tag(name = "銷售報表", description = "依日期、商品、分類的持久化銷售彙總")
+public class SalesReportController {
+
+    private static final int DEFAULT_DAYS = 30;
+
+    private final SalesReportService salesReportService;
+
+    @Operation(summary = "區間銷售合計")
+    @GetMapping
+    public ResponseEntity<SalesSummaryDTO> getTotal(
+            @Parameter(description = "起始日期（含）", example = "2022-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "結束日期（含）", example = "2024-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "訂單狀態") @RequestParam(required = false) OrderStatus status) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        return ResponseEntity.ok(salesReportService.getTotal(start, end, status));
+    }
+
+    @Operation(summary = "每日銷售", description = "只列出有銷售的日期")
+    @GetMapping("/daily")
+    public ResponseEntity<List<SalesSummaryDTO>> getDaily(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) OrderStatus status) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        return ResponseEntity.ok(salesReportService.getDaily(start, end, status));
+    }
+
+    @Operation(summary = "每月銷售", description = "分組鍵為 yyyy-MM")
+    @GetMapping("/monthly")
+    public ResponseEntity<List<SalesSummaryDTO>> getMonthly(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) OrderStatus status) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        return ResponseEntity.ok(salesReportService.getMonthly(start, end, status));
+    }
+
+    @Operation(summary = "依分類銷售", description = "依營收排序；分類 ID 0 為未分類商品")
+    @GetMapping("/by-category")
+    public ResponseEntity<List<SalesSummaryDTO>> getByCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) OrderStatus status) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        return ResponseEntity.ok(salesReportService.getByCategory(start, end, status));
+    }
+
+    @Operation(summary = "商品銷售排行", description = "依營收排序，分組鍵為商品 ID")
+    @GetMapping("/by-product")
+    public ResponseEntity<List<SalesSummaryDTO>> getTopProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "分類 ID") @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "筆數（最多 100）") @RequestParam(defaultValue = "20") int limit) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        return ResponseEntity.ok(salesReportService.getTopProducts(start, end, categoryId, status, limit));
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entity.Product;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * 熱銷商品資料傳輸物件
+ */
+@Schema(description = "熱銷商品")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BestSellerDTO {
+
+    @Schema(description = "商品 ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "商品名稱", example = "iPhone 15 Pro")
+    private String name;
+
+    @Schema(description = "價格", example = "36900.00")
+    private BigDecimal price;
+
+    @Schema(description = "分類名稱", example = "手機")
+    private String categoryName;
+
+    @Schema(description = "視窗內售出件數（估計值，不會低估）", example = "128")
+    private long unitsSold;
+
+    @Schema(description = "估計值最多高估的件數；實際件數介於 unitsSold - maxOverestimate 與 unitsSold 之間", example = "0")
+    private long maxOverestimate;
+
+    public static BestSellerDTO of(Product product, long unitsSold, long maxOverestimate) {
+        return BestSellerDTO.builder()
+            .productId(product.getId())
+            .name(product.getName())
+            .price(product.getPrice())
+            .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
+            .unitsSold(unitsSold)
+            .maxOverestimate(maxOverestimate)
+            .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 分面瀏覽結果：一頁商品與所有分面計數
+ */
+@Schema(description = "分面瀏覽結果")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogBrowseDTO {
+
+    @Schema(description = "符合條件的商品總數", example = "128")
+    private int total;
+
+    @Schema(description = "頁碼（從 0 開始）", example = "0")
+    private int page;
+
+    @Schema(description = "每頁筆數", example = "20")
+    private int size;
+
+    @Schema(description = "這一頁的商品，依價格排序")
+    private List<ProductDTO> items;
+
+    @Schema(description = "分類計數（套用價格條件，不套用分類條件）")
+    private List<CategoryFacet> categories;
+
+    @Schema(description = "價格區間計數（套用分類條件，不套用價格條件）")
+    private List<PriceFacet> priceRanges;
+
+    @Schema(description = "分類分面")
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryFacet {
+
+        @Schema(description = "分類 ID；0 表示未分類", example = "1")
+        private Long categoryId;
+
+        @Schema(description = "分類名稱", example = "手機")
+        private String name;
+
+        @Schema(description = "商品數", example = "42")
+        private int count;
+    }
+
+    @Schema(description = "價格區間分面")
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceFacet {
+
+        @Schema(description = "下限（含）", example = "1000")
+        private BigDecimal from;
+
+        @Schema(description = "上限（不含）；null 表示沒有上限", example = "5000")
+        private BigDecimal to;
+
+        @Schema(description = "商品數", example = "17")
+        private int count;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.inventory.LowStockAlert;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 低庫存警示資料傳輸物件
+ */
+@Schema(description = "低庫存警示")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LowStockAlertDTO {
+
+    @Schema(description = "警示序號（下一次輪詢帶入 after）", example = "42")
+    private long sequence;
+
+    @Schema(description = "商品 ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "跨過的門檻", example = "10")
+    private int threshold;
+
+    @Schema(description = "異動前庫存", example = "12")
+    private int previousQuantity;
+
+    @Schema(description = "異動後庫存", example = "8")
+    private int quantity;
+
+    @Schema(description = "BELOW：降到門檻以下；RECOVERED：回到門檻以上", example = "BELOW")
+    private LowStockAlert.Direction direction;
+
+    @Schema(description = "發生時間")
+    private LocalDateTime occurredAt;
+
+    public static LowStockAlertDTO fromAlert(LowStockAlert alert) {
+        return LowStockAlertDTO.builder()
+            .sequence(alert.sequence())
+            .productId(alert.productId())
+            .threshold(alert.threshold())
+            .previousQuantity(alert.previousQuantity())
+            .quantity(alert.quantity())
+            .direction(alert.direction())
+            .occurredAt(alert.occurredAt())
+            .build();
+    }
+}
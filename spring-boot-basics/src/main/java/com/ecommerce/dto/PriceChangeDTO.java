@@ -0,0 +1,65 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entity.PriceChange;
+import com.ecommerce.entity.PriceChangeStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 批次調價作業資料傳輸物件
+ */
+@Schema(description = "批次調價作業")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceChangeDTO {
+
+    @Schema(description = "作業 ID", example = "1")
+    private Long id;
+
+    @Schema(description = "分類 ID", example = "1")
+    private Long categoryId;
+
+    @Schema(description = "價格乘數", example = "1.10")
+    private BigDecimal multiplier;
+
+    @Schema(description = "狀態", example = "RUNNING")
+    private PriceChangeStatus status;
+
+    @Schema(description = "已處理商品數", example = "1500")
+    private long processedCount;
+
+    @Schema(description = "提交時的商品數（估計值）", example = "3000")
+    private long totalCount;
+
+    @Schema(description = "檢查點：已處理的最後一個商品 ID", example = "20480")
+    private long lastProductId;
+
+    @Schema(description = "失敗原因")
+    private String error;
+
+    @Schema(description = "提交時間")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "完成時間")
+    private LocalDateTime completedAt;
+
+    public static PriceChangeDTO fromEntity(PriceChange priceChange) {
+        return PriceChangeDTO.builder()
+            .id(priceChange.getId())
+            .categoryId(priceChange.getCategoryId())
+            .multiplier(priceChange.getMultiplier())
+            .status(priceChange.getStatus())
+            .processedCount(priceChange.getProcessedCount())
+            .totalCount(priceChange.getTotalCount())
+            .lastProductId(priceChange.getLastProductId())
+            .error(priceChange.getError())
+            .createdAt(priceChange.getCreatedAt())
+            .completedAt(priceChange.getCompletedAt())
+            .build();
+    }
+}
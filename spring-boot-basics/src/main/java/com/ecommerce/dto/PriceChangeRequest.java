@@ -0,0 +1,32 @@
+package com.ecommerce.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * 批次調價請求 DTO
+ */
+@Schema(description = "批次調價請求")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceChangeRequest {
+
+    @Schema(description = "分類 ID", example = "1", required = true)
+    @NotNull(message = "分類 ID 不能為空")
+    private Long categoryId;
+
+    /**
+     * 1.1 表示漲價 10%，0.9 表示打九折
+     */
+    @Schema(description = "價格乘數", example = "1.10", required = true)
+    @NotNull(message = "價格乘數不能為空")
+    @DecimalMin(value = "0.01", message = "價格乘數必須大於 0")
+    @DecimalMax(value = "10", message = "價格乘數不能超過 10")
+    @Digits(integer = 2, fraction = 4, message = "價格乘數格式不正確")
+    private BigDecimal multiplier;
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.dto;
 
+import com.ecommerce.catalog.CatalogProduct;
 import com.ecommerce.entity.Product;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
@@ -60,4 +61,21 @@ public class ProductDTO {
             .createdAt(product.getCreatedAt())
             .build();
     }
+
+    /**
+     * 從商品目錄快照轉換為 DTO（DTO 可修改，每次回傳新的物件）
+     */
+    public static ProductDTO fromSnapshot(CatalogProduct product) {
+        return ProductDTO.builder()
+            .id(product.id())
+            .name(product.name())
+            .price(product.price())
+            .description(product.description())
+            .stockQuantity(product.stockQuantity())
+            .imageUrl(product.imageUrl())
+            .active(product.active())
+            .categoryName(product.categoryName())
+            .createdAt(product.createdAt())
+            .build();
+    }
 }
@@ -0,0 +1,25 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.search.SuggestTrie;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+/**
+ * 自動完成候選（只帶顯示需要的欄位，每次按鍵都會呼叫）
+ */
+@Schema(description = "自動完成候選")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionDTO {
+
+    @Schema(description = "商品 ID", example = "1")
+    private Long id;
+
+    @Schema(description = "商品名稱", example = "iPhone 15 Pro")
+    private String name;
+
+    public static ProductSuggestionDTO of(SuggestTrie.Suggestion suggestion) {
+        return new ProductSuggestionDTO(suggestion.productId(), suggestion.name());
+    }
+}
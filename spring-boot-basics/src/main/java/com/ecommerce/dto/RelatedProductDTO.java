@@ -0,0 +1,43 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entity.Product;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * 共同購買商品資料傳輸物件
+ */
+@Schema(description = "共同購買商品")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RelatedProductDTO {
+
+    @Schema(description = "商品 ID", example = "2")
+    private Long productId;
+
+    @Schema(description = "商品名稱", example = "AirPods Pro")
+    private String name;
+
+    @Schema(description = "價格", example = "7490.00")
+    private BigDecimal price;
+
+    @Schema(description = "分類名稱", example = "配件")
+    private String categoryName;
+
+    @Schema(description = "與查詢商品出現在同一張訂單的次數", example = "42")
+    private int coPurchaseCount;
+
+    public static RelatedProductDTO of(Product product, int coPurchaseCount) {
+        return RelatedProductDTO.builder()
+            .productId(product.getId())
+            .name(product.getName())
+            .price(product.getPrice())
+            .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
+            .coPurchaseCount(coPurchaseCount)
+            .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.analytics.SalesRollupRow;
+import com.ecommerce.analytics.SalesTotals;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * 銷售彙總資料傳輸物件
+ */
+@Schema(description = "銷售彙總")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesSummaryDTO {
+
+    @Schema(description = "分組鍵（日期、月份、商品 ID、分類 ID 或訂單狀態；不分組時為 null）", example = "2024-01-15")
+    private String key;
+
+    @Schema(description = "訂單數（依分類分組時為含該分類商品的訂單數）", example = "42")
+    private long orders;
+
+    @Schema(description = "售出件數", example = "120")
+    private long units;
+
+    @Schema(description = "營收", example = "35800.00")
+    private BigDecimal revenue;
+
+    public static SalesSummaryDTO of(Object key, SalesTotals totals) {
+        return SalesSummaryDTO.builder()
+            .key(key != null ? key.toString() : null)
+            .orders(totals.orders())
+            .units(totals.units())
+            .revenue(BigDecimal.valueOf(totals.revenueCents(), 2))
+            .build();
+    }
+
+    public static SalesSummaryDTO of(SalesRollupRow row) {
+        return SalesSummaryDTO.builder()
+            .key(row.key().toString())
+            .orders(row.orders())
+            .units(row.units())
+            .revenue(row.revenue())
+            .build();
+    }
+}
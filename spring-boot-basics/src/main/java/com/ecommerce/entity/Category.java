@@ -3,6 +3,8 @@ package com.ecommerce.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,8 +14,12 @@ import java.util.List;
  *
  * @Entity: 標記為 JPA 實體，對應資料庫表
  * @Table: 指定對應的資料庫表名及約束
+ * @Cache: Hibernate 二級快取
+ * - READ_WRITE: 更新時以軟鎖保護快取項目，提交後才寫回，避免讀到未提交資料
+ * - 分類幾乎不變動，ProductDTO.fromEntity 的分類代理載入與 findById 都會命中快取
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "categories", uniqueConstraints = {
     @UniqueConstraint(columnNames = "name", name = "uk_category_name")
 })
@@ -0,0 +1,56 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 每日商品銷售彙總（日期 × 商品 × 訂單狀態）
+ *
+ * categoryId 是寫入時商品所屬的分類（0 = 未分類），方便依分類篩選商品排行；
+ * 商品改分類後，舊資料要等重算該日期分區才會跟著變。
+ *
+ * @see DailySales
+ */
+@Entity
+@Table(name = "daily_product_sales",
+    uniqueConstraints = @UniqueConstraint(name = "uk_daily_product_sales",
+        columnNames = {"sales_date", "product_id", "status"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyProductSales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrderStatus status;
+
+    /**
+     * 含此商品的訂單數
+     */
+    @Column(name = "orders", nullable = false)
+    private long orders;
+
+    @Column(name = "units", nullable = false)
+    private long units;
+
+    @Column(name = "revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 每日銷售彙總（日期 × 訂單狀態）
+ *
+ * 由 SalesRollupSink 依訂單事件增量維護、SalesRollupBackfillJob 依日期分區重算；
+ * 報表只讀彙總表，不再 JOIN orders / order_items。
+ *
+ * 彙總表只以 SQL MERGE 寫入，實體只用於建表與查詢：
+ * - 不繼承 BaseEntity：不需要 createdAt / updatedAt
+ * - 訂單數另外保存：一張訂單含多個商品（分類）時，不能由商品彙總加總得到
+ */
+@Entity
+@Table(name = "daily_sales",
+    uniqueConstraints = @UniqueConstraint(name = "uk_daily_sales", columnNames = {"sales_date", "status"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "orders", nullable = false)
+    private long orders;
+
+    @Column(name = "units", nullable = false)
+    private long units;
+
+    @Column(name = "revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * 冪等鍵記錄
+ *
+ * 與訂單在同一個交易中寫入，訂單提交則鍵一定存在；重啟後或記憶體已淘汰時，
+ * 以此表查回第一次建立的訂單。idempotency_key 的唯一限制也擋下
+ * 多個節點同時處理同一個鍵的情況（後提交者整個交易回滾）。
+ */
+@Entity
+@Table(name = "idempotency_keys",
+    uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_key", columnNames = "idempotency_key"),
+    indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class IdempotencyRecord extends BaseEntity {
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    /**
+     * 請求內容的 SHA-256，同一個鍵搭配不同內容時拒絕
+     */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
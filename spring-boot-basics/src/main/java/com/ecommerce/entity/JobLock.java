@@ -0,0 +1,39 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 背景工作租約鎖
+ *
+ * 多個應用程式實例共用同一個資料庫時，以此表保證同一個工作同時只在一個節點執行。
+ * - owner: 目前持有租約的節點
+ * - lockedUntil: 租約到期時間，持有者須在到期前續約；節點當掉後租約自然過期，其他節點即可接手
+ * - fencingToken: 每次取得租約就遞增，寫入時比對，讓已失去租約的舊持有者無法再寫入
+ *
+ * 不繼承 BaseEntity：以工作名稱為自然主鍵，也不需要稽核欄位
+ */
+@Entity
+@Table(name = "job_locks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLock {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "owner", length = 200)
+    private String owner;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+}
@@ -12,9 +12,11 @@ import java.util.List;
  * 訂單實體
  *
  * 展示實體關聯與枚舉映射
+ * created_at 索引：逾時未付款訂單與銷售彙總重算都依建立時間範圍查詢
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+    indexes = @Index(name = "idx_orders_created_at", columnList = "created_at"))
 @Getter
 @Setter
 @NoArgsConstructor
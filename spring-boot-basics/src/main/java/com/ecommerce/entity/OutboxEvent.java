@@ -0,0 +1,73 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Outbox 事件（Transactional Outbox 模式）
+ *
+ * 與業務資料在同一個交易中寫入：訂單提交則事件一定存在，回滾則事件也不存在。
+ * 由 OutboxRelay 在背景分批讀出、發送給各個 OutboxSink 後整批刪除，
+ * 結帳流程只多一次 INSERT，不必等待下游（搜尋索引、倉儲）處理。
+ *
+ * 不繼承 BaseEntity：
+ * - 主鍵使用序列（allocationSize = 50），同一交易中的多筆事件可以 JDBC batch 寫入；
+ *   IDENTITY 主鍵必須逐筆 INSERT 才能取得 ID
+ * - 事件只在發送失敗時更新 attempts / lastError / parkedAt，不需要 updatedAt
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OutboxEventType eventType;
+
+    /**
+     * 聚合類型（Order、Product），下游可依此分流
+     */
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    /**
+     * 事件內容（JSON）
+     */
+    @Column(name = "payload", nullable = false, length = 16000)
+    private String payload;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    /**
+     * 單獨發送失敗的次數（整批失敗且無任何事件成功時不計，視為下游中斷）
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * 最後一次失敗的原因
+     */
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    /**
+     * 失敗次數達到 maxAttempts 後停放的時間；停放的事件不再發送，等待人工處理
+     */
+    @Column(name = "parked_at")
+    private Instant parkedAt;
+}
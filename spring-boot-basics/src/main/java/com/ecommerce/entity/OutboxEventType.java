@@ -0,0 +1,10 @@
+package com.ecommerce.entity;
+
+/**
+ * Outbox 事件類型
+ */
+public enum OutboxEventType {
+    ORDER_CREATED,          // 訂單建立
+    ORDER_STATUS_CHANGED,   // 訂單狀態變更（含取消）
+    STOCK_CHANGED           // 商品庫存變更
+}
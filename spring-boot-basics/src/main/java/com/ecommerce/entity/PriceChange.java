@@ -0,0 +1,69 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 批次調價作業
+ *
+ * 將某個分類所有商品的價格乘上 multiplier。
+ * 由背景工作依商品 ID 遞增分區塊處理，每個區塊提交時一併更新檢查點（lastProductId），
+ * 因此中途失敗或節點當掉後可從檢查點續跑，每個商品只會被調整一次。
+ */
+@Entity
+@Table(name = "price_changes", indexes = {
+    @Index(name = "idx_price_change_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class PriceChange extends BaseEntity {
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "multiplier", nullable = false, precision = 10, scale = 4)
+    private BigDecimal multiplier;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private PriceChangeStatus status = PriceChangeStatus.PENDING;
+
+    /**
+     * 檢查點：已處理的最後一個商品 ID
+     */
+    @Column(name = "last_product_id", nullable = false)
+    @Builder.Default
+    private long lastProductId = 0;
+
+    @Column(name = "processed_count", nullable = false)
+    @Builder.Default
+    private long processedCount = 0;
+
+    /**
+     * 提交時的商品數，僅供估算進度
+     */
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    /**
+     * 業務方法：記錄一個區塊的處理結果
+     */
+    public void advance(long lastProductId, int processed) {
+        this.lastProductId = lastProductId;
+        this.processedCount += processed;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.entity;
+
+/**
+ * 批次調價狀態
+ */
+public enum PriceChangeStatus {
+    PENDING,     // 已提交，等待背景工作處理
+    RUNNING,     // 處理中（節點當掉時會停在此狀態，之後由背景工作從檢查點續跑）
+    COMPLETED,   // 完成
+    FAILED       // 區塊處理失敗，可從檢查點重新執行
+}
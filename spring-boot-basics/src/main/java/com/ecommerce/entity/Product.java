@@ -3,6 +3,8 @@ package com.ecommerce.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
@@ -10,11 +12,18 @@ import java.math.BigDecimal;
  * 商品實體
  *
  * 展示 JPA 實體註解的使用方式
+ *
+ * @Cache: 二級快取（READ_WRITE），findById 與關聯代理載入可直接從快取取得
+ * 注意：JPQL 批次更新（@Modifying）會讓整個 Product 快取區域失效
+ * 注意：快取在各節點本機（ehcache.xml），其他節點的提交不會讓它失效，最長到 TTL 到期前都可能讀到舊值；
+ * 異動庫存一律以 ProductRepository.findAllByIdForUpdate 鎖定並從資料庫讀取
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "products", indexes = {
     @Index(name = "idx_product_name", columnList = "name"),
-    @Index(name = "idx_product_category", columnList = "category_id")
+    @Index(name = "idx_product_category", columnList = "category_id"),
+    @Index(name = "idx_product_updated_at", columnList = "updated_at")
 })
 @Getter
 @Setter
@@ -61,6 +70,15 @@ public class Product extends BaseEntity {
     @JoinColumn(name = "category_id")
     private Category category;
 
+    /**
+     * @Version: 樂觀鎖版本號，每次更新加一（UPDATE ... WHERE version = ?）
+     * - 兩個交易同時修改同一商品時，後提交的更新失敗，不會互相覆蓋庫存
+     * - 版本號依提交順序遞增，庫存事件帶著它，消費者據此略過晚到的舊事件
+     */
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     /**
      * 業務方法：檢查庫存是否足夠
      */
@@ -0,0 +1,13 @@
+package com.ecommerce.event;
+
+/**
+ * 領域事件
+ *
+ * 業務交易中以 ApplicationEventPublisher 發布，提交後由 DomainEventBus 放進環形緩衝區，
+ * 交給各個 DomainEventConsumer 在背景處理；交易回滾的事件不會送出。
+ *
+ * sealed：消費者可以用 switch 模式比對窮舉所有事件類型
+ */
+public sealed interface DomainEvent
+    permits OrderCreatedEvent, OrderStatusChangedEvent, StockChangedEvent, ProductChangedEvent {
+}
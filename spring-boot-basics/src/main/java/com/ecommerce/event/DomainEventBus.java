@@ -0,0 +1,319 @@
+package com.ecommerce.event;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process 領域事件匯流排（LMAX Disruptor 環形緩衝區）
+ *
+ * 寫入後的附帶工作（快取失效、搜尋索引、低庫存提醒、統計）不必耦合進業務交易：
+ * - 交易提交後（@TransactionalEventListener AFTER_COMMIT）才發布，回滾的事件不會送出
+ * - 緩衝區的槽位在啟動時預先配置，發布只是取得序號、寫入參照、推進游標，不配置物件、不取鎖
+ * - 每個消費者各有一條執行緒與自己的序號，一次處理所有可讀的事件（批次），互不阻擋
+ * - 緩衝區滿時發布端最多等待 publishTimeout，逾時丟棄並計數（有界背壓）；
+ *   丟棄後在復原執行緒上通知所有消費者（onDropped），連續丟棄合併成一次通知
+ * - 所有消費者處理完的槽位由最後一個處理器清除參照，事件不會留在緩衝區裡等到被覆寫才釋放
+ *
+ * 匯流排只保證「盡力送達」：重啟時緩衝區內未處理的事件會遺失，
+ * 需要可靠送達的下游請使用 outbox（OutboxSink）。
+ *
+ * 指標：
+ * - ecommerce.eventbus.published / ecommerce.eventbus.dropped
+ * - ecommerce.eventbus.lag{consumer}: 消費者落後的事件數
+ * - ecommerce.eventbus.errors{consumer}: 消費者處理失敗次數
+ */
+@Component
+@Slf4j
+public class DomainEventBus implements SmartLifecycle {
+
+    private final List<DomainEventConsumer> consumers;
+    private final EventBusProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+
+    private volatile List<ConsumerHandler> handlers = List.of();
+    private volatile Disruptor<Slot> disruptor;
+    private volatile RingBuffer<Slot> ringBuffer;
+    private volatile ExecutorService recovery;
+    private final AtomicBoolean recoveryPending = new AtomicBoolean();
+
+    public DomainEventBus(List<DomainEventConsumer> consumers, EventBusProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.consumers = consumers;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.publishedCounter = Counter.builder("ecommerce.eventbus.published").register(meterRegistry);
+        this.droppedCounter = Counter.builder("ecommerce.eventbus.dropped")
+            .description("緩衝區滿且等待逾時而丟棄的事件數")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 交易提交後把事件放進緩衝區
+     */
+    @TransactionalEventListener
+    public void onCommitted(DomainEvent event) {
+        publish(event);
+    }
+
+    /**
+     * 發布事件
+     *
+     * @return false 表示匯流排未啟動，或緩衝區在 publishTimeout 內都沒有空位而丟棄
+     */
+    public boolean publish(DomainEvent event) {
+        RingBuffer<Slot> buffer = ringBuffer;
+        if (buffer == null) {
+            return false;
+        }
+        long sequence;
+        try {
+            sequence = buffer.tryNext();
+        } catch (InsufficientCapacityException e) {
+            sequence = awaitCapacity(buffer);
+            if (sequence < 0) {
+                droppedCounter.increment();
+                log.warn("事件匯流排已滿，丟棄事件 type={}", event.getClass().getSimpleName());
+                scheduleRecovery();
+                return false;
+            }
+        }
+        buffer.get(sequence).event = event;
+        buffer.publish(sequence);
+        publishedCounter.increment();
+        return true;
+    }
+
+    /**
+     * 有界背壓：短暫休眠重試，直到有空位或逾時
+     *
+     * @return 取得的序號，逾時回傳 -1
+     */
+    private long awaitCapacity(RingBuffer<Slot> buffer) {
+        long deadline = System.nanoTime() + properties.getPublishTimeout().toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(50_000);
+            try {
+                return buffer.tryNext();
+            } catch (InsufficientCapacityException ignored) {
+                // 繼續等待
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 通知所有消費者有事件被丟棄；已排定但還沒開始的通知會涵蓋這次丟棄，不重複排定
+     *
+     * 在復原執行緒上執行：消費者通常會整份重建，不能佔用發布端（提交交易的請求執行緒）
+     */
+    private void scheduleRecovery() {
+        ExecutorService executor = recovery;
+        if (executor == null || !recoveryPending.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            // 先清除：通知期間再有丟棄時排定下一輪
+            recoveryPending.set(false);
+            for (DomainEventConsumer consumer : consumers) {
+                try {
+                    consumer.onDropped();
+                } catch (RuntimeException e) {
+                    log.error("事件丟棄後的復原失敗 consumer={}", consumer.getName(), e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized void start() {
+        if (disruptor != null) {
+            return;
+        }
+        Disruptor<Slot> created = new Disruptor<>(Slot::new, properties.getRingSize(), threadFactory(),
+            ProducerType.MULTI, new SleepingWaitStrategy(200, properties.getIdleSleep().toNanos()));
+        List<ConsumerHandler> createdHandlers = consumers.stream().map(ConsumerHandler::new).toList();
+        if (!createdHandlers.isEmpty()) {
+            created.handleEventsWith(createdHandlers.toArray(ConsumerHandler[]::new))
+                .then((slot, sequence, endOfBatch) -> slot.event = null);
+            for (ConsumerHandler handler : createdHandlers) {
+                created.handleExceptionsFor(handler).with(new LoggingExceptionHandler(handler.consumer.getName()));
+            }
+        }
+        RingBuffer<Slot> buffer = created.start();
+        for (ConsumerHandler handler : createdHandlers) {
+            Gauge.builder("ecommerce.eventbus.lag", this, bus -> bus.getLag(handler.consumer.getName()))
+                .tag("consumer", handler.consumer.getName())
+                .register(meterRegistry);
+        }
+        ExecutorService createdRecovery = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-bus-recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        recovery = createdRecovery;
+        handlers = createdHandlers;
+        disruptor = created;
+        ringBuffer = buffer;
+        log.info("事件匯流排已啟動 ringSize={} consumers={}", properties.getRingSize(),
+            consumers.stream().map(DomainEventConsumer::getName).toList());
+    }
+
+    /**
+     * 停止發布並等待消費者處理完緩衝區內的事件
+     */
+    @Override
+    public synchronized void stop() {
+        Disruptor<Slot> current = disruptor;
+        if (current == null) {
+            return;
+        }
+        ringBuffer = null;
+        disruptor = null;
+        handlers = List.of();
+        recovery.shutdownNow();
+        recovery = null;
+        try {
+            current.shutdown(5, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("事件匯流排關閉逾時，強制停止");
+            current.halt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return disruptor != null;
+    }
+
+    /**
+     * 最後停止：其他元件關閉期間提交的交易仍可發布事件
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 100;
+    }
+
+    /**
+     * 消費者落後的事件數（已發布但尚未處理）
+     */
+    public long getLag(String consumerName) {
+        Disruptor<Slot> current = disruptor;
+        if (current == null) {
+            return 0;
+        }
+        for (ConsumerHandler handler : handlers) {
+            if (handler.consumer.getName().equals(consumerName)) {
+                return current.getCursor() - current.getSequenceValueFor(handler);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 槽位目前的事件參照（測試用）
+     */
+    DomainEvent slotEvent(long sequence) {
+        RingBuffer<Slot> buffer = ringBuffer;
+        return buffer != null ? buffer.get(sequence).event : null;
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "event-bus-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 緩衝區槽位：啟動時預先建立，發布時只替換參照，所有消費者處理完後清除
+     */
+    static final class Slot {
+        DomainEvent event;
+    }
+
+    /**
+     * 把 Disruptor 的 EventHandler 轉接到 DomainEventConsumer
+     */
+    private static final class ConsumerHandler implements EventHandler<Slot>, LifecycleAware {
+
+        private final DomainEventConsumer consumer;
+
+        ConsumerHandler(DomainEventConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void onStart() {
+            Thread.currentThread().setName("event-bus-" + consumer.getName());
+        }
+
+        @Override
+        public void onShutdown() {
+        }
+
+        @Override
+        public void onEvent(Slot slot, long sequence, boolean endOfBatch) throws Exception {
+            consumer.onEvent(slot.event, sequence, endOfBatch);
+        }
+    }
+
+    private final class LoggingExceptionHandler implements ExceptionHandler<Slot> {
+
+        private final String consumerName;
+        private final Counter errorCounter;
+
+        LoggingExceptionHandler(String consumerName) {
+            this.consumerName = consumerName;
+            this.errorCounter = Counter.builder("ecommerce.eventbus.errors")
+                .tag("consumer", consumerName)
+                .register(meterRegistry);
+        }
+
+        /**
+         * 記錄後繼續處理下一個事件（Disruptor 預設會停止該消費者）
+         */
+        @Override
+        public void handleEventException(Throwable ex, long sequence, Slot slot) {
+            errorCounter.increment();
+            log.error("事件處理失敗 consumer={} sequence={} type={}", consumerName, sequence,
+                slot.event != null ? slot.event.getClass().getSimpleName() : null, ex);
+        }
+
+        @Override
+        public void handleOnStartException(Throwable ex) {
+            log.error("事件消費者啟動失敗", ex);
+        }
+
+        @Override
+        public void handleOnShutdownException(Throwable ex) {
+            log.error("事件消費者關閉失敗", ex);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.event;
+
+/**
+ * 事件匯流排的消費者
+ *
+ * 實作為 Spring Bean 即會被 DomainEventBus 註冊。每個消費者：
+ * - 在自己的執行緒上依發布順序收到所有事件，並記錄自己處理到的序號
+ * - 一次取得目前可讀的所有事件（批次），endOfBatch 為 true 時是批次最後一筆，
+ *   適合在這時才寫出累積的結果（例如一次更新多個計數器）
+ * - 拋出例外只會記錄並略過該事件，不會停止消費
+ * - 處理太慢時會拖住發布端（最多 publishTimeout），請避免在這裡做阻塞 I/O
+ */
+public interface DomainEventConsumer {
+
+    /**
+     * 消費者名稱，用於指標與執行緒名稱
+     */
+    String getName();
+
+    void onEvent(DomainEvent event, long sequence, boolean endOfBatch) throws Exception;
+
+    /**
+     * 有事件因緩衝區滿而被丟棄（所有消費者都收不到）後呼叫；預設不處理
+     *
+     * 在匯流排的復原執行緒上執行，連續丟棄合併成一次呼叫。以事件增量維護衍生狀態的消費者
+     * 應在這裡整份重建，否則要等下一次定期重建才會修正
+     */
+    default void onDropped() {
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 依類型統計已提交的領域事件數（ecommerce.events{type}）
+ */
+@Component
+public class DomainEventMetricsConsumer implements DomainEventConsumer {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+
+    public DomainEventMetricsConsumer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String getName() {
+        return "metrics";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        counters.computeIfAbsent(event.getClass(), type -> Counter.builder("ecommerce.events")
+                .tag("type", type.getSimpleName())
+                .register(meterRegistry))
+            .increment();
+    }
+}
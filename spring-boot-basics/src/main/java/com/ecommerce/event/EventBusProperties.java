@@ -0,0 +1,30 @@
+package com.ecommerce.event;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 事件匯流排配置
+ */
+@Data
+@ConfigurationProperties(prefix = "ecommerce.event-bus")
+public class EventBusProperties {
+
+    /**
+     * 環形緩衝區大小（必須是 2 的次方），啟動時一次配置，之後不再成長
+     */
+    private int ringSize = 8192;
+
+    /**
+     * 緩衝區滿時（最慢的消費者落後一整圈）發布端最多等待多久，逾時則丟棄事件並計數；
+     * 請求執行緒不會被無限期卡住，堆積也不會讓記憶體成長
+     */
+    private Duration publishTimeout = Duration.ofMillis(20);
+
+    /**
+     * 消費者閒置時每次休眠的時間：越短延遲越低，但閒置時越耗 CPU
+     */
+    private Duration idleSleep = Duration.ofMillis(1);
+}
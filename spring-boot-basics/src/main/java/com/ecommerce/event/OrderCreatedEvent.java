@@ -0,0 +1,19 @@
+package com.ecommerce.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 訂單建立事件（outbox 類型 ORDER_CREATED）
+ */
+public record OrderCreatedEvent(long orderId, String orderNumber, String customerEmail,
+                                BigDecimal totalAmount, LocalDateTime createdAt,
+                                List<Item> items) implements DomainEvent {
+
+    /**
+     * @param categoryId 事件發生時商品所屬的分類，未分類為 null
+     */
+    public record Item(long productId, Long categoryId, int quantity, BigDecimal unitPrice) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.event;
+
+import com.ecommerce.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 訂單狀態變更事件（outbox 類型 ORDER_STATUS_CHANGED）
+ *
+ * 帶著下單時間與訂單項目，消費者（如銷售統計）不必回頭查詢就能把整張訂單移到新狀態
+ */
+public record OrderStatusChangedEvent(long orderId, String orderNumber,
+                                      OrderStatus previousStatus, OrderStatus status,
+                                      LocalDateTime createdAt,
+                                      List<OrderCreatedEvent.Item> items) implements DomainEvent {
+}
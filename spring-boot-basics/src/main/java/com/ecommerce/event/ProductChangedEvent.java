@@ -0,0 +1,15 @@
+package com.ecommerce.event;
+
+/**
+ * 商品資料變更事件（新增、修改、停用、批次調價），只在 in-process 事件匯流排上發布
+ *
+ * 只帶 ID：消費者需要最新資料時自行查詢，避免事件內容與資料庫不一致
+ */
+public record ProductChangedEvent(long productId, Change change) implements DomainEvent {
+
+    public enum Change {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
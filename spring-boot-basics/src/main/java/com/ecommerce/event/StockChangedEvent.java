@@ -0,0 +1,21 @@
+package com.ecommerce.event;
+
+/**
+ * 庫存變更事件（outbox 類型 STOCK_CHANGED）
+ *
+ * 事件在各自的交易提交後、由提交的執行緒發布：同一商品的兩筆異動依序提交，發布順序卻可能相反。
+ * quantity 是絕對值，消費者以 version（提交後的商品版本，依提交順序遞增）略過比已套用版本舊的事件（StockVersionFilter）；
+ * 同一交易內同一商品的多筆事件版本相同，依發布順序套用即可。
+ *
+ * @param categoryId 商品所屬分類，未分類為 null（依分類路由的消費者不必再查資料庫）
+ * @param version    提交後的 Product.version；0 表示未知（舊的 outbox 資料）
+ */
+public record StockChangedEvent(long productId, Long categoryId, int previousQuantity, int quantity, Reason reason,
+                                long version) implements DomainEvent {
+
+    public enum Reason {
+        ORDER_CREATED,      // 下單扣減
+        ORDER_CANCELLED,    // 取消訂單恢復
+        PRODUCT_UPDATED     // 管理端直接修改
+    }
+}
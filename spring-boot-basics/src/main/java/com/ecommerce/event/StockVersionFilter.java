@@ -0,0 +1,47 @@
+package com.ecommerce.event;
+
+import com.ecommerce.recommendation.LongIntHashMap;
+
+/**
+ * 略過晚到的舊庫存事件
+ *
+ * StockChangedEvent 在各自的提交執行緒上發布，同一商品的事件可能以與提交相反的順序到達；
+ * 直接套用事件中的絕對庫存會讓較舊的值蓋掉較新的值，直到下次整份重建才修正。
+ * 這裡記下每個商品已套用的最高版本，版本較舊的事件回傳 false。
+ *
+ * 每個消費者各持有一個（只在該消費者的執行緒上使用），非執行緒安全；跨執行緒共用時由呼叫端同步。
+ * 整份重建不清除紀錄：重建讀到的值若比已套用的事件新，對應的事件版本更高，之後到達時仍會套用。
+ */
+public class StockVersionFilter {
+
+    private final LongIntHashMap applied = new LongIntHashMap(1024);
+
+    /**
+     * @return true 表示應套用；版本未知（0）的事件一律套用
+     */
+    public boolean accept(StockChangedEvent event) {
+        if (event.version() <= 0) {
+            return true;
+        }
+        int version = (int) Math.min(event.version(), Integer.MAX_VALUE);
+        if (version < applied.get(event.productId())) {
+            return false;
+        }
+        applied.put(event.productId(), version);
+        return true;
+    }
+
+    /**
+     * 版本比已記錄的新時記下並回傳 true；同版本視為已處理過
+     *
+     * 輪詢資料庫異動時使用：同一筆提交可能已經由事件送出，重讀到相同版本不再重複處理
+     */
+    public boolean acceptNewer(long productId, long version) {
+        int value = (int) Math.min(version, Integer.MAX_VALUE);
+        if (value <= applied.get(productId)) {
+            return false;
+        }
+        applied.put(productId, value);
+        return true;
+    }
+}
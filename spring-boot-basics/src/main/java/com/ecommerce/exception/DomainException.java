@@ -0,0 +1,44 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 預期中的業務錯誤（商品不存在、庫存不足等）的基底類別
+ *
+ * 這類錯誤屬於正常流程的一部分，搶購時的庫存不足或爬蟲造成的 404 佔了不少流量，
+ * 因此刻意做成「輕量」例外：
+ * - 不填入堆疊追蹤：super(message, cause, false, false) 會略過 fillInStackTrace，
+ *   也不建立 suppressed 清單，建構成本與一般物件相當
+ * - 延遲格式化訊息：只有在 getMessage() 被呼叫時才組字串，結果會快取
+ *
+ * 需要堆疊追蹤的非預期錯誤請使用一般的 RuntimeException。
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private String message;
+
+    protected DomainException() {
+        super(null, null, false, false);
+    }
+
+    /**
+     * 對應的 HTTP 狀態碼，由 GlobalExceptionHandler 使用
+     */
+    public abstract HttpStatus getStatus();
+
+    /**
+     * 組出錯誤訊息；只會在第一次 getMessage() 時呼叫
+     */
+    protected abstract String formatMessage();
+
+    @Override
+    public String getMessage() {
+        // 重複計算結果相同，不需同步
+        String formatted = message;
+        if (formatted == null) {
+            formatted = formatMessage();
+            message = formatted;
+        }
+        return formatted;
+    }
+}
@@ -5,14 +5,20 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,33 +33,39 @@ import java.util.Map;
 public class GlobalExceptionHandler {
 
     /**
-     * 處理資源不存在異常
-     *
-     * @ExceptionHandler: 指定處理的異常類型
+     * 各狀態碼預先建立的錯誤類型與回應標頭（唯讀，可安全共用）
      */
-    @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleResourceNotFound(ResourceNotFoundException ex) {
-        ErrorResponse error = ErrorResponse.builder()
-            .timestamp(LocalDateTime.now())
-            .status(HttpStatus.NOT_FOUND.value())
-            .error("Not Found")
-            .message(ex.getMessage())
-            .build();
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    private static final Map<HttpStatus, ErrorTemplate> TEMPLATES = new EnumMap<>(HttpStatus.class);
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpHeaders jsonHeaders = HttpHeaders.readOnlyHttpHeaders(headers);
+        for (HttpStatus status : HttpStatus.values()) {
+            if (status.isError()) {
+                TEMPLATES.put(status, new ErrorTemplate(status.getReasonPhrase(), jsonHeaders));
+            }
+        }
     }
 
     /**
-     * 處理庫存不足異常
+     * 最近一次產生的時間戳記，同一毫秒內的錯誤回應共用同一個 LocalDateTime
      */
-    @ExceptionHandler(InsufficientStockException.class)
-    public ResponseEntity<ErrorResponse> handleInsufficientStock(InsufficientStockException ex) {
-        ErrorResponse error = ErrorResponse.builder()
-            .timestamp(LocalDateTime.now())
-            .status(HttpStatus.BAD_REQUEST.value())
-            .error("Bad Request")
-            .message(ex.getMessage())
-            .build();
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    private static volatile CachedTimestamp lastTimestamp = new CachedTimestamp(0, LocalDateTime.MIN);
+
+    /**
+     * 處理業務錯誤（資源不存在、庫存不足等）
+     *
+     * @ExceptionHandler: 指定處理的異常類型，子類別也會被這個方法處理
+     * - 狀態碼由例外本身提供（DomainException.getStatus）
+     * - 標頭與錯誤類型取自預先建立的 ErrorTemplate，這條路徑只配置回應本體
+     */
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ErrorResponse> handleDomainException(DomainException ex) {
+        HttpStatus status = ex.getStatus();
+        ErrorTemplate template = TEMPLATES.get(status);
+        ErrorResponse error = new ErrorResponse(now(), status.value(), template.error(), ex.getMessage());
+        return new ResponseEntity<>(error, template.headers(), status);
     }
 
     /**
@@ -81,6 +93,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    /**
+     * 處理樂觀鎖衝突（同一商品被兩個交易同時修改，後提交的一方失敗）
+     *
+     * 下單、取消與批次調價先鎖定商品再修改，不會在這裡失敗；
+     * 會發生的是商品編輯（PUT /products/{id}）讀到舊版本的情況。
+     * 回傳 409，由客戶端重試；重試時會讀到已提交的最新值
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        ErrorTemplate template = TEMPLATES.get(HttpStatus.CONFLICT);
+        ErrorResponse error = new ErrorResponse(now(), HttpStatus.CONFLICT.value(), template.error(),
+            "資料已被其他請求修改，請重試");
+        return new ResponseEntity<>(error, template.headers(), HttpStatus.CONFLICT);
+    }
+
     /**
      * 處理其他未捕獲的異常
      */
@@ -95,6 +122,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
+    private static LocalDateTime now() {
+        long millis = System.currentTimeMillis();
+        CachedTimestamp cached = lastTimestamp;
+        if (cached.epochMilli() != millis) {
+            cached = new CachedTimestamp(millis,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+            lastTimestamp = cached;
+        }
+        return cached.value();
+    }
+
+    private record ErrorTemplate(String error, HttpHeaders headers) {
+    }
+
+    private record CachedTimestamp(long epochMilli, LocalDateTime value) {
+    }
+
     /**
      * 錯誤回應 DTO
      */
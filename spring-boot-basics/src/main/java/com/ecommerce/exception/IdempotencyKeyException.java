@@ -0,0 +1,45 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Idempotency-Key 無法使用
+ *
+ * - 400：鍵格式不正確
+ * - 409：同一個鍵的第一個請求仍在處理中，稍後重試即可取得結果
+ * - 422：同一個鍵被用在內容不同的請求上
+ */
+public class IdempotencyKeyException extends DomainException {
+
+    private final HttpStatus status;
+    private final String key;
+    private final String reason;
+
+    private IdempotencyKeyException(HttpStatus status, String key, String reason) {
+        this.status = status;
+        this.key = key;
+        this.reason = reason;
+    }
+
+    public static IdempotencyKeyException invalid(String key) {
+        return new IdempotencyKeyException(HttpStatus.BAD_REQUEST, key, "長度須為 1 到 100 個字元");
+    }
+
+    public static IdempotencyKeyException inProgress(String key) {
+        return new IdempotencyKeyException(HttpStatus.CONFLICT, key, "相同鍵的請求仍在處理中，請稍後重試");
+    }
+
+    public static IdempotencyKeyException mismatch(String key) {
+        return new IdempotencyKeyException(HttpStatus.UNPROCESSABLE_ENTITY, key, "已用於內容不同的請求");
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "Idempotency-Key '" + key + "' " + reason;
+    }
+}
@@ -5,22 +5,33 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 
 /**
  * 庫存不足異常
+ *
+ * 繼承 DomainException：搶購時大量發生，不填入堆疊追蹤，訊息延遲組出
  */
 @ResponseStatus(HttpStatus.BAD_REQUEST)
-public class InsufficientStockException extends RuntimeException {
+public class InsufficientStockException extends DomainException {
 
     private final Long productId;
     private final int requestedQuantity;
     private final int availableStock;
 
     public InsufficientStockException(Long productId, int requestedQuantity, int availableStock) {
-        super(String.format("商品 ID %d 庫存不足: 需要 %d 件，但只有 %d 件",
-            productId, requestedQuantity, availableStock));
         this.productId = productId;
         this.requestedQuantity = requestedQuantity;
         this.availableStock = availableStock;
     }
 
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "商品 ID " + productId + " 庫存不足: 需要 " + requestedQuantity
+            + " 件，但只有 " + availableStock + " 件";
+    }
+
     public Long getProductId() {
         return productId;
     }
@@ -0,0 +1,31 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 工作已在執行中（同一工作不允許重疊執行）
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class JobAlreadyRunningException extends DomainException {
+
+    private final String jobName;
+
+    public JobAlreadyRunningException(String jobName) {
+        this.jobName = jobName;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "工作 " + jobName + " 正在執行中";
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+}
@@ -7,21 +7,31 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  * 資源不存在異常
  *
  * @ResponseStatus: 當此異常被拋出時，自動返回指定的 HTTP 狀態碼
+ * 繼承 DomainException：不填入堆疊追蹤，訊息延遲到 getMessage() 才組出
  */
 @ResponseStatus(HttpStatus.NOT_FOUND)
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends DomainException {
 
     private final String resourceName;
     private final String fieldName;
     private final Object fieldValue;
 
     public ResourceNotFoundException(String resourceName, String fieldName, Object fieldValue) {
-        super(String.format("%s 不存在: %s = '%s'", resourceName, fieldName, fieldValue));
         this.resourceName = resourceName;
         this.fieldName = fieldName;
         this.fieldValue = fieldValue;
     }
 
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return resourceName + " 不存在: " + fieldName + " = '" + fieldValue + "'";
+    }
+
     public String getResourceName() {
         return resourceName;
     }
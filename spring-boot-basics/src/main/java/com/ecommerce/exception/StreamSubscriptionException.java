@@ -0,0 +1,46 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 無法建立商品異動串流的訂閱
+ *
+ * - 400：沒有指定商品或分類，或數量超過上限
+ * - 503：這個節點的訂閱已滿或正在關閉，稍後重試（或由負載平衡導向其他節點）
+ */
+public class StreamSubscriptionException extends DomainException {
+
+    private final HttpStatus status;
+    private final String reason;
+
+    private StreamSubscriptionException(HttpStatus status, String reason) {
+        this.status = status;
+        this.reason = reason;
+    }
+
+    public static StreamSubscriptionException empty() {
+        return new StreamSubscriptionException(HttpStatus.BAD_REQUEST, "至少要指定一個商品或分類");
+    }
+
+    public static StreamSubscriptionException tooManyKeys(int max) {
+        return new StreamSubscriptionException(HttpStatus.BAD_REQUEST, "商品與分類合計不可超過 " + max + " 個");
+    }
+
+    public static StreamSubscriptionException full() {
+        return new StreamSubscriptionException(HttpStatus.SERVICE_UNAVAILABLE, "訂閱數已達上限，請稍後重試");
+    }
+
+    public static StreamSubscriptionException stopped() {
+        return new StreamSubscriptionException(HttpStatus.SERVICE_UNAVAILABLE, "節點正在關閉，請稍後重試");
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    protected String formatMessage() {
+        return "無法訂閱商品異動：" + reason;
+    }
+}
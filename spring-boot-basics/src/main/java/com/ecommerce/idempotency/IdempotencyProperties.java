@@ -0,0 +1,37 @@
+package com.ecommerce.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 冪等鍵（Idempotency-Key）配置
+ *
+ * <pre>
+ * ecommerce:
+ *   idempotency:
+ *     max-entries: 10000
+ *     ttl: 24h
+ *     in-flight-timeout: 10s
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "ecommerce.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * 記憶體中最多保留的鍵數，超過時淘汰最舊的鍵（仍可由資料表查回）
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * 鍵的有效期限（記憶體與資料表相同）
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * 重複請求等待第一個請求完成的最長時間，逾時回應 409 讓用戶端稍後重試
+     */
+    private Duration inFlightTimeout = Duration.ofSeconds(10);
+}
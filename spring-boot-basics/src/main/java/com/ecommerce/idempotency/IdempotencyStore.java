@@ -0,0 +1,140 @@
+package com.ecommerce.idempotency;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * 有上限、依 TTL 淘汰的冪等鍵記憶體存放區
+ *
+ * 每個鍵對應一個 Entry，Entry 內的 CompletableFuture 代表第一個請求的執行結果：
+ * - reserve 以 ConcurrentHashMap.putIfAbsent 保證同一個鍵只有一個請求取得執行權
+ * - 其餘重複請求拿到同一個 Entry，等待 future 完成即可取得相同結果，不會再執行一次
+ * - 插入順序記錄在佇列中，新增時從最舊的開始淘汰過期或超出上限的鍵（FIFO，O(1) 攤銷）
+ *
+ * 記憶體中被淘汰的鍵仍可由資料表（idempotency_keys）查回，這裡只負責擋下大部分的重試
+ * 以及同時到達的重複請求。
+ *
+ * @param <V> 快取的結果型別
+ */
+public class IdempotencyStore<V> {
+
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry<V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    public IdempotencyStore(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock 時間來源（測試時可替換）
+     */
+    IdempotencyStore(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 保留一個鍵
+     *
+     * @param fingerprint 請求內容的雜湊，用來偵測同一個鍵被用在不同請求上
+     * @return acquired 為 true 表示呼叫者取得執行權，必須呼叫 complete 或 fail；
+     *         否則回傳已存在的 Entry，等待其結果即可
+     */
+    public Reservation<V> reserve(String key, String fingerprint) {
+        long now = nanoClock.getAsLong();
+        Entry<V> created = new Entry<>(key, fingerprint, now + ttlNanos);
+        while (true) {
+            Entry<V> existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                insertionOrder.add(created);
+                evict(now);
+                return new Reservation<>(created, true);
+            }
+            if (!existing.isExpired(now)) {
+                return new Reservation<>(existing, false);
+            }
+            // 已過期但尚未被淘汰：移除後重試
+            entries.remove(key, existing);
+        }
+    }
+
+    /**
+     * 記錄成功結果，並喚醒等待中的重複請求
+     */
+    public void complete(Entry<V> entry, V value) {
+        entry.result.complete(value);
+    }
+
+    /**
+     * 記錄失敗：移除鍵讓用戶端可以重試，等待中的重複請求收到相同的例外
+     */
+    public void fail(Entry<V> entry, Throwable error) {
+        entries.remove(entry.key, entry);
+        entry.result.completeExceptionally(error);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+    }
+
+    private void evict(long now) {
+        Entry<V> eldest;
+        while ((eldest = insertionOrder.peek()) != null) {
+            boolean stale = entries.get(eldest.key) != eldest;
+            if (!stale && !eldest.isExpired(now) && entries.size() <= maxEntries) {
+                return;
+            }
+            if (insertionOrder.remove(eldest)) {
+                entries.remove(eldest.key, eldest);
+            }
+        }
+    }
+
+    /**
+     * reserve 的結果
+     */
+    public record Reservation<V>(Entry<V> entry, boolean acquired) {
+    }
+
+    /**
+     * 一個冪等鍵及其執行結果
+     */
+    public static final class Entry<V> {
+
+        private final String key;
+        private final String fingerprint;
+        private final long expiresAtNanos;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        Entry(String key, String fingerprint, long expiresAtNanos) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public CompletableFuture<V> getResult() {
+            return result;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.idempotency;
+
+/**
+ * 冪等執行結果
+ *
+ * @param value    執行結果（重播時為第一次執行的結果）
+ * @param replayed 是否為重播，Controller 據此加上 Idempotent-Replayed 標頭
+ */
+public record IdempotentResult<V>(V value, boolean replayed) {
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.inventory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 庫存索引與低庫存警示配置
+ */
+@Data
+@ConfigurationProperties(prefix = "ecommerce.inventory")
+public class InventoryProperties {
+
+    /**
+     * 低庫存警示門檻：庫存從 threshold 以上降到 threshold 以下（&lt;）時發出 BELOW，回到 threshold 以上時發出 RECOVERED；
+     * 1 即為缺貨
+     */
+    private List<Integer> lowStockThresholds = List.of(10, 1);
+
+    /**
+     * 警示串流保留的筆數（/api/v1/products/low-stock/alerts 以序號往後讀）
+     */
+    private int alertFeedCapacity = 1000;
+
+    /**
+     * 定期整份重建的間隔：補上沒有發布事件的批次更新（例如批次停用缺貨商品）
+     */
+    private Duration refreshInterval = Duration.ofMinutes(10);
+
+    /**
+     * 啟動時是否建立索引
+     */
+    private boolean rebuildOnStartup = true;
+}
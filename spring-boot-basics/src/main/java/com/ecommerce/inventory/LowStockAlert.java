@@ -0,0 +1,18 @@
+package com.ecommerce.inventory;
+
+import java.time.LocalDateTime;
+
+/**
+ * 上架商品的庫存跨過警示門檻（由 LowStockService 以 ApplicationEventPublisher 推送，並保留在警示串流中）
+ *
+ * @param sequence  警示串流中的序號（遞增，重啟後從 1 開始）
+ * @param threshold 跨過的門檻：BELOW 為「庫存 &lt; threshold」，RECOVERED 為回到 threshold 以上
+ */
+public record LowStockAlert(long sequence, long productId, int threshold, int previousQuantity, int quantity,
+                            Direction direction, LocalDateTime occurredAt) {
+
+    public enum Direction {
+        BELOW,
+        RECOVERED
+    }
+}
@@ -0,0 +1,275 @@
+package com.ecommerce.inventory;
+
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.DomainEventConsumer;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.StockChangedEvent;
+import com.ecommerce.event.StockVersionFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 低庫存查詢與警示
+ *
+ * - 啟動時與每 refreshInterval 整份重建 StockLevelIndex（上架商品的庫存）
+ * - StockChangedEvent（下單、取消、管理端修改）直接帶新庫存，不查資料庫；發布順序可能與提交相反，
+ *   版本比已套用的舊的事件略過（不更新索引也不產生警示）
+ *   ProductChangedEvent（新增、停用）重新讀取該商品
+ * - 查詢共用讀鎖，增量更新取寫鎖
+ *
+ * 上架商品的庫存跨過 lowStockThresholds 時產生 LowStockAlert：以 ApplicationEventPublisher 推送給
+ * {@code @EventListener}（在事件匯流排的消費者執行緒上同步呼叫，監聽者不可阻塞），
+ * 並保留最近 alertFeedCapacity 筆供 API 以序號往後讀。
+ *
+ * 重建期間收到的事件先記下商品 ID，重建完成後重新讀取這些商品再套用一次
+ *
+ * 索引大小的 Gauge 需要參照 this，以 MeterBinder 在建構完成後註冊
+ */
+@Service
+@Slf4j
+public class LowStockService implements DomainEventConsumer, ApplicationRunner, MeterBinder {
+
+    private final StockLevelLoader loader;
+    private final InventoryProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int[] thresholds;
+    private final Counter belowAlerts;
+    private final Counter recoveredAlerts;
+    private final Counter staleEvents;
+    private final StockVersionFilter stockVersions = new StockVersionFilter();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object applyLock = new Object();
+
+    /**
+     * 第一次建立完成前為 null，此時查詢改走資料庫
+     */
+    private volatile StockLevelIndex index;
+    private List<Long> deferred;
+
+    private final Deque<LowStockAlert> alerts = new ArrayDeque<>();
+    private long alertSequence;
+
+    public LowStockService(StockLevelLoader loader, InventoryProperties properties,
+                           ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.loader = loader;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.thresholds = properties.getLowStockThresholds().stream()
+            .mapToInt(Integer::intValue)
+            .sorted()
+            .toArray();
+        this.belowAlerts = Counter.builder("ecommerce.inventory.low.stock.alerts")
+            .tag("direction", "below")
+            .register(meterRegistry);
+        this.recoveredAlerts = Counter.builder("ecommerce.inventory.low.stock.alerts")
+            .tag("direction", "recovered")
+            .register(meterRegistry);
+        this.staleEvents = Counter.builder("ecommerce.inventory.stale.stock.events")
+            .description("版本比已套用的舊、因此略過的庫存事件數")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("ecommerce.inventory.indexed.products", this, service -> {
+                StockLevelIndex current = service.index;
+                return current != null ? current.size() : 0;
+            })
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * 整份重建；已有重建在執行時直接略過（由排程呼叫，下一輪再更新即可）
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.debug("庫存索引重建中，略過");
+            return;
+        }
+        try {
+            long startNanos = System.nanoTime();
+            synchronized (applyLock) {
+                deferred = new ArrayList<>();
+            }
+            StockLevelIndex current = index;
+            StockLevelIndex rebuilt = new StockLevelIndex(current != null ? current.size() : 1024);
+            loader.loadActive(rebuilt);
+            synchronized (applyLock) {
+                lock.writeLock().lock();
+                try {
+                    index = rebuilt;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                for (Long productId : deferred) {
+                    apply(productId);
+                }
+            }
+            log.info("庫存索引已重建 products={} millis={}",
+                rebuilt.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        } finally {
+            synchronized (applyLock) {
+                deferred = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    // ---------------------------------------------------------------- 查詢
+
+    /**
+     * 庫存小於 threshold 的上架商品 ID，依（庫存, 商品 ID）排序；呼叫端先以 isReady 確認已建立完成
+     */
+    public long[] findBelow(int threshold, int limit) {
+        lock.readLock().lock();
+        try {
+            return index != null ? index.below(threshold, limit) : new long[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 序號大於 after 的警示，依序號排序；after 早於保留範圍時從最舊的一筆開始
+     */
+    public List<LowStockAlert> alertsAfter(long after, int limit) {
+        synchronized (alerts) {
+            List<LowStockAlert> result = new ArrayList<>(Math.min(limit, alerts.size()));
+            for (LowStockAlert alert : alerts) {
+                if (alert.sequence() > after && result.size() < limit) {
+                    result.add(alert);
+                }
+            }
+            return result;
+        }
+    }
+
+    // ---------------------------------------------------------------- 事件
+
+    @Override
+    public String getName() {
+        return "low-stock";
+    }
+
+    /**
+     * 被丟棄的事件不會再送達，整份重建後低庫存索引才會與資料庫一致
+     */
+    @Override
+    public void onDropped() {
+        rebuild();
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (event instanceof ProductChangedEvent changed) {
+            synchronized (applyLock) {
+                if (deferred != null) {
+                    deferred.add(changed.productId());
+                } else {
+                    apply(changed.productId());
+                }
+            }
+        } else if (event instanceof StockChangedEvent stock) {
+            if (!stockVersions.accept(stock)) {
+                staleEvents.increment();
+                return;
+            }
+            boolean active;
+            synchronized (applyLock) {
+                lock.writeLock().lock();
+                try {
+                    active = index != null && index.stockOf(stock.productId()) != StockLevelIndex.ABSENT;
+                    if (active && deferred == null) {
+                        index.put(stock.productId(), Math.max(0, stock.quantity()));
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (deferred != null) {
+                    deferred.add(stock.productId());
+                }
+            }
+            if (active) {
+                alert(stock);
+            }
+        }
+    }
+
+    /**
+     * 重新讀取商品並更新索引（資料庫查詢在鎖外）
+     */
+    private void apply(long productId) {
+        if (index == null) {
+            return;
+        }
+        Optional<StockLevelLoader.StockRow> row = loader.loadProduct(productId);
+        lock.writeLock().lock();
+        try {
+            if (row.isPresent() && row.get().active()) {
+                index.put(productId, Math.max(0, row.get().stockQuantity()));
+            } else {
+                index.remove(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 依事件的前後庫存判斷跨過哪些門檻；一次跨過多個門檻時每個門檻各一筆
+     */
+    private void alert(StockChangedEvent stock) {
+        for (int threshold : thresholds) {
+            LowStockAlert.Direction direction;
+            if (stock.previousQuantity() >= threshold && stock.quantity() < threshold) {
+                direction = LowStockAlert.Direction.BELOW;
+            } else if (stock.previousQuantity() < threshold && stock.quantity() >= threshold) {
+                direction = LowStockAlert.Direction.RECOVERED;
+            } else {
+                continue;
+            }
+            LowStockAlert alert;
+            synchronized (alerts) {
+                alert = new LowStockAlert(++alertSequence, stock.productId(), threshold,
+                    stock.previousQuantity(), stock.quantity(), direction, LocalDateTime.now());
+                alerts.addLast(alert);
+                while (alerts.size() > properties.getAlertFeedCapacity()) {
+                    alerts.removeFirst();
+                }
+            }
+            (direction == LowStockAlert.Direction.BELOW ? belowAlerts : recoveredAlerts).increment();
+            log.info("低庫存警示 productId={} threshold={} quantity={} direction={}",
+                alert.productId(), threshold, alert.quantity(), direction);
+            eventPublisher.publishEvent(alert);
+        }
+    }
+}
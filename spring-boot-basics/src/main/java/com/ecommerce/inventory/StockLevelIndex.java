@@ -0,0 +1,146 @@
+package com.ecommerce.inventory;
+
+import com.ecommerce.recommendation.LongIntHashMap;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 上架商品依庫存排序的索引
+ *
+ * - buckets：庫存數量 → 該庫存的商品 ID（排序的原生陣列），TreeMap 依庫存排序；
+ *   「庫存 &lt; threshold」是 headMap 的一段範圍，依（庫存, 商品 ID）的順序走訪
+ * - stockByProduct：商品 ID → 庫存 + 1（0 表示不在索引中），更新時找到舊的桶
+ *
+ * 不同的庫存數量遠少於商品數，桶內插入、移除的陣列搬移很短；一百萬個商品約 8 MB 的 ID 加上雜湊表。
+ * 非執行緒安全：寫入需要獨佔，查詢可以並行（見 LowStockService）。
+ */
+public final class StockLevelIndex {
+
+    /**
+     * 不在索引中
+     */
+    public static final int ABSENT = -1;
+
+    private final TreeMap<Integer, Bucket> buckets = new TreeMap<>();
+    private final LongIntHashMap stockByProduct;
+    private int size;
+
+    public StockLevelIndex(int expectedSize) {
+        this.stockByProduct = new LongIntHashMap(expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // ---------------------------------------------------------------- 寫入
+
+    /**
+     * 加入或更新商品的庫存
+     *
+     * @return 原本的庫存，不在索引中時為 ABSENT
+     */
+    public int put(long productId, int stock) {
+        if (stock < 0) {
+            throw new IllegalArgumentException("庫存不可為負數 productId=" + productId + " stock=" + stock);
+        }
+        int previous = stockByProduct.put(productId, stock + 1) - 1;
+        if (previous == stock) {
+            return previous;
+        }
+        if (previous != ABSENT) {
+            removeFromBucket(productId, previous);
+        } else {
+            size++;
+        }
+        buckets.computeIfAbsent(stock, key -> new Bucket()).add(productId);
+        return previous;
+    }
+
+    /**
+     * 移除商品（停用或刪除）
+     *
+     * @return 原本的庫存，不在索引中時為 ABSENT
+     */
+    public int remove(long productId) {
+        int previous = stockByProduct.put(productId, 0) - 1;
+        if (previous != ABSENT) {
+            removeFromBucket(productId, previous);
+            size--;
+        }
+        return previous;
+    }
+
+    // ---------------------------------------------------------------- 查詢
+
+    /**
+     * @return 不在索引中時為 ABSENT
+     */
+    public int stockOf(long productId) {
+        return stockByProduct.get(productId) - 1;
+    }
+
+    /**
+     * 庫存小於 threshold 的商品數；只走訪各個庫存數量，不走訪商品
+     */
+    public int countBelow(int threshold) {
+        int count = 0;
+        for (Bucket bucket : buckets.headMap(threshold).values()) {
+            count += bucket.size;
+        }
+        return count;
+    }
+
+    /**
+     * 庫存小於 threshold 的商品，依（庫存, 商品 ID）排序，最多 limit 筆
+     */
+    public long[] below(int threshold, int limit) {
+        long[] result = new long[Math.min(limit, countBelow(threshold))];
+        int count = 0;
+        for (Map.Entry<Integer, Bucket> entry : buckets.headMap(threshold).entrySet()) {
+            Bucket bucket = entry.getValue();
+            int take = Math.min(bucket.size, result.length - count);
+            System.arraycopy(bucket.ids, 0, result, count, take);
+            count += take;
+            if (count == result.length) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void removeFromBucket(long productId, int stock) {
+        Bucket bucket = buckets.get(stock);
+        bucket.remove(productId);
+        if (bucket.size == 0) {
+            buckets.remove(stock);
+        }
+    }
+
+    /**
+     * 同一庫存的商品 ID，遞增排序
+     */
+    private static final class Bucket {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long productId) {
+            int position = -Arrays.binarySearch(ids, 0, size, productId) - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = productId;
+            size++;
+        }
+
+        void remove(long productId) {
+            int position = Arrays.binarySearch(ids, 0, size, productId);
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.inventory;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * 以 JDBC 讀取庫存索引需要的欄位（不建立實體）
+ */
+@Component
+@RequiredArgsConstructor
+public class StockLevelLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record StockRow(long id, int stockQuantity, boolean active) {
+    }
+
+    /**
+     * 逐列放進索引（不先收集成 List）
+     */
+    public void loadActive(StockLevelIndex index) {
+        jdbcTemplate.query("SELECT id, stock_quantity FROM products WHERE active = TRUE",
+            rs -> {
+                index.put(rs.getLong(1), rs.getInt(2));
+            });
+    }
+
+    public Optional<StockRow> loadProduct(long id) {
+        return jdbcTemplate.query("SELECT id, stock_quantity, active FROM products WHERE id = ?",
+            (rs, rowNum) -> new StockRow(rs.getLong(1), rs.getInt(2), rs.getBoolean(3)), id).stream().findFirst();
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.job;
+
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 取消超時未付款訂單
+ *
+ * 與 OrderService.cancelUnpaidOrders 的規則相同，但分區塊處理，不會一次把所有訂單載入記憶體。
+ * 每筆訂單在自己的交易中取消（REQUIRES_NEW）：一筆訂單失敗（例如同時被付款）只記錄並略過，
+ * 不會回滾同一區塊的其他訂單，區塊照常推進。
+ *
+ * 參數 unpaid-hours：未付款超過幾小時就取消（預設 24）
+ */
+@Component
+@Slf4j
+public class CancelUnpaidOrdersJob implements MaintenanceJob {
+
+    public static final String NAME = "cancel-unpaid-orders";
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final TransactionTemplate orderTransaction;
+
+    public CancelUnpaidOrdersJob(OrderRepository orderRepository, OrderService orderService,
+                                 PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.orderTransaction = new TransactionTemplate(transactionManager);
+        this.orderTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long run(JobExecutionContext context) throws InterruptedException {
+        LocalDateTime cutoffTime = LocalDateTime.now().minusHours(context.getIntParameter("unpaid-hours", 24));
+        return context.processInChunks(
+            (afterId, limit) -> orderRepository.findIdsByStatusAndCreatedAtBefore(
+                OrderStatus.PENDING, cutoffTime, afterId, PageRequest.ofSize(limit)),
+            this::cancelEach);
+    }
+
+    /**
+     * 逐筆取消，回傳成功取消的筆數
+     */
+    private int cancelEach(List<Long> ids) {
+        int cancelled = 0;
+        for (Long id : ids) {
+            try {
+                orderTransaction.executeWithoutResult(status -> orderService.cancelOrder(id));
+                cancelled++;
+            } catch (RuntimeException e) {
+                log.warn("取消超時訂單失敗，略過 orderId={}: {}", id, e.toString());
+            }
+        }
+        return cancelled;
+    }
+}
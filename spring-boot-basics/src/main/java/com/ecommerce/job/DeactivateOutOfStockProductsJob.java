@@ -0,0 +1,40 @@
+package com.ecommerce.job;
+
+import com.ecommerce.catalog.CatalogVersion;
+import com.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * 停用已無庫存的商品
+ *
+ * ProductRepository.deactivateOutOfStockProducts 的分區塊版本：
+ * 以 ID 清單更新，每個區塊只鎖住該批資料列。
+ * 批次更新不發布商品異動事件，每個區塊提交後自行推進商品列表的版本號（CatalogVersion）。
+ */
+@Component
+@RequiredArgsConstructor
+public class DeactivateOutOfStockProductsJob implements MaintenanceJob {
+
+    public static final String NAME = "deactivate-out-of-stock-products";
+
+    private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long run(JobExecutionContext context) throws InterruptedException {
+        return context.processInChunks(
+            (afterId, limit) -> productRepository.findActiveOutOfStockIds(afterId, PageRequest.ofSize(limit)),
+            ids -> {
+                int updated = productRepository.deactivateOutOfStockByIds(ids);
+                catalogVersion.markChangedAfterCommit();
+                return updated;
+            });
+    }
+}
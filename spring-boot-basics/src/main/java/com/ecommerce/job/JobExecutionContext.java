@@ -0,0 +1,222 @@
+package com.ecommerce.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 一次工作執行的上下文
+ *
+ * 提供工作設定，以及依主鍵遞增分區塊處理的輔助方法：
+ * 每個區塊在獨立交易中寫入，單一區塊失敗只會回滾該區塊，
+ * 處理會從下一個區塊繼續，最後整次執行標記為 FAILED。
+ * 啟用叢集租約時，每個區塊交易開頭會先確認租約（fencing），
+ * 租約已被其他節點取得則回滾該區塊並中止整次執行。
+ */
+@Slf4j
+public class JobExecutionContext {
+
+    private final String jobName;
+    private final JobProperties.Definition definition;
+    private final TransactionTemplate transactionTemplate;
+    private final Runnable chunkGuard;
+    private final AtomicInteger failedChunks = new AtomicInteger();
+
+    /**
+     * @param chunkGuard 在每個區塊交易開頭執行，拋出 LeaseLostException 會中止整次執行
+     */
+    public JobExecutionContext(String jobName, JobProperties.Definition definition,
+                               TransactionTemplate transactionTemplate, Runnable chunkGuard) {
+        this.jobName = jobName;
+        this.definition = definition;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkGuard = chunkGuard;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public int getChunkSize() {
+        return definition.getChunkSize();
+    }
+
+    public int getFailedChunks() {
+        return failedChunks.get();
+    }
+
+    /**
+     * 讀取工作參數；未設定時回傳預設值
+     */
+    public int getIntParameter(String name, int defaultValue) {
+        String value = definition.getParameters().get(name);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    /**
+     * 依 ID 遞增（keyset）分區塊處理，失敗區塊略過
+     *
+     * @param reader 讀取 ID 大於 afterId 的下一批 ID（需依 ID 遞增排序）
+     * @param writer 在交易中處理一批 ID，回傳影響的資料列數
+     * @return 所有成功區塊影響的資料列總數
+     */
+    public long processInChunks(ChunkReader reader, ChunkWriter writer) throws InterruptedException {
+        return processInChunks(0, reader, writer, ChunkFailurePolicy.SKIP);
+    }
+
+    /**
+     * 從指定 ID 之後開始分區塊處理
+     *
+     * 可續跑的工作在 writer 內（同一交易）記錄檢查點，重新執行時從檢查點開始，
+     * 並使用 ABORT：區塊失敗就停下，避免跳過的區塊在檢查點之前而永遠不會被處理。
+     *
+     * @param startAfterId 檢查點：從 ID 大於此值的資料開始
+     * @param policy       區塊失敗時略過或中止
+     */
+    public long processInChunks(long startAfterId, ChunkReader reader, ChunkWriter writer,
+                                ChunkFailurePolicy policy) throws InterruptedException {
+        long rows = 0;
+        long afterId = startAfterId;
+        while (true) {
+            List<Long> ids = reader.read(afterId, getChunkSize());
+            if (ids.isEmpty()) {
+                return rows;
+            }
+            long startNanos = System.nanoTime();
+            try {
+                Integer affected = transactionTemplate.execute(status -> {
+                    chunkGuard.run();
+                    return writer.write(ids);
+                });
+                rows += affected != null ? affected : 0;
+            } catch (LeaseLostException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                failedChunks.incrementAndGet();
+                log.error("工作區塊失敗 job={} firstId={} lastId={}",
+                    jobName, ids.get(0), ids.get(ids.size() - 1), e);
+                if (policy == ChunkFailurePolicy.ABORT) {
+                    throw e;
+                }
+            }
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < getChunkSize()) {
+                return rows;
+            }
+            pause(Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * 以多個執行緒平行處理彼此獨立的分區（例如日期區間），每個分區一個交易，失敗的分區略過
+     *
+     * 租約確認在分區交易之前以獨立的短交易執行：確認會鎖住租約資料列直到交易結束，
+     * 放在分區交易中會讓所有分區在這一列上排隊而失去平行效果。
+     * 代價是確認與分區提交之間租約被接手時，這個分區仍會提交；分區必須可重複執行。
+     *
+     * @param parallelism 同時處理的分區數
+     * @return 所有成功分區影響的資料列總數
+     */
+    public <P> long processInPartitions(List<P> partitions, int parallelism, PartitionWriter<P> writer)
+            throws InterruptedException {
+        if (partitions.isEmpty()) {
+            return 0;
+        }
+        int threads = Math.max(1, Math.min(parallelism, partitions.size()));
+        AtomicInteger index = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+            r -> new Thread(r, jobName + "-partition-" + index.incrementAndGet()));
+        try {
+            List<Future<Integer>> futures = new ArrayList<>(partitions.size());
+            for (P partition : partitions) {
+                futures.add(executor.submit(() -> processPartition(partition, writer)));
+            }
+            long rows = 0;
+            for (Future<Integer> future : futures) {
+                try {
+                    rows += future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof LeaseLostException lost) {
+                        throw lost;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return rows;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <P> int processPartition(P partition, PartitionWriter<P> writer) {
+        if (Thread.currentThread().isInterrupted()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> chunkGuard.run());
+        try {
+            Integer affected = transactionTemplate.execute(status -> writer.write(partition));
+            return affected != null ? affected : 0;
+        } catch (RuntimeException e) {
+            failedChunks.incrementAndGet();
+            log.error("工作分區失敗 job={} partition={}", jobName, partition, e);
+            return 0;
+        }
+    }
+
+    /**
+     * 區塊之間暫停；區塊耗時超過 maxChunkLatency 代表資料庫忙碌，
+     * 暫停時間拉長到與區塊耗時相同，讓工作最多佔用約一半的資料庫時間
+     */
+    private void pause(Duration chunkDuration) throws InterruptedException {
+        long millis = definition.getPauseBetweenChunks().toMillis();
+        Duration maxChunkLatency = definition.getMaxChunkLatency();
+        if (maxChunkLatency != null && chunkDuration.compareTo(maxChunkLatency) > 0) {
+            millis = Math.max(millis, chunkDuration.toMillis());
+            log.debug("區塊耗時超過門檻，延長暫停 job={} chunkMillis={} pauseMillis={}",
+                jobName, chunkDuration.toMillis(), millis);
+        }
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    /**
+     * 區塊失敗時的處理方式
+     */
+    public enum ChunkFailurePolicy {
+        SKIP,   // 記錄失敗，繼續下一個區塊
+        ABORT   // 拋出例外，中止整次執行
+    }
+
+    /**
+     * 讀取下一批 ID
+     */
+    @FunctionalInterface
+    public interface ChunkReader {
+        List<Long> read(long afterId, int limit);
+    }
+
+    /**
+     * 在交易中處理一個分區，回傳影響的資料列數
+     */
+    @FunctionalInterface
+    public interface PartitionWriter<P> {
+        int write(P partition);
+    }
+
+    /**
+     * 處理一批 ID
+     */
+    @FunctionalInterface
+    public interface ChunkWriter {
+        int write(List<Long> ids);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.job;
+
+/**
+ * 已取得的工作租約
+ *
+ * @param job          工作名稱
+ * @param owner        持有節點
+ * @param fencingToken 取得租約時的 fencing token，續約與寫入時用來確認租約仍屬於自己
+ */
+public record JobLease(String job, String owner, long fencingToken) {
+}
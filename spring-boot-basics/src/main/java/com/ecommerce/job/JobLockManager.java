@@ -0,0 +1,131 @@
+package com.ecommerce.job;
+
+import com.ecommerce.repository.JobLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 以資料庫表實作的叢集租約鎖
+ *
+ * 時間以應用程式時鐘計算，各節點的時鐘誤差必須遠小於租約長度。
+ * 取得與釋放在獨立交易中執行（REQUIRES_NEW），不受呼叫端交易影響；
+ * verify 則刻意加入呼叫端交易，讓續約與區塊寫入一起提交或回滾。
+ */
+@Component
+@Slf4j
+public class JobLockManager {
+
+    private static final LocalDateTime NEVER_LOCKED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final JobLockRepository repository;
+    private final TransactionTemplate newTransaction;
+    private final String nodeId;
+    private final Duration leaseDuration;
+
+    public JobLockManager(JobLockRepository repository, PlatformTransactionManager transactionManager,
+                          JobProperties properties) {
+        this.repository = repository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = StringUtils.hasText(properties.getLock().getNodeId())
+            ? properties.getLock().getNodeId()
+            : defaultNodeId();
+        this.leaseDuration = properties.getLock().getLeaseDuration();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    /**
+     * 嘗試取得租約；其他節點持有且未過期時回傳 empty
+     */
+    public Optional<JobLease> tryAcquire(String job) {
+        ensureLockRow(job);
+        return newTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (repository.acquire(job, nodeId, now, now.plus(leaseDuration)) == 0) {
+                return Optional.empty();
+            }
+            long token = repository.findById(job).orElseThrow().getFencingToken();
+            log.debug("取得工作租約 job={} node={} token={}", job, nodeId, token);
+            return Optional.of(new JobLease(job, nodeId, token));
+        });
+    }
+
+    /**
+     * 延長租約
+     *
+     * @return false 表示租約已被其他節點取得
+     */
+    public boolean renew(JobLease lease) {
+        Integer updated = newTransaction.execute(status -> repository.renew(
+            lease.job(), lease.owner(), lease.fencingToken(), LocalDateTime.now().plus(leaseDuration)));
+        return updated != null && updated == 1;
+    }
+
+    /**
+     * 在呼叫端交易中確認租約仍有效並順便續約
+     *
+     * UPDATE 會鎖住租約資料列直到交易結束，其他節點此時無法取得租約，
+     * 因此同一時間只有持有最新 fencing token 的節點能提交寫入。
+     *
+     * @throws LeaseLostException 租約已被其他節點取得
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void verify(JobLease lease) {
+        int updated = repository.renew(
+            lease.job(), lease.owner(), lease.fencingToken(), LocalDateTime.now().plus(leaseDuration));
+        if (updated == 0) {
+            throw new LeaseLostException(lease);
+        }
+    }
+
+    /**
+     * 釋放租約，讓其他節點不必等到過期
+     */
+    public void release(JobLease lease) {
+        newTransaction.executeWithoutResult(status -> repository.release(
+            lease.job(), lease.owner(), lease.fencingToken(), LocalDateTime.now()));
+    }
+
+    /**
+     * 第一次使用某個工作時建立租約資料列；多個節點同時建立時只有一個會成功
+     */
+    private void ensureLockRow(String job) {
+        if (repository.existsById(job)) {
+            return;
+        }
+        try {
+            newTransaction.executeWithoutResult(status -> repository.insert(job, NEVER_LOCKED));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("租約資料列已由其他節點建立 job={}", job);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
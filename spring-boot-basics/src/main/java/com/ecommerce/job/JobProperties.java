@@ -0,0 +1,108 @@
+package com.ecommerce.job;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 背景工作配置
+ *
+ * <pre>
+ * ecommerce:
+ *   job:
+ *     definitions:
+ *       cancel-unpaid-orders:
+ *         cron: "0 *&#47;10 * * * *"
+ *         chunk-size: 100
+ *         parameters:
+ *           unpaid-hours: 24
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "ecommerce.job")
+public class JobProperties {
+
+    /**
+     * 是否依 cron 自動排程（關閉時仍可透過管理 API 手動執行）
+     */
+    private boolean schedulingEnabled = true;
+
+    /**
+     * 每個工作保留的執行記錄筆數
+     */
+    private int historySize = 20;
+
+    /**
+     * 叢集租約鎖：多個實例共用資料庫時，同一工作只在一個節點執行
+     */
+    private final Lock lock = new Lock();
+
+    /**
+     * 各工作的設定，鍵為 MaintenanceJob.getName()
+     */
+    private Map<String, Definition> definitions = new LinkedHashMap<>();
+
+    /**
+     * 取得工作設定；未設定的工作使用預設值（不排程）
+     */
+    public Definition definition(String name) {
+        return definitions.getOrDefault(name, new Definition());
+    }
+
+    @Data
+    public static class Lock {
+
+        /**
+         * 是否在執行前取得資料庫租約
+         */
+        private boolean enabled = true;
+
+        /**
+         * 租約長度；執行期間每 1/3 租約長度續約一次，節點當掉後最多這麼久會由其他節點接手
+         */
+        private Duration leaseDuration = Duration.ofMinutes(1);
+
+        /**
+         * 節點識別；未設定時使用「主機名稱-PID」
+         */
+        private String nodeId;
+    }
+
+    @Data
+    public static class Definition {
+
+        /**
+         * 是否啟用排程
+         */
+        private boolean enabled = true;
+
+        /**
+         * Spring cron 運算式（秒 分 時 日 月 週）；空白表示只能手動執行
+         */
+        private String cron;
+
+        /**
+         * 每個區塊處理的資料列數，每個區塊一個交易
+         */
+        private int chunkSize = 100;
+
+        /**
+         * 區塊之間的暫停時間，讓出 CPU 與連線給請求執行緒
+         */
+        private Duration pauseBetweenChunks = Duration.ofMillis(50);
+
+        /**
+         * 區塊耗時門檻（依資料庫延遲自我節流）；超過時暫停時間延長為區塊耗時，未設定則不節流
+         */
+        private Duration maxChunkLatency;
+
+        /**
+         * 工作專屬參數
+         */
+        private Map<String, String> parameters = new HashMap<>();
+    }
+}
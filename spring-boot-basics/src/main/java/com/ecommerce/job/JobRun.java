@@ -0,0 +1,25 @@
+package com.ecommerce.job;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一次工作執行的記錄
+ *
+ * @param job            工作名稱
+ * @param trigger        觸發來源
+ * @param status         結果
+ * @param startedAt      開始時間
+ * @param durationMillis 執行時間（毫秒）
+ * @param rows           處理的資料列數
+ * @param error          失敗原因；成功時為 null
+ */
+public record JobRun(
+    String job,
+    JobTrigger trigger,
+    JobStatus status,
+    LocalDateTime startedAt,
+    long durationMillis,
+    long rows,
+    String error
+) {
+}
@@ -0,0 +1,271 @@
+package com.ecommerce.job;
+
+import com.ecommerce.exception.JobAlreadyRunningException;
+import com.ecommerce.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 背景工作執行器
+ *
+ * 每個 MaintenanceJob 有自己的單執行緒執行器，
+ * 維護工作不會佔用 Tomcat 請求執行緒，也不會互相排隊。
+ *
+ * - 重疊防護：同一工作正在執行時再次觸發，排程觸發會略過，手動觸發拋出 JobAlreadyRunningException
+ * - 叢集租約：執行前向 JobLockManager 取得資料庫租約，其他節點持有時記錄為 SKIPPED；
+ *   執行期間定期續約，每個區塊提交前以 fencing token 確認租約仍屬於本節點
+ * - 執行記錄：每個工作保留最近 N 筆 JobRun
+ * - 指標：ecommerce.job.duration（Timer）、ecommerce.job.rows、ecommerce.job.skipped
+ */
+@Component
+@Slf4j
+public class JobRunner implements DisposableBean {
+
+    private final Map<String, JobHandle> handles = new LinkedHashMap<>();
+    private final JobProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final JobLockManager lockManager;
+    private final ScheduledExecutorService leaseRenewer;
+
+    public JobRunner(List<MaintenanceJob> jobs, JobProperties properties,
+                     PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                     JobLockManager lockManager) {
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.lockManager = lockManager;
+        CustomizableThreadFactory renewerThreads = new CustomizableThreadFactory("job-lease-renewer-");
+        renewerThreads.setDaemon(true);
+        this.leaseRenewer = Executors.newSingleThreadScheduledExecutor(renewerThreads);
+        for (MaintenanceJob job : jobs) {
+            handles.put(job.getName(), new JobHandle(job, properties.definition(job.getName())));
+        }
+    }
+
+    /**
+     * 觸發工作，在該工作的執行器上非同步執行
+     *
+     * @throws ResourceNotFoundException   工作不存在
+     * @throws JobAlreadyRunningException 工作正在執行中
+     */
+    public CompletableFuture<JobRun> submit(String name, JobTrigger trigger) {
+        JobHandle handle = handle(name);
+        if (!handle.running.compareAndSet(false, true)) {
+            Counter.builder("ecommerce.job.skipped")
+                .tag("job", name)
+                .tag("reason", "running")
+                .register(meterRegistry)
+                .increment();
+            throw new JobAlreadyRunningException(name);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> execute(handle, trigger), handle.executor);
+        } catch (RuntimeException e) {
+            handle.running.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * 排程觸發：工作仍在執行時略過這一輪
+     */
+    public void trigger(String name) {
+        try {
+            submit(name, JobTrigger.SCHEDULED);
+        } catch (JobAlreadyRunningException e) {
+            log.warn("工作仍在執行，略過本次排程 job={}", name);
+        }
+    }
+
+    public List<JobSummary> getSummaries() {
+        List<JobSummary> summaries = new ArrayList<>(handles.size());
+        handles.values().forEach(handle -> summaries.add(handle.summary()));
+        return summaries;
+    }
+
+    /**
+     * 由新到舊列出執行記錄
+     */
+    public List<JobRun> getHistory(String name) {
+        return handle(name).history();
+    }
+
+    /**
+     * 已註冊的工作名稱與設定，供排程配置使用
+     */
+    public Map<String, JobProperties.Definition> getDefinitions() {
+        Map<String, JobProperties.Definition> definitions = new LinkedHashMap<>();
+        handles.forEach((name, handle) -> definitions.put(name, handle.definition));
+        return definitions;
+    }
+
+    private JobRun execute(JobHandle handle, JobTrigger trigger) {
+        try {
+            if (!properties.getLock().isEnabled()) {
+                return run(handle, trigger, () -> { });
+            }
+            return lockManager.tryAcquire(handle.job.getName())
+                .map(lease -> runWithLease(handle, trigger, lease))
+                .orElseGet(() -> skipped(handle, trigger));
+        } finally {
+            handle.running.set(false);
+        }
+    }
+
+    private JobRun runWithLease(JobHandle handle, JobTrigger trigger, JobLease lease) {
+        long period = Math.max(lockManager.getLeaseDuration().toMillis() / 3, 1);
+        ScheduledFuture<?> renewal = leaseRenewer.scheduleAtFixedRate(() -> {
+            if (!lockManager.renew(lease)) {
+                log.warn("工作租約續約失敗，已被其他節點取得 job={} token={}", lease.job(), lease.fencingToken());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        try {
+            return run(handle, trigger, () -> lockManager.verify(lease));
+        } finally {
+            renewal.cancel(false);
+            try {
+                lockManager.release(lease);
+            } catch (RuntimeException e) {
+                log.warn("釋放工作租約失敗，將等待租約過期 job={}", lease.job(), e);
+            }
+        }
+    }
+
+    private JobRun skipped(JobHandle handle, JobTrigger trigger) {
+        String name = handle.job.getName();
+        log.info("工作租約由其他節點持有，略過 job={}", name);
+        Counter.builder("ecommerce.job.skipped")
+            .tag("job", name)
+            .tag("reason", "lease")
+            .register(meterRegistry)
+            .increment();
+        JobRun run = new JobRun(name, trigger, JobStatus.SKIPPED, LocalDateTime.now(), 0, 0,
+            "租約由其他節點持有");
+        handle.record(run);
+        return run;
+    }
+
+    private JobRun run(JobHandle handle, JobTrigger trigger, Runnable chunkGuard) {
+        String name = handle.job.getName();
+        JobExecutionContext context = new JobExecutionContext(name, handle.definition, transactionTemplate, chunkGuard);
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+
+        JobStatus status = JobStatus.SUCCEEDED;
+        String error = null;
+        long rows = 0;
+        try {
+            log.info("工作開始 job={} trigger={}", name, trigger);
+            rows = handle.job.run(context);
+            if (context.getFailedChunks() > 0) {
+                status = JobStatus.FAILED;
+                error = context.getFailedChunks() + " 個區塊處理失敗";
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = JobStatus.FAILED;
+            error = "工作被中斷";
+        } catch (Exception e) {
+            status = JobStatus.FAILED;
+            error = e.getMessage();
+            log.error("工作失敗 job={}", name, e);
+        }
+
+        long nanos = System.nanoTime() - start;
+        JobRun run = new JobRun(name, trigger, status, startedAt,
+            TimeUnit.NANOSECONDS.toMillis(nanos), rows, error);
+        handle.record(run);
+
+        Timer.builder("ecommerce.job.duration")
+            .tag("job", name)
+            .tag("status", status.name())
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("ecommerce.job.rows")
+            .tag("job", name)
+            .register(meterRegistry)
+            .record(rows);
+
+        log.info("工作結束 job={} status={} rows={} durationMs={}", name, status, rows, run.durationMillis());
+        return run;
+    }
+
+    private JobHandle handle(String name) {
+        JobHandle handle = handles.get(name);
+        if (handle == null) {
+            throw new ResourceNotFoundException("排程工作", "name", name);
+        }
+        return handle;
+    }
+
+    @Override
+    public void destroy() {
+        handles.values().forEach(handle -> handle.executor.shutdownNow());
+        leaseRenewer.shutdownNow();
+    }
+
+    /**
+     * 單一工作的執行器、執行狀態與記錄
+     */
+    private final class JobHandle {
+
+        private final MaintenanceJob job;
+        private final JobProperties.Definition definition;
+        private final ExecutorService executor;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final Deque<JobRun> history = new ArrayDeque<>();
+
+        JobHandle(MaintenanceJob job, JobProperties.Definition definition) {
+            this.job = job;
+            this.definition = definition;
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("job-" + job.getName() + "-");
+            threadFactory.setDaemon(true);
+            // running 旗標保證同時最多一個未完成的任務；容量 1 的佇列只用來承接
+            // 「上一個任務剛清除旗標、執行緒尚未回到池中」的瞬間
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), threadFactory);
+        }
+
+        synchronized void record(JobRun run) {
+            history.addFirst(run);
+            while (history.size() > properties.getHistorySize()) {
+                history.removeLast();
+            }
+        }
+
+        synchronized List<JobRun> history() {
+            return List.copyOf(history);
+        }
+
+        synchronized JobSummary summary() {
+            return new JobSummary(job.getName(), definition.isEnabled(), definition.getCron(),
+                running.get(), history.peekFirst());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.job;
+
+/**
+ * 一次工作執行的結果
+ */
+public enum JobStatus {
+    SUCCEEDED,   // 全部完成
+    FAILED,      // 拋出例外，或有區塊處理失敗
+    SKIPPED      // 租約由其他節點持有，本節點未執行
+}
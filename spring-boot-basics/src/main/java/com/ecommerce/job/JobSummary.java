@@ -0,0 +1,19 @@
+package com.ecommerce.job;
+
+/**
+ * 工作目前狀態（管理 API 回應）
+ *
+ * @param name    工作名稱
+ * @param enabled 是否啟用排程
+ * @param cron    排程運算式；未設定時為 null
+ * @param running 是否正在執行
+ * @param lastRun 最近一次執行記錄；尚未執行過時為 null
+ */
+public record JobSummary(
+    String name,
+    boolean enabled,
+    String cron,
+    boolean running,
+    JobRun lastRun
+) {
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.job;
+
+/**
+ * 工作的觸發來源
+ */
+public enum JobTrigger {
+    SCHEDULED,   // 排程
+    MANUAL       // 管理 API 手動觸發
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.job;
+
+/**
+ * 租約已失去（過期後被其他節點取得）
+ *
+ * 在區塊交易中拋出，讓該區塊回滾並中止整次執行。
+ */
+public class LeaseLostException extends RuntimeException {
+
+    public LeaseLostException(JobLease lease) {
+        super("工作 " + lease.job() + " 的租約已失去（fencing token " + lease.fencingToken() + "）");
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.job;
+
+/**
+ * 背景維護工作
+ *
+ * 實作類別註冊為 Spring Bean 後，由 JobRunner 以工作名稱管理：
+ * - 排程與參數來自 ecommerce.job.definitions.<name>.*
+ * - 每個工作有自己的單執行緒執行器，不佔用 HTTP 請求執行緒
+ * - 同一工作同時只會有一次執行
+ */
+public interface MaintenanceJob {
+
+    /**
+     * 工作名稱（kebab-case），同時是設定鍵與 API 路徑的一部分
+     */
+    String getName();
+
+    /**
+     * 執行一次工作
+     *
+     * @return 處理的資料列數
+     */
+    long run(JobExecutionContext context) throws Exception;
+}
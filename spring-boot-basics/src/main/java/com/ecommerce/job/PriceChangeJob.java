@@ -0,0 +1,112 @@
+package com.ecommerce.job;
+
+import com.ecommerce.entity.PriceChange;
+import com.ecommerce.entity.PriceChangeStatus;
+import com.ecommerce.entity.Product;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.repository.PriceChangeRepository;
+import com.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 批次調價
+ *
+ * 依提交順序處理 PENDING / RUNNING 的調價作業（RUNNING 表示上次執行中斷，從檢查點續跑）。
+ * 每個區塊在同一交易中調整商品價格並更新檢查點，因此：
+ * - 鎖只持有一個區塊的時間，失敗只回滾一個區塊
+ * - 中斷後從檢查點繼續，已調整的商品不會被重複調整
+ *
+ * 以實體更新而非 JPQL 批次 UPDATE 調價：批次 UPDATE 會讓整個 Product 快取區域失效，
+ * 實體更新則只在區塊提交時更新該區塊商品的二級快取項目。
+ *
+ * 區塊的商品以 findAllByIdForUpdate 鎖定（與下單相同的鎖與加鎖順序）：不加鎖時，讀取後到提交前
+ * 有訂單扣庫存，區塊提交會因樂觀鎖失敗而回滾，ABORT 讓整個調價作業標記為 FAILED。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceChangeJob implements MaintenanceJob {
+
+    public static final String NAME = "price-changes";
+
+    private static final List<PriceChangeStatus> RUNNABLE =
+        List.of(PriceChangeStatus.PENDING, PriceChangeStatus.RUNNING);
+
+    private final PriceChangeRepository priceChangeRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long run(JobExecutionContext context) throws InterruptedException {
+        long rows = 0;
+        Optional<PriceChange> next;
+        while ((next = priceChangeRepository.findFirstByStatusInOrderByIdAsc(RUNNABLE)).isPresent()) {
+            PriceChange change = next.get();
+            change.setStatus(PriceChangeStatus.RUNNING);
+            change.setError(null);
+            change = priceChangeRepository.save(change);
+            log.info("開始批次調價 id={} categoryId={} multiplier={} afterId={}",
+                change.getId(), change.getCategoryId(), change.getMultiplier(), change.getLastProductId());
+
+            Long changeId = change.getId();
+            Long categoryId = change.getCategoryId();
+            BigDecimal multiplier = change.getMultiplier();
+            try {
+                rows += context.processInChunks(change.getLastProductId(),
+                    (afterId, limit) -> productRepository.findIdsByCategoryId(
+                        categoryId, afterId, PageRequest.ofSize(limit)),
+                    ids -> applyChunk(changeId, multiplier, ids),
+                    JobExecutionContext.ChunkFailurePolicy.ABORT);
+                finish(changeId, PriceChangeStatus.COMPLETED, null);
+            } catch (LeaseLostException e) {
+                // 維持 RUNNING，由取得租約的節點從檢查點續跑
+                throw e;
+            } catch (RuntimeException e) {
+                // 標記失敗後繼續處理下一筆；修正原因後可從檢查點重新執行
+                log.error("批次調價失敗 id={}", changeId, e);
+                finish(changeId, PriceChangeStatus.FAILED, e.toString());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 在區塊交易中調整價格並更新檢查點
+     */
+    private int applyChunk(Long changeId, BigDecimal multiplier, List<Long> ids) {
+        List<Product> products = productRepository.findAllByIdForUpdate(ids);
+        for (Product product : products) {
+            product.setPrice(product.getPrice().multiply(multiplier).setScale(2, RoundingMode.HALF_UP));
+            // 區塊交易提交後才送進事件匯流排
+            eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), ProductChangedEvent.Change.UPDATED));
+        }
+        PriceChange change = priceChangeRepository.findById(changeId).orElseThrow();
+        change.advance(ids.get(ids.size() - 1), products.size());
+        return products.size();
+    }
+
+    private void finish(Long changeId, PriceChangeStatus status, String error) {
+        PriceChange change = priceChangeRepository.findById(changeId).orElseThrow();
+        change.setStatus(status);
+        change.setError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        if (status == PriceChangeStatus.COMPLETED) {
+            change.setCompletedAt(LocalDateTime.now());
+        }
+        priceChangeRepository.save(change);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.job;
+
+import com.ecommerce.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 刪除已過期的冪等鍵記錄
+ */
+@Component
+@RequiredArgsConstructor
+public class PurgeExpiredIdempotencyKeysJob implements MaintenanceJob {
+
+    public static final String NAME = "purge-idempotency-keys";
+
+    private final IdempotencyRecordRepository recordRepository;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long run(JobExecutionContext context) throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        return context.processInChunks(
+            (afterId, limit) -> recordRepository.findExpiredIds(now, afterId, PageRequest.ofSize(limit)),
+            recordRepository::deleteByIds);
+    }
+}
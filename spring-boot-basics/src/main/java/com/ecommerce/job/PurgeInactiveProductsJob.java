@@ -0,0 +1,41 @@
+package com.ecommerce.job;
+
+import com.ecommerce.catalog.CatalogVersion;
+import com.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * 刪除已停用且無庫存的商品
+ *
+ * ProductRepository.deleteInactiveAndOutOfStockProducts 的分區塊版本，
+ * 並略過仍被訂單項目引用的商品（外鍵限制下整批刪除會失敗）。
+ * 屬於破壞性操作，預設不排程。
+ * 批次刪除不發布商品異動事件，每個區塊提交後自行推進商品列表的版本號（CatalogVersion；關鍵字搜尋仍會列出停用的商品）。
+ */
+@Component
+@RequiredArgsConstructor
+public class PurgeInactiveProductsJob implements MaintenanceJob {
+
+    public static final String NAME = "purge-inactive-products";
+
+    private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long run(JobExecutionContext context) throws InterruptedException {
+        return context.processInChunks(
+            (afterId, limit) -> productRepository.findPurgeableIds(afterId, PageRequest.ofSize(limit)),
+            ids -> {
+                int deleted = productRepository.deleteInactiveAndOutOfStockByIds(ids);
+                catalogVersion.markChangedAfterCommit();
+                return deleted;
+            });
+    }
+}
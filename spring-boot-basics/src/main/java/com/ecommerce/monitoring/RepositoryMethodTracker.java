@@ -0,0 +1,44 @@
+package com.ecommerce.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 記錄目前執行緒正在執行的 Repository 方法
+ *
+ * 由 Spring Data 的 RepositoryProxyPostProcessor 加到每個 Repository 代理上，
+ * 慢查詢發生時用來標示是哪個方法觸發的。
+ * 巢狀呼叫（例如預設方法再呼叫其他查詢方法）結束後會還原外層的值。
+ */
+public class RepositoryMethodTracker implements MethodInterceptor {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final String repositoryName;
+
+    public RepositoryMethodTracker(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    /**
+     * 目前執行中的 Repository 方法；不在 Repository 呼叫內時為 null
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String previous = CURRENT.get();
+        CURRENT.set(repositoryName + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.monitoring;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 一筆慢查詢記錄
+ *
+ * @param capturedAt       記錄時間
+ * @param sql              SQL 語句
+ * @param parameters       綁定參數（批次語句只保留第一組）
+ * @param durationMillis   執行時間（毫秒）
+ * @param repositoryMethod 觸發此語句的 Repository 方法，例如 ProductRepository.findById；無法判斷時為 null
+ * @param plan             EXPLAIN 執行計畫；未擷取或失敗時為 null
+ */
+public record SlowQuery(
+    LocalDateTime capturedAt,
+    String sql,
+    List<String> parameters,
+    long durationMillis,
+    String repositoryMethod,
+    String plan
+) {
+}
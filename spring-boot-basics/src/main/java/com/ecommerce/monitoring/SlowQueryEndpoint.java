@@ -0,0 +1,39 @@
+package com.ecommerce.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * 慢查詢管理端點
+ *
+ * @Endpoint: 自訂 Actuator 端點，需在 management.endpoints.web.exposure.include 中公開
+ * - GET    /actuator/slowqueries: 由新到舊列出緩衝區內的慢查詢
+ * - DELETE /actuator/slowqueries: 清空緩衝區
+ */
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public SlowQueryReport slowQueries() {
+        return new SlowQueryReport(slowQueryLog.getTotal(), slowQueryLog.recent());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+
+    /**
+     * @param total   啟動以來記錄過的慢查詢總數
+     * @param queries 緩衝區內的記錄
+     */
+    public record SlowQueryReport(long total, List<SlowQuery> queries) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.monitoring;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 慢查詢環形緩衝區
+ *
+ * 固定容量，寫滿後覆寫最舊的記錄，記憶體用量有上限。
+ * 慢查詢本來就少見，直接以 synchronized 保護即可。
+ */
+public class SlowQueryLog {
+
+    private final Duration threshold;
+    private final boolean explain;
+    private final SlowQuery[] buffer;
+    private long written;
+
+    public SlowQueryLog(SqlStatsProperties.SlowQuery properties) {
+        this.threshold = properties.getThreshold();
+        this.explain = properties.isExplain();
+        this.buffer = new SlowQuery[Math.max(properties.getCapacity(), 1)];
+    }
+
+    public boolean isSlow(long elapsedMillis) {
+        return elapsedMillis >= threshold.toMillis();
+    }
+
+    public boolean isExplain() {
+        return explain;
+    }
+
+    public synchronized void record(SlowQuery query) {
+        buffer[(int) (written % buffer.length)] = query;
+        written++;
+    }
+
+    /**
+     * 由新到舊列出緩衝區內的記錄
+     */
+    public synchronized List<SlowQuery> recent() {
+        int size = (int) Math.min(written, buffer.length);
+        List<SlowQuery> queries = new ArrayList<>(size);
+        for (long i = written - 1; i >= written - size; i--) {
+            queries.add(buffer[(int) (i % buffer.length)]);
+        }
+        return queries;
+    }
+
+    /**
+     * 啟動以來記錄過的慢查詢總數（包含已被覆寫的）
+     */
+    public synchronized long getTotal() {
+        return written;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(buffer, null);
+        written = 0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * datasource-proxy 監聽器：將每條執行的 SQL 計入目前的統計範圍
+ *
+ * - QueryExecutionListener: 語句執行後記錄 SQL、參數與耗時；更新語句記錄影響筆數
+ * - MethodExecutionListener: 攔截 ResultSet.next()，計算查詢實際讀取的資料列數
+ */
+public class SqlStatementListener implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long nanos = execInfo.getElapsedTime() * 1_000_000;
+        for (QueryInfo queryInfo : queryInfoList) {
+            SqlStatementRecorder.recordStatement(queryInfo.getQuery(), parameterHash(queryInfo), nanos);
+        }
+
+        Object result = execInfo.getResult();
+        if (result instanceof Integer updated) {
+            SqlStatementRecorder.addRows(Math.max(updated, 0));
+        } else if (result instanceof int[] batch) {
+            for (int updated : batch) {
+                SqlStatementRecorder.addRows(Math.max(updated, 0));
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+            && "next".equals(executionContext.getMethod().getName())
+            && Boolean.TRUE.equals(executionContext.getResult())) {
+            SqlStatementRecorder.addRows(1);
+        }
+    }
+
+    /**
+     * 計算綁定參數的雜湊值，用於分辨「相同 SQL、不同參數」
+     */
+    private static int parameterHash(QueryInfo queryInfo) {
+        int hash = 1;
+        for (List<ParameterSetOperation> parameters : queryInfo.getParametersList()) {
+            for (ParameterSetOperation operation : parameters) {
+                Object[] args = operation.getArgs();
+                for (int i = 1; i < args.length; i++) {
+                    hash = 31 * hash + (args[i] != null ? args[i].hashCode() : 0);
+                }
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL 統計的執行緒範圍記錄器
+ *
+ * JDBC 呼叫與發起它的 HTTP 請求 / 測試方法在同一條執行緒上，
+ * 因此以 ThreadLocal 保存目前開啟的統計範圍。範圍可以巢狀：
+ * 測試方法開啟一個範圍，其中每次 MockMvc 請求再開啟一個，
+ * 每條語句會同時計入所有開啟中的範圍。
+ *
+ * 沒有開啟範圍時（例如啟動時的資料初始化、背景任務），記錄操作不做任何事。
+ */
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<List<SqlStatementStats>> ACTIVE = new ThreadLocal<>();
+
+    private SqlStatementRecorder() {
+    }
+
+    /**
+     * 開啟新的統計範圍，必須在 finally 中呼叫 {@link #end(SqlStatementStats)}
+     */
+    public static SqlStatementStats begin() {
+        List<SqlStatementStats> scopes = ACTIVE.get();
+        if (scopes == null) {
+            scopes = new ArrayList<>(2);
+            ACTIVE.set(scopes);
+        }
+        SqlStatementStats stats = new SqlStatementStats();
+        scopes.add(stats);
+        return stats;
+    }
+
+    /**
+     * 關閉統計範圍
+     */
+    public static void end(SqlStatementStats stats) {
+        List<SqlStatementStats> scopes = ACTIVE.get();
+        if (scopes == null) {
+            return;
+        }
+        scopes.remove(stats);
+        if (scopes.isEmpty()) {
+            ACTIVE.remove();
+        }
+    }
+
+    static void recordStatement(String sql, int parameterHash, long nanos) {
+        List<SqlStatementStats> scopes = ACTIVE.get();
+        if (scopes != null) {
+            for (SqlStatementStats stats : scopes) {
+                stats.recordStatement(sql, parameterHash, nanos);
+            }
+        }
+    }
+
+    static void addRows(long rows) {
+        List<SqlStatementStats> scopes = ACTIVE.get();
+        if (scopes != null) {
+            for (SqlStatementStats stats : scopes) {
+                stats.addRows(rows);
+            }
+        }
+    }
+}
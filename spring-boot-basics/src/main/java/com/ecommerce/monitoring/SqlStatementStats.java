@@ -0,0 +1,77 @@
+package com.ecommerce.monitoring;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 單一範圍（一次 HTTP 請求或一個測試方法）內的 SQL 統計
+ *
+ * 記錄語句數、讀取/影響的資料列數與執行時間，
+ * 並依 SQL 文字分組，用於找出 N+1 候選：
+ * 同一條 SQL 以不同參數被重複執行多次，通常代表迴圈中的逐筆查詢。
+ *
+ * 只會被建立它的執行緒寫入，不需同步。
+ */
+public class SqlStatementStats {
+
+    private int statementCount;
+    private long rowCount;
+    private long elapsedNanos;
+
+    private final Map<String, StatementGroup> groups = new HashMap<>();
+
+    void recordStatement(String sql, int parameterHash, long nanos) {
+        statementCount++;
+        elapsedNanos += nanos;
+        groups.computeIfAbsent(sql, key -> new StatementGroup()).record(parameterHash);
+    }
+
+    void addRows(long rows) {
+        rowCount += rows;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * 找出 N+1 候選：同一條 SELECT 執行次數達到閾值，且參數不只一組
+     */
+    public List<String> findNPlusOneCandidates(int threshold) {
+        List<String> candidates = new ArrayList<>();
+        groups.forEach((sql, group) -> {
+            if (group.executions >= threshold
+                && group.distinctParameters.size() > 1
+                && sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                candidates.add(sql);
+            }
+        });
+        return candidates;
+    }
+
+    /**
+     * 同一條 SQL 的執行次數與不同參數組
+     */
+    private static final class StatementGroup {
+
+        private int executions;
+        private final Set<Integer> distinctParameters = new HashSet<>();
+
+        void record(int parameterHash) {
+            executions++;
+            distinctParameters.add(parameterHash);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每個 HTTP 請求的 SQL 統計過濾器
+ *
+ * - 所有環境：記錄為 Micrometer 指標（依 URI 樣板與 HTTP 方法分組）
+ * - 開發環境：請求帶 X-SQL-Stats 標頭時，以回應標頭 X-SQL-* 輸出語句數、資料列數、耗時與 N+1 候選數
+ *
+ * 回應標頭必須在回應提交前寫入，因此輸出標頭時會以 ContentCachingResponseWrapper
+ * 緩衝回應內容，請求結束後再一併送出。只有明確要求統計的除錯請求才緩衝，
+ * 一般請求（包括 Server-Sent Events 等串流回應）直接寫出，不必逐一排除串流端點。
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    /**
+     * 請求標頭：要求在回應標頭輸出本次請求的 SQL 統計
+     */
+    public static final String REQUEST_HEADER = "X-SQL-Stats";
+
+    public static final String HEADER_STATEMENTS = "X-SQL-Statements";
+    public static final String HEADER_ROWS = "X-SQL-Rows";
+    public static final String HEADER_TIME = "X-SQL-Time-Ms";
+    public static final String HEADER_N_PLUS_ONE = "X-SQL-N-Plus-One";
+
+    private final SqlStatsProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper =
+            properties.isResponseHeaders() && request.getHeader(REQUEST_HEADER) != null
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+
+        SqlStatementStats stats = SqlStatementRecorder.begin();
+        try {
+            filterChain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            SqlStatementRecorder.end(stats);
+            List<String> nPlusOne = stats.findNPlusOneCandidates(properties.getNPlusOneThreshold());
+            record(request, stats, nPlusOne);
+
+            if (wrapper != null) {
+                wrapper.setHeader(HEADER_STATEMENTS, String.valueOf(stats.getStatementCount()));
+                wrapper.setHeader(HEADER_ROWS, String.valueOf(stats.getRowCount()));
+                wrapper.setHeader(HEADER_TIME, String.valueOf(stats.getElapsedMillis()));
+                wrapper.setHeader(HEADER_N_PLUS_ONE, String.valueOf(nPlusOne.size()));
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats, List<String> nPlusOne) {
+        if (stats.getStatementCount() == 0) {
+            return;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("uri", pattern != null ? pattern.toString() : "UNKNOWN",
+                            "method", request.getMethod());
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+            .description("每個請求執行的 SQL 語句數")
+            .tags(tags)
+            .register(meterRegistry)
+            .record(stats.getStatementCount());
+        DistributionSummary.builder("http.server.requests.sql.rows")
+            .description("每個請求讀取或影響的資料列數")
+            .tags(tags)
+            .register(meterRegistry)
+            .record(stats.getRowCount());
+        Timer.builder("http.server.requests.sql.time")
+            .description("每個請求花費在 SQL 上的時間")
+            .tags(tags)
+            .register(meterRegistry)
+            .record(stats.getElapsedMillis(), TimeUnit.MILLISECONDS);
+
+        if (!nPlusOne.isEmpty()) {
+            Counter.builder("http.server.requests.sql.n_plus_one")
+                .description("偵測到 N+1 候選的請求數")
+                .tags(tags)
+                .register(meterRegistry)
+                .increment();
+            log.warn("疑似 N+1 查詢: {} {}, 語句: {}", request.getMethod(), request.getRequestURI(), nPlusOne);
+        }
+    }
+}
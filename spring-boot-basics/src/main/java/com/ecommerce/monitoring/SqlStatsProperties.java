@@ -0,0 +1,56 @@
+package com.ecommerce.monitoring;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * SQL 統計配置
+ *
+ * @ConfigurationProperties: 將 ecommerce.sql-stats.* 綁定到此物件
+ */
+@Data
+@ConfigurationProperties(prefix = "ecommerce.sql-stats")
+public class SqlStatsProperties {
+
+    /**
+     * 是否以 datasource-proxy 包裝 DataSource 並統計每個請求的 SQL
+     */
+    private boolean enabled = true;
+
+    /**
+     * 是否允許將統計寫入回應標頭（開發環境用）
+     * 開啟後只有帶 X-SQL-Stats 請求標頭的請求會輸出，該請求的回應內容會緩衝到請求結束
+     */
+    private boolean responseHeaders = false;
+
+    /**
+     * 同一條 SELECT 以不同參數執行達到此次數，即視為 N+1 候選
+     */
+    private int nPlusOneThreshold = 3;
+
+    /**
+     * 慢查詢記錄
+     */
+    private final SlowQuery slowQuery = new SlowQuery();
+
+    @Data
+    public static class SlowQuery {
+
+        /**
+         * 執行時間達到此值的語句會被記錄
+         */
+        private Duration threshold = Duration.ofMillis(200);
+
+        /**
+         * 環形緩衝區容量，超過時覆寫最舊的記錄
+         */
+        private int capacity = 100;
+
+        /**
+         * 是否以 EXPLAIN 擷取執行計畫（在同一連線上多執行一條語句）
+         */
+        private boolean explain = true;
+    }
+}
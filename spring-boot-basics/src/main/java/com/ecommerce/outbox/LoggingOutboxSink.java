@@ -0,0 +1,29 @@
+package com.ecommerce.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 將事件寫入日誌的 Sink（預設接收端，方便在開發時觀察事件）
+ */
+@Component
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        if (log.isDebugEnabled()) {
+            for (OutboxMessage message : messages) {
+                log.debug("outbox 事件 id={} type={} aggregateId={} payload={}",
+                    message.id(), message.type(), message.aggregateId(), message.payload());
+            }
+        }
+    }
+}
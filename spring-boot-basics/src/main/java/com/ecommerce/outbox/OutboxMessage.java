@@ -0,0 +1,21 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.entity.OutboxEventType;
+
+import java.time.Instant;
+
+/**
+ * 發送給 OutboxSink 的事件
+ *
+ * @param id      事件 ID，遞增且唯一；Sink 可用來去除重複（發送語意為 at-least-once）
+ * @param payload JSON，格式見 com.ecommerce.event 的 OrderCreatedEvent、OrderStatusChangedEvent、StockChangedEvent
+ */
+public record OutboxMessage(long id, OutboxEventType type, String aggregateType, long aggregateId,
+                            String payload, Instant occurredAt) {
+
+    static OutboxMessage fromEntity(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getEventType(), event.getAggregateType(),
+            event.getAggregateId(), event.getPayload(), event.getOccurredAt());
+    }
+}
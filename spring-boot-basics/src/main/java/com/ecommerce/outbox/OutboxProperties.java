@@ -0,0 +1,39 @@
+package com.ecommerce.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Outbox Relay 配置
+ */
+@Data
+@ConfigurationProperties(prefix = "ecommerce.outbox")
+public class OutboxProperties {
+
+    /**
+     * 是否啟動背景 Relay（關閉時事件只寫入不發送）
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * 兩次輪詢之間的間隔（上一輪結束後起算）
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * 每批讀取的事件數，每批一個交易
+     */
+    private int batchSize = 100;
+
+    /**
+     * 每次輪詢最多處理幾批；積壓時連續處理，避免只能每個間隔送一批
+     */
+    private int maxBatchesPerPoll = 20;
+
+    /**
+     * 單一事件發送失敗幾次後停放（parked），不再阻塞後面的事件
+     */
+    private int maxAttempts = 5;
+}
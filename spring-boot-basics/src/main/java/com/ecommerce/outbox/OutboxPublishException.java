@@ -0,0 +1,11 @@
+package com.ecommerce.outbox;
+
+/**
+ * Sink 發送失敗，整批事件回滾後由 OutboxRelay 逐筆重送
+ */
+public class OutboxPublishException extends RuntimeException {
+
+    public OutboxPublishException(String sinkName, Throwable cause) {
+        super("outbox sink " + sinkName + " 發送失敗", cause);
+    }
+}
@@ -0,0 +1,218 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox Relay：分批讀出事件、發送給所有 OutboxSink、整批刪除
+ *
+ * 每批一個交易：
+ * 1. SELECT ... FOR UPDATE SKIP LOCKED 鎖定最舊的 batchSize 筆事件
+ * 2. 依序交給每個 Sink
+ * 3. DELETE ... WHERE id IN (...) 一次刪除整批
+ * 任何 Sink 失敗則整批回滾，改為逐筆重送這一批（每筆一個交易）：
+ * - 成功的事件照常提交刪除，一筆壞事件不會拖住整批
+ * - 有事件成功而仍失敗的事件才累計 attempts，達到 maxAttempts 後停放（parkedAt），不再讀出
+ * - 全部失敗時視為下游中斷，不累計次數，下一次輪詢重送（at-least-once）
+ *
+ * 指標：
+ * - ecommerce.outbox.published: 已發送事件數（吞吐量）
+ * - ecommerce.outbox.lag: 事件從寫入到發送完成的延遲
+ * - ecommerce.outbox.batch.size / ecommerce.outbox.batch.duration: 每批筆數與耗時
+ * - ecommerce.outbox.failures{sink}: Sink 失敗次數
+ * - ecommerce.outbox.parked: 停放的事件數
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Counter publishedCounter;
+    private final Timer lagTimer;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer batchTimer;
+    private final Counter parkedCounter;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxSink> sinks,
+                       OutboxProperties properties, PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.publishedCounter = Counter.builder("ecommerce.outbox.published")
+            .description("已發送的 outbox 事件數")
+            .register(meterRegistry);
+        this.lagTimer = Timer.builder("ecommerce.outbox.lag")
+            .description("outbox 事件從寫入到發送完成的延遲")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("ecommerce.outbox.batch.size")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("ecommerce.outbox.batch.duration")
+            .register(meterRegistry);
+        this.parkedCounter = Counter.builder("ecommerce.outbox.parked")
+            .description("失敗次數過多而停放的 outbox 事件數")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 處理積壓的事件，直到沒有事件或達到每次輪詢的批數上限
+     *
+     * @return 本次發送的事件數
+     */
+    public int relay() {
+        int total = 0;
+        for (int i = 0; i < properties.getMaxBatchesPerPoll(); i++) {
+            int published;
+            try {
+                published = relayBatch();
+            } catch (OutboxPublishException e) {
+                log.warn("outbox 整批發送失敗，改為逐筆重送: {}", e.getMessage());
+                // 逐筆重送後結束本次輪詢：同一筆壞事件每次輪詢最多累計一次
+                total += relayOneByOne();
+                break;
+            } catch (RuntimeException e) {
+                log.warn("outbox 發送失敗，下次輪詢重試", e);
+                break;
+            }
+            total += published;
+            if (published < properties.getBatchSize()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int relayBatch() {
+        long startNanos = System.nanoTime();
+        List<OutboxMessage> published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.findBatchForRelay(
+                PageRequest.ofSize(properties.getBatchSize()));
+            if (events.isEmpty()) {
+                return List.of();
+            }
+            List<OutboxMessage> messages = events.stream().map(OutboxMessage::fromEntity).toList();
+            for (OutboxSink sink : sinks) {
+                publish(sink, messages);
+            }
+            outboxEventRepository.deleteByIds(events.stream().map(OutboxEvent::getId).toList());
+            return messages;
+        });
+        if (published == null || published.isEmpty()) {
+            return 0;
+        }
+        // 提交後才記錄：回滾的批次不算發送
+        recordPublished(published);
+        batchSizeSummary.record(published.size());
+        batchTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return published.size();
+    }
+
+    /**
+     * 逐筆重送最舊的一批事件，每筆一個交易
+     *
+     * @return 成功發送的事件數
+     */
+    private int relayOneByOne() {
+        List<Long> ids = transactionTemplate.execute(status -> outboxEventRepository
+            .findBatchForRelay(PageRequest.ofSize(properties.getBatchSize())).stream()
+            .map(OutboxEvent::getId)
+            .toList());
+        int succeeded = 0;
+        Map<Long, OutboxPublishException> failures = new LinkedHashMap<>();
+        for (Long id : ids) {
+            try {
+                OutboxMessage message = transactionTemplate.execute(status -> relayOne(id));
+                if (message != null) {
+                    recordPublished(List.of(message));
+                    succeeded++;
+                }
+            } catch (OutboxPublishException e) {
+                failures.put(id, e);
+            }
+        }
+        if (succeeded == 0) {
+            // 沒有任何事件成功：多半是下游中斷，不是事件本身的問題
+            return 0;
+        }
+        failures.forEach(this::recordFailure);
+        return succeeded;
+    }
+
+    private OutboxMessage relayOne(Long id) {
+        // 其他節點已鎖定或已停放時略過
+        OutboxEvent event = outboxEventRepository.findForRelay(id).orElse(null);
+        if (event == null) {
+            return null;
+        }
+        OutboxMessage message = OutboxMessage.fromEntity(event);
+        for (OutboxSink sink : sinks) {
+            publish(sink, List.of(message));
+        }
+        outboxEventRepository.deleteByIds(List.of(id));
+        return message;
+    }
+
+    private void recordFailure(Long id, OutboxPublishException failure) {
+        Boolean parked = transactionTemplate.execute(status -> outboxEventRepository.findById(id)
+            .map(event -> {
+                event.setAttempts(event.getAttempts() + 1);
+                String error = failure.getMessage() + ": " + failure.getCause();
+                event.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+                if (event.getAttempts() < properties.getMaxAttempts()) {
+                    return false;
+                }
+                event.setParkedAt(Instant.now());
+                return true;
+            })
+            .orElse(false));
+        if (Boolean.TRUE.equals(parked)) {
+            parkedCounter.increment();
+            log.error("outbox 事件 {} 連續失敗 {} 次，已停放", id, properties.getMaxAttempts(), failure);
+        } else {
+            log.warn("outbox 事件 {} 發送失敗: {}", id, failure.getMessage());
+        }
+    }
+
+    private void recordPublished(List<OutboxMessage> published) {
+        Instant now = Instant.now();
+        for (OutboxMessage message : published) {
+            lagTimer.record(Duration.between(message.occurredAt(), now));
+        }
+        publishedCounter.increment(published.size());
+    }
+
+    private void publish(OutboxSink sink, List<OutboxMessage> messages) {
+        try {
+            sink.publish(messages);
+        } catch (Exception e) {
+            Counter.builder("ecommerce.outbox.failures")
+                .tag("sink", sink.getName())
+                .register(meterRegistry)
+                .increment();
+            throw new OutboxPublishException(sink.getName(), e);
+        }
+    }
+}
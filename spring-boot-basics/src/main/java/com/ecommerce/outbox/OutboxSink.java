@@ -0,0 +1,22 @@
+package com.ecommerce.outbox;
+
+import java.util.List;
+
+/**
+ * Outbox 事件的接收端（搜尋索引、倉儲通知等）
+ *
+ * 實作為 Spring Bean 即會被 OutboxRelay 取用。
+ * - 每批事件依 ID 遞增排序
+ * - 拋出例外時整批不會刪除，下一次輪詢所有 Sink 都會再收到一次，
+ *   因此實作必須能處理重複事件（例如依 OutboxMessage.id 去重）
+ * - 在 Relay 的交易中同步呼叫，應盡快返回；耗時工作請交給自己的執行緒
+ */
+public interface OutboxSink {
+
+    /**
+     * Sink 名稱，用於指標與日誌
+     */
+    String getName();
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
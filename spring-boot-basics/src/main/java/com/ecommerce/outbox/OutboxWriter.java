@@ -0,0 +1,100 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.entity.OutboxEventType;
+import com.ecommerce.entity.Product;
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.OrderCreatedEvent;
+import com.ecommerce.event.OrderStatusChangedEvent;
+import com.ecommerce.event.StockChangedEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 在業務交易中寫入 Outbox 事件
+ *
+ * 同一個事件也以 ApplicationEventPublisher 發布，交易提交後進入 in-process 事件匯流排（DomainEventBus）
+ *
+ * @Transactional(propagation = MANDATORY): 必須在呼叫端的交易中執行，
+ * 沒有交易時直接拋出例外，避免事件與業務資料分別提交
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(Order order) {
+        append(OutboxEventType.ORDER_CREATED, "Order", order.getId(), new OrderCreatedEvent(
+            order.getId(),
+            order.getOrderNumber(),
+            order.getCustomerEmail(),
+            order.getTotalAmount(),
+            order.getCreatedAt(),
+            items(order)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderStatusChanged(Order order, OrderStatus previousStatus) {
+        append(OutboxEventType.ORDER_STATUS_CHANGED, "Order", order.getId(), new OrderStatusChangedEvent(
+            order.getId(), order.getOrderNumber(), previousStatus, order.getStatus(),
+            order.getCreatedAt(), items(order)));
+    }
+
+    /**
+     * 訂單項目；商品與分類的 ID 直接取自代理，不會載入商品或分類
+     */
+    private static List<OrderCreatedEvent.Item> items(Order order) {
+        return order.getItems().stream()
+            .map(item -> new OrderCreatedEvent.Item(
+                item.getProduct().getId(), categoryId(item.getProduct()), item.getQuantity(), item.getUnitPrice()))
+            .toList();
+    }
+
+    private static Long categoryId(Product product) {
+        return product.getCategory() != null ? product.getCategory().getId() : null;
+    }
+
+    /**
+     * 庫存未變動時不寫入
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void stockChanged(Product product, int previousQuantity, StockChangedEvent.Reason reason) {
+        if (product.getStockQuantity() == previousQuantity) {
+            return;
+        }
+        // 版本號在 flush 時才加一：提交後的版本 = 目前（已載入或上次 flush 後）的版本 + 1
+        long version = product.getVersion() != null ? product.getVersion() + 1 : 0;
+        append(OutboxEventType.STOCK_CHANGED, "Product", product.getId(), new StockChangedEvent(
+            product.getId(), categoryId(product), previousQuantity, product.getStockQuantity(), reason, version));
+    }
+
+    private void append(OutboxEventType type, String aggregateType, Long aggregateId, DomainEvent payload) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(type)
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .payload(objectMapper.writeValueAsString(payload))
+                .occurredAt(Instant.now())
+                .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("無法序列化 outbox 事件 type=" + type, e);
+        }
+        eventPublisher.publishEvent(payload);
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 從歷史訂單平行重建共同購買次數
+ *
+ * 與 SalesCubeLoader 相同的做法：依訂單 ID 切成多個範圍，
+ * 各執行緒以 JDBC 逐列讀取並累加到自己的 LongIntHashMap，最後合併。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CoOccurrenceLoader {
+
+    private static final String SCAN_SQL =
+        "SELECT order_id, product_id FROM order_items " +
+        "WHERE order_id > ? AND order_id <= ? " +
+        "ORDER BY order_id, product_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RecommendationProperties properties;
+
+    /**
+     * 重建結果
+     *
+     * @param highWaterOrderId 掃描涵蓋的最大訂單 ID，之後建立的訂單要由事件補上
+     */
+    public record Snapshot(LongIntHashMap pairs, long highWaterOrderId) {
+    }
+
+    public Snapshot load() {
+        long startNanos = System.nanoTime();
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders", Long.class);
+        long highWater = maxId != null ? maxId : 0;
+
+        int parallelism = properties.getRebuildParallelism() > 0
+            ? properties.getRebuildParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "co-occurrence-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<LongIntHashMap>> partials = new ArrayList<>();
+            for (long from = 0; from < highWater; from += properties.getRebuildPartitionSize()) {
+                long lower = from;
+                long upper = Math.min(highWater, from + properties.getRebuildPartitionSize());
+                partials.add(executor.submit(() -> scan(lower, upper)));
+            }
+            LongIntHashMap pairs = null;
+            for (Future<LongIntHashMap> partial : partials) {
+                // 以第一個部分結果為底，省一次複製
+                if (pairs == null) {
+                    pairs = partial.get();
+                } else {
+                    pairs.addAll(partial.get());
+                }
+            }
+            if (pairs == null) {
+                pairs = new LongIntHashMap(1024);
+            }
+            log.info("共同購買模型已重建 orders<={} pairs={} partitions={} parallelism={} millis={}",
+                highWater, pairs.size(), partials.size(), parallelism, (System.nanoTime() - startNanos) / 1_000_000);
+            return new Snapshot(pairs, highWater);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("共同購買模型重建被中斷", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("共同購買模型重建失敗", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 掃描一個訂單 ID 範圍；結果依訂單 ID 排序，同一張訂單的項目相鄰
+     */
+    private LongIntHashMap scan(long afterId, long toId) {
+        LongIntHashMap pairs = new LongIntHashMap(1024);
+        OrderAccumulator accumulator = new OrderAccumulator(pairs, properties.getMaxItemsPerOrder());
+        jdbcTemplate.query(SCAN_SQL, accumulator, afterId, toId);
+        accumulator.flush();
+        return pairs;
+    }
+
+    /**
+     * 收集同一張訂單的商品 ID，換單時兩兩配對
+     */
+    private static final class OrderAccumulator implements RowCallbackHandler {
+
+        private final LongIntHashMap pairs;
+        private final OrderProducts products;
+        private long orderId = -1;
+
+        OrderAccumulator(LongIntHashMap pairs, int maxItemsPerOrder) {
+            this.pairs = pairs;
+            this.products = new OrderProducts(maxItemsPerOrder);
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (id != orderId) {
+                flush();
+                orderId = id;
+            }
+            products.add(rs.getLong(2));
+        }
+
+        void flush() {
+            if (orderId >= 0) {
+                CoOccurrenceModel.countPairs(products.toArray(), pairs);
+                products.reset();
+                orderId = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.ecommerce.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 商品共同購買（item-to-item co-occurrence）模型
+ *
+ * - pairs：同一張訂單出現兩個商品的次數，鍵為兩個商品 ID 打包成的 long（見 pairKey）
+ * - neighbors：每個商品次數最高的前 K 個鄰居，不可變陣列，更新時整份替換（copy-on-write）
+ *
+ * 查詢只讀 neighbors，O(K) 且不需要鎖；寫入（addOrder / compact）必須由呼叫端序列化。
+ * 長尾配對只會讓 pairs 持續成長，compact 只保留至少出現在一端前 K 名的配對。
+ */
+public class CoOccurrenceModel {
+
+    /**
+     * 打包進配對鍵的商品 ID 上限（各佔 32 位元）
+     */
+    public static final long MAX_PRODUCT_ID = 0xFFFF_FFFFL;
+
+    private final int topK;
+    private LongIntHashMap pairs;
+    private final ConcurrentHashMap<Long, Neighbors> neighbors = new ConcurrentHashMap<>();
+
+    public CoOccurrenceModel(int topK) {
+        this(topK, new LongIntHashMap(1024));
+    }
+
+    private CoOccurrenceModel(int topK, LongIntHashMap pairs) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("topK 必須大於 0");
+        }
+        this.topK = topK;
+        this.pairs = pairs;
+    }
+
+    /**
+     * 由已彙總的配對次數建立模型（冷啟動重建）
+     */
+    public static CoOccurrenceModel fromPairs(int topK, LongIntHashMap pairs) {
+        CoOccurrenceModel model = new CoOccurrenceModel(topK, pairs);
+        pairs.forEach((key, count) -> {
+            model.offer(first(key), second(key), count);
+            model.offer(second(key), first(key), count);
+        });
+        return model;
+    }
+
+    /**
+     * 兩個商品的配對鍵：較小的 ID 在高 32 位元，與順序無關
+     */
+    public static long pairKey(long a, long b) {
+        long low = Math.min(a, b);
+        long high = Math.max(a, b);
+        return low << 32 | high;
+    }
+
+    static long first(long pairKey) {
+        return pairKey >>> 32;
+    }
+
+    static long second(long pairKey) {
+        return pairKey & MAX_PRODUCT_ID;
+    }
+
+    /**
+     * 把一張訂單的所有商品兩兩配對計入 into
+     *
+     * @param productIds 不重複的商品 ID（1 ~ MAX_PRODUCT_ID）
+     */
+    public static void countPairs(long[] productIds, LongIntHashMap into) {
+        for (int i = 0; i < productIds.length; i++) {
+            for (int j = i + 1; j < productIds.length; j++) {
+                into.addTo(pairKey(productIds[i], productIds[j]), 1);
+            }
+        }
+    }
+
+    /**
+     * 記錄一張訂單（增量更新）
+     *
+     * @param productIds 不重複的商品 ID（1 ~ MAX_PRODUCT_ID）
+     */
+    public void addOrder(long[] productIds) {
+        for (int i = 0; i < productIds.length; i++) {
+            for (int j = i + 1; j < productIds.length; j++) {
+                int count = pairs.addTo(pairKey(productIds[i], productIds[j]), 1);
+                offer(productIds[i], productIds[j], count);
+                offer(productIds[j], productIds[i], count);
+            }
+        }
+    }
+
+    /**
+     * 最常與指定商品一起購買的商品，依次數遞減
+     */
+    public List<Neighbor> related(long productId, int limit) {
+        Neighbors current = neighbors.get(productId);
+        if (current == null) {
+            return List.of();
+        }
+        int size = Math.min(limit, current.ids.length);
+        List<Neighbor> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Neighbor(current.ids[i], current.counts[i]));
+        }
+        return result;
+    }
+
+    /**
+     * 丟掉不在任何一端前 K 名的配對
+     *
+     * 被丟掉的配對之後再出現時從 1 重新計數；前 K 名的次數不受影響
+     *
+     * @return 丟掉的配對數
+     */
+    public int compact() {
+        int before = pairs.size();
+        LongIntHashMap retained = new LongIntHashMap(Math.max(1024, neighbors.size() * topK));
+        pairs.forEach((key, count) -> {
+            if (isNeighbor(first(key), second(key)) || isNeighbor(second(key), first(key))) {
+                retained.addTo(key, count);
+            }
+        });
+        pairs = retained;
+        return before - retained.size();
+    }
+
+    public int pairCount() {
+        return pairs.size();
+    }
+
+    public int productCount() {
+        return neighbors.size();
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    int pairCount(long a, long b) {
+        return pairs.get(pairKey(a, b));
+    }
+
+    private boolean isNeighbor(long owner, long other) {
+        Neighbors current = neighbors.get(owner);
+        return current != null && current.indexOf(other) >= 0;
+    }
+
+    private void offer(long owner, long other, int count) {
+        Neighbors current = neighbors.getOrDefault(owner, Neighbors.EMPTY);
+        Neighbors updated = current.offer(other, count, topK);
+        if (updated != current) {
+            neighbors.put(owner, updated);
+        }
+    }
+
+    /**
+     * 共同購買的商品
+     *
+     * @param count 與查詢商品出現在同一張訂單的次數
+     */
+    public record Neighbor(long productId, int count) {
+    }
+
+    /**
+     * 一個商品的前 K 名鄰居（次數遞減），建立後不再修改
+     */
+    private static final class Neighbors {
+
+        static final Neighbors EMPTY = new Neighbors(new long[0], new int[0]);
+
+        final long[] ids;
+        final int[] counts;
+
+        Neighbors(long[] ids, int[] counts) {
+            this.ids = ids;
+            this.counts = counts;
+        }
+
+        int indexOf(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return 名次沒有變化時回傳自己
+         */
+        Neighbors offer(long id, int count, int k) {
+            int index = indexOf(id);
+            long[] newIds;
+            int[] newCounts;
+            if (index >= 0) {
+                if (counts[index] == count) {
+                    return this;
+                }
+                newIds = ids.clone();
+                newCounts = counts.clone();
+            } else if (ids.length < k) {
+                newIds = Arrays.copyOf(ids, ids.length + 1);
+                newCounts = Arrays.copyOf(counts, counts.length + 1);
+                index = ids.length;
+            } else if (count > counts[k - 1]) {
+                newIds = ids.clone();
+                newCounts = counts.clone();
+                index = k - 1;
+            } else {
+                return this;
+            }
+            newIds[index] = id;
+            newCounts[index] = count;
+            // 次數只會增加：往前移到正確名次
+            while (index > 0 && newCounts[index - 1] < count) {
+                newIds[index] = newIds[index - 1];
+                newCounts[index] = newCounts[index - 1];
+                newIds[index - 1] = id;
+                newCounts[index - 1] = count;
+                index--;
+            }
+            return new Neighbors(newIds, newCounts);
+        }
+    }
+}
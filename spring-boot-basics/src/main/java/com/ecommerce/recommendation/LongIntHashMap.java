@@ -0,0 +1,139 @@
+package com.ecommerce.recommendation;
+
+/**
+ * long → int 的開放定址雜湊表（線性探測）
+ *
+ * 以兩個平行的原生陣列存放，沒有 Long / Integer 裝箱與 Entry 物件：
+ * 一百萬個商品配對約 12 MB，HashMap&lt;Long, Integer&gt; 則超過 60 MB。
+ * 鍵 0 保留作為空槽位；不支援刪除（壓縮時改為重建一個新的表）。
+ * 非執行緒安全。
+ */
+public class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 槽位數（估算記憶體用）
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * @return 鍵不存在時回傳 0
+     */
+    public int get(long key) {
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * 把 delta 加到鍵的值（不存在時視為 0）
+     *
+     * @return 加總後的值
+     */
+    public int addTo(long key, int delta) {
+        if (key == 0) {
+            throw new IllegalArgumentException("鍵 0 保留作為空槽位");
+        }
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot] += delta;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size >= resizeAt) {
+            resize();
+        }
+        return delta;
+    }
+
+    /**
+     * 設定鍵的值；值設為 0 等同於移除（get 回傳 0，forEach 仍會走訪到）
+     *
+     * @return 原本的值，不存在時為 0
+     */
+    public int put(long key, int value) {
+        int previous = get(key);
+        addTo(key, value - previous);
+        return previous;
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * 把另一個表的值加進來（平行重建時合併各執行緒的部分結果）
+     */
+    public void addAll(LongIntHashMap other) {
+        other.forEach(this::addTo);
+    }
+
+    private int slot(long key) {
+        // 混合高低位（配對鍵的高 32 位與低 32 位各是一個商品 ID）
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(keys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    @Override
+    public String toString() {
+        return "LongIntHashMap[size=" + size + ", capacity=" + keys.length + "]";
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long key, int value);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * 收集一張訂單的商品 ID（可重複使用的緩衝區）
+ *
+ * 增量更新與重建共用，確保兩邊對同一張訂單產生相同的配對：
+ * 略過無法打包進配對鍵的 ID，排序去重後取最小的 maxItems 個。
+ */
+final class OrderProducts {
+
+    private final int maxItems;
+    private long[] ids = new long[8];
+    private int size;
+
+    OrderProducts(int maxItems) {
+        this.maxItems = maxItems;
+    }
+
+    void add(long productId) {
+        if (productId < 1 || productId > CoOccurrenceModel.MAX_PRODUCT_ID) {
+            return;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = productId;
+    }
+
+    long[] toArray() {
+        Arrays.sort(ids, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size && distinct < maxItems; i++) {
+            if (distinct == 0 || ids[i] != ids[distinct - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, distinct);
+    }
+
+    void reset() {
+        size = 0;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.recommendation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 商品推薦配置
+ */
+@Data
+@ConfigurationProperties(prefix = "ecommerce.recommendation")
+public class RecommendationProperties {
+
+    /**
+     * 每個商品保留的共同購買商品數（/related 最多回傳的筆數）
+     */
+    private int topK = 20;
+
+    /**
+     * 一張訂單最多取幾個商品兩兩配對（配對數為 n(n-1)/2，避免大宗採購訂單灌爆模型）
+     */
+    private int maxItemsPerOrder = 50;
+
+    /**
+     * 定期壓縮的間隔：丟掉不在任何一端前 K 名的配對
+     */
+    private Duration compactionInterval = Duration.ofMinutes(10);
+
+    /**
+     * 配對數超過這個值時不等排程，立即壓縮
+     */
+    private int maxPairs = 2_000_000;
+
+    /**
+     * 啟動時是否從歷史訂單重建模型
+     */
+    private boolean rebuildOnStartup = true;
+
+    /**
+     * 重建時平行掃描的執行緒數；0 表示使用 CPU 核心數
+     */
+    private int rebuildParallelism = 0;
+
+    /**
+     * 每個掃描任務涵蓋的訂單 ID 範圍
+     */
+    private int rebuildPartitionSize = 10_000;
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.recommendation;
+
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.DomainEventConsumer;
+import com.ecommerce.event.OrderCreatedEvent;
+import com.ecommerce.exception.JobAlreadyRunningException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 共同購買推薦（「買了這個商品的人也買了」）
+ *
+ * - 啟動時（ApplicationRunner）從歷史訂單平行重建 CoOccurrenceModel
+ * - 之後由事件匯流排的 OrderCreatedEvent 增量更新（OrderService.createOrder 提交後）
+ * - 定期（RecommendationConfig）或配對數超過 maxPairs 時壓縮
+ *
+ * 取消的訂單不扣回：共同購買反映的是購買意圖，與銷售統計不同。
+ * 重建期間收到的事件先暫存，重建完成後補上掃描沒涵蓋的訂單（ID 大於 highWater）。
+ */
+@Service
+@Slf4j
+public class RelatedProductsService implements DomainEventConsumer, ApplicationRunner {
+
+    private final CoOccurrenceLoader loader;
+    private final RecommendationProperties properties;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final OrderProducts products;
+    private final Object applyLock = new Object();
+
+    private volatile CoOccurrenceModel model;
+    private List<OrderCreatedEvent> deferred;
+
+    public RelatedProductsService(CoOccurrenceLoader loader, RecommendationProperties properties) {
+        this.loader = loader;
+        this.properties = properties;
+        this.products = new OrderProducts(properties.getMaxItemsPerOrder());
+        this.model = new CoOccurrenceModel(properties.getTopK());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 從歷史訂單重建
+     *
+     * @throws JobAlreadyRunningException 已有重建在執行
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new JobAlreadyRunningException("related-products-rebuild");
+        }
+        try {
+            synchronized (applyLock) {
+                deferred = new ArrayList<>();
+            }
+            CoOccurrenceLoader.Snapshot snapshot = loader.load();
+            CoOccurrenceModel rebuilt = CoOccurrenceModel.fromPairs(properties.getTopK(), snapshot.pairs());
+            rebuilt.compact();
+            synchronized (applyLock) {
+                for (OrderCreatedEvent event : deferred) {
+                    if (event.orderId() > snapshot.highWaterOrderId()) {
+                        apply(rebuilt, event);
+                    }
+                }
+                model = rebuilt;
+            }
+        } finally {
+            synchronized (applyLock) {
+                deferred = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 最常與指定商品一起購買的商品（O(K)，不需要鎖）
+     */
+    public List<CoOccurrenceModel.Neighbor> related(long productId, int limit) {
+        return model.related(productId, limit);
+    }
+
+    public int getTopK() {
+        return properties.getTopK();
+    }
+
+    /**
+     * 丟掉不在任何一端前 K 名的配對
+     *
+     * @return 丟掉的配對數
+     */
+    public int compact() {
+        synchronized (applyLock) {
+            long startNanos = System.nanoTime();
+            int removed = model.compact();
+            if (removed > 0) {
+                log.debug("共同購買模型已壓縮 removed={} remaining={} millis={}",
+                    removed, model.pairCount(), (System.nanoTime() - startNanos) / 1_000_000);
+            }
+            return removed;
+        }
+    }
+
+    // ---------------------------------------------------------------- 事件
+
+    @Override
+    public String getName() {
+        return "related-products";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (!(event instanceof OrderCreatedEvent created)) {
+            return;
+        }
+        synchronized (applyLock) {
+            if (deferred != null) {
+                deferred.add(created);
+                return;
+            }
+            apply(model, created);
+            if (model.pairCount() > properties.getMaxPairs()) {
+                compact();
+            }
+        }
+    }
+
+    private void apply(CoOccurrenceModel target, OrderCreatedEvent event) {
+        products.reset();
+        for (OrderCreatedEvent.Item item : event.items()) {
+            products.add(item.productId());
+        }
+        target.addOrder(products.toArray());
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.analytics.SalesRollupRow;
+import com.ecommerce.entity.DailyCategorySales;
+import com.ecommerce.entity.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 每日分類銷售彙總倉儲（寫入見 SalesRollupWriter）
+ */
+@Repository
+public interface DailyCategorySalesRepository extends JpaRepository<DailyCategorySales, Long> {
+
+    /**
+     * 依分類彙總（營收高到低）；status 為 null 時包含所有狀態
+     */
+    @Query("SELECT new com.ecommerce.analytics.SalesRollupRow(d.categoryId, SUM(d.orders), SUM(d.units), SUM(d.revenue)) " +
+           "FROM DailyCategorySales d " +
+           "WHERE d.salesDate BETWEEN :from AND :to AND (:status IS NULL OR d.status = :status) " +
+           "GROUP BY d.categoryId ORDER BY SUM(d.revenue) DESC, d.categoryId")
+    List<SalesRollupRow> sumByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                       @Param("status") OrderStatus status);
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.analytics.SalesRollupRow;
+import com.ecommerce.entity.DailyProductSales;
+import com.ecommerce.entity.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 每日商品銷售彙總倉儲（寫入見 SalesRollupWriter）
+ */
+@Repository
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, Long> {
+
+    /**
+     * 商品營收排行；categoryId、status 為 null 時不篩選
+     */
+    @Query("SELECT new com.ecommerce.analytics.SalesRollupRow(d.productId, SUM(d.orders), SUM(d.units), SUM(d.revenue)) " +
+           "FROM DailyProductSales d " +
+           "WHERE d.salesDate BETWEEN :from AND :to " +
+           "AND (:categoryId IS NULL OR d.categoryId = :categoryId) " +
+           "AND (:status IS NULL OR d.status = :status) " +
+           "GROUP BY d.productId ORDER BY SUM(d.revenue) DESC, d.productId")
+    List<SalesRollupRow> sumByProduct(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                      @Param("categoryId") Long categoryId, @Param("status") OrderStatus status,
+                                      Pageable pageable);
+}
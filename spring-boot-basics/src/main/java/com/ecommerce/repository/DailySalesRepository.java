@@ -0,0 +1,29 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.analytics.SalesRollupRow;
+import com.ecommerce.entity.DailySales;
+import com.ecommerce.entity.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 每日銷售彙總倉儲（寫入見 SalesRollupWriter）
+ */
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, Long> {
+
+    /**
+     * 依日期彙總；status 為 null 時包含所有狀態
+     */
+    @Query("SELECT new com.ecommerce.analytics.SalesRollupRow(d.salesDate, SUM(d.orders), SUM(d.units), SUM(d.revenue)) " +
+           "FROM DailySales d " +
+           "WHERE d.salesDate BETWEEN :from AND :to AND (:status IS NULL OR d.status = :status) " +
+           "GROUP BY d.salesDate ORDER BY d.salesDate")
+    List<SalesRollupRow> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                  @Param("status") OrderStatus status);
+}
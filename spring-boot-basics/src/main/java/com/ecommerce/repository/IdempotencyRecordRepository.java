@@ -0,0 +1,41 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.IdempotencyRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 冪等鍵記錄倉儲
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByIdempotencyKeyAndExpiresAtAfter(String idempotencyKey, LocalDateTime now);
+
+    /**
+     * 刪除同一個鍵已過期、尚未被清除工作刪除的記錄，讓鍵可以重新使用
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.expiresAt <= :now")
+    int deleteExpiredByKey(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    /**
+     * 依 ID 遞增取得下一批已過期的記錄 ID（清除工作使用）
+     */
+    @Query("SELECT r.id FROM IdempotencyRecord r WHERE r.expiresAt < :now AND r.id > :afterId ORDER BY r.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now,
+                              @Param("afterId") long afterId,
+                              Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 背景工作租約鎖倉儲
+ *
+ * 取得、續約、釋放都是單一條件式 UPDATE，由資料庫的資料列鎖保證原子性，
+ * 影響筆數為 1 表示成功。
+ */
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    /**
+     * 建立租約資料列；主鍵已存在時拋出 DataIntegrityViolationException
+     *
+     * 以原生 INSERT 而非 save()：save() 對指定主鍵的實體會走 merge，
+     * 可能覆寫其他節點剛建立且已取得的租約
+     */
+    @Modifying
+    @Query(value = "INSERT INTO job_locks (name, fencing_token, locked_until) VALUES (:name, 0, :lockedUntil)",
+           nativeQuery = true)
+    int insert(@Param("name") String name, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * 租約已過期時取得租約，並遞增 fencing token
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobLock l SET l.owner = :owner, l.fencingToken = l.fencingToken + 1, " +
+           "l.lockedUntil = :lockedUntil WHERE l.name = :name AND l.lockedUntil < :now")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * 延長租約；fencing token 不符表示已被其他節點取得
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobLock l SET l.lockedUntil = :lockedUntil " +
+           "WHERE l.name = :name AND l.owner = :owner AND l.fencingToken = :token")
+    int renew(@Param("name") String name,
+              @Param("owner") String owner,
+              @Param("token") long token,
+              @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * 釋放租約：讓租約立即到期
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE JobLock l SET l.lockedUntil = :now " +
+           "WHERE l.name = :name AND l.owner = :owner AND l.fencingToken = :token")
+    int release(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("token") long token,
+                @Param("now") LocalDateTime now);
+}
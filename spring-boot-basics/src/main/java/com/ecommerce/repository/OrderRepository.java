@@ -24,6 +24,15 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    /**
+     * 只讀取訂單的最後修改時間（條件式 GET 的 ETag），不載入實體與訂單項目
+     */
+    @Query("SELECT COALESCE(o.updatedAt, o.createdAt) FROM Order o WHERE o.id = :id")
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") Long id);
+
+    @Query("SELECT COALESCE(o.updatedAt, o.createdAt) FROM Order o WHERE o.orderNumber = :orderNumber")
+    Optional<LocalDateTime> findLastModifiedByOrderNumber(@Param("orderNumber") String orderNumber);
+
     /**
      * 根據客戶 Email 查詢訂單（分頁）
      */
@@ -46,4 +55,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :orderId")
     Optional<Order> findByIdWithItems(@Param("orderId") Long orderId);
+
+    /**
+     * 依 ID 遞增取得下一批指定狀態且早於截止時間的訂單 ID（背景工作分區塊使用）
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.createdAt < :cutoffTime " +
+           "AND o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsByStatusAndCreatedAtBefore(@Param("status") OrderStatus status,
+                                                 @Param("cutoffTime") LocalDateTime cutoffTime,
+                                                 @Param("afterId") long afterId,
+                                                 Pageable pageable);
 }
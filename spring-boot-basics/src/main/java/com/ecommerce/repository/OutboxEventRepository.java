@@ -0,0 +1,48 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Outbox 事件倉儲
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * 鎖定並取得最舊的一批事件
+     *
+     * @Lock(PESSIMISTIC_WRITE) + lock.timeout = -2: Hibernate 產生 FOR UPDATE SKIP LOCKED
+     * （資料庫支援時），多個節點的 Relay 會各自取得不同的事件，不會互相等待；
+     * 不支援 SKIP LOCKED 的資料庫退回一般的 FOR UPDATE；
+     * 已停放（parkedAt 不為 null）的事件不再讀出
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.parkedAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> findBatchForRelay(Pageable pageable);
+
+    /**
+     * 鎖定並取得單一事件（整批失敗後逐筆重送時使用），鎖定方式同 findBatchForRelay
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id = :id AND e.parkedAt IS NULL")
+    Optional<OutboxEvent> findForRelay(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
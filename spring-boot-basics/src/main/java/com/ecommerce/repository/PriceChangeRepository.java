@@ -0,0 +1,21 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.PriceChange;
+import com.ecommerce.entity.PriceChangeStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * 批次調價作業倉儲
+ */
+@Repository
+public interface PriceChangeRepository extends JpaRepository<PriceChange, Long> {
+
+    /**
+     * 取得最早一筆指定狀態的作業（背景工作依提交順序處理）
+     */
+    Optional<PriceChange> findFirstByStatusInOrderByIdAsc(Collection<PriceChangeStatus> statuses);
+}
@@ -1,16 +1,24 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.entity.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 商品倉儲介面
@@ -20,6 +28,7 @@ import java.util.List;
  * 2. @Query JPQL 查詢
  * 3. @Query 原生 SQL 查詢
  * 4. @Modifying 更新/刪除操作
+ * 5. @QueryHints 查詢快取
  */
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -51,7 +60,11 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     /**
      * 根據分類 ID 和上架狀態查詢
      * And = 條件組合
+     *
+     * @QueryHints: 啟用查詢快取，快取結果的 ID 清單，實體再從二級快取取得
+     * products 表有任何寫入時，查詢快取會自動失效
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Product> findByCategoryIdAndActiveTrue(Long categoryId);
 
     /**
@@ -76,8 +89,9 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategoryNameOrderByPriceDesc(@Param("categoryName") String categoryName);
 
     /**
-     * 使用 JPQL 聚合函數
+     * 使用 JPQL 聚合函數（啟用查詢快取）
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId AND p.active = true")
     long countActiveProductsByCategory(@Param("categoryId") Long categoryId);
 
@@ -90,22 +104,94 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
            nativeQuery = true)
     List<Product> findRecentProducts(@Param("limit") int limit);
 
+    /**
+     * 只讀取決定商品回應內容版本的欄位（條件式 GET 的 ETag），不載入實體
+     */
+    @Query("SELECT new com.ecommerce.repository.ProductVersion(p.version, c.id, c.updatedAt) " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.id = :id")
+    Optional<ProductVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * 整個商品表的版本：最後修改時間與筆數（商品列表的 ETag，所有節點看到的值相同）
+     * 新增與修改（含批次更新）會推進 updatedAt，刪除會改變筆數
+     */
+    @Query("SELECT new com.ecommerce.repository.ProductTableVersion(MAX(p.updatedAt), COUNT(p)) FROM Product p")
+    ProductTableVersion findTableVersion();
+
+    // ============ 悲觀鎖 ============
+
+    /**
+     * 鎖定要異動庫存的商品（SELECT ... FOR UPDATE），依 ID 排序加鎖，兩張訂單不會互相等待對方的鎖
+     *
+     * 二級快取只在各節點本機，其他節點提交的庫存不會反映在這裡的快取；
+     * BYPASS 不從快取取實體狀態，一律使用這次從資料庫讀到的值
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
     // ============ @Modifying 更新/刪除操作 ============
 
     /**
      * @Modifying: 標記為更新/刪除操作
      * 必須在 @Transactional 環境下執行
+     * 批次更新不經過實體的 @LastModifiedDate 與 @Version，須自行更新 updatedAt（快照暖啟動的補讀依賴它）
+     * 並遞增 version（ETag 依賴它，也讓之前讀取的實體在儲存時觸發樂觀鎖衝突）
+     * 注意：單一 UPDATE 涵蓋整個分類，大分類請改用批次調價作業（PriceChangeService）
      */
     @Modifying
-    @Query("UPDATE Product p SET p.price = p.price * :multiplier WHERE p.category.id = :categoryId")
+    @Query("UPDATE Product p SET p.price = p.price * :multiplier, p.updatedAt = LOCAL DATETIME, " +
+           "p.version = p.version + 1 " +
+           "WHERE p.category.id = :categoryId")
     int updatePricesByCategory(@Param("categoryId") Long categoryId,
                                @Param("multiplier") BigDecimal multiplier);
 
     @Modifying
-    @Query("UPDATE Product p SET p.active = false WHERE p.stockQuantity = 0")
+    @Query("UPDATE Product p SET p.active = false, p.updatedAt = LOCAL DATETIME, p.version = p.version + 1 " +
+           "WHERE p.stockQuantity = 0")
     int deactivateOutOfStockProducts();
 
     @Modifying
     @Query("DELETE FROM Product p WHERE p.active = false AND p.stockQuantity = 0")
     int deleteInactiveAndOutOfStockProducts();
+
+    // ============ 分區塊維護（背景工作使用） ============
+
+    /**
+     * 依 ID 遞增取得下一批「上架中但已無庫存」的商品 ID（keyset 分頁，不用 OFFSET）
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.active = true AND p.stockQuantity = 0 " +
+           "AND p.id > :afterId ORDER BY p.id")
+    List<Long> findActiveOutOfStockIds(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * 只停用指定 ID 中仍無庫存的商品，避免覆寫讀取後才補貨的商品
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.active = false, p.updatedAt = LOCAL DATETIME, p.version = p.version + 1 " +
+           "WHERE p.id IN :ids AND p.stockQuantity = 0")
+    int deactivateOutOfStockByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 依 ID 遞增取得下一批可刪除的商品 ID：已停用、無庫存，且沒有被任何訂單項目引用
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.active = false AND p.stockQuantity = 0 " +
+           "AND p.id > :afterId " +
+           "AND NOT EXISTS (SELECT 1 FROM OrderItem i WHERE i.product = p) ORDER BY p.id")
+    List<Long> findPurgeableIds(@Param("afterId") long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id IN :ids AND p.active = false AND p.stockQuantity = 0")
+    int deleteInactiveAndOutOfStockByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 依 ID 遞增取得分類下的下一批商品 ID（批次調價使用）
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.category.id = :categoryId AND p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId,
+                                   @Param("afterId") long afterId,
+                                   Pageable pageable);
+
+    long countByCategoryId(Long categoryId);
 }
@@ -0,0 +1,12 @@
+package com.ecommerce.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 商品表的版本（商品列表的 ETag）
+ *
+ * @param lastModified 最後修改時間；沒有商品時為 null
+ * @param count        商品筆數：硬刪除不會推進 lastModified，以筆數反映
+ */
+public record ProductTableVersion(LocalDateTime lastModified, long count) {
+}
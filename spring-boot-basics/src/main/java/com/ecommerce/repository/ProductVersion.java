@@ -0,0 +1,12 @@
+package com.ecommerce.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 決定商品回應內容（ProductDTO）版本的欄位
+ *
+ * - version：商品本身的欄位與庫存，每次提交都會遞增（樂觀鎖版本）
+ * - categoryId、categoryUpdatedAt：分類改名時商品的 version 不變，由分類的修改時間區分
+ */
+public record ProductVersion(Long version, Long categoryId, LocalDateTime categoryUpdatedAt) {
+}
@@ -0,0 +1,465 @@
+package com.ecommerce.search;
+
+import com.ecommerce.recommendation.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 容錯（模糊）搜尋用的三字元組（trigram）索引
+ *
+ * 兩層倒排索引，都以 int 陣列存放：
+ * - 詞彙表：商品名稱切出的不重複詞，trigram → 含有它的詞（候選詞篩選）
+ * - 詞 → 含有它的商品（文件）
+ *
+ * 查詢時每個詞先以共同 trigram 數篩出候選詞（一次編輯最多破壞 4 個 trigram（對調相鄰字元），
+ * 共同數低於「trigram 數 - 4 × 容許編輯數」的不可能符合），
+ * 再以有上界的 Damerau-Levenshtein（OSA）距離確認，最後彙總到商品排序。
+ * 詞彙表遠小於商品數，昂貴的距離計算只在候選詞上做一次；含數字的詞（型號）只做完全比對，
+ * 不進 trigram 索引，候選詞數與記憶體都不會被大量型號拖累。
+ *
+ * 商品更新 / 停用只標記舊文件為已刪除（墓碑），由定期重建清掉。
+ * 非執行緒安全：寫入需要獨佔，查詢可以並行（見 FuzzySearchService）。
+ */
+public final class FuzzyIndex {
+
+    private static final char PAD_START = '\u0002';
+    private static final char PAD_END = '\u0003';
+
+    /**
+     * 多少字以上容許 2 個編輯（較短的詞只容許 1 個，2 個字以下與含數字的詞必須完全相同）
+     */
+    private static final int TWO_EDITS_MIN_LENGTH = 6;
+
+    private final int maxEdits;
+
+    private final Map<String, Integer> tokenIds = new HashMap<>();
+    private final List<String> tokens = new ArrayList<>();
+    private final List<IntList> tokenDocs = new ArrayList<>();
+
+    /**
+     * trigram → trigramTokens 的索引 + 1（0 表示不存在）
+     */
+    private final LongIntHashMap trigramSlots = new LongIntHashMap(1024);
+    private final List<IntList> trigramTokens = new ArrayList<>();
+
+    private long[] docProducts = new long[1024];
+    private int docCount;
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+
+    /**
+     * 商品 ID → 文件 ID + 1（0 表示不在索引中）
+     */
+    private final LongIntHashMap docByProduct = new LongIntHashMap(1024);
+
+    /**
+     * @param maxEdits 長詞容許的最大編輯距離（0 ~ 2）
+     */
+    public FuzzyIndex(int maxEdits) {
+        this.maxEdits = maxEdits;
+    }
+
+    /**
+     * 搜尋結果
+     *
+     * @param matchedTerms 查詢中有符合的詞數
+     * @param score        各查詢詞最佳符合的相似度總和（完全相同為 1）
+     */
+    public record Match(long productId, int matchedTerms, double score) {
+    }
+
+    /**
+     * 索引規模與估計的記憶體用量
+     */
+    public record Stats(int products, int deletedDocs, int tokens, int trigrams, long postings, long estimatedBytes) {
+    }
+
+    // ---------------------------------------------------------------- 寫入
+
+    /**
+     * 加入或取代一個商品
+     */
+    public void put(long productId, String name) {
+        remove(productId);
+        int doc = docCount++;
+        if (doc == docProducts.length) {
+            docProducts = Arrays.copyOf(docProducts, doc * 2);
+        }
+        docProducts[doc] = productId;
+        docByProduct.put(productId, doc + 1);
+        for (String token : new LinkedHashSet<>(TextNormalizer.tokens(TextNormalizer.normalize(name)))) {
+            tokenDocs.get(tokenId(token)).add(doc);
+        }
+    }
+
+    public void remove(long productId) {
+        int doc = docByProduct.get(productId) - 1;
+        if (doc >= 0) {
+            docByProduct.put(productId, 0);
+            deleted.set(doc);
+            deletedCount++;
+        }
+    }
+
+    private int tokenId(String token) {
+        Integer existing = tokenIds.get(token);
+        if (existing != null) {
+            return existing;
+        }
+        int id = tokens.size();
+        tokenIds.put(token, id);
+        tokens.add(token);
+        tokenDocs.add(new IntList(2));
+        if (hasDigit(token)) {
+            // 型號只做完全比對，不進 trigram 索引（型號通常佔詞彙表的大多數）
+            return id;
+        }
+        for (long trigram : trigrams(token)) {
+            int slot = trigramSlots.get(trigram);
+            if (slot == 0) {
+                trigramTokens.add(new IntList(4));
+                slot = trigramTokens.size();
+                trigramSlots.put(trigram, slot);
+            }
+            trigramTokens.get(slot - 1).add(id);
+        }
+        return id;
+    }
+
+    // ---------------------------------------------------------------- 查詢
+
+    /**
+     * 依符合的詞數、相似度排序
+     */
+    public List<Match> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextNormalizer.tokens(TextNormalizer.normalize(query)));
+        List<Map<Integer, Double>> termMatches = new ArrayList<>(terms.size());
+        long postings = 0;
+        for (String text : terms) {
+            Map<Integer, Double> matches = matchTokens(text);
+            termMatches.add(matches);
+            for (Integer tokenId : matches.keySet()) {
+                postings += tokenDocs.get(tokenId).size;
+            }
+        }
+        // 依 posting 總長預先配置，累加時不需要擴容
+        DocScores scores = new DocScores((int) Math.min(postings, docCount));
+        int term = 0;
+        for (Map<Integer, Double> matches : termMatches) {
+            term++;
+            for (Map.Entry<Integer, Double> match : matches.entrySet()) {
+                IntList docs = tokenDocs.get(match.getKey());
+                float similarity = match.getValue().floatValue();
+                for (int i = 0; i < docs.size; i++) {
+                    int doc = docs.values[i];
+                    if (!deleted.get(doc)) {
+                        scores.offer(doc, term, similarity);
+                    }
+                }
+            }
+        }
+        return scores.top(limit, docProducts);
+    }
+
+    /**
+     * 編輯距離在容許範圍內的詞彙 → 相似度（1 - 距離 / 較長的長度）
+     */
+    Map<Integer, Double> matchTokens(String term) {
+        int edits = editsFor(term);
+        if (edits == 0) {
+            Integer exact = tokenIds.get(term);
+            return exact != null ? Map.of(exact, 1.0) : Map.of();
+        }
+        long[] grams = trigrams(term);
+        LongIntHashMap shared = new LongIntHashMap(256);
+        for (long trigram : grams) {
+            int slot = trigramSlots.get(trigram);
+            if (slot > 0) {
+                IntList candidates = trigramTokens.get(slot - 1);
+                for (int i = 0; i < candidates.size; i++) {
+                    shared.addTo(candidates.values[i] + 1L, 1);
+                }
+            }
+        }
+        int minShared = Math.max(1, grams.length - 4 * edits);
+        Map<Integer, Double> matches = new HashMap<>();
+        shared.forEach((key, count) -> {
+            if (count < minShared) {
+                return;
+            }
+            int tokenId = (int) key - 1;
+            String token = tokens.get(tokenId);
+            if (Math.abs(token.length() - term.length()) > edits) {
+                return;
+            }
+            int distance = boundedDistance(term, token, edits);
+            if (distance <= edits) {
+                matches.put(tokenId, 1.0 - (double) distance / Math.max(term.length(), token.length()));
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * 含數字的詞視為型號（s24 與 s25 是不同商品），必須完全相同
+     */
+    int editsFor(String term) {
+        if (term.length() <= 2 || hasDigit(term)) {
+            return 0;
+        }
+        return term.length() < TWO_EDITS_MIN_LENGTH ? Math.min(1, maxEdits) : maxEdits;
+    }
+
+    private static boolean hasDigit(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isDigit(token.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 詞的不重複 trigram；前面補兩個、後面補一個邊界字元，短詞也有 trigram，開頭的字也比較重要
+     */
+    static long[] trigrams(String token) {
+        String padded = "" + PAD_START + PAD_START + token + PAD_END;
+        long[] grams = new long[padded.length() - 2];
+        int size = 0;
+        outer:
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            long gram = (long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16 | padded.charAt(i + 2);
+            for (int j = 0; j < size; j++) {
+                if (grams[j] == gram) {
+                    continue outer;
+                }
+            }
+            grams[size++] = gram;
+        }
+        return size == grams.length ? grams : Arrays.copyOf(grams, size);
+    }
+
+    /**
+     * 有上界的 OSA 距離（插入、刪除、替換、相鄰字元對調各算 1）
+     *
+     * @return 超過 max 時回傳 max + 1（整列都超過就提早結束）
+     */
+    static int boundedDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[m], max + 1);
+    }
+
+    // ---------------------------------------------------------------- 統計
+
+    public int size() {
+        return docCount - deletedCount;
+    }
+
+    public int getDeletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * 估計的記憶體用量（陣列依容量計算，字串與雜湊表項目以 64 位元 JVM、壓縮指標的典型大小估算）
+     */
+    public Stats stats() {
+        long bytes = 0;
+        long postings = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            // String（24 + 陣列 16 + 內容）+ HashMap 項目（32 + table 參照 4）+ Integer（16）
+            bytes += 24 + 16 + tokens.get(i).length() * 2L + 36 + 16;
+            bytes += tokenDocs.get(i).bytes();
+            postings += tokenDocs.get(i).size;
+        }
+        for (IntList list : trigramTokens) {
+            bytes += list.bytes();
+        }
+        bytes += trigramSlots.capacity() * 12L + docByProduct.capacity() * 12L;
+        bytes += docProducts.length * 8L + deleted.size() / 8;
+        return new Stats(size(), deletedCount, tokens.size(), trigramTokens.size(), postings, bytes);
+    }
+
+    /**
+     * 一次查詢中各文件的分數（開放定址，int 鍵與 float 值分開存放，沒有裝箱）
+     *
+     * 常見的詞（例如 pro）可能對應到十萬個商品，逐一以 HashMap&lt;Integer, Double&gt; 累加與整份排序
+     * 的成本遠高於查詢本身；這裡只配置與符合文件數成正比的原生陣列，最後以大小為 limit 的堆積取前幾名
+     */
+    private static final class DocScores {
+
+        int[] docs;
+        /**
+         * 符合的查詢詞數（高 16 位元）與最後一個符合的查詢詞序號（低 16 位元）
+         */
+        int[] terms;
+        /**
+         * 每個槽位兩格：目前查詢詞的最佳相似度、總分；放在一起減少快取未命中
+         */
+        float[] scores;
+        int size;
+        int mask;
+
+        /**
+         * @param expectedSize 預期的文件數（負載因子 0.5）
+         */
+        DocScores(int expectedSize) {
+            allocate(Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1);
+        }
+
+        /**
+         * 同一個查詢詞只取最相似的詞彙（一個商品名稱可能同時有 iphone 與 iphones）
+         *
+         * @param term 查詢詞序號（從 1 開始）
+         */
+        void offer(int doc, int term, float similarity) {
+            int slot = slot(doc);
+            while (docs[slot] != -1 && docs[slot] != doc) {
+                slot = (slot + 1) & mask;
+            }
+            if (docs[slot] == -1) {
+                docs[slot] = doc;
+                terms[slot] = 1 << 16 | term;
+                scores[slot * 2] = similarity;
+                scores[slot * 2 + 1] = similarity;
+                if (++size > docs.length >> 1) {
+                    grow();
+                }
+            } else if ((terms[slot] & 0xFFFF) != term) {
+                terms[slot] = ((terms[slot] >>> 16) + 1) << 16 | term;
+                scores[slot * 2] = similarity;
+                scores[slot * 2 + 1] += similarity;
+            } else if (similarity > scores[slot * 2]) {
+                scores[slot * 2 + 1] += similarity - scores[slot * 2];
+                scores[slot * 2] = similarity;
+            }
+        }
+
+        List<Match> top(int limit, long[] docProducts) {
+            Comparator<Match> ranking = Comparator.comparingInt(Match::matchedTerms)
+                .thenComparingDouble(Match::score)
+                .thenComparing(Comparator.comparingLong(Match::productId).reversed());
+            PriorityQueue<Match> heap = new PriorityQueue<>(limit + 1, ranking);
+            for (int slot = 0; slot < docs.length; slot++) {
+                if (docs[slot] == -1) {
+                    continue;
+                }
+                int matchedTerms = terms[slot] >>> 16;
+                float score = scores[slot * 2 + 1];
+                long productId = docProducts[docs[slot]];
+                if (heap.size() == limit && !beats(matchedTerms, score, productId, heap.peek())) {
+                    // 常見的詞會有大量同分的文件：先以原生值比較，不配置物件
+                    continue;
+                }
+                heap.add(new Match(productId, matchedTerms, score));
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            List<Match> result = new ArrayList<>(heap);
+            result.sort(ranking.reversed());
+            return result;
+        }
+
+        private static boolean beats(int matchedTerms, float score, long productId, Match weakest) {
+            if (matchedTerms != weakest.matchedTerms()) {
+                return matchedTerms > weakest.matchedTerms();
+            }
+            if (score != weakest.score()) {
+                return score > weakest.score();
+            }
+            return productId < weakest.productId();
+        }
+
+        private int slot(int doc) {
+            int h = doc * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private void grow() {
+            int[] oldDocs = docs;
+            int[] oldTerms = terms;
+            float[] oldScores = scores;
+            allocate(oldDocs.length << 1);
+            for (int i = 0; i < oldDocs.length; i++) {
+                if (oldDocs[i] != -1) {
+                    int slot = slot(oldDocs[i]);
+                    while (docs[slot] != -1) {
+                        slot = (slot + 1) & mask;
+                    }
+                    docs[slot] = oldDocs[i];
+                    terms[slot] = oldTerms[i];
+                    scores[slot * 2] = oldScores[i * 2];
+                    scores[slot * 2 + 1] = oldScores[i * 2 + 1];
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            docs = new int[capacity];
+            Arrays.fill(docs, -1);
+            terms = new int[capacity];
+            scores = new float[capacity * 2];
+            mask = capacity - 1;
+        }
+    }
+
+    /**
+     * 可成長的 int 陣列（倒排索引的 posting list，依加入順序即為遞增）
+     */
+    private static final class IntList {
+
+        int[] values;
+        int size;
+
+        IntList(int capacity) {
+            values = new int[capacity];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            values[size++] = value;
+        }
+
+        long bytes() {
+            return 16 + 16 + values.length * 4L;
+        }
+    }
+}
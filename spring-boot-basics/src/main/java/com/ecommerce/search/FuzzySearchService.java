@@ -0,0 +1,160 @@
+package com.ecommerce.search;
+
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.DomainEventConsumer;
+import com.ecommerce.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 容錯商品搜尋（拼錯字也找得到，例如 iphnoe → iPhone）
+ *
+ * - 啟動時與每 refreshInterval 整份重建 FuzzyIndex（同時清掉墓碑）
+ * - 之後由事件匯流排的 ProductChangedEvent 增量更新
+ * - 查詢共用讀鎖，增量更新取寫鎖；更新只有一個商品，寫鎖持有時間很短
+ *
+ * 重建期間收到的事件先記下商品 ID，重建完成後重新讀取這些商品再套用一次。
+ * 指標（重建時更新）：ecommerce.search.fuzzy.products / tokens / estimated.bytes
+ * 以 MeterBinder 在建構完成後註冊，建構子不把 this 交給 MeterRegistry
+ */
+@Service
+@Slf4j
+public class FuzzySearchService implements DomainEventConsumer, ApplicationRunner, MeterBinder {
+
+    private final SearchIndexLoader loader;
+    private final SearchProperties properties;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object applyLock = new Object();
+
+    private volatile FuzzyIndex index;
+    private volatile FuzzyIndex.Stats stats;
+    private List<Long> deferred;
+
+    public FuzzySearchService(SearchIndexLoader loader, SearchProperties properties) {
+        this.loader = loader;
+        this.properties = properties;
+        this.index = new FuzzyIndex(properties.getFuzzyMaxEdits());
+        this.stats = index.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("ecommerce.search.fuzzy.products", this, service -> service.stats.products())
+            .register(meterRegistry);
+        Gauge.builder("ecommerce.search.fuzzy.tokens", this, service -> service.stats.tokens())
+            .register(meterRegistry);
+        Gauge.builder("ecommerce.search.fuzzy.estimated.bytes", this, service -> service.stats.estimatedBytes())
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 整份重建；已有重建在執行時直接略過（由排程呼叫，下一輪再更新即可）
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.debug("模糊搜尋索引重建中，略過");
+            return;
+        }
+        try {
+            long startNanos = System.nanoTime();
+            synchronized (applyLock) {
+                deferred = new ArrayList<>();
+            }
+            FuzzyIndex rebuilt = new FuzzyIndex(properties.getFuzzyMaxEdits());
+            for (SearchIndexLoader.ProductRow row : loader.loadActiveProducts()) {
+                rebuilt.put(row.id(), row.name());
+            }
+            long buildMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            synchronized (applyLock) {
+                index = rebuilt;
+                for (Long productId : deferred) {
+                    apply(productId);
+                }
+                stats = rebuilt.stats();
+            }
+            log.info("模糊搜尋索引已重建 products={} tokens={} trigrams={} postings={} estimatedMB={} millis={}",
+                stats.products(), stats.tokens(), stats.trigrams(), stats.postings(),
+                stats.estimatedBytes() / (1024 * 1024), buildMillis);
+        } finally {
+            synchronized (applyLock) {
+                deferred = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 容錯搜尋：依符合的詞數、相似度排序
+     */
+    public List<FuzzyIndex.Match> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FuzzyIndex.Stats getStats() {
+        return stats;
+    }
+
+    // ---------------------------------------------------------------- 事件
+
+    @Override
+    public String getName() {
+        return "fuzzy-search";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (!(event instanceof ProductChangedEvent changed)) {
+            return;
+        }
+        synchronized (applyLock) {
+            if (deferred != null) {
+                deferred.add(changed.productId());
+            } else {
+                apply(changed.productId());
+            }
+        }
+    }
+
+    /**
+     * 重新讀取商品並更新索引（資料庫查詢在鎖外）
+     */
+    private void apply(long productId) {
+        Optional<SearchIndexLoader.ProductRow> row = loader.loadProduct(productId);
+        lock.writeLock().lock();
+        try {
+            if (row.isPresent() && row.get().active()) {
+                index.put(productId, row.get().name());
+            } else {
+                index.remove(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
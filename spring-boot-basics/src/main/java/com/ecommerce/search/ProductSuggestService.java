@@ -0,0 +1,166 @@
+package com.ecommerce.search;
+
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.DomainEventConsumer;
+import com.ecommerce.event.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 商品名稱自動完成
+ *
+ * - 啟動時與每 refreshInterval 整份重建 SuggestTrie（同時更新人氣）
+ * - 之後由事件匯流排的 ProductChangedEvent 增量更新（ProductService 新增、修改、停用提交後）：
+ *   移除商品舊名稱的鍵、加入新名稱的鍵，人氣沿用上次重建的值
+ * - 查詢只讀 volatile 的樹，不需要鎖，也不碰資料庫
+ *
+ * 重建期間收到的事件先記下商品 ID，重建完成後重新讀取這些商品再套用一次
+ */
+@Service
+@Slf4j
+public class ProductSuggestService implements DomainEventConsumer, ApplicationRunner {
+
+    private final SearchIndexLoader loader;
+    private final SearchProperties properties;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Object applyLock = new Object();
+
+    private volatile SuggestTrie trie;
+    /**
+     * 目前在樹中的商品（只在 applyLock 內存取），移除舊鍵時需要知道原本的名稱
+     */
+    private Map<Long, SuggestTrie.Suggestion> indexed = new HashMap<>();
+    private List<Long> deferred;
+
+    public ProductSuggestService(SearchIndexLoader loader, SearchProperties properties) {
+        this.loader = loader;
+        this.properties = properties;
+        this.trie = SuggestTrie.empty(properties.getSuggestCapacity());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isRebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 整份重建；已有重建在執行時直接略過（由排程呼叫，下一輪再更新即可）
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.debug("自動完成索引重建中，略過");
+            return;
+        }
+        try {
+            long startNanos = System.nanoTime();
+            synchronized (applyLock) {
+                deferred = new ArrayList<>();
+            }
+            Map<Long, Long> popularity = loader.loadPopularity();
+            Map<Long, SuggestTrie.Suggestion> rebuiltIndexed = new HashMap<>();
+            SuggestTrie.Builder builder = SuggestTrie.builder(properties.getSuggestCapacity());
+            for (SearchIndexLoader.ProductRow row : loader.loadActiveProducts()) {
+                SuggestTrie.Suggestion suggestion =
+                    new SuggestTrie.Suggestion(row.id(), row.name(), popularity.getOrDefault(row.id(), 0L));
+                for (String key : keys(row.name())) {
+                    builder.add(key, suggestion);
+                }
+                rebuiltIndexed.put(row.id(), suggestion);
+            }
+            SuggestTrie rebuilt = builder.build();
+            synchronized (applyLock) {
+                trie = rebuilt;
+                indexed = rebuiltIndexed;
+                for (Long productId : deferred) {
+                    apply(productId);
+                }
+            }
+            log.info("自動完成索引已重建 products={} millis={}",
+                rebuiltIndexed.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        } finally {
+            synchronized (applyLock) {
+                deferred = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 以前綴查詢候選商品，依人氣排序
+     *
+     * @param prefix 任意寫法（全形、大小寫不拘），查詢前會先正規化
+     * @param limit  回傳筆數（1 ~ suggestCapacity）
+     */
+    public List<SuggestTrie.Suggestion> suggest(String prefix, int limit) {
+        String normalized = TextNormalizer.normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return trie.suggest(normalized, Math.max(1, Math.min(limit, properties.getSuggestCapacity())));
+    }
+
+    // ---------------------------------------------------------------- 事件
+
+    @Override
+    public String getName() {
+        return "product-suggest";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (!(event instanceof ProductChangedEvent changed)) {
+            return;
+        }
+        synchronized (applyLock) {
+            if (deferred != null) {
+                deferred.add(changed.productId());
+            } else {
+                apply(changed.productId());
+            }
+        }
+    }
+
+    /**
+     * 重新讀取商品並更新樹；名稱與狀態沒變時（例如只調價）不動
+     */
+    private void apply(long productId) {
+        Optional<SearchIndexLoader.ProductRow> row = loader.loadProduct(productId);
+        SuggestTrie.Suggestion previous = indexed.get(productId);
+        boolean active = row.isPresent() && row.get().active();
+        if (previous != null && active && previous.name().equals(row.get().name())) {
+            return;
+        }
+
+        SuggestTrie updated = trie;
+        if (previous != null) {
+            for (String key : keys(previous.name())) {
+                updated = updated.without(key, productId);
+            }
+            indexed.remove(productId);
+        }
+        if (active) {
+            SuggestTrie.Suggestion suggestion = new SuggestTrie.Suggestion(
+                productId, row.get().name(), previous != null ? previous.score() : 0);
+            for (String key : keys(suggestion.name())) {
+                updated = updated.with(key, suggestion);
+            }
+            indexed.put(productId, suggestion);
+        }
+        trie = updated;
+    }
+
+    private static List<String> keys(String name) {
+        return TextNormalizer.suffixesForPrefixMatch(TextNormalizer.normalize(name));
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.search;
+
+import com.ecommerce.entity.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 以 JDBC 讀取建立搜尋索引（自動完成、模糊搜尋）需要的欄位（不建立實體，也不經過二級快取）
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchProperties properties;
+
+    /**
+     * @param active 停用的商品不列入索引
+     */
+    public record ProductRow(long id, String name, boolean active) {
+    }
+
+    public List<ProductRow> loadActiveProducts() {
+        return jdbcTemplate.query("SELECT id, name FROM products WHERE active = TRUE",
+            (rs, rowNum) -> new ProductRow(rs.getLong(1), rs.getString(2), true));
+    }
+
+    public Optional<ProductRow> loadProduct(long id) {
+        return jdbcTemplate.query("SELECT id, name, active FROM products WHERE id = ?",
+            (rs, rowNum) -> new ProductRow(rs.getLong(1), rs.getString(2), rs.getBoolean(3)), id).stream().findFirst();
+    }
+
+    /**
+     * 商品人氣：最近 popularityDays 天的售出件數
+     */
+    public Map<Long, Long> loadPopularity() {
+        Map<Long, Long> popularity = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT product_id, SUM(units) FROM daily_product_sales " +
+            "WHERE sales_date >= ? AND status <> ? GROUP BY product_id",
+            rs -> {
+                popularity.put(rs.getLong(1), rs.getLong(2));
+            },
+            LocalDate.now().minusDays(properties.getPopularityDays()), OrderStatus.CANCELLED.name());
+        return popularity;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 商品搜尋配置
+ */
+@Data
+@ConfigurationProperties(prefix = "ecommerce.search")
+public class SearchProperties {
+
+    /**
+     * 自動完成每個前綴保留的候選數（/suggest 最多回傳的筆數）
+     */
+    private int suggestCapacity = 10;
+
+    /**
+     * 人氣 = 最近幾天的售出件數（來自 daily_product_sales 彙總表，不含取消的訂單）
+     */
+    private int popularityDays = 30;
+
+    /**
+     * 模糊搜尋長詞（6 個字以上）容許的編輯距離；3 ~ 5 個字容許 1，2 個字以下與含數字的詞（型號）必須完全相同
+     */
+    private int fuzzyMaxEdits = 2;
+
+    /**
+     * 定期整份重建搜尋索引的間隔：更新人氣、清掉模糊搜尋索引的墓碑，並補上沒有發布事件的批次更新（例如批次停用缺貨商品）
+     */
+    private Duration refreshInterval = Duration.ofMinutes(10);
+
+    /**
+     * 啟動時是否建立索引
+     */
+    private boolean rebuildOnStartup = true;
+}
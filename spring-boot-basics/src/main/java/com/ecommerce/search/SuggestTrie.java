@@ -0,0 +1,303 @@
+package com.ecommerce.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 自動完成用的壓縮前綴樹（radix tree），建立後不可變
+ *
+ * - 單一子節點的路徑合併成一條邊（label），節點數與鍵的數量成正比而不是與字元數成正比
+ * - 每個節點預先算好子樹中排名最高的 capacity 個商品（top），查詢只要沿著前綴走到節點，
+ *   不需要走訪子樹：O(前綴長度 + limit)
+ * - 新增 / 移除只複製從根到該鍵路徑上的節點（path copying），其餘節點共用；
+ *   讀取端拿到的永遠是完整的一棵樹，不需要鎖
+ *
+ * 鍵必須先經過 TextNormalizer 正規化
+ */
+public final class SuggestTrie {
+
+    /**
+     * 人氣高的在前；同分時名稱短的在前（越接近輸入內容），再依商品 ID
+     */
+    static final Comparator<Suggestion> RANKING = Comparator.comparingLong(Suggestion::score).reversed()
+        .thenComparingInt(suggestion -> suggestion.name().length())
+        .thenComparingLong(Suggestion::productId);
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+
+    private final Node root;
+    private final int capacity;
+
+    private SuggestTrie(Node root, int capacity) {
+        this.root = root;
+        this.capacity = capacity;
+    }
+
+    public static SuggestTrie empty(int capacity) {
+        return new SuggestTrie(new Node("", NO_CHILDREN, NO_SUGGESTIONS, capacity), capacity);
+    }
+
+    public static Builder builder(int capacity) {
+        return new Builder(capacity);
+    }
+
+    /**
+     * 自動完成候選
+     *
+     * @param score 人氣（排序用）
+     */
+    public record Suggestion(long productId, String name, long score) {
+    }
+
+    /**
+     * 以正規化後的前綴查詢
+     *
+     * @param limit 最多 capacity 筆
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        Node node = root;
+        int pos = 0;
+        while (pos < prefix.length()) {
+            int index = node.childIndex(prefix.charAt(pos));
+            if (index < 0) {
+                return List.of();
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, prefix, pos);
+            if (pos + common == prefix.length()) {
+                // 前綴在這條邊的中間或尾端結束：子樹都符合
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) {
+                return List.of();
+            }
+            pos += common;
+            node = child;
+        }
+        int size = Math.min(limit, node.top.length);
+        return Arrays.asList(node.top).subList(0, size);
+    }
+
+    /**
+     * @return 加入（或以相同商品 ID 取代）後的新樹，原本的樹不變
+     */
+    public SuggestTrie with(String key, Suggestion suggestion) {
+        return new SuggestTrie(insert(root, key, 0, suggestion, capacity), capacity);
+    }
+
+    /**
+     * @return 移除後的新樹；鍵下沒有這個商品時回傳自己
+     */
+    public SuggestTrie without(String key, long productId) {
+        Node updated = remove(root, key, 0, productId, capacity);
+        return updated == root ? this : new SuggestTrie(updated, capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // ---------------------------------------------------------------- 新增與移除
+
+    /**
+     * @param capacity 為 0 時不計算 top（批次建立時最後一次算完）
+     */
+    private static Node insert(Node node, String key, int pos, Suggestion suggestion, int capacity) {
+        if (pos == key.length()) {
+            return new Node(node.label, node.children, withTerminal(node.terminals, suggestion), capacity);
+        }
+        int index = node.childIndex(key.charAt(pos));
+        if (index < 0) {
+            Node leaf = new Node(key.substring(pos), NO_CHILDREN, new Suggestion[]{suggestion}, capacity);
+            Node[] children = new Node[node.children.length + 1];
+            int at = -index - 1;
+            System.arraycopy(node.children, 0, children, 0, at);
+            children[at] = leaf;
+            System.arraycopy(node.children, at, children, at + 1, node.children.length - at);
+            return new Node(node.label, children, node.terminals, capacity);
+        }
+        Node child = node.children[index];
+        int common = commonPrefix(child.label, key, pos);
+        Node updated;
+        if (common == child.label.length()) {
+            updated = insert(child, key, pos + common, suggestion, capacity);
+        } else {
+            // 拆開邊：共同前綴成為新的中間節點
+            Node tail = child.withLabel(child.label.substring(common));
+            Node split = new Node(child.label.substring(0, common), new Node[]{tail}, NO_SUGGESTIONS, capacity);
+            updated = insert(split, key, pos + common, suggestion, capacity);
+        }
+        return new Node(node.label, replace(node.children, index, updated), node.terminals, capacity);
+    }
+
+    private static Node remove(Node node, String key, int pos, long productId, int capacity) {
+        if (pos == key.length()) {
+            Suggestion[] terminals = withoutTerminal(node.terminals, productId);
+            return terminals == node.terminals ? node : new Node(node.label, node.children, terminals, capacity);
+        }
+        int index = node.childIndex(key.charAt(pos));
+        if (index < 0) {
+            return node;
+        }
+        Node child = node.children[index];
+        if (!key.startsWith(child.label, pos)) {
+            return node;
+        }
+        Node updated = remove(child, key, pos + child.label.length(), productId, capacity);
+        if (updated == child) {
+            return node;
+        }
+        Node[] children;
+        if (updated.terminals.length == 0 && updated.children.length == 0) {
+            children = new Node[node.children.length - 1];
+            System.arraycopy(node.children, 0, children, 0, index);
+            System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        } else if (updated.terminals.length == 0 && updated.children.length == 1) {
+            // 只剩一個子節點：合併回一條邊，維持壓縮
+            Node only = updated.children[0];
+            children = replace(node.children, index, only.withLabel(updated.label + only.label));
+        } else {
+            children = replace(node.children, index, updated);
+        }
+        return new Node(node.label, children, node.terminals, capacity);
+    }
+
+    private static Node rank(Node node, int capacity) {
+        Node[] children = new Node[node.children.length];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = rank(node.children[i], capacity);
+        }
+        return new Node(node.label, children, node.terminals, capacity);
+    }
+
+    private static Suggestion[] withTerminal(Suggestion[] terminals, Suggestion suggestion) {
+        for (int i = 0; i < terminals.length; i++) {
+            if (terminals[i].productId() == suggestion.productId()) {
+                Suggestion[] copy = terminals.clone();
+                copy[i] = suggestion;
+                return copy;
+            }
+        }
+        Suggestion[] copy = Arrays.copyOf(terminals, terminals.length + 1);
+        copy[terminals.length] = suggestion;
+        return copy;
+    }
+
+    private static Suggestion[] withoutTerminal(Suggestion[] terminals, long productId) {
+        for (int i = 0; i < terminals.length; i++) {
+            if (terminals[i].productId() == productId) {
+                Suggestion[] copy = new Suggestion[terminals.length - 1];
+                System.arraycopy(terminals, 0, copy, 0, i);
+                System.arraycopy(terminals, i + 1, copy, i, copy.length - i);
+                return copy;
+            }
+        }
+        return terminals;
+    }
+
+    private static Node[] replace(Node[] children, int index, Node child) {
+        Node[] copy = children.clone();
+        copy[index] = child;
+        return copy;
+    }
+
+    private static int commonPrefix(String label, String key, int pos) {
+        int max = Math.min(label.length(), key.length() - pos);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 批次建立：全部加入後才由下而上計算一次 top
+     */
+    public static final class Builder {
+
+        private final int capacity;
+        private Node root = new Node("", NO_CHILDREN, NO_SUGGESTIONS, 0);
+
+        private Builder(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Builder add(String key, Suggestion suggestion) {
+            root = insert(root, key, 0, suggestion, 0);
+            return this;
+        }
+
+        public SuggestTrie build() {
+            return new SuggestTrie(rank(root, capacity), capacity);
+        }
+    }
+
+    /**
+     * 樹的節點；children 依 label 第一個字元排序
+     */
+    private static final class Node {
+
+        final String label;
+        final Node[] children;
+        final Suggestion[] terminals;
+        final Suggestion[] top;
+
+        Node(String label, Node[] children, Suggestion[] terminals, int capacity) {
+            this(label, children, terminals, capacity > 0 ? top(children, terminals, capacity) : NO_SUGGESTIONS);
+        }
+
+        private Node(String label, Node[] children, Suggestion[] terminals, Suggestion[] top) {
+            this.label = label;
+            this.children = children;
+            this.terminals = terminals;
+            this.top = top;
+        }
+
+        Node withLabel(String newLabel) {
+            return new Node(newLabel, children, terminals, top);
+        }
+
+        int childIndex(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = children[mid].label.charAt(0);
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * 子樹的前 capacity 名 = 自己的 terminals 與各子節點 top 合併後的前 capacity 名
+         * （同一個商品可能以多個鍵出現在子樹中，只保留一次）
+         */
+        private static Suggestion[] top(Node[] children, Suggestion[] terminals, int capacity) {
+            List<Suggestion> candidates = new ArrayList<>(Arrays.asList(terminals));
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RANKING);
+            List<Suggestion> top = new ArrayList<>(Math.min(capacity, candidates.size()));
+            for (Suggestion candidate : candidates) {
+                if (top.size() == capacity) {
+                    break;
+                }
+                if (top.stream().noneMatch(existing -> existing.productId() == candidate.productId())) {
+                    top.add(candidate);
+                }
+            }
+            return top.toArray(NO_SUGGESTIONS);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 搜尋用的文字正規化
+ *
+ * - NFKC：全形英數與符號轉半形（ｉＰｈｏｎｅ → iPhone）、半形片假名轉全形、相容字元展開
+ * - 轉小寫（Locale.ROOT，不受伺服器語系影響）
+ * - 連續空白（含全形空白）合併為一個，去掉頭尾
+ *
+ * 建索引與查詢都必須經過同一個正規化，比對才會一致
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                pendingSpace = sb.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    sb.append(' ');
+                    pendingSpace = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 正規化後的文字中，可以作為自動完成起點的位置
+     *
+     * 除了開頭，還有每個詞的開頭：空白或標點之後，以及中日韓文字與其他文字的交界
+     * （「蘋果iPhone」輸入 iph 也要找得到）；中日韓文字之間沒有分詞，不另外切
+     */
+    public static List<String> suffixesForPrefixMatch(String normalized) {
+        List<String> suffixes = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                continue;
+            }
+            if (i == 0) {
+                suffixes.add(normalized);
+                continue;
+            }
+            char previous = normalized.charAt(i - 1);
+            if (!Character.isLetterOrDigit(previous) || isCjk(previous) != isCjk(c)) {
+                suffixes.add(normalized.substring(i));
+            }
+        }
+        if (suffixes.isEmpty() && !normalized.isEmpty()) {
+            suffixes.add(normalized);
+        }
+        return suffixes;
+    }
+
+    /**
+     * 把正規化後的文字切成詞：以空白、標點，以及中日韓文字與其他文字的交界分開
+     */
+    public static List<String> tokens(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean boundary = i == normalized.length() || !Character.isLetterOrDigit(normalized.charAt(i))
+                || (start >= 0 && isCjk(normalized.charAt(i - 1)) != isCjk(normalized.charAt(i)));
+            if (boundary && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+            if (i < normalized.length() && start < 0 && Character.isLetterOrDigit(normalized.charAt(i))) {
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    static boolean isCjk(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA
+            || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,175 @@
+package com.ecommerce.service;
+
+import com.ecommerce.catalog.CatalogReplicaService;
+import com.ecommerce.catalog.CatalogSnapshot;
+import com.ecommerce.catalog.CatalogVersion;
+import com.ecommerce.catalog.ProductRecordStoreService;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Product;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 商品目錄讀取服務
+ *
+ * 依序嘗試三個來源，前一個還沒準備好時才用下一個：
+ * - CatalogReplicaService 的記憶體快照（ecommerce.catalog.replica-enabled）：商品列表、單筆、分類、關鍵字查詢
+ * - ProductRecordStoreService 的堆積外商品資料（ecommerce.catalog.record-store-enabled）：單筆與依 ID 批次讀取
+ * - 資料庫（二級快取）
+ *
+ * 搜尋、瀏覽、排行等功能（ProductSearchService、ProductInsightService）先在記憶體索引中算出商品 ID，
+ * 再以 findAll 取得商品資料
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogReadService {
+
+    private final ProductRepository productRepository;
+    private final CatalogReplicaService catalogReplicaService;
+    private final ProductRecordStoreService productRecordStoreService;
+    private final CatalogVersion catalogVersion;
+
+    /**
+     * 查詢所有商品（分頁）
+     *
+     * @Transactional(readOnly = true): 唯讀事務，優化效能
+     * propagation = SUPPORTS: 不主動開始交易，由快照回應時不會取得資料庫連線；
+     * 改查資料庫時仍在同一個 EntityManager 中載入分類（延遲載入）
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Page<ProductDTO> getAllProducts(Pageable pageable) {
+        log.debug("查詢所有商品 page={}", pageable);
+        Optional<Page<ProductDTO>> replica = catalogReplicaService.current()
+            .flatMap(snapshot -> snapshot.findActive(pageable))
+            .map(page -> page.map(ProductDTO::fromSnapshot));
+        if (replica.isPresent()) {
+            return replica.get();
+        }
+        return productRepository.findByActiveTrue(pageable)
+            .map(ProductDTO::fromEntity);
+    }
+
+    /**
+     * 根據 ID 查詢商品
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ProductDTO getProductById(Long id) {
+        log.debug("查詢商品 id={}", id);
+        Optional<CatalogSnapshot> snapshot = catalogReplicaService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().get(id)
+                .map(ProductDTO::fromSnapshot)
+                .orElseThrow(() -> new ResourceNotFoundException("商品", "id", id));
+        }
+        if (productRecordStoreService.isReady()) {
+            return productRecordStoreService.find(id)
+                .map(ProductDTO::fromSnapshot)
+                .orElseThrow(() -> new ResourceNotFoundException("商品", "id", id));
+        }
+        Product product = productRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("商品", "id", id));
+        return ProductDTO.fromEntity(product);
+    }
+
+    /**
+     * 商品的強 ETag（條件式 GET）
+     *
+     * 與 getProductById 取自同一個來源（快照、紀錄儲存區或資料庫），但只讀取版本欄位：
+     * 改查資料庫時只查商品 version 與分類的 id、updatedAt，不載入實體也不轉成 DTO
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public String getProductETag(Long id) {
+        Optional<CatalogSnapshot> snapshot = catalogReplicaService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().get(id)
+                .map(product -> EntityTags.product(product.id(), product.version(), product.categoryId(), product.categoryUpdatedAt()))
+                .orElseThrow(() -> new ResourceNotFoundException("商品", "id", id));
+        }
+        if (productRecordStoreService.isReady()) {
+            return productRecordStoreService.find(id)
+                .map(product -> EntityTags.product(product.id(), product.version(), product.categoryId(), product.categoryUpdatedAt()))
+                .orElseThrow(() -> new ResourceNotFoundException("商品", "id", id));
+        }
+        return productRepository.findVersionById(id)
+            .map(version -> EntityTags.product(id, version.version(), version.categoryId(), version.categoryUpdatedAt()))
+            .orElseThrow(() -> new ResourceNotFoundException("商品", "id", id));
+    }
+
+    /**
+     * 商品列表（全部、分類、關鍵字搜尋）的強 ETag；由快照或本節點的快取回應時不查資料庫
+     */
+    public String getListingETag() {
+        return catalogVersion.listingETag();
+    }
+
+    /**
+     * 根據關鍵字搜尋商品
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<ProductDTO> searchProducts(String keyword) {
+        log.debug("搜尋商品 keyword={}", keyword);
+        Optional<CatalogSnapshot> snapshot = catalogReplicaService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().searchByName(keyword).stream()
+                .map(ProductDTO::fromSnapshot)
+                .toList();
+        }
+        return productRepository.findByNameContaining(keyword).stream()
+            .map(ProductDTO::fromEntity)
+            .toList();
+    }
+
+    /**
+     * 根據分類查詢商品
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<ProductDTO> getProductsByCategory(Long categoryId) {
+        log.debug("查詢分類商品 categoryId={}", categoryId);
+        Optional<CatalogSnapshot> snapshot = catalogReplicaService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().findActiveByCategory(categoryId).stream()
+                .map(ProductDTO::fromSnapshot)
+                .toList();
+        }
+        return productRepository.findByCategoryIdAndActiveTrue(categoryId).stream()
+            .map(ProductDTO::fromEntity)
+            .toList();
+    }
+
+    /**
+     * 依傳入順序取得多筆商品，略過不存在的商品
+     *
+     * 開啟堆積外商品資料時不查資料庫；否則以一次 findAllById 查詢（二級快取）
+     *
+     * @param activeOnly 為 true 時略過已停用的商品
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<ProductDTO> findAll(List<Long> ids, boolean activeOnly) {
+        if (productRecordStoreService.isReady()) {
+            return productRecordStoreService.findAll(ids, activeOnly).stream()
+                .map(ProductDTO::fromSnapshot)
+                .toList();
+        }
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+            .map(products::get)
+            .filter(product -> product != null && (!activeOnly || Boolean.TRUE.equals(product.getActive())))
+            .map(ProductDTO::fromEntity)
+            .toList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 由版本欄位產生強 ETag（條件式 GET，If-None-Match 相符時回應 304）
+ *
+ * ETag 只由決定回應內容的欄位組成，可以用輕量查詢或記憶體快照算出，不必載入實體再轉成 DTO：
+ * - 商品：id、version（商品欄位與庫存每次提交都遞增）、分類 id 與分類的 updatedAt（分類改名不改商品的 version）
+ * - 訂單：updatedAt（訂單項目建立後不再修改）
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * @param categoryId 未分類為 null
+     */
+    static String product(long id, long version, Long categoryId, LocalDateTime categoryUpdatedAt) {
+        String category = categoryId != null ? Long.toString(categoryId, 36) + "." + encode(categoryUpdatedAt) : "0";
+        return "\"p" + Long.toString(id, 36) + "-" + Long.toString(version, 36) + "-" + category + "\"";
+    }
+
+    static String order(LocalDateTime updatedAt) {
+        return "\"o" + encode(updatedAt) + "\"";
+    }
+
+    private static String encode(LocalDateTime time) {
+        if (time == null) {
+            return "0";
+        }
+        return Long.toString(time.toEpochSecond(ZoneOffset.UTC), 36) + "." + Integer.toString(time.getNano(), 36);
+    }
+}
@@ -0,0 +1,174 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.CreateOrderRequest;
+import com.ecommerce.dto.OrderDTO;
+import com.ecommerce.entity.IdempotencyRecord;
+import com.ecommerce.exception.IdempotencyKeyException;
+import com.ecommerce.idempotency.IdempotencyProperties;
+import com.ecommerce.idempotency.IdempotencyStore;
+import com.ecommerce.idempotency.IdempotentResult;
+import com.ecommerce.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 以 Idempotency-Key 建立訂單
+ *
+ * 行動裝置逾時重試時，同一個鍵只會建立一張訂單、只扣一次庫存：
+ * 1. 記憶體存放區：第一個請求取得執行權，同時到達的重複請求等待它的結果，
+ *    已完成的鍵直接回傳快取的 OrderDTO
+ * 2. 資料表：記憶體沒有（重啟、被淘汰、其他節點處理過）時查 idempotency_keys；
+ *    鍵與訂單在同一個交易中寫入，唯一限制擋下多節點同時建立
+ *
+ * 建立失敗（如庫存不足）不保留鍵，用戶端可以用同一個鍵重試。
+ */
+@Service
+@Slf4j
+public class IdempotentOrderService {
+
+    static final int MAX_KEY_LENGTH = 100;
+
+    private final OrderService orderService;
+    private final IdempotencyRecordRepository recordRepository;
+    private final IdempotencyStore<OrderDTO> store;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter createdCounter;
+    private final Counter memoryReplayCounter;
+    private final Counter databaseReplayCounter;
+
+    public IdempotentOrderService(OrderService orderService,
+                                  IdempotencyRecordRepository recordRepository,
+                                  IdempotencyStore<OrderDTO> store,
+                                  IdempotencyProperties properties,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.recordRepository = recordRepository;
+        this.store = store;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.createdCounter = counter(meterRegistry, "created");
+        this.memoryReplayCounter = counter(meterRegistry, "memory");
+        this.databaseReplayCounter = counter(meterRegistry, "database");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ecommerce.idempotency.requests")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * 建立訂單；同一個鍵重複呼叫時回傳第一次建立的訂單
+     *
+     * @throws IdempotencyKeyException 鍵格式不正確、被用於不同內容，或第一個請求逾時仍未完成
+     */
+    public IdempotentResult<OrderDTO> createOrder(String key, CreateOrderRequest request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw IdempotencyKeyException.invalid(key);
+        }
+        String fingerprint = fingerprint(request);
+        IdempotencyStore.Reservation<OrderDTO> reservation = store.reserve(key, fingerprint);
+        IdempotencyStore.Entry<OrderDTO> entry = reservation.entry();
+        if (!entry.getFingerprint().equals(fingerprint)) {
+            throw IdempotencyKeyException.mismatch(key);
+        }
+        if (!reservation.acquired()) {
+            OrderDTO order = await(key, entry);
+            memoryReplayCounter.increment();
+            return new IdempotentResult<>(order, true);
+        }
+
+        try {
+            IdempotentResult<OrderDTO> result = findExisting(key, fingerprint)
+                .orElseGet(() -> create(key, fingerprint, request));
+            store.complete(entry, result.value());
+            return result;
+        } catch (RuntimeException e) {
+            store.fail(entry, e);
+            throw e;
+        }
+    }
+
+    private IdempotentResult<OrderDTO> create(String key, String fingerprint, CreateOrderRequest request) {
+        try {
+            OrderDTO order = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                recordRepository.deleteExpiredByKey(key, now);
+                OrderDTO created = orderService.createOrder(request);
+                // 立即 flush：唯一限制衝突時在這裡拋出，整個交易（含訂單與庫存）回滾
+                recordRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .idempotencyKey(key)
+                    .requestHash(fingerprint)
+                    .orderId(created.getId())
+                    .expiresAt(now.plus(properties.getTtl()))
+                    .build());
+                return created;
+            });
+            createdCounter.increment();
+            return new IdempotentResult<>(order, false);
+        } catch (DataIntegrityViolationException e) {
+            // 其他節點已用同一個鍵建立訂單
+            log.info("冪等鍵已由其他節點處理 key={}", key);
+            return findExisting(key, fingerprint).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<IdempotentResult<OrderDTO>> findExisting(String key, String fingerprint) {
+        return recordRepository.findByIdempotencyKeyAndExpiresAtAfter(key, LocalDateTime.now())
+            .map(record -> {
+                if (!record.getRequestHash().equals(fingerprint)) {
+                    throw IdempotencyKeyException.mismatch(key);
+                }
+                databaseReplayCounter.increment();
+                return new IdempotentResult<>(orderService.getOrderById(record.getOrderId()), true);
+            });
+    }
+
+    private OrderDTO await(String key, IdempotencyStore.Entry<OrderDTO> entry) {
+        try {
+            return entry.getResult().get(properties.getInFlightTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw IdempotencyKeyException.inProgress(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw IdempotencyKeyException.inProgress(key);
+        } catch (ExecutionException e) {
+            // 第一個請求失敗：重複請求收到相同的錯誤（如庫存不足）
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    private String fingerprint(CreateOrderRequest request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("無法計算請求雜湊", e);
+        }
+    }
+}
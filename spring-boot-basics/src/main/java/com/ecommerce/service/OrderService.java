@@ -9,6 +9,8 @@ import com.ecommerce.entity.OrderStatus;
 import com.ecommerce.entity.Product;
 import com.ecommerce.exception.InsufficientStockException;
 import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.outbox.OutboxWriter;
+import com.ecommerce.event.StockChangedEvent;
 import com.ecommerce.repository.OrderRepository;
 import com.ecommerce.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
@@ -20,13 +22,20 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 訂單服務
  *
  * 展示複雜業務邏輯與事務管理
+ * 訂單與庫存異動會在同一個交易中寫入 outbox 事件（見 OutboxWriter），由 OutboxRelay 非同步發送
+ * 異動庫存前先以 findAllByIdForUpdate 鎖定商品：不讀本節點的二級快取，多個節點同時下單也不會超賣
  */
 @Service
 @RequiredArgsConstructor
@@ -35,6 +44,7 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final OutboxWriter outboxWriter;
 
     /**
      * 創建訂單
@@ -44,7 +54,7 @@ public class OrderService {
      */
     @Transactional
     public OrderDTO createOrder(CreateOrderRequest request) {
-        log.info("創建訂單，客戶: {}", request.getCustomerEmail());
+        log.debug("創建訂單 customer={}", request.getCustomerEmail());
 
         Order order = Order.builder()
             .orderNumber(generateOrderNumber())
@@ -55,9 +65,13 @@ public class OrderService {
             .build();
 
         // 處理訂單項目
+        Map<Long, Product> products = lockProducts(
+            request.getItems().stream().map(OrderItemRequest::getProductId).toList());
         for (OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException("商品", "id", itemRequest.getProductId()));
+            Product product = products.get(itemRequest.getProductId());
+            if (product == null) {
+                throw new ResourceNotFoundException("商品", "id", itemRequest.getProductId());
+            }
 
             // 檢查並扣減庫存
             if (!product.hasStock(itemRequest.getQuantity())) {
@@ -67,8 +81,10 @@ public class OrderService {
                     product.getStockQuantity()
                 );
             }
+            int previousStock = product.getStockQuantity();
             product.decreaseStock(itemRequest.getQuantity());
             productRepository.save(product);
+            outboxWriter.stockChanged(product, previousStock, StockChangedEvent.Reason.ORDER_CREATED);
 
             // 創建訂單項目
             OrderItem orderItem = OrderItem.fromProduct(product, itemRequest.getQuantity());
@@ -79,7 +95,12 @@ public class OrderService {
         order.calculateTotalAmount();
 
         Order saved = orderRepository.save(order);
-        log.info("訂單創建成功，訂單編號: {}", saved.getOrderNumber());
+        outboxWriter.orderCreated(saved);
+        // 三個以上參數會配置 Object[]，先檢查等級再呼叫
+        if (log.isInfoEnabled()) {
+            log.info("訂單創建成功 orderNumber={} items={} total={}",
+                saved.getOrderNumber(), saved.getItems().size(), saved.getTotalAmount());
+        }
 
         return OrderDTO.fromEntity(saved);
     }
@@ -89,18 +110,38 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public OrderDTO getOrderById(Long id) {
-        log.debug("查詢訂單 ID: {}", id);
+        log.debug("查詢訂單 id={}", id);
         Order order = orderRepository.findByIdWithItems(id)
             .orElseThrow(() -> new ResourceNotFoundException("訂單", "id", id));
         return OrderDTO.fromEntity(order);
     }
 
+    /**
+     * 訂單的強 ETag（條件式 GET）：只查最後修改時間，不載入訂單與訂單項目
+     */
+    @Transactional(readOnly = true)
+    public String getOrderETag(Long id) {
+        return orderRepository.findLastModifiedById(id)
+            .map(EntityTags::order)
+            .orElseThrow(() -> new ResourceNotFoundException("訂單", "id", id));
+    }
+
+    /**
+     * 以訂單編號取得訂單的強 ETag
+     */
+    @Transactional(readOnly = true)
+    public String getOrderETagByNumber(String orderNumber) {
+        return orderRepository.findLastModifiedByOrderNumber(orderNumber)
+            .map(EntityTags::order)
+            .orElseThrow(() -> new ResourceNotFoundException("訂單", "orderNumber", orderNumber));
+    }
+
     /**
      * 根據訂單編號查詢訂單
      */
     @Transactional(readOnly = true)
     public OrderDTO getOrderByNumber(String orderNumber) {
-        log.debug("查詢訂單編號: {}", orderNumber);
+        log.debug("查詢訂單 orderNumber={}", orderNumber);
         Order order = orderRepository.findByOrderNumber(orderNumber)
             .orElseThrow(() -> new ResourceNotFoundException("訂單", "orderNumber", orderNumber));
         return OrderDTO.fromEntity(order);
@@ -111,7 +152,7 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public Page<OrderDTO> getOrdersByCustomer(String customerEmail, Pageable pageable) {
-        log.debug("查詢客戶 {} 的訂單", customerEmail);
+        log.debug("查詢客戶訂單 customer={}", customerEmail);
         return orderRepository.findByCustomerEmail(customerEmail, pageable)
             .map(OrderDTO::fromEntity);
     }
@@ -121,15 +162,20 @@ public class OrderService {
      */
     @Transactional
     public OrderDTO updateOrderStatus(Long id, OrderStatus newStatus) {
-        log.info("更新訂單 {} 狀態為: {}", id, newStatus);
+        log.debug("更新訂單狀態 id={} status={}", id, newStatus);
 
-        Order order = orderRepository.findById(id)
+        // 一併載入訂單項目：狀態變更事件需要帶上項目
+        Order order = orderRepository.findByIdWithItems(id)
             .orElseThrow(() -> new ResourceNotFoundException("訂單", "id", id));
 
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(newStatus);
         Order saved = orderRepository.save(order);
+        if (previousStatus != newStatus) {
+            outboxWriter.orderStatusChanged(saved, previousStatus);
+        }
 
-        log.info("訂單狀態更新成功，訂單編號: {}", saved.getOrderNumber());
+        log.info("訂單狀態已更新 orderNumber={} status={}", saved.getOrderNumber(), newStatus);
         return OrderDTO.fromEntity(saved);
     }
 
@@ -140,7 +186,7 @@ public class OrderService {
      */
     @Transactional(rollbackFor = Exception.class)
     public OrderDTO cancelOrder(Long id) {
-        log.info("取消訂單 ID: {}", id);
+        log.debug("取消訂單 id={}", id);
 
         Order order = orderRepository.findByIdWithItems(id)
             .orElseThrow(() -> new ResourceNotFoundException("訂單", "id", id));
@@ -155,17 +201,23 @@ public class OrderService {
             throw new IllegalStateException("訂單已被取消");
         }
 
-        // 恢復庫存
+        // 恢復庫存（鎖定後的最新值，不用訂單載入時的商品狀態）
+        Map<Long, Product> products = lockProducts(
+            order.getItems().stream().map(item -> item.getProduct().getId()).toList());
         for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
+            Product product = products.get(item.getProduct().getId());
+            int previousStock = product.getStockQuantity();
             product.increaseStock(item.getQuantity());
             productRepository.save(product);
+            outboxWriter.stockChanged(product, previousStock, StockChangedEvent.Reason.ORDER_CANCELLED);
         }
 
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
         Order saved = orderRepository.save(order);
+        outboxWriter.orderStatusChanged(saved, previousStatus);
 
-        log.info("訂單取消成功，訂單編號: {}", saved.getOrderNumber());
+        log.info("訂單已取消 orderNumber={}", saved.getOrderNumber());
         return OrderDTO.fromEntity(saved);
     }
 
@@ -174,7 +226,7 @@ public class OrderService {
      */
     @Transactional
     public int cancelUnpaidOrders(int hoursThreshold) {
-        log.info("開始取消超過 {} 小時未付款的訂單", hoursThreshold);
+        log.info("開始取消超時未付款訂單 hoursThreshold={}", hoursThreshold);
 
         LocalDateTime cutoffTime = LocalDateTime.now().minusHours(hoursThreshold);
         List<Order> unpaidOrders = orderRepository.findByStatusAndCreatedAtBefore(
@@ -186,14 +238,22 @@ public class OrderService {
                 cancelOrder(order.getId());
                 cancelledCount++;
             } catch (Exception e) {
-                log.error("取消訂單失敗: {}", order.getOrderNumber(), e);
+                log.error("取消訂單失敗 orderNumber={}", order.getOrderNumber(), e);
             }
         }
 
-        log.info("已取消 {} 筆超時未付款訂單", cancelledCount);
+        log.info("超時未付款訂單已取消 count={}", cancelledCount);
         return cancelledCount;
     }
 
+    /**
+     * 一次鎖定所有要異動庫存的商品，回傳 ID → 商品
+     */
+    private Map<Long, Product> lockProducts(Collection<Long> productIds) {
+        return productRepository.findAllByIdForUpdate(new TreeSet<>(productIds)).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
     /**
      * 生成訂單編號
      */
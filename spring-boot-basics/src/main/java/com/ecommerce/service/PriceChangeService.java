@@ -0,0 +1,88 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.PriceChangeDTO;
+import com.ecommerce.dto.PriceChangeRequest;
+import com.ecommerce.entity.PriceChange;
+import com.ecommerce.entity.PriceChangeStatus;
+import com.ecommerce.exception.JobAlreadyRunningException;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.job.JobRunner;
+import com.ecommerce.job.JobTrigger;
+import com.ecommerce.job.PriceChangeJob;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.PriceChangeRepository;
+import com.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 批次調價服務
+ *
+ * 提交的作業先存成 PENDING，再觸發背景工作 price-changes 處理；
+ * 工作正在執行時不需觸發，它處理完目前的作業後會接著處理新的作業
+ * （若恰好錯過，最遲由每分鐘的排程接手）。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceChangeService {
+
+    private final PriceChangeRepository priceChangeRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final JobRunner jobRunner;
+
+    /**
+     * 提交批次調價
+     *
+     * 不加 @Transactional：作業必須先提交，背景工作的執行緒才查得到
+     */
+    public PriceChangeDTO submit(PriceChangeRequest request) {
+        if (!categoryRepository.existsById(request.getCategoryId())) {
+            throw new ResourceNotFoundException("分類", "id", request.getCategoryId());
+        }
+        PriceChange change = priceChangeRepository.save(PriceChange.builder()
+            .categoryId(request.getCategoryId())
+            .multiplier(request.getMultiplier())
+            .totalCount(productRepository.countByCategoryId(request.getCategoryId()))
+            .build());
+        log.info("提交批次調價 id={} categoryId={} multiplier={} total={}",
+            change.getId(), change.getCategoryId(), change.getMultiplier(), change.getTotalCount());
+        startJob();
+        return PriceChangeDTO.fromEntity(change);
+    }
+
+    @Transactional(readOnly = true)
+    public PriceChangeDTO getPriceChange(Long id) {
+        return PriceChangeDTO.fromEntity(findPriceChange(id));
+    }
+
+    /**
+     * 從檢查點重新執行失敗的作業
+     */
+    public PriceChangeDTO resume(Long id) {
+        PriceChange change = findPriceChange(id);
+        if (change.getStatus() == PriceChangeStatus.FAILED) {
+            change.setStatus(PriceChangeStatus.PENDING);
+            change = priceChangeRepository.save(change);
+            log.info("重新執行批次調價 id={} afterId={}", id, change.getLastProductId());
+            startJob();
+        }
+        return PriceChangeDTO.fromEntity(change);
+    }
+
+    private PriceChange findPriceChange(Long id) {
+        return priceChangeRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("調價作業", "id", id));
+    }
+
+    private void startJob() {
+        try {
+            jobRunner.submit(PriceChangeJob.NAME, JobTrigger.MANUAL);
+        } catch (JobAlreadyRunningException e) {
+            log.debug("批次調價工作執行中，新作業將由該次執行接續處理");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.service;
+
+import com.ecommerce.analytics.BestSellerTracker;
+import com.ecommerce.analytics.BestSellerWindow;
+import com.ecommerce.analytics.SpaceSavingSketch;
+import com.ecommerce.dto.BestSellerDTO;
+import com.ecommerce.dto.LowStockAlertDTO;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.RelatedProductDTO;
+import com.ecommerce.entity.Product;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.inventory.LowStockService;
+import com.ecommerce.recommendation.CoOccurrenceModel;
+import com.ecommerce.recommendation.RelatedProductsService;
+import com.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 商品庫存與銷售洞察服務
+ *
+ * 低庫存（LowStockService）、熱銷排行（BestSellerTracker）、共同購買（RelatedProductsService）
+ * 的排序都在記憶體中完成，這裡只查詢結果商品的資料，已停用的商品不列出
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductInsightService {
+
+    private final CatalogReadService catalogReadService;
+    private final ProductRepository productRepository;
+    private final LowStockService lowStockService;
+    private final BestSellerTracker bestSellerTracker;
+    private final RelatedProductsService relatedProductsService;
+
+    /**
+     * 查詢低庫存商品，依庫存由少到多排序
+     *
+     * 範圍來自記憶體中的 LowStockService（依庫存排序的索引），不掃描 products 表；
+     * 只查詢結果商品的資料（二級快取，開啟堆積外商品資料時不查資料庫）。索引尚未建立完成時才以 JPQL 查詢
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getLowStockProducts(int threshold) {
+        log.debug("查詢低庫存商品 threshold={}", threshold);
+        if (!lowStockService.isReady()) {
+            return productRepository.findLowStockProducts(threshold).stream()
+                .map(ProductDTO::fromEntity)
+                .toList();
+        }
+        return catalogReadService.findAll(
+            Arrays.stream(lowStockService.findBelow(threshold, Integer.MAX_VALUE)).boxed().toList(), true);
+    }
+
+    /**
+     * 低庫存警示串流：序號大於 after 的警示（輪詢時帶上一次收到的最後一個序號）
+     *
+     * @param limit 回傳筆數（1 ~ 1000）
+     */
+    public List<LowStockAlertDTO> getLowStockAlerts(long after, int limit) {
+        return lowStockService.alertsAfter(after, Math.max(1, Math.min(limit, 1000))).stream()
+            .map(LowStockAlertDTO::fromAlert)
+            .toList();
+    }
+
+    /**
+     * 熱銷商品排行
+     *
+     * 排行來自記憶體中的 BestSellerTracker，不彙總 order_items；
+     * 只查詢排行上商品的資料（二級快取），已停用的商品不列出
+     *
+     * @param categoryId 為 null 時為全站排行
+     * @param limit      回傳筆數（1 ~ 排行保留的商品數）
+     */
+    @Transactional(readOnly = true)
+    public List<BestSellerDTO> getBestSellers(BestSellerWindow window, Long categoryId, int limit) {
+        int size = Math.max(1, Math.min(limit, bestSellerTracker.getCapacity()));
+        // 多取一些，扣掉已停用的商品後仍能湊滿
+        List<SpaceSavingSketch.Entry> entries = bestSellerTracker.top(window, categoryId, size * 2);
+        Map<Long, Product> products = productRepository.findAllById(
+                entries.stream().map(SpaceSavingSketch.Entry::item).toList()).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<BestSellerDTO> result = new ArrayList<>(size);
+        for (SpaceSavingSketch.Entry entry : entries) {
+            Product product = products.get(entry.item());
+            if (product != null && Boolean.TRUE.equals(product.getActive()) && result.size() < size) {
+                result.add(BestSellerDTO.of(product, entry.count(), entry.error()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 共同購買商品（買了這個商品的人也買了）
+     *
+     * 次數來自記憶體中的 RelatedProductsService，查詢是 O(K)；
+     * 只查詢鄰居商品的資料（二級快取），已停用的商品不列出
+     *
+     * @param limit 回傳筆數（1 ~ 每個商品保留的鄰居數）
+     */
+    @Transactional(readOnly = true)
+    public List<RelatedProductDTO> getRelatedProducts(Long id, int limit) {
+        if (!productRepository.existsById(id)) {
+            throw new ResourceNotFoundException("商品", "id", id);
+        }
+        int size = Math.max(1, Math.min(limit, relatedProductsService.getTopK()));
+        // 取完整的前 K 名，扣掉已停用的商品後仍能盡量湊滿
+        List<CoOccurrenceModel.Neighbor> neighbors = relatedProductsService.related(id, relatedProductsService.getTopK());
+        Map<Long, Product> products = productRepository.findAllById(
+                neighbors.stream().map(CoOccurrenceModel.Neighbor::productId).toList()).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<RelatedProductDTO> result = new ArrayList<>(size);
+        for (CoOccurrenceModel.Neighbor neighbor : neighbors) {
+            Product product = products.get(neighbor.productId());
+            if (product != null && Boolean.TRUE.equals(product.getActive()) && result.size() < size) {
+                result.add(RelatedProductDTO.of(product, neighbor.count()));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.service;
+
+import com.ecommerce.catalog.CatalogFacetService;
+import com.ecommerce.catalog.FacetIndex;
+import com.ecommerce.dto.CatalogBrowseDTO;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductSuggestionDTO;
+import com.ecommerce.entity.Category;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.search.FuzzyIndex;
+import com.ecommerce.search.FuzzySearchService;
+import com.ecommerce.search.ProductSuggestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 商品搜尋與瀏覽服務
+ *
+ * 自動完成、容錯搜尋、分面瀏覽的候選與計數都來自記憶體中的索引（ProductSuggestService、
+ * FuzzySearchService、CatalogFacetService），商品資料由 CatalogReadService 依 ID 取得
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchService {
+
+    private final CatalogReadService catalogReadService;
+    private final CategoryRepository categoryRepository;
+    private final ProductSuggestService productSuggestService;
+    private final FuzzySearchService fuzzySearchService;
+    private final CatalogFacetService catalogFacetService;
+
+    /**
+     * 商品名稱自動完成
+     *
+     * 候選來自記憶體中的 ProductSuggestService，不查資料庫（不開交易）；
+     * 只回傳 ID 與名稱，依人氣排序
+     */
+    public List<ProductSuggestionDTO> suggestProducts(String prefix, int limit) {
+        return productSuggestService.suggest(prefix, limit).stream()
+            .map(ProductSuggestionDTO::of)
+            .toList();
+    }
+
+    /**
+     * 容錯搜尋商品（拼錯字也找得到）
+     *
+     * 排序來自記憶體中的 FuzzySearchService，只查詢結果商品的資料（二級快取，
+     * 開啟堆積外商品資料時不查資料庫），已停用的商品不列出
+     *
+     * @param limit 回傳筆數（1 ~ 100）
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> fuzzySearchProducts(String keyword, int limit) {
+        log.debug("容錯搜尋商品 keyword={}", keyword);
+        int size = Math.max(1, Math.min(limit, 100));
+        List<FuzzyIndex.Match> matches = fuzzySearchService.search(keyword, size);
+        return catalogReadService.findAll(matches.stream().map(FuzzyIndex.Match::productId).toList(), true);
+    }
+
+    /**
+     * 分面瀏覽：一頁商品加上分類與價格區間計數
+     *
+     * 篩選、排序、計數都在記憶體中的 CatalogFacetService 完成；
+     * 資料庫只查這一頁的商品與分類名稱（各一次，二級快取；開啟堆積外商品資料時只查分類名稱）
+     *
+     * @param categoryIds 為空時不限分類；多個分類為「或」
+     */
+    @Transactional(readOnly = true)
+    public CatalogBrowseDTO browseProducts(List<Long> categoryIds, BigDecimal minPrice, BigDecimal maxPrice,
+                                           boolean descending, int page, int size) {
+        FacetIndex.Result result = catalogFacetService.query(categoryIds, minPrice, maxPrice, descending, page, size);
+
+        List<ProductDTO> items = catalogReadService.findAll(
+            Arrays.stream(result.productIds()).boxed().toList(), false);
+
+        Map<Long, String> categoryNames = categoryRepository.findAllById(result.categoryCounts().keySet()).stream()
+            .collect(Collectors.toMap(Category::getId, Category::getName));
+        List<CatalogBrowseDTO.CategoryFacet> categories = result.categoryCounts().entrySet().stream()
+            .map(entry -> new CatalogBrowseDTO.CategoryFacet(
+                entry.getKey(), categoryNames.get(entry.getKey()), entry.getValue()))
+            .sorted(Comparator.comparingInt(CatalogBrowseDTO.CategoryFacet::getCount).reversed())
+            .toList();
+
+        long[] bounds = catalogFacetService.getBucketBounds();
+        List<CatalogBrowseDTO.PriceFacet> priceRanges = new ArrayList<>(bounds.length + 1);
+        for (int bucket = 0; bucket <= bounds.length; bucket++) {
+            priceRanges.add(new CatalogBrowseDTO.PriceFacet(
+                bucket == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(bounds[bucket - 1], 2),
+                bucket == bounds.length ? null : BigDecimal.valueOf(bounds[bucket], 2),
+                result.bucketCounts()[bucket]));
+        }
+
+        return CatalogBrowseDTO.builder()
+            .total(result.total())
+            .page(page)
+            .size(size)
+            .items(items)
+            .categories(categories)
+            .priceRanges(priceRanges)
+            .build();
+    }
+}
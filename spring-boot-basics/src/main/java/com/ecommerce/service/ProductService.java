@@ -5,24 +5,30 @@ import com.ecommerce.dto.ProductDTO;
 import com.ecommerce.dto.UpdateProductRequest;
 import com.ecommerce.entity.Category;
 import com.ecommerce.entity.Product;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.StockChangedEvent;
 import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.outbox.OutboxWriter;
 import com.ecommerce.repository.CategoryRepository;
 import com.ecommerce.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-
 /**
  * 商品服務
  *
  * @Service: 標記為業務邏輯層組件，是 @Component 的語義化版本
  * @RequiredArgsConstructor: Lombok 自動生成包含 final 欄位的建構子
- * @Slf4j: Lombok 自動生成 log 物件
+ * @Slf4j: Lombok 自動生成 log 物件（底層為 Log4j2 非同步 Logger，見 log4j2-spring.xml）
+ *
+ * 商品的新增、修改、停用（交易內寫入資料庫）；商品異動以 ApplicationEventPublisher 發布 ProductChangedEvent，
+ * 交易提交後才進入事件匯流排，由快照、搜尋索引等消費者更新
+ *
+ * 查詢由 CatalogReadService（快照 → 堆積外商品資料 → 資料庫）回應；
+ * 搜尋與瀏覽見 ProductSearchService，低庫存、熱銷、共同購買見 ProductInsightService
  */
 @Service
 @RequiredArgsConstructor
@@ -31,51 +37,8 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
-
-    /**
-     * 查詢所有商品（分頁）
-     *
-     * @Transactional(readOnly = true): 唯讀事務，優化效能
-     */
-    @Transactional(readOnly = true)
-    public Page<ProductDTO> getAllProducts(Pageable pageable) {
-        log.debug("查詢所有商品，分頁: {}", pageable);
-        return productRepository.findByActiveTrue(pageable)
-            .map(ProductDTO::fromEntity);
-    }
-
-    /**
-     * 根據 ID 查詢商品
-     */
-    @Transactional(readOnly = true)
-    public ProductDTO getProductById(Long id) {
-        log.debug("查詢商品 ID: {}", id);
-        Product product = productRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("商品", "id", id));
-        return ProductDTO.fromEntity(product);
-    }
-
-    /**
-     * 根據關鍵字搜尋商品
-     */
-    @Transactional(readOnly = true)
-    public List<ProductDTO> searchProducts(String keyword) {
-        log.debug("搜尋商品，關鍵字: {}", keyword);
-        return productRepository.findByNameContaining(keyword).stream()
-            .map(ProductDTO::fromEntity)
-            .toList();
-    }
-
-    /**
-     * 根據分類查詢商品
-     */
-    @Transactional(readOnly = true)
-    public List<ProductDTO> getProductsByCategory(Long categoryId) {
-        log.debug("查詢分類 {} 的商品", categoryId);
-        return productRepository.findByCategoryIdAndActiveTrue(categoryId).stream()
-            .map(ProductDTO::fromEntity)
-            .toList();
-    }
+    private final OutboxWriter outboxWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 創建商品
@@ -84,7 +47,7 @@ public class ProductService {
      */
     @Transactional
     public ProductDTO createProduct(CreateProductRequest request) {
-        log.info("創建新商品: {}", request.getName());
+        log.debug("創建商品 name={}", request.getName());
 
         Product product = Product.builder()
             .name(request.getName())
@@ -103,7 +66,8 @@ public class ProductService {
         }
 
         Product saved = productRepository.save(product);
-        log.info("商品創建成功，ID: {}", saved.getId());
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId(), ProductChangedEvent.Change.CREATED));
+        log.info("商品創建成功 id={} name={}", saved.getId(), saved.getName());
 
         return ProductDTO.fromEntity(saved);
     }
@@ -113,7 +77,7 @@ public class ProductService {
      */
     @Transactional
     public ProductDTO updateProduct(Long id, UpdateProductRequest request) {
-        log.info("更新商品 ID: {}", id);
+        log.debug("更新商品 id={}", id);
 
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("商品", "id", id));
@@ -128,6 +92,7 @@ public class ProductService {
         if (request.getDescription() != null) {
             product.setDescription(request.getDescription());
         }
+        int previousStock = product.getStockQuantity();
         if (request.getStockQuantity() != null) {
             product.setStockQuantity(request.getStockQuantity());
         }
@@ -144,7 +109,9 @@ public class ProductService {
         }
 
         Product saved = productRepository.save(product);
-        log.info("商品更新成功，ID: {}", saved.getId());
+        outboxWriter.stockChanged(saved, previousStock, StockChangedEvent.Reason.PRODUCT_UPDATED);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId(), ProductChangedEvent.Change.UPDATED));
+        log.info("商品更新成功 id={}", saved.getId());
 
         return ProductDTO.fromEntity(saved);
     }
@@ -154,25 +121,15 @@ public class ProductService {
      */
     @Transactional
     public void deleteProduct(Long id) {
-        log.info("刪除商品 ID: {}", id);
+        log.debug("刪除商品 id={}", id);
 
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("商品", "id", id));
 
         product.setActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.Change.DELETED));
 
-        log.info("商品已停用，ID: {}", id);
-    }
-
-    /**
-     * 查詢低庫存商品
-     */
-    @Transactional(readOnly = true)
-    public List<ProductDTO> getLowStockProducts(int threshold) {
-        log.debug("查詢低庫存商品，閾值: {}", threshold);
-        return productRepository.findLowStockProducts(threshold).stream()
-            .map(ProductDTO::fromEntity)
-            .toList();
+        log.info("商品已停用 id={}", id);
     }
 }
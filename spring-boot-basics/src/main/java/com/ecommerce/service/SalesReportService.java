@@ -0,0 +1,108 @@
+package com.ecommerce.service;
+
+import com.ecommerce.analytics.SalesRollupRow;
+import com.ecommerce.dto.SalesSummaryDTO;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.repository.DailyCategorySalesRepository;
+import com.ecommerce.repository.DailyProductSalesRepository;
+import com.ecommerce.repository.DailySalesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 銷售報表服務
+ *
+ * 只讀取每日彙總表（daily_sales 等），不 JOIN orders / order_items：
+ * 3 年的每日彙總約 1100 列（× 狀態數），查詢成本與訂單量無關。
+ * 彙總表由 SalesRollupSink 增量維護，比訂單晚一個 outbox 輪詢週期。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesReportService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final DailySalesRepository dailySalesRepository;
+    private final DailyProductSalesRepository productSalesRepository;
+    private final DailyCategorySalesRepository categorySalesRepository;
+
+    /**
+     * 區間合計
+     */
+    @Transactional(readOnly = true)
+    public SalesSummaryDTO getTotal(LocalDate from, LocalDate to, OrderStatus status) {
+        long orders = 0;
+        long units = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (SalesRollupRow row : dailySalesRepository.sumByDay(from, to, status)) {
+            orders += row.orders();
+            units += row.units();
+            revenue = revenue.add(row.revenue());
+        }
+        return new SalesSummaryDTO(null, orders, units, revenue);
+    }
+
+    /**
+     * 每日銷售（只包含有銷售的日期）
+     */
+    @Transactional(readOnly = true)
+    public List<SalesSummaryDTO> getDaily(LocalDate from, LocalDate to, OrderStatus status) {
+        return dailySalesRepository.sumByDay(from, to, status).stream()
+            .map(SalesSummaryDTO::of)
+            .toList();
+    }
+
+    /**
+     * 每月銷售：由每日彙總在記憶體中合併（3 年只有約 1100 列，不必再維護月彙總表）
+     */
+    @Transactional(readOnly = true)
+    public List<SalesSummaryDTO> getMonthly(LocalDate from, LocalDate to, OrderStatus status) {
+        Map<YearMonth, SalesSummaryDTO> months = new TreeMap<>();
+        for (SalesRollupRow row : dailySalesRepository.sumByDay(from, to, status)) {
+            YearMonth month = YearMonth.from((LocalDate) row.key());
+            SalesSummaryDTO summary = months.computeIfAbsent(month,
+                m -> new SalesSummaryDTO(m.toString(), 0, 0, BigDecimal.ZERO));
+            summary.setOrders(summary.getOrders() + row.orders());
+            summary.setUnits(summary.getUnits() + row.units());
+            summary.setRevenue(summary.getRevenue().add(row.revenue()));
+        }
+        return new ArrayList<>(months.values());
+    }
+
+    /**
+     * 依分類彙總（營收高到低）
+     */
+    @Transactional(readOnly = true)
+    public List<SalesSummaryDTO> getByCategory(LocalDate from, LocalDate to, OrderStatus status) {
+        return categorySalesRepository.sumByCategory(from, to, status).stream()
+            .map(SalesSummaryDTO::of)
+            .toList();
+    }
+
+    /**
+     * 商品營收排行
+     *
+     * @param limit 回傳筆數（1 ~ 100）
+     */
+    @Transactional(readOnly = true)
+    public List<SalesSummaryDTO> getTopProducts(LocalDate from, LocalDate to, Long categoryId,
+                                                OrderStatus status, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        log.debug("查詢商品銷售排行 from={} to={} categoryId={} limit={}", from, to, categoryId, size);
+        return productSalesRepository.sumByProduct(from, to, categoryId, status, PageRequest.ofSize(size)).stream()
+            .map(SalesSummaryDTO::of)
+            .toList();
+    }
+}
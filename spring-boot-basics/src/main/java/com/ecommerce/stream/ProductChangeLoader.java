@@ -0,0 +1,49 @@
+package com.ecommerce.stream;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 以 JDBC 讀取一段時間內有異動的商品（走 idx_product_updated_at，不建立實體）
+ *
+ * 所有節點共用同一個資料庫，其他節點提交的庫存與價格異動也會出現在這裡
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangeLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param categoryId 未分類為 null
+     * @param version    樂觀鎖版本，與 StockChangedEvent 的版本相同（提交後的值）
+     */
+    public record ChangedProduct(long id, Long categoryId, int stockQuantity, BigDecimal price,
+                                 boolean active, long version, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * @return updated_at 不早於 since 的商品，依 updated_at 排序，最多 limit 筆
+     */
+    public List<ChangedProduct> loadChangedSince(LocalDateTime since, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, category_id, stock_quantity, price, active, version, updated_at
+                FROM products WHERE updated_at >= ? ORDER BY updated_at LIMIT ?""",
+            (rs, rowNum) -> row(rs), Timestamp.valueOf(since), limit);
+    }
+
+    private static ChangedProduct row(ResultSet rs) throws SQLException {
+        long categoryId = rs.getLong(2);
+        Long category = rs.wasNull() ? null : categoryId;
+        return new ChangedProduct(rs.getLong(1), category, rs.getInt(3), rs.getBigDecimal(4),
+            rs.getBoolean(5), rs.getLong(6), rs.getTimestamp(7).toLocalDateTime());
+    }
+}
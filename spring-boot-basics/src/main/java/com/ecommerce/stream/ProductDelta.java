@@ -0,0 +1,32 @@
+package com.ecommerce.stream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * 一個商品在合併時間窗內的最新異動；沒有變動的欄位為 null（JSON 中省略）
+ *
+ * @param active 停用時為 false，客戶端應移除該商品
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductDelta(long productId, Integer stockQuantity, BigDecimal price, Boolean active) {
+
+    public static ProductDelta stock(long productId, int stockQuantity) {
+        return new ProductDelta(productId, stockQuantity, null, null);
+    }
+
+    public static ProductDelta product(long productId, BigDecimal price, boolean active) {
+        return new ProductDelta(productId, null, price, active);
+    }
+
+    /**
+     * 以較新的異動覆蓋，沒有變動的欄位保留原值
+     */
+    public ProductDelta merge(ProductDelta newer) {
+        return new ProductDelta(productId,
+            newer.stockQuantity != null ? newer.stockQuantity : stockQuantity,
+            newer.price != null ? newer.price : price,
+            newer.active != null ? newer.active : active);
+    }
+}
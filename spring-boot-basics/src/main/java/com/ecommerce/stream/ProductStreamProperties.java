@@ -0,0 +1,65 @@
+package com.ecommerce.stream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 商品異動串流（SSE，/api/v1/products/stream）配置
+ */
+@Data
+@ConfigurationProperties(prefix = "ecommerce.stream")
+public class ProductStreamProperties {
+
+    /**
+     * 同一節點最多幾個訂閱；超過時回應 503，由負載平衡導向其他節點
+     */
+    private int maxSubscribers = 50_000;
+
+    /**
+     * 每個訂閱最多幾個商品 ID 加分類 ID
+     */
+    private int maxSubscriptionKeys = 500;
+
+    /**
+     * 合併異動的時間窗：同一商品在窗內的多次異動只送最後的值
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * 每個連線待送的商品數上限：超過時不等合併時間窗立即寫出；
+     * 寫出跟不上、累積到兩倍時視為慢速消費者，關閉連線（客戶端重連後重新查詢）
+     */
+    private int maxPendingProducts = 256;
+
+    /**
+     * 多久沒有送資料就送一個註解行，讓代理伺服器與客戶端知道連線仍然有效
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * 寫出執行緒數；每個卡在 socket 上的連線佔住一個，其餘連線的寫出在佇列中等待
+     */
+    private int writerThreads = 16;
+
+    /**
+     * 多久查一次資料庫中其他節點提交的異動（事件匯流排只在本節點內）；0 表示停用，只推送本節點的異動
+     */
+    private Duration clusterPollInterval = Duration.ofSeconds(1);
+
+    /**
+     * 每次輪詢往回多讀的時間：涵蓋 updated_at 已填入但較晚提交的交易，以及節點之間的時鐘誤差
+     */
+    private Duration clusterPollLookback = Duration.ofSeconds(5);
+
+    /**
+     * 每次輪詢最多讀幾筆；讀滿時下一輪從最後一筆接著讀
+     */
+    private int clusterPollBatchSize = 1000;
+
+    /**
+     * 連線最長保持時間；到期後由客戶端（EventSource）自動重連
+     */
+    private Duration connectionTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,458 @@
+package com.ecommerce.stream;
+
+import com.ecommerce.catalog.FacetIndexLoader;
+import com.ecommerce.event.DomainEvent;
+import com.ecommerce.event.DomainEventConsumer;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.StockChangedEvent;
+import com.ecommerce.event.StockVersionFilter;
+import com.ecommerce.exception.StreamSubscriptionException;
+import com.ecommerce.stream.ProductChangeLoader.ChangedProduct;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 商品庫存與價格異動的 SSE 串流
+ *
+ * - 訂閱一組商品 ID 或分類 ID；路由表是 商品 ID / 分類 ID → 訂閱集合，每個事件只找到有興趣的連線
+ * - 本節點的異動來自事件匯流排（OrderService、ProductService 的交易提交後），延遲最低：
+ *   StockChangedEvent 直接帶新庫存與分類，不查資料庫，版本比已送出的舊的事件略過
+ *   （發布順序可能與提交相反，客戶端不會看到庫存倒退）；ProductChangedEvent 讀取價格與上架狀態
+ * - 事件匯流排只在單一節點內，其他節點的提交由輪詢資料庫補上：每 clusterPollInterval 依 updated_at
+ *   讀出異動的商品（往回多讀 clusterPollLookback，涵蓋較晚提交的交易與時鐘誤差），
+ *   版本比已送出的新才推送，已經由事件送出的提交不會重複。只在有訂閱時輪詢；
+ *   刪除與新建立（版本 0）的商品不推送
+ * - 合併：每個連線只保留各商品的最新值，每 flushInterval 送出一批（event: delta）
+ * - 有界緩衝：待送商品超過 maxPendingProducts 時立即寫出；寫出跟不上、累積到兩倍時關閉連線（慢速消費者），
+ *   不讓一個卡住的客戶端累積記憶體或拖慢其他連線
+ * - 寫出在固定大小的平台執行緒池（writerThreads）上進行，每個連線同時最多一個寫入；
+ *   SseEmitter 的 send 與 complete 都 synchronized 在同一個 emitter 上，卡在 socket 的 send 會讓虛擬執行緒
+ *   釘住載體執行緒，因此不用虛擬執行緒。卡住的連線最多佔住一個寫出執行緒，直到寫入失敗或連線逾時
+ * - 關閉慢速消費者時，消費者執行緒只標記關閉並移除路由，complete() 交給寫出執行緒：
+ *   complete() 會等卡住的 send，在消費者執行緒上呼叫會卡住整個事件匯流排
+ * - 閒置超過 heartbeatInterval 的連線送一個註解行（心跳）
+ *
+ * 連線中斷期間的異動不會補送：客戶端（EventSource）重連後應重新查詢商品。
+ */
+@Service
+@Slf4j
+public class ProductStreamService implements DomainEventConsumer, SmartLifecycle {
+
+    private final FacetIndexLoader loader;
+    private final ProductChangeLoader changeLoader;
+    private final ProductStreamProperties properties;
+    private final Map<Long, Set<Subscriber>> byProduct = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> byCategory = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Queue<Subscriber> dirty = new ConcurrentLinkedQueue<>();
+    /**
+     * 事件消費者與輪詢執行緒共用，由自身同步
+     */
+    private final StockVersionFilter stockVersions = new StockVersionFilter();
+    /**
+     * 下一次輪詢的起點；只在排程執行緒上使用，沒有訂閱時為 null
+     */
+    private LocalDateTime pollFrom;
+    private volatile ScheduledExecutorService ticker;
+    private volatile ExecutorService writers;
+    private final Counter evictions;
+    private final Counter batches;
+
+    public ProductStreamService(FacetIndexLoader loader, ProductChangeLoader changeLoader,
+                                ProductStreamProperties properties, MeterRegistry meterRegistry) {
+        this.loader = loader;
+        this.changeLoader = changeLoader;
+        this.properties = properties;
+        this.evictions = Counter.builder("ecommerce.stream.evictions")
+            .description("因慢速消費者而關閉的連線")
+            .register(meterRegistry);
+        this.batches = Counter.builder("ecommerce.stream.batches").register(meterRegistry);
+        Gauge.builder("ecommerce.stream.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * 建立寫出執行緒池並開始合併與心跳的排程（不在建構子中把 this::flush 交給執行中的排程器）
+     */
+    @Override
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        CustomizableThreadFactory writerThreads = new CustomizableThreadFactory("product-stream-writer-");
+        writerThreads.setDaemon(true);
+        writers = Executors.newFixedThreadPool(properties.getWriterThreads(), writerThreads);
+        CustomizableThreadFactory tickerThreads = new CustomizableThreadFactory("product-stream-ticker-");
+        tickerThreads.setDaemon(true);
+        ScheduledExecutorService created = Executors.newSingleThreadScheduledExecutor(tickerThreads);
+        long flushMillis = properties.getFlushInterval().toMillis();
+        created.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+        created.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long pollMillis = properties.getClusterPollInterval().toMillis();
+        if (pollMillis > 0) {
+            created.scheduleWithFixedDelay(this::pollChanges, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        }
+        ticker = created;
+    }
+
+    /**
+     * 停止排程與寫出並結束所有連線；在事件匯流排之前停止，之後收到的事件直接略過
+     */
+    @Override
+    public synchronized void stop() {
+        ScheduledExecutorService current = ticker;
+        if (current == null) {
+            return;
+        }
+        ticker = null;
+        current.shutdownNow();
+        writers.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ticker != null;
+    }
+
+    // ---------------------------------------------------------------- 訂閱
+
+    /**
+     * 建立訂閱；連線結束（客戶端關閉、逾時、寫入失敗、被判定為慢速消費者）時自動移除
+     *
+     * @throws StreamSubscriptionException 沒有指定商品或分類、數量超過上限、訂閱已滿，或節點正在關閉
+     */
+    public SseEmitter subscribe(Set<Long> productIds, Set<Long> categoryIds) {
+        if (productIds.isEmpty() && categoryIds.isEmpty()) {
+            throw StreamSubscriptionException.empty();
+        }
+        if (!isRunning()) {
+            throw StreamSubscriptionException.stopped();
+        }
+        if (productIds.size() + categoryIds.size() > properties.getMaxSubscriptionKeys()) {
+            throw StreamSubscriptionException.tooManyKeys(properties.getMaxSubscriptionKeys());
+        }
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw StreamSubscriptionException.full();
+        }
+
+        Subscriber subscriber = new Subscriber(new SseEmitter(properties.getConnectionTimeout().toMillis()),
+            Set.copyOf(productIds), Set.copyOf(categoryIds));
+        subscribers.add(subscriber);
+        subscriber.productIds.forEach(id -> byProduct.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        subscriber.categoryIds.forEach(id -> byCategory.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+        try {
+            // 立即送出回應標頭，客戶端的 EventSource 進入 open 狀態
+            subscriber.emitter.send(SseEmitter.event().comment("subscribed"));
+        } catch (IOException e) {
+            remove(subscriber);
+        }
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.close()) {
+            return;
+        }
+        subscribers.remove(subscriber);
+        subscriber.productIds.forEach(id -> unroute(byProduct, id, subscriber));
+        subscriber.categoryIds.forEach(id -> unroute(byCategory, id, subscriber));
+        subscriberCount.decrementAndGet();
+    }
+
+    private static void unroute(Map<Long, Set<Subscriber>> routes, long key, Subscriber subscriber) {
+        routes.computeIfPresent(key, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * 慢速消費者：標記關閉並移除路由，不再嘗試寫入
+     *
+     * 在事件匯流排的消費者執行緒上呼叫；complete() 會等正卡在 socket 上的 send，交給寫出執行緒執行
+     */
+    private void evict(Subscriber subscriber) {
+        if (!subscriber.closed) {
+            log.info("關閉慢速消費者的連線 products={} categories={}",
+                subscriber.productIds.size(), subscriber.categoryIds.size());
+            evictions.increment();
+            remove(subscriber);
+            writers.execute(subscriber.emitter::complete);
+        }
+    }
+
+    // ---------------------------------------------------------------- 事件
+
+    @Override
+    public String getName() {
+        return "product-stream";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (!isRunning()) {
+            return;
+        }
+        // 沒有訂閱時仍記下版本，之後加入的訂閱不會收到晚到的舊值
+        if (event instanceof StockChangedEvent stock && !acceptStock(stock)) {
+            return;
+        }
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (event instanceof StockChangedEvent stock) {
+            route(stock.productId(), stock.categoryId(), ProductDelta.stock(stock.productId(), stock.quantity()));
+        } else if (event instanceof ProductChangedEvent changed) {
+            if (!byProduct.containsKey(changed.productId()) && byCategory.isEmpty()) {
+                return;
+            }
+            loader.loadProduct(changed.productId()).ifPresent(row -> route(row.id(), row.categoryId(),
+                ProductDelta.product(row.id(), BigDecimal.valueOf(row.priceCents(), 2), row.active())));
+        }
+    }
+
+    private boolean acceptStock(StockChangedEvent stock) {
+        synchronized (stockVersions) {
+            return stockVersions.accept(stock);
+        }
+    }
+
+    /**
+     * 推送其他節點提交的異動；在排程執行緒上執行
+     *
+     * 讀滿一批時從最後一筆接著讀，否則起點前進到「現在 - clusterPollLookback」
+     */
+    private void pollChanges() {
+        if (subscribers.isEmpty()) {
+            pollFrom = null;
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = pollFrom != null ? pollFrom : now.minus(properties.getClusterPollLookback());
+        List<ChangedProduct> rows;
+        try {
+            rows = changeLoader.loadChangedSince(since, properties.getClusterPollBatchSize());
+        } catch (DataAccessException e) {
+            // 例外會終止排程，下一輪再試
+            log.warn("查詢商品異動失敗: {}", e.getMessage());
+            return;
+        }
+        for (ChangedProduct row : rows) {
+            boolean newer;
+            synchronized (stockVersions) {
+                newer = stockVersions.acceptNewer(row.id(), row.version());
+            }
+            if (newer) {
+                route(row.id(), row.categoryId(),
+                    new ProductDelta(row.id(), row.stockQuantity(), row.price(), row.active()));
+            }
+        }
+        if (rows.size() >= properties.getClusterPollBatchSize()) {
+            pollFrom = rows.get(rows.size() - 1).updatedAt();
+        } else {
+            LocalDateTime next = now.minus(properties.getClusterPollLookback());
+            pollFrom = next.isAfter(since) ? next : since;
+        }
+    }
+
+    private void route(long productId, Long categoryId, ProductDelta delta) {
+        offer(byProduct.get(productId), delta);
+        if (categoryId != null) {
+            offer(byCategory.get(categoryId), delta);
+        }
+    }
+
+    private void offer(Set<Subscriber> targets, ProductDelta delta) {
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            switch (subscriber.offer(delta, properties.getMaxPendingProducts())) {
+                case QUEUED -> {
+                    if (subscriber.markDirty()) {
+                        dirty.add(subscriber);
+                    }
+                }
+                // 緩衝已滿：不等下一輪，立即送出（上一批還在寫時等它寫完）
+                case FULL -> write(subscriber);
+                case OVERFLOW -> evict(subscriber);
+                case CLOSED -> {
+                }
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- 寫出
+
+    /**
+     * 把這一輪有異動的連線各送出一批；正在寫入的連線留到下一輪
+     */
+    private void flush() {
+        List<Subscriber> busy = new ArrayList<>();
+        Subscriber subscriber;
+        while ((subscriber = dirty.poll()) != null) {
+            subscriber.clearDirty();
+            if (!subscriber.closed && !write(subscriber)) {
+                busy.add(subscriber);
+            }
+        }
+        for (Subscriber pending : busy) {
+            if (pending.markDirty()) {
+                dirty.add(pending);
+            }
+        }
+    }
+
+    /**
+     * 開始寫出待送的異動
+     *
+     * @return 上一次寫入尚未完成時回傳 false
+     */
+    private boolean write(Subscriber subscriber) {
+        if (!subscriber.writing.compareAndSet(false, true)) {
+            return false;
+        }
+        writers.execute(() -> {
+            try {
+                List<ProductDelta> batch = subscriber.drain();
+                if (!batch.isEmpty()) {
+                    subscriber.emitter.send(SseEmitter.event().name("delta").data(batch, MediaType.APPLICATION_JSON));
+                    subscriber.lastWriteNanos = System.nanoTime();
+                    batches.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                remove(subscriber);
+            } finally {
+                subscriber.writing.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void heartbeat() {
+        long idleNanos = properties.getHeartbeatInterval().toNanos();
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (now - subscriber.lastWriteNanos < idleNanos || !subscriber.writing.compareAndSet(false, true)) {
+                continue;
+            }
+            writers.execute(() -> {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    subscriber.lastWriteNanos = System.nanoTime();
+                } catch (IOException | IllegalStateException e) {
+                    remove(subscriber);
+                } finally {
+                    subscriber.writing.set(false);
+                }
+            });
+        }
+    }
+
+    // ---------------------------------------------------------------- 連線
+
+    enum Offer {
+        QUEUED, FULL, OVERFLOW, CLOSED
+    }
+
+    static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Long> productIds;
+        private final Set<Long> categoryIds;
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        /**
+         * 商品 ID → 合併後的異動（依第一次異動的順序）；由 this 保護
+         */
+        private final LinkedHashMap<Long, ProductDelta> pending = new LinkedHashMap<>();
+        private volatile boolean closed;
+        private volatile long lastWriteNanos = System.nanoTime();
+
+        Subscriber(SseEmitter emitter, Set<Long> productIds, Set<Long> categoryIds) {
+            this.emitter = emitter;
+            this.productIds = productIds;
+            this.categoryIds = categoryIds;
+        }
+
+        /**
+         * @return FULL：超過上限，應立即寫出；OVERFLOW：寫出跟不上，累積到上限的兩倍
+         */
+        synchronized Offer offer(ProductDelta delta, int maxPending) {
+            if (closed) {
+                return Offer.CLOSED;
+            }
+            pending.merge(delta.productId(), delta, ProductDelta::merge);
+            if (pending.size() > maxPending * 2) {
+                return Offer.OVERFLOW;
+            }
+            return pending.size() > maxPending ? Offer.FULL : Offer.QUEUED;
+        }
+
+        synchronized List<ProductDelta> drain() {
+            List<ProductDelta> batch = new ArrayList<>(pending.values());
+            pending.clear();
+            return batch;
+        }
+
+        /**
+         * @return 第一次關閉時回傳 true
+         */
+        synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            pending.clear();
+            return true;
+        }
+
+        boolean markDirty() {
+            return dirty.compareAndSet(false, true);
+        }
+
+        void clearDirty() {
+            dirty.set(false);
+        }
+    }
+}
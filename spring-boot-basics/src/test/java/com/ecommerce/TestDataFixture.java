@@ -0,0 +1,55 @@
+package com.ecommerce;
+
+import com.ecommerce.dto.CreateProductRequest;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Category;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * 整合測試共用的測試資料
+ *
+ * 放在測試原始碼的 com.ecommerce 套件下，由應用程式的元件掃描載入每個 @SpringBootTest Context，
+ * 不必 @Import（@Import 會改變 Context 的快取鍵，讓原本可以共用的 Context 分開啟動）。
+ *
+ * 商品經由 ProductService 建立，會發布事件，讓事件匯流排的消費者看到與正式環境相同的異動
+ */
+@Component
+@RequiredArgsConstructor
+public class TestDataFixture {
+
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final OrderRepository orderRepository;
+    private final OutboxEventRepository outboxEventRepository;
+
+    /**
+     * 依外鍵順序清除 outbox 事件、訂單、商品與分類
+     */
+    public void cleanUp() {
+        outboxEventRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    public Category category(String name) {
+        return categoryRepository.save(Category.builder().name(name).build());
+    }
+
+    /**
+     * @param categoryId 未分類為 null
+     */
+    public ProductDTO product(String name, String price, int stock, Long categoryId) {
+        return productService.createProduct(CreateProductRequest.builder()
+            .name(name).price(new BigDecimal(price)).stockQuantity(stock).categoryId(categoryId).build());
+    }
+}
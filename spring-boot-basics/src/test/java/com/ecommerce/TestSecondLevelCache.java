@@ -0,0 +1,43 @@
+package com.ecommerce;
+
+import jakarta.annotation.PreDestroy;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import java.net.URISyntaxException;
+import java.util.Map;
+
+/**
+ * 每個測試 Context 使用自己的二級快取
+ *
+ * JCache 依 URI 回傳同一個 CacheManager，快取區域在 JVM 內共用；
+ * 測試 Context 各自使用一個 H2 資料庫（application-test.yml），商品 ID 會重複，
+ * 共用的區域會讓一個 Context 讀到或清掉另一個 Context 快取的實體。
+ * 這裡以新的 EhcacheCachingProvider 建立 CacheManager（仍讀 ehcache.xml），交給 Hibernate 使用。
+ *
+ * 與 TestDataFixture 相同，由元件掃描載入，不改變 Context 的快取鍵
+ */
+@Component
+public class TestSecondLevelCache implements HibernatePropertiesCustomizer {
+
+    private final CacheManager cacheManager;
+
+    public TestSecondLevelCache() throws URISyntaxException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        cacheManager = new EhcacheCachingProvider()
+            .getCacheManager(classLoader.getResource("ehcache.xml").toURI(), classLoader);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    @PreDestroy
+    void close() {
+        cacheManager.close();
+    }
+}
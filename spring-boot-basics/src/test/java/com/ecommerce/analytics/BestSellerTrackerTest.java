@@ -0,0 +1,75 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.event.OrderCreatedEvent;
+import com.ecommerce.event.OrderStatusChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 熱銷排行單元測試（固定時間，不啟動 Spring）
+ */
+@DisplayName("熱銷排行測試")
+class BestSellerTrackerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 10, 12, 30);
+    private static final long PHONES = 1;
+    private static final long BOOKS = 2;
+
+    private final BestSellerTracker tracker = new BestSellerTracker(null, new AnalyticsProperties(),
+        () -> NOW.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+
+    @Test
+    @DisplayName("依視窗與分類排行")
+    void top_ShouldRankByWindowAndCategory() {
+        // Arrange
+        created(1, NOW.minusMinutes(10), item(100, PHONES, 2), item(200, BOOKS, 1));
+        created(2, NOW.minusHours(3), item(101, PHONES, 5));
+        created(3, NOW.minusDays(2), item(200, BOOKS, 9));
+
+        // Act & Assert
+        assertThat(items(tracker.top(BestSellerWindow.HOUR, null, 10))).containsExactly(100L, 200L);
+        assertThat(items(tracker.top(BestSellerWindow.DAY, null, 10))).containsExactly(101L, 100L, 200L);
+        assertThat(items(tracker.top(BestSellerWindow.WEEK, null, 10))).containsExactly(200L, 101L, 100L);
+        assertThat(tracker.top(BestSellerWindow.WEEK, BOOKS, 10))
+            .containsExactly(new SpaceSavingSketch.Entry(200, 10, 0));
+        assertThat(tracker.top(BestSellerWindow.WEEK, 99L, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("取消訂單應從原本的區段扣回")
+    void onEvent_ShouldReverseCancelledOrders() {
+        // Arrange
+        OrderCreatedEvent.Item phone = item(100, PHONES, 3);
+        created(1, NOW.minusHours(2), phone);
+        created(2, NOW.minusMinutes(5), item(101, PHONES, 2));
+
+        // Act
+        tracker.onEvent(new OrderStatusChangedEvent(1, "ORD-1", OrderStatus.PAID, OrderStatus.CANCELLED,
+            NOW.minusHours(2), List.of(phone)), 0, true);
+
+        // Assert
+        assertThat(tracker.top(BestSellerWindow.DAY, PHONES, 10))
+            .containsExactly(new SpaceSavingSketch.Entry(101, 2, 0));
+    }
+
+    private void created(long orderId, LocalDateTime createdAt, OrderCreatedEvent.Item... items) {
+        tracker.onEvent(new OrderCreatedEvent(orderId, "ORD-" + orderId, "test@example.com",
+            BigDecimal.ZERO, createdAt, List.of(items)), orderId, true);
+    }
+
+    private static OrderCreatedEvent.Item item(long productId, long categoryId, int quantity) {
+        return new OrderCreatedEvent.Item(productId, categoryId, quantity, BigDecimal.TEN);
+    }
+
+    private static List<Long> items(List<SpaceSavingSketch.Entry> entries) {
+        return entries.stream().map(SpaceSavingSketch.Entry::item).toList();
+    }
+}
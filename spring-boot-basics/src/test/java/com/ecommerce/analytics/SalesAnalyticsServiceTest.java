@@ -0,0 +1,134 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.TestDataFixture;
+import com.ecommerce.dto.CreateOrderRequest;
+import com.ecommerce.dto.OrderDTO;
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.entity.Product;
+import com.ecommerce.event.DomainEventBus;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.ecommerce.event.EventBusTestSupport.awaitConsumers;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 即時銷售統計整合測試
+ *
+ * 統計由事件匯流排的消費者執行緒非同步更新，斷言前先等消費者追上；
+ * 每個測試先清空資料並重建，避免其他測試留下的訂單影響結果。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("即時銷售統計整合測試")
+class SalesAnalyticsServiceTest {
+
+    @Autowired
+    private SalesAnalyticsService analyticsService;
+
+    @Autowired
+    private TestDataFixture testData;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Category category;
+    private Product phone;
+    private Product cable;
+
+    @BeforeEach
+    void setUp() {
+        testData.cleanUp();
+        category = testData.category("電子產品");
+        phone = productRepository.save(Product.builder()
+            .name("iPhone 15").price(new BigDecimal("29900.00")).stockQuantity(10).category(category).build());
+        cable = productRepository.save(Product.builder()
+            .name("充電線").price(new BigDecimal("590.50")).stockQuantity(10).build());
+        analyticsService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.cleanUp();
+    }
+
+    @Test
+    @DisplayName("建立與取消訂單應即時反映在統計中")
+    void shouldUpdateIncrementallyOnOrderEvents() throws InterruptedException {
+        // Act
+        createOrder(phone, 1, cable, 2);
+        OrderDTO cancelled = createOrder(cable, 1);
+        orderService.cancelOrder(cancelled.getId());
+        awaitConsumers(eventBus, analyticsService.getName());
+
+        // Assert
+        LocalDate today = LocalDate.now();
+        assertThat(analyticsService.total(today, today, null, null))
+            .isEqualTo(new SalesTotals(2, 4, 29900_00 + 3 * 590_50));
+        assertThat(analyticsService.byStatus(today, today, null))
+            .containsEntry(OrderStatus.PENDING, new SalesTotals(1, 3, 29900_00 + 2 * 590_50))
+            .containsEntry(OrderStatus.CANCELLED, new SalesTotals(1, 1, 590_50));
+        assertThat(analyticsService.byCategory(today, today, OrderStatus.PENDING))
+            .containsEntry(category.getId(), new SalesTotals(1, 1, 29900_00))
+            .containsEntry(SalesAnalyticsService.UNCATEGORIZED, new SalesTotals(1, 2, 2 * 590_50));
+    }
+
+    @Test
+    @DisplayName("從資料庫重建的結果應與增量更新一致")
+    void rebuild_ShouldMatchIncrementalState() throws InterruptedException {
+        // Arrange
+        createOrder(phone, 2);
+        OrderDTO paid = createOrder(phone, 1, cable, 1);
+        orderService.updateOrderStatus(paid.getId(), OrderStatus.PAID);
+        awaitConsumers(eventBus, analyticsService.getName());
+        LocalDate from = LocalDate.now().minusDays(1);
+        LocalDate to = LocalDate.now();
+        Map<OrderStatus, SalesTotals> incremental = analyticsService.byStatus(from, to, null);
+        Map<Long, SalesTotals> incrementalByCategory = analyticsService.byCategory(from, to, null);
+
+        // Act
+        analyticsService.rebuild();
+
+        // Assert
+        assertThat(analyticsService.byStatus(from, to, null)).isEqualTo(incremental);
+        assertThat(analyticsService.byCategory(from, to, null)).isEqualTo(incrementalByCategory);
+        assertThat(incremental).containsOnlyKeys(OrderStatus.PENDING, OrderStatus.PAID);
+    }
+
+    private OrderDTO createOrder(Object... productsAndQuantities) {
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            items.add(OrderItemRequest.builder()
+                .productId(((Product) productsAndQuantities[i]).getId())
+                .quantity((Integer) productsAndQuantities[i + 1])
+                .build());
+        }
+        return orderService.createOrder(CreateOrderRequest.builder()
+            .customerName("王小明")
+            .customerEmail("analytics@example.com")
+            .shippingAddress("台北市信義區")
+            .items(items)
+            .build());
+    }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.entity.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 銷售統計立方體單元測試
+ */
+@DisplayName("銷售統計立方體測試")
+class SalesCubeTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+    private static final long PHONES = 1;
+    private static final long BOOKS = 2;
+
+    private final SalesCube cube = new SalesCube(7);
+
+    @Nested
+    @DisplayName("增量更新")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("多分類訂單：總訂單數只算一次，分類維度各算一次")
+        void apply_ShouldCountOrderOncePerCategoryAndOnceOverall() {
+            // Arrange
+            OrderContribution order = contribution(TODAY, PHONES, 2, 2000_00, BOOKS, 1, 300_00);
+
+            // Act
+            cube.apply(order, OrderStatus.PENDING, 1);
+
+            // Assert
+            assertThat(cube.total(TODAY, TODAY, null, null)).isEqualTo(new SalesTotals(1, 3, 2300_00));
+            Map<Long, SalesTotals> byCategory = cube.byCategory(TODAY, TODAY, null);
+            assertThat(byCategory).containsEntry(PHONES, new SalesTotals(1, 2, 2000_00))
+                .containsEntry(BOOKS, new SalesTotals(1, 1, 300_00));
+            assertThat(cube.total(TODAY, TODAY, BOOKS, OrderStatus.PENDING))
+                .isEqualTo(new SalesTotals(1, 1, 300_00));
+        }
+
+        @Test
+        @DisplayName("狀態變更：整張訂單從舊狀態移到新狀態")
+        void move_ShouldTransferOrderBetweenStatuses() {
+            // Arrange
+            OrderContribution order = contribution(TODAY, PHONES, 1, 500_00);
+            cube.apply(order, OrderStatus.PENDING, 1);
+
+            // Act
+            cube.move(order, OrderStatus.PENDING, OrderStatus.PAID);
+
+            // Assert
+            assertThat(cube.byStatus(TODAY, TODAY, null))
+                .containsOnlyKeys(OrderStatus.PAID)
+                .containsEntry(OrderStatus.PAID, new SalesTotals(1, 1, 500_00));
+            assertThat(cube.total(TODAY, TODAY, null, null)).isEqualTo(new SalesTotals(1, 1, 500_00));
+        }
+
+        @Test
+        @DisplayName("超出保留天數的日期會被新的一天覆蓋")
+        void apply_ShouldExpireDaysOutsideRetention() {
+            // Arrange
+            LocalDate old = TODAY.minusDays(7);
+            cube.apply(contribution(old, PHONES, 1, 100_00), OrderStatus.PENDING, 1);
+
+            // Act: 與 old 同一個槽位
+            cube.apply(contribution(TODAY, PHONES, 2, 200_00), OrderStatus.PENDING, 1);
+            cube.apply(contribution(old, PHONES, 5, 500_00), OrderStatus.PENDING, 1);
+
+            // Assert: 舊資料被清除，之後遲到的舊日期也被忽略
+            assertThat(cube.total(old, TODAY, null, null)).isEqualTo(new SalesTotals(1, 2, 200_00));
+            assertThat(cube.byDay(old, TODAY, null, null)).containsOnlyKeys(TODAY);
+        }
+    }
+
+    @Nested
+    @DisplayName("合併")
+    class MergeTests {
+
+        @Test
+        @DisplayName("合併分類順序不同的部分結果")
+        void merge_ShouldAddPartialCubesWithDifferentCategoryOrder() {
+            // Arrange
+            SalesCube first = new SalesCube(7);
+            first.apply(contribution(TODAY, PHONES, 1, 100_00), OrderStatus.PAID, 1);
+            SalesCube second = new SalesCube(7);
+            second.apply(contribution(TODAY.minusDays(1), BOOKS, 3, 90_00), OrderStatus.PENDING, 1);
+            second.apply(contribution(TODAY, PHONES, 2, 200_00), OrderStatus.PAID, 1);
+
+            // Act
+            cube.merge(first);
+            cube.merge(second);
+
+            // Assert
+            assertThat(cube.total(TODAY.minusDays(6), TODAY, null, null)).isEqualTo(new SalesTotals(3, 6, 390_00));
+            assertThat(cube.total(TODAY, TODAY, PHONES, OrderStatus.PAID)).isEqualTo(new SalesTotals(2, 3, 300_00));
+            assertThat(cube.byDay(TODAY.minusDays(6), TODAY, BOOKS, null))
+                .containsOnlyKeys(TODAY.minusDays(1));
+        }
+    }
+
+    /**
+     * @param lines 依序為 分類 ID、件數、營收（分）
+     */
+    private static OrderContribution contribution(LocalDate day, long... lines) {
+        int n = lines.length / 3;
+        long[] categories = new long[n];
+        long[] units = new long[n];
+        long[] revenue = new long[n];
+        for (int i = 0; i < n; i++) {
+            categories[i] = lines[i * 3];
+            units[i] = lines[i * 3 + 1];
+            revenue[i] = lines[i * 3 + 2];
+        }
+        return new OrderContribution(day, categories, units, revenue);
+    }
+}
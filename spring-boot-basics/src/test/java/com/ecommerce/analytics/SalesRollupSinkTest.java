@@ -0,0 +1,228 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.dto.CreateOrderRequest;
+import com.ecommerce.dto.OrderDTO;
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.dto.SalesSummaryDTO;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.entity.OutboxEventType;
+import com.ecommerce.entity.Product;
+import com.ecommerce.job.JobRun;
+import com.ecommerce.job.JobRunner;
+import com.ecommerce.job.JobStatus;
+import com.ecommerce.job.JobTrigger;
+import com.ecommerce.job.SalesRollupBackfillJob;
+import com.ecommerce.outbox.OutboxRelay;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.DailyCategorySalesRepository;
+import com.ecommerce.repository.DailyProductSalesRepository;
+import com.ecommerce.repository.DailySalesRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.SalesReportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 銷售彙總表整合測試
+ *
+ * 彙總表由 OutboxRelay 的批次交易寫入（測試設定關閉背景 relay，直接呼叫 relay()），
+ * 測試本身不能使用 @Transactional，資料在 @AfterEach 中清除。
+ * 回填工作的日期範圍（最近 3 天、每天一個分區）設定在 application-test.yml
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("銷售彙總表整合測試")
+class SalesRollupSinkTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    @Autowired
+    private JobRunner jobRunner;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private DailyProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private DailyCategorySalesRepository categorySalesRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final LocalDate today = LocalDate.now();
+    private Category category;
+    private Product phone;
+    private Product cable;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        category = categoryRepository.save(Category.builder().name("電子產品").build());
+        phone = productRepository.save(Product.builder()
+            .name("iPhone 15").price(new BigDecimal("29900.00")).stockQuantity(10).category(category).build());
+        cable = productRepository.save(Product.builder()
+            .name("充電線").price(new BigDecimal("590.50")).stockQuantity(10).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("建立、取消與狀態變更經 outbox 增量更新彙總表")
+    void shouldMaintainRollupsFromOrderEvents() {
+        // Arrange
+        createOrders();
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        assertThat(salesReportService.getTotal(today, today, null))
+            .isEqualTo(summary(null, 3, 5, "61571.50"));
+        assertThat(salesReportService.getDaily(today, today, OrderStatus.CANCELLED))
+            .containsExactly(summary(today.toString(), 1, 1, "590.50"));
+        assertThat(salesReportService.getByCategory(today, today, OrderStatus.PENDING))
+            .containsExactly(
+                summary(category.getId().toString(), 1, 1, "29900.00"),
+                summary(Long.toString(SalesAnalyticsService.UNCATEGORIZED), 1, 2, "1181.00"));
+        assertThat(salesReportService.getTopProducts(today, today, null, null, 10))
+            .containsExactly(
+                summary(phone.getId().toString(), 2, 2, "59800.00"),
+                summary(cable.getId().toString(), 2, 3, "1771.50"));
+        assertThat(salesReportService.getMonthly(today, today, OrderStatus.PAID))
+            .extracting(SalesSummaryDTO::getKey)
+            .containsExactly(today.toString().substring(0, 7));
+    }
+
+    @Test
+    @DisplayName("平行重算日期分區的結果應與增量更新一致")
+    void backfill_ShouldMatchIncrementalRollups() throws Exception {
+        // Arrange
+        createOrders();
+        outboxRelay.relay();
+        List<SalesSummaryDTO> daily = salesReportService.getDaily(today.minusDays(2), today, null);
+        List<SalesSummaryDTO> byCategory = salesReportService.getByCategory(today.minusDays(2), today, null);
+        List<SalesSummaryDTO> byProduct = salesReportService.getTopProducts(today.minusDays(2), today, null, null, 10);
+        deleteRollups();
+
+        // Act
+        JobRun run = jobRunner.submit(SalesRollupBackfillJob.NAME, JobTrigger.MANUAL).get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(run.status()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(salesReportService.getDaily(today.minusDays(2), today, null)).isEqualTo(daily);
+        assertThat(salesReportService.getByCategory(today.minusDays(2), today, null)).isEqualTo(byCategory);
+        assertThat(salesReportService.getTopProducts(today.minusDays(2), today, null, null, 10)).isEqualTo(byProduct);
+    }
+
+    @Test
+    @DisplayName("無法解析的事件應略過並計數，不影響同批的其他事件")
+    void malformedEvent_ShouldBeSkippedAndCounted() {
+        // Arrange
+        outboxEventRepository.save(OutboxEvent.builder()
+            .eventType(OutboxEventType.ORDER_CREATED)
+            .aggregateType("Order")
+            .aggregateId(0L)
+            .payload("{not json")
+            .occurredAt(Instant.now())
+            .build());
+        createOrder(phone, 1);
+        double malformedBefore = meterRegistry.counter("ecommerce.analytics.rollup.malformed").count();
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(salesReportService.getTotal(today, today, null))
+            .isEqualTo(summary(null, 1, 1, "29900.00"));
+        assertThat(meterRegistry.counter("ecommerce.analytics.rollup.malformed").count() - malformedBefore)
+            .isEqualTo(1);
+    }
+
+    /**
+     * 三張訂單：PENDING（手機 1 + 充電線 2）、CANCELLED（充電線 1）、PAID（手機 1）
+     */
+    private void createOrders() {
+        createOrder(phone, 1, cable, 2);
+        orderService.cancelOrder(createOrder(cable, 1).getId());
+        orderService.updateOrderStatus(createOrder(phone, 1).getId(), OrderStatus.PAID);
+    }
+
+    private OrderDTO createOrder(Object... productsAndQuantities) {
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            items.add(OrderItemRequest.builder()
+                .productId(((Product) productsAndQuantities[i]).getId())
+                .quantity((Integer) productsAndQuantities[i + 1])
+                .build());
+        }
+        return orderService.createOrder(CreateOrderRequest.builder()
+            .customerName("王小明")
+            .customerEmail("rollup@example.com")
+            .shippingAddress("台北市信義區")
+            .items(items)
+            .build());
+    }
+
+    private static SalesSummaryDTO summary(String key, long orders, long units, String revenue) {
+        return new SalesSummaryDTO(key, orders, units, new BigDecimal(revenue));
+    }
+
+    private void deleteRollups() {
+        dailySalesRepository.deleteAllInBatch();
+        productSalesRepository.deleteAllInBatch();
+        categorySalesRepository.deleteAllInBatch();
+    }
+
+    private void cleanUp() {
+        deleteRollups();
+        outboxEventRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+}
@@ -0,0 +1,240 @@
+package com.ecommerce.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Space-Saving 摘要準確度測試
+ *
+ * 以 Zipf 分布（少數商品占大部分銷量）的加權資料流與精確計數比對，驗證文件中的誤差上界：
+ * - count - error <= 真實值 <= count
+ * - error <= N / capacity
+ * - 真實值大於 N / capacity 的項目一定被追蹤
+ */
+@DisplayName("Space-Saving 摘要測試")
+class SpaceSavingSketchTest {
+
+    private static final int CATALOG = 10_000;
+    private static final int CAPACITY = 100;
+
+    @Nested
+    @DisplayName("單一摘要")
+    class SketchTests {
+
+        @Test
+        @DisplayName("Zipf 資料流：估計值符合誤差上界，熱門項目不會遺漏")
+        void shouldStayWithinErrorBoundOnSkewedStream() {
+            // Arrange
+            SpaceSavingSketch sketch = new SpaceSavingSketch(CAPACITY);
+            Map<Long, Long> exact = new HashMap<>();
+            Random random = new Random(42);
+            ZipfSampler zipf = new ZipfSampler(CATALOG, 1.1, random);
+
+            // Act
+            for (int i = 0; i < 200_000; i++) {
+                long item = zipf.next();
+                int quantity = 1 + random.nextInt(3);
+                sketch.add(item, quantity);
+                exact.merge(item, (long) quantity, Long::sum);
+            }
+
+            // Assert
+            assertWithinBounds(sketch, exact);
+            assertThat(sketch.top(10)).extracting(SpaceSavingSketch.Entry::item)
+                .containsExactlyElementsOf(exactTop(exact, 10));
+        }
+
+        @Test
+        @DisplayName("取消（移除）後仍不低估，且符合以加入總量計算的上界")
+        void shouldKeepBoundsAfterRemovals() {
+            // Arrange
+            SpaceSavingSketch sketch = new SpaceSavingSketch(CAPACITY);
+            Map<Long, Long> exact = new HashMap<>();
+            Random random = new Random(7);
+            ZipfSampler zipf = new ZipfSampler(CATALOG, 1.1, random);
+
+            // Act: 每 5 筆取消 1 筆先前的銷售
+            long[] history = new long[100_000];
+            for (int i = 0; i < history.length; i++) {
+                long item = zipf.next();
+                history[i] = item;
+                sketch.add(item, 1);
+                exact.merge(item, 1L, Long::sum);
+                if (i % 5 == 4) {
+                    long cancelled = history[random.nextInt(i + 1)];
+                    if (exact.getOrDefault(cancelled, 0L) > 0) {
+                        sketch.remove(cancelled, 1);
+                        exact.merge(cancelled, -1L, Long::sum);
+                    }
+                }
+            }
+
+            // Assert
+            assertWithinBounds(sketch, exact);
+        }
+
+        @Test
+        @DisplayName("移除壓低最小計數後，被取代過的項目再次出現時不會被低估")
+        void shouldNotUnderestimateEvictedItemAfterRemovals() {
+            // Arrange: 項目 1 被項目 3 取代（被取代時計數為 3），之後移除把項目 2 的計數壓到 0
+            SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+            sketch.add(1, 3);
+            sketch.add(2, 3);
+            sketch.add(3, 1);
+            sketch.remove(2, 3);
+            sketch.remove(1, 3);
+
+            // Act
+            sketch.add(1, 1);
+
+            // Assert: 項目 1 被取代時的取消被忽略，上界至少是 3 + 1；下界不超過淨銷量 1
+            SpaceSavingSketch.Entry entry = sketch.get(1);
+            assertThat(entry.count()).isGreaterThanOrEqualTo(4);
+            assertThat(entry.count() - entry.error()).isLessThanOrEqualTo(1);
+            assertThat(sketch.getMinCount()).isGreaterThanOrEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("計數器未滿時為精確計數")
+        void shouldBeExactBelowCapacity() {
+            // Arrange
+            SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+
+            // Act
+            sketch.add(1, 5);
+            sketch.add(2, 2);
+            sketch.add(1, 1);
+            sketch.remove(2, 1);
+
+            // Assert
+            assertThat(sketch.top(5)).containsExactly(
+                new SpaceSavingSketch.Entry(1, 6, 0),
+                new SpaceSavingSketch.Entry(2, 1, 0));
+            assertThat(sketch.getMinCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("時間視窗")
+    class WindowTests {
+
+        private final long hour = Duration.ofHours(1).toMillis();
+
+        @Test
+        @DisplayName("合併視窗內的區段：估計值符合視窗總量 / capacity 的上界")
+        void shouldMergePanesWithinBound() {
+            // Arrange: 24 個小時區段，每小時熱門商品不同
+            PanedTopK day = new PanedTopK(BestSellerWindow.DAY, CAPACITY);
+            Map<Long, Long> exact = new HashMap<>();
+            Random random = new Random(3);
+            long now = 1_000 * hour;
+            long total = 0;
+
+            // Act
+            for (int h = 0; h < 24; h++) {
+                ZipfSampler zipf = new ZipfSampler(CATALOG, 1.1, random);
+                long offset = h * 37L;
+                for (int i = 0; i < 5_000; i++) {
+                    long item = (zipf.next() + offset) % CATALOG;
+                    day.add(now - h * hour, now, item, 1);
+                    exact.merge(item, 1L, Long::sum);
+                    total++;
+                }
+            }
+
+            // Assert
+            List<SpaceSavingSketch.Entry> top = day.top(now, 20);
+            long bound = total / CAPACITY;
+            for (SpaceSavingSketch.Entry entry : top) {
+                long actual = exact.getOrDefault(entry.item(), 0L);
+                assertThat(actual).isBetween(entry.count() - entry.error(), entry.count());
+                assertThat(entry.error()).isLessThanOrEqualTo(bound);
+            }
+            // 每小時熱門商品不同，排名可能與精確值不同，但真正的第一名一定在排行中且不被低估
+            long leader = exactTop(exact, 1).get(0);
+            assertThat(top).extracting(SpaceSavingSketch.Entry::item).contains(leader);
+            assertThat(top.get(0).count()).isGreaterThanOrEqualTo(exact.get(leader));
+        }
+
+        @Test
+        @DisplayName("離開視窗的區段不再計入，取消只作用在原本的區段")
+        void shouldExpireOldPanes() {
+            // Arrange
+            PanedTopK lastHour = new PanedTopK(BestSellerWindow.HOUR, CAPACITY);
+            long now = 1_000 * hour;
+            lastHour.add(now - 2 * hour, now, 1, 10);   // 已超出視窗
+            lastHour.add(now - 30 * 60_000, now, 2, 3);
+            lastHour.add(now, now, 3, 2);
+
+            // Act
+            lastHour.remove(now - 30 * 60_000, now, 2, 1);
+            List<SpaceSavingSketch.Entry> top = lastHour.top(now, 10);
+
+            // Assert
+            assertThat(top).extracting(SpaceSavingSketch.Entry::item).containsExactly(2L, 3L);
+            assertThat(top.get(0).count()).isEqualTo(2);
+            assertThat(lastHour.top(now + 2 * hour, 10)).isEmpty();
+        }
+    }
+
+    private static void assertWithinBounds(SpaceSavingSketch sketch, Map<Long, Long> exact) {
+        long bound = sketch.getTotalWeight() / sketch.getCapacity();
+        for (SpaceSavingSketch.Entry entry : sketch.top(sketch.getCapacity())) {
+            long actual = exact.getOrDefault(entry.item(), 0L);
+            assertThat(actual).isBetween(entry.count() - entry.error(), entry.count());
+            assertThat(entry.error()).isLessThanOrEqualTo(bound);
+        }
+        exact.forEach((item, count) -> {
+            if (count > bound) {
+                assertThat(sketch.get(item)).as("熱門項目 %d（%d 件）應被追蹤", item, count).isNotNull();
+            }
+        });
+    }
+
+    private static List<Long> exactTop(Map<Long, Long> exact, int n) {
+        return exact.entrySet().stream()
+            .sorted(Map.Entry.<Long, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())))
+            .limit(n)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /**
+     * Zipf 分布取樣（反函數法，預先計算累積機率）
+     */
+    private static final class ZipfSampler {
+
+        private final double[] cumulative;
+        private final Random random;
+
+        ZipfSampler(int n, double exponent, Random random) {
+            this.random = random;
+            this.cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        long next() {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
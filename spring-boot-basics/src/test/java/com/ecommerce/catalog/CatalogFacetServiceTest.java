@@ -0,0 +1,86 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.TestDataFixture;
+import com.ecommerce.dto.CatalogBrowseDTO;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Category;
+import com.ecommerce.event.DomainEventBus;
+import com.ecommerce.service.ProductSearchService;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static com.ecommerce.event.EventBusTestSupport.awaitConsumers;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 分面瀏覽整合測試
+ *
+ * 索引由事件匯流排的消費者執行緒非同步更新，斷言前先等消費者追上
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("分面瀏覽整合測試")
+class CatalogFacetServiceTest {
+
+    @Autowired
+    private CatalogFacetService facetService;
+
+    @Autowired
+    private TestDataFixture testData;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    private Category phones;
+
+    @BeforeEach
+    void setUp() {
+        testData.cleanUp();
+        phones = testData.category("手機");
+        facetService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.cleanUp();
+    }
+
+    @Test
+    @DisplayName("新增與停用商品後，一次呼叫應回傳結果頁與分面計數")
+    void browseProducts_ShouldReturnPageWithFacets() throws InterruptedException {
+        // Arrange
+        ProductDTO phone = testData.product("iPhone 15", "29900.00", 5, phones.getId());
+        testData.product("充電線", "590.00", 5, null);
+        ProductDTO removed = testData.product("舊款手機", "4990.00", 5, phones.getId());
+        productService.deleteProduct(removed.getId());
+        awaitConsumers(eventBus, facetService.getName());
+
+        // Act
+        CatalogBrowseDTO result = productSearchService.browseProducts(List.of(phones.getId()), null, null, false, 0, 20);
+
+        // Assert
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getItems()).extracting(ProductDTO::getId).containsExactly(phone.getId());
+        assertThat(result.getCategories())
+            .extracting(CatalogBrowseDTO.CategoryFacet::getName, CatalogBrowseDTO.CategoryFacet::getCount)
+            .containsExactlyInAnyOrder(tuple("手機", 1), tuple(null, 1));
+        assertThat(result.getPriceRanges())
+            .extracting(CatalogBrowseDTO.PriceFacet::getCount)
+            .containsExactly(0, 0, 0, 1, 0);
+    }
+}
@@ -0,0 +1,216 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.TestDataFixture;
+import com.ecommerce.dto.CreateOrderRequest;
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.UpdateProductRequest;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.event.DomainEventBus;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.monitoring.MaxQueries;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.CatalogReadService;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.ecommerce.event.EventBusTestSupport.awaitConsumers;
+import static com.ecommerce.event.EventBusTestSupport.publishOutOfOrderStock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 商品目錄快照整合測試（開啟 replica-enabled）
+ *
+ * 快照由事件匯流排的消費者執行緒非同步更新，斷言前先等消費者追上；
+ * 查詢以 @MaxQueries(0) 確認完全不查資料庫；暖啟動以另一個 CatalogReplicaService 模擬新的執行個體
+ */
+@SpringBootTest(properties = {
+    "ecommerce.catalog.replica-enabled=true",
+    "ecommerce.catalog.snapshot-file=build/tmp/catalog-replica-test.bin",
+    "ecommerce.catalog.snapshot-catch-up-margin=0s"
+})
+@ActiveProfiles("test")
+@DisplayName("商品目錄快照整合測試")
+class CatalogReplicaServiceTest {
+
+    @Autowired
+    private CatalogReplicaService replicaService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogReadService catalogReadService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestDataFixture testData;
+
+    @Autowired
+    private CatalogReplicaLoader loader;
+
+    @Autowired
+    private CatalogProperties properties;
+
+    private Category phones;
+    private ProductDTO phone;
+    private ProductDTO cable;
+    private ProductDTO discontinued;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        testData.cleanUp();
+        phones = testData.category("手機");
+        replicaService.rebuild();
+        phone = testData.product("iPhone 15", "29900.00", 10, phones.getId());
+        cable = testData.product("充電線", "590.00", 100, null);
+        discontinued = testData.product("舊款 iPhone", "9900.00", 3, phones.getId());
+        productService.deleteProduct(discontinued.getId());
+        awaitConsumers(eventBus, replicaService.getName());
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.cleanUp();
+    }
+
+    @Test
+    @MaxQueries(0)
+    @DisplayName("商品列表、單筆、分類、關鍵字查詢都由快照回應，不查資料庫")
+    void catalogReads_ShouldNotQueryDatabase() {
+        // Act
+        Page<ProductDTO> page = catalogReadService.getAllProducts(PageRequest.of(0, 10, Sort.by("createdAt")));
+        ProductDTO byId = catalogReadService.getProductById(discontinued.getId());
+        List<ProductDTO> byCategory = catalogReadService.getProductsByCategory(phones.getId());
+        List<ProductDTO> search = catalogReadService.searchProducts("iPhone");
+
+        // Assert
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(ProductDTO::getName).containsExactly("iPhone 15", "充電線");
+        assertThat(byId.getActive()).isFalse();
+        assertThat(byId.getCategoryName()).isEqualTo("手機");
+        assertThat(byCategory).extracting(ProductDTO::getId).containsExactly(phone.getId());
+        assertThat(search).extracting(ProductDTO::getId).containsExactly(phone.getId(), discontinued.getId());
+        assertThatThrownBy(() -> catalogReadService.getProductById(Long.MAX_VALUE))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("修改商品與下單扣庫存後應產生新版本的快照")
+    void writes_ShouldPublishNewSnapshots() throws InterruptedException {
+        // Arrange
+        long version = replicaService.current().orElseThrow().getVersion();
+
+        // Act
+        productService.updateProduct(phone.getId(), UpdateProductRequest.builder()
+            .name("iPhone 15 Pro").price(new BigDecimal("35900.00")).build());
+        orderService.createOrder(CreateOrderRequest.builder()
+            .customerName("王小明")
+            .customerEmail("replica@example.com")
+            .shippingAddress("台北市信義區")
+            .items(List.of(OrderItemRequest.builder().productId(phone.getId()).quantity(2).build()))
+            .build());
+        awaitConsumers(eventBus, replicaService.getName());
+
+        // Assert
+        CatalogSnapshot snapshot = replicaService.current().orElseThrow();
+        assertThat(snapshot.getVersion()).isGreaterThan(version);
+        ProductDTO updated = catalogReadService.getProductById(phone.getId());
+        assertThat(updated.getName()).isEqualTo("iPhone 15 Pro");
+        assertThat(updated.getPrice()).isEqualByComparingTo("35900.00");
+        assertThat(updated.getStockQuantity()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("較新的庫存事件先到時，晚到的舊事件不應蓋掉快照中的庫存")
+    void staleStockEvent_ShouldBeIgnored() throws InterruptedException {
+        // Act：版本 3（7 → 4）先發布，版本 2（10 → 7）後到
+        publishOutOfOrderStock(eventBus, phone.getId(), 10, 7, 4);
+        awaitConsumers(eventBus, replicaService.getName());
+
+        // Assert
+        assertThat(catalogReadService.getProductById(phone.getId()).getStockQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("重建結果應與增量更新一致，版本號不倒退")
+    void rebuild_ShouldMatchIncrementalState() {
+        // Arrange
+        CatalogSnapshot incremental = replicaService.current().orElseThrow();
+
+        // Act
+        replicaService.rebuild();
+
+        // Assert
+        CatalogSnapshot rebuilt = replicaService.current().orElseThrow();
+        assertThat(rebuilt.getVersion()).isGreaterThan(incremental.getVersion());
+        assertThat(rebuilt.size()).isEqualTo(incremental.size());
+        assertThat(rebuilt.findActive(PageRequest.of(0, 10)).orElseThrow().getContent())
+            .isEqualTo(incremental.findActive(PageRequest.of(0, 10)).orElseThrow().getContent());
+    }
+
+    @Test
+    @DisplayName("新的執行個體應從快照檔載入，並補讀寫檔之後修改的商品")
+    void warmStart_ShouldLoadSnapshotFileAndCatchUp() {
+        // Arrange: 重建時寫入快照檔；之後直接修改資料庫（沒有事件）
+        replicaService.rebuild();
+        Product entity = productRepository.findById(phone.getId()).orElseThrow();
+        entity.setName("iPhone 15 (整新品)");
+        productRepository.save(entity);
+        CatalogReplicaService fresh = new CatalogReplicaService(loader, properties);
+
+        // Act
+        boolean warm = fresh.warmStart();
+
+        // Assert
+        assertThat(warm).isTrue();
+        CatalogSnapshot snapshot = fresh.current().orElseThrow();
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.get(phone.getId())).map(CatalogProduct::name).contains("iPhone 15 (整新品)");
+        assertThat(snapshot.get(discontinued.getId())).map(CatalogProduct::active).contains(false);
+        assertThat(snapshot.findActiveByCategory(phones.getId())).extracting(CatalogProduct::id)
+            .containsExactly(phone.getId());
+    }
+
+    @Test
+    @DisplayName("暖啟動後移除資料庫中已刪除的商品")
+    void warmStart_ShouldRemoveProductsDeletedAfterSnapshotFile() {
+        // Arrange: 重建時寫入快照檔；之後直接刪除資料列（沒有事件，也沒有可補讀的 updated_at）
+        replicaService.rebuild();
+        productRepository.deleteById(cable.getId());
+        CatalogReplicaService fresh = new CatalogReplicaService(loader, properties);
+
+        // Act
+        boolean warm = fresh.warmStart();
+
+        // Assert
+        assertThat(warm).isTrue();
+        CatalogSnapshot snapshot = fresh.current().orElseThrow();
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.get(cable.getId())).isEmpty();
+        assertThat(snapshot.get(phone.getId())).isPresent();
+    }
+}
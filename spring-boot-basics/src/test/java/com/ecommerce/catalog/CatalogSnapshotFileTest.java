@@ -0,0 +1,98 @@
+package com.ecommerce.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 商品目錄快照檔測試
+ */
+@DisplayName("商品目錄快照檔測試")
+class CatalogSnapshotFileTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 9, 30, 15, 123_456_000);
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("catalog.bin");
+        snapshot = CatalogSnapshot.builder()
+            .add(new CatalogProduct(1, "iPhone 15", new BigDecimal("29900.00"), "最新款 Apple 手機", 10,
+                "https://example.com/iphone.png", true, 7L, "手機", CREATED, CREATED.plusDays(1), 3, CREATED.minusDays(1)))
+            .add(new CatalogProduct(2, "Galaxy S24", new BigDecimal("27900.50"), null, 0,
+                null, true, 7L, "手機", CREATED, CREATED.plusDays(2), 1, CREATED.minusDays(1)))
+            .add(new CatalogProduct(40_000, "充電線", new BigDecimal("590"), "", 100,
+                null, false, null, null, null, null, 0, null))
+            .build(42);
+    }
+
+    @Test
+    @DisplayName("寫入後讀回的快照應與原本相同")
+    void writeAndRead_ShouldRoundTrip() throws IOException {
+        // Act
+        CatalogSnapshotFile.write(file, snapshot);
+        Optional<CatalogSnapshot> loaded = CatalogSnapshotFile.read(file);
+
+        // Assert
+        assertThat(loaded).isPresent();
+        assertThat(loaded.get().getVersion()).isEqualTo(42);
+        assertThat(loaded.get().getWatermark()).isEqualTo(CREATED.plusDays(2));
+        assertThat(products(loaded.get())).isEqualTo(products(snapshot));
+        assertThat(loaded.get().findActiveByCategory(7)).extracting(CatalogProduct::id).containsExactly(1L, 2L);
+        assertThat(Files.exists(dir.resolve("catalog.bin.tmp"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("內容損毀或檔案不存在時應回傳 empty")
+    void read_WhenCorruptedOrMissing_ShouldReturnEmpty() throws IOException {
+        // Arrange
+        CatalogSnapshotFile.write(file, snapshot);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() - 10);
+            int value = raf.read();
+            raf.seek(raf.length() - 10);
+            raf.write(value ^ 0xFF);
+        }
+
+        // Act & Assert
+        assertThat(CatalogSnapshotFile.read(file)).isEmpty();
+        assertThat(CatalogSnapshotFile.read(dir.resolve("missing.bin"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("截斷的檔案應回傳 empty")
+    void read_WhenTruncated_ShouldReturnEmpty() throws IOException {
+        // Arrange
+        CatalogSnapshotFile.write(file, snapshot);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+
+        // Act & Assert
+        assertThat(CatalogSnapshotFile.read(file)).isEmpty();
+    }
+
+    private static List<CatalogProduct> products(CatalogSnapshot snapshot) {
+        List<CatalogProduct> products = new ArrayList<>();
+        snapshot.forEach(products::add);
+        return products;
+    }
+}
@@ -0,0 +1,222 @@
+package com.ecommerce.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 商品目錄快照單元測試
+ */
+@DisplayName("商品目錄快照測試")
+class CatalogSnapshotTest {
+
+    private static final long PHONES = 1;
+    private static final long BOOKS = 2;
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = CatalogSnapshot.builder()
+            .add(product(1, "iPhone 15", "29900", 10, true, PHONES))
+            .add(product(2, "Galaxy S24", "27900", 0, true, PHONES))
+            .add(product(3, "Java 入門", "450", 30, true, BOOKS))
+            .add(product(4, "舊款手機", "4990", 5, false, PHONES))
+            .add(product(5, "充電線", "590", 100, true, null))
+            .build(1);
+    }
+
+    @Nested
+    @DisplayName("查詢")
+    class QueryTests {
+
+        @Test
+        @DisplayName("單筆查詢應包含已停用的商品")
+        void get_ShouldIncludeInactiveProducts() {
+            assertThat(snapshot.get(4)).map(CatalogProduct::name).contains("舊款手機");
+            assertThat(snapshot.get(99)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("分頁只列上架中的商品，依 ID 順序或反序")
+        void findActive_ShouldPageActiveProductsInIdOrder() {
+            // Act
+            Page<CatalogProduct> first = snapshot.findActive(PageRequest.of(0, 3, Sort.by("createdAt"))).orElseThrow();
+            Page<CatalogProduct> last = snapshot.findActive(PageRequest.of(1, 3, Sort.by("createdAt"))).orElseThrow();
+            Page<CatalogProduct> desc = snapshot.findActive(PageRequest.of(0, 2, Sort.by("id").descending())).orElseThrow();
+
+            // Assert
+            assertThat(first.getTotalElements()).isEqualTo(4);
+            assertThat(first.getContent()).extracting(CatalogProduct::id).containsExactly(1L, 2L, 3L);
+            assertThat(last.getContent()).extracting(CatalogProduct::id).containsExactly(5L);
+            assertThat(desc.getContent()).extracting(CatalogProduct::id).containsExactly(5L, 3L);
+        }
+
+        @Test
+        @DisplayName("依其他欄位排序時整份排序，同值依 ID")
+        void findActive_ShouldSortByOtherProperties() {
+            // Act
+            Page<CatalogProduct> byPrice = snapshot.findActive(PageRequest.of(0, 10, Sort.by("price"))).orElseThrow();
+            Page<CatalogProduct> byStock = snapshot.findActive(
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "stockQuantity"))).orElseThrow();
+
+            // Assert
+            assertThat(byPrice.getContent()).extracting(CatalogProduct::id).containsExactly(3L, 5L, 2L, 1L);
+            assertThat(byStock.getContent()).extracting(CatalogProduct::id).containsExactly(5L, 3L);
+        }
+
+        @Test
+        @DisplayName("不支援的排序欄位回傳 empty")
+        void findActive_WhenSortUnsupported_ShouldReturnEmpty() {
+            assertThat(snapshot.findActive(PageRequest.of(0, 10, Sort.by("updatedAt")))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("分類只列上架中的商品；名稱搜尋區分大小寫且包含已停用商品")
+        void categoryAndSearch_ShouldMatchRepositorySemantics() {
+            assertThat(snapshot.findActiveByCategory(PHONES)).extracting(CatalogProduct::id).containsExactly(1L, 2L);
+            assertThat(snapshot.findActiveByCategory(99)).isEmpty();
+            assertThat(snapshot.searchByName("手機")).extracting(CatalogProduct::id).containsExactly(4L);
+            assertThat(snapshot.searchByName("iphone")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("變更")
+    class ChangeTests {
+
+        @Test
+        @DisplayName("產生新版本時舊快照不受影響")
+        void with_ShouldLeaveOldSnapshotUnchanged() {
+            // Act
+            CatalogSnapshot next = snapshot
+                .with(product(2, "Galaxy S24", "27900", 0, false, PHONES))
+                .with(product(6, "Kotlin 實戰", "680", 8, true, BOOKS))
+                .withStockQuantity(1, 9, 2);
+
+            // Assert
+            assertThat(next.getVersion()).isEqualTo(4);
+            assertThat(next.findActiveByCategory(PHONES)).extracting(CatalogProduct::id).containsExactly(1L);
+            assertThat(next.findActiveByCategory(BOOKS)).extracting(CatalogProduct::id).containsExactly(3L, 6L);
+            assertThat(next.get(1)).map(CatalogProduct::stockQuantity).contains(9);
+            assertThat(next.get(1)).map(CatalogProduct::version).contains(2L);
+            assertThat(next.activeCount()).isEqualTo(4);
+
+            assertThat(snapshot.getVersion()).isEqualTo(1);
+            assertThat(snapshot.findActiveByCategory(PHONES)).extracting(CatalogProduct::id).containsExactly(1L, 2L);
+            assertThat(snapshot.get(1)).map(CatalogProduct::stockQuantity).contains(10);
+            assertThat(snapshot.get(6)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("換分類與移除商品應更新分類索引")
+        void withAndWithout_ShouldMaintainCategoryIndex() {
+            // Act
+            CatalogSnapshot next = snapshot
+                .with(product(1, "iPhone 15", "29900", 10, true, BOOKS))
+                .without(2);
+
+            // Assert
+            assertThat(next.findActiveByCategory(PHONES)).isEmpty();
+            assertThat(next.findActiveByCategory(BOOKS)).extracting(CatalogProduct::id).containsExactly(1L, 3L);
+            assertThat(next.get(2)).isEmpty();
+            assertThat(next.without(2)).isSameAs(next);
+            assertThat(next.withStockQuantity(1, 10, 2)).isSameAs(next);
+        }
+
+        @Test
+        @DisplayName("只改庫存時沿用依價格的排序結果，分頁顯示新庫存；依庫存的排序重新計算")
+        void withStockQuantity_ShouldCarrySortsWhoseKeysAreUnchanged() {
+            // Arrange
+            Sort byPrice = Sort.by("price");
+            Sort byStock = Sort.by(Sort.Direction.DESC, "stockQuantity");
+            snapshot.findActive(PageRequest.of(0, 10, byPrice));
+            snapshot.findActive(PageRequest.of(0, 10, byStock));
+
+            // Act
+            CatalogSnapshot next = snapshot.withStockQuantity(1, 500, 2);
+
+            // Assert
+            assertThat(next.isSorted(byPrice)).isTrue();
+            assertThat(next.isSorted(byStock)).isFalse();
+            assertThat(next.findActive(PageRequest.of(0, 10, byPrice)).orElseThrow().getContent())
+                .extracting(CatalogProduct::id, CatalogProduct::stockQuantity)
+                .containsExactly(tuple(3L, 30), tuple(5L, 100), tuple(2L, 0), tuple(1L, 500));
+            assertThat(next.findActive(PageRequest.of(0, 2, byStock)).orElseThrow().getContent())
+                .extracting(CatalogProduct::id).containsExactly(1L, 5L);
+        }
+
+        @Test
+        @DisplayName("改價格、上下架或新增商品時不沿用受影響的排序結果")
+        void with_ShouldDropSortsWhenKeysOrMembershipChange() {
+            // Arrange
+            Sort byPrice = Sort.by("price");
+            Sort byName = Sort.by("name");
+            snapshot.findActive(PageRequest.of(0, 10, byPrice));
+            snapshot.findActive(PageRequest.of(0, 10, byName));
+
+            // Act
+            CatalogSnapshot repriced = snapshot.with(product(3, "Java 入門", "99999", 30, true, BOOKS));
+            CatalogSnapshot deactivated = snapshot.with(product(2, "Galaxy S24", "27900", 0, false, PHONES));
+            CatalogSnapshot added = snapshot.with(product(6, "Kotlin 實戰", "680", 8, true, BOOKS));
+
+            // Assert
+            assertThat(repriced.isSorted(byPrice)).isFalse();
+            assertThat(repriced.isSorted(byName)).isTrue();
+            assertThat(repriced.findActive(PageRequest.of(0, 10, byPrice)).orElseThrow().getContent())
+                .extracting(CatalogProduct::id).containsExactly(5L, 2L, 1L, 3L);
+            assertThat(deactivated.isSorted(byName)).isFalse();
+            assertThat(added.isSorted(byName)).isFalse();
+            assertThat(added.findActive(PageRequest.of(0, 10, byPrice)).orElseThrow().getContent())
+                .extracting(CatalogProduct::id).containsExactly(3L, 5L, 6L, 2L, 1L);
+        }
+
+        @Test
+        @DisplayName("大量與稀疏 ID 的分頁應與排序後的清單一致")
+        void slice_ShouldMatchSortedIdsAcrossLevels() {
+            // Arrange: ID 跨越多層（32、1024、32768 …）並穿插刪除
+            CatalogSnapshot.Builder builder = CatalogSnapshot.builder();
+            List<Long> expected = new ArrayList<>();
+            for (long id = 1; id < 200_000; id += 37) {
+                builder.add(product(id, "商品 " + id, "100", 1, true, null));
+                expected.add(id);
+            }
+            CatalogSnapshot large = builder.build(1);
+            for (int i = 0; i < 500; i++) {
+                large = large.without(expected.remove(i * 7));
+            }
+            large = large.with(product(5_000_000_000L, "大 ID", "100", 1, true, null));
+            expected.add(5_000_000_000L);
+
+            // Act
+            Page<CatalogProduct> page = large.findActive(PageRequest.of(100, 40, Sort.by("id"))).orElseThrow();
+            Page<CatalogProduct> lastPage = large.findActive(PageRequest.of(0, 3, Sort.by("id").descending())).orElseThrow();
+
+            // Assert
+            assertThat(page.getTotalElements()).isEqualTo(expected.size());
+            assertThat(page.getContent()).extracting(CatalogProduct::id)
+                .containsExactlyElementsOf(expected.subList(100 * 40, 101 * 40));
+            assertThat(lastPage.getContent()).extracting(CatalogProduct::id).containsExactly(
+                expected.get(expected.size() - 1), expected.get(expected.size() - 2), expected.get(expected.size() - 3));
+        }
+    }
+
+    private static CatalogProduct product(long id, String name, String price, int stock, boolean active, Long categoryId) {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        return new CatalogProduct(id, name, new BigDecimal(price), null, stock, null, active, categoryId,
+            categoryId != null ? "分類 " + categoryId : null, base.plusMinutes(id), base.plusMinutes(id),
+            1, categoryId != null ? base : null);
+    }
+}
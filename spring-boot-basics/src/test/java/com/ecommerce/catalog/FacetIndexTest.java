@@ -0,0 +1,108 @@
+package com.ecommerce.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 分面索引單元測試
+ */
+@DisplayName("分面索引測試")
+class FacetIndexTest {
+
+    private static final long PHONES = 1;
+    private static final long BOOKS = 2;
+
+    /**
+     * 區間：[0, 100)、[100, 1000)、[1000, ∞)（單位：元，索引內為分）
+     */
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndex(new long[]{100_00, 1000_00});
+        index.put(1, 29900_00, PHONES);
+        index.put(2, 990_00, PHONES);
+        index.put(3, 350_00, BOOKS);
+        index.put(4, 80_00, BOOKS);
+        index.put(5, 100_00, null);
+    }
+
+    @Nested
+    @DisplayName("查詢")
+    class QueryTests {
+
+        @Test
+        @DisplayName("不限條件時依價格排序並計算所有分面")
+        void query_ShouldReturnAllProductsWithFacets() {
+            // Act
+            FacetIndex.Result result = index.query(query(List.of(), null, null, false, 0, 10));
+
+            // Assert
+            assertThat(result.total()).isEqualTo(5);
+            assertThat(result.productIds()).containsExactly(4, 5, 3, 2, 1);
+            assertThat(result.categoryCounts())
+                .isEqualTo(Map.of(PHONES, 2, BOOKS, 2, FacetIndex.UNCATEGORIZED, 1));
+            assertThat(result.bucketCounts()).containsExactly(1, 3, 1);
+        }
+
+        @Test
+        @DisplayName("分類計數套用價格條件，價格區間計數套用分類條件")
+        void query_ShouldApplyOtherFacetsFiltersToCounts() {
+            // Act
+            FacetIndex.Result result = index.query(query(List.of(BOOKS), 100_00L, 1000_00L, true, 0, 10));
+
+            // Assert
+            assertThat(result.productIds()).containsExactly(3);
+            assertThat(result.categoryCounts())
+                .isEqualTo(Map.of(PHONES, 1, BOOKS, 1, FacetIndex.UNCATEGORIZED, 1));
+            assertThat(result.bucketCounts()).containsExactly(1, 1, 0);
+        }
+
+        @Test
+        @DisplayName("分頁與多選分類")
+        void query_ShouldPageAcrossMultipleCategories() {
+            // Act
+            FacetIndex.Result result = index.query(query(List.of(PHONES, BOOKS), null, null, true, 1, 2));
+
+            // Assert
+            assertThat(result.total()).isEqualTo(4);
+            assertThat(result.productIds()).containsExactly(3, 4);
+        }
+    }
+
+    @Nested
+    @DisplayName("增量更新")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("改價、改分類與停用應反映在結果與計數中")
+        void putAndRemove_ShouldUpdateColumnsAndBitmaps() {
+            // Act
+            index.put(1, 50_00, BOOKS);
+            index.remove(2);
+            index.remove(99);
+            index.put(6, 2000_00, PHONES);
+
+            // Assert
+            FacetIndex.Result result = index.query(query(List.of(), null, null, false, 0, 10));
+            assertThat(result.productIds()).containsExactly(1, 4, 5, 3, 6);
+            assertThat(result.categoryCounts())
+                .isEqualTo(Map.of(PHONES, 1, BOOKS, 3, FacetIndex.UNCATEGORIZED, 1));
+            assertThat(index.query(query(List.of(PHONES), null, null, false, 0, 10)).productIds())
+                .containsExactly(6);
+            assertThat(index.size()).isEqualTo(5);
+        }
+    }
+
+    private static FacetIndex.Query query(List<Long> categories, Long min, Long max,
+                                          boolean descending, int page, int size) {
+        return new FacetIndex.Query(categories, min, max, descending, page * size, size);
+    }
+}
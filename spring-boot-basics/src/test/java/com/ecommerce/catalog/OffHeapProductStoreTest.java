@@ -0,0 +1,137 @@
+package com.ecommerce.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 堆積外商品資料單元測試
+ */
+@DisplayName("堆積外商品資料測試")
+class OffHeapProductStoreTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 10, 0, 5, 250_000_000);
+
+    /**
+     * 小區段（256 bytes）讓幾筆紀錄就跨越多個區段
+     */
+    private OffHeapProductStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapProductStore(256, 4);
+    }
+
+    @Nested
+    @DisplayName("讀寫")
+    class ReadWriteTests {
+
+        @Test
+        @DisplayName("寫入後讀回的商品應與原本相同（含 null 欄位）")
+        void put_ShouldRoundTrip() {
+            // Arrange
+            CatalogProduct phone = product(1, "iPhone 15", "29900.00", true, 7L, "手機");
+            CatalogProduct cable = new CatalogProduct(2, "充電線", new BigDecimal("590"), null, 100,
+                null, false, null, null, null, null, 0, null);
+
+            // Act
+            store.put(phone);
+            store.put(cable);
+
+            // Assert
+            assertThat(store.get(1)).isEqualTo(phone);
+            assertThat(store.get(2)).isEqualTo(cable);
+            assertThat(store.get(3)).isNull();
+            assertThat(store.size()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("只讀單一欄位時不必解碼整筆")
+        void fieldAccessors_ShouldReadSingleFields() {
+            // Arrange
+            store.put(product(1, "iPhone 15", "29900.00", true, 7L, "手機"));
+            store.put(product(2, "舊款手機", "4990.00", false, 7L, "手機"));
+
+            // Act & Assert
+            assertThat(store.isActive(1)).isTrue();
+            assertThat(store.isActive(2)).isFalse();
+            assertThat(store.isActive(3)).isFalse();
+            assertThat(store.name(2)).isEqualTo("舊款手機");
+            assertThat(store.contains(2)).isTrue();
+        }
+
+        @Test
+        @DisplayName("紀錄超過區段大小時應拋出例外")
+        void put_WhenRecordExceedsSegment_ShouldThrow() {
+            CatalogProduct huge = product(1, "x".repeat(300), "1", true, null, null);
+
+            assertThatThrownBy(() -> store.put(huge)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("變更")
+    class ChangeTests {
+
+        @Test
+        @DisplayName("取代商品時附加新紀錄，舊紀錄計入垃圾")
+        void put_WhenReplacing_ShouldAppendAndCountGarbage() {
+            // Arrange
+            for (long id = 1; id <= 5; id++) {
+                store.put(product(id, "商品 " + id, "100.00", true, 7L, "手機"));
+            }
+            long used = store.usedBytes();
+
+            // Act
+            store.put(product(3, "商品 3（改名）", "120.00", true, 8L, "配件"));
+
+            // Assert
+            assertThat(store.get(3).name()).isEqualTo("商品 3（改名）");
+            assertThat(store.get(3).categoryName()).isEqualTo("配件");
+            assertThat(store.size()).isEqualTo(5);
+            assertThat(store.garbageBytes()).isPositive();
+            assertThat(store.usedBytes()).isGreaterThan(used);
+            assertThat(store.allocatedBytes()).isGreaterThan(256);
+            for (long id = 1; id <= 5; id++) {
+                assertThat(store.get(id).id()).isEqualTo(id);
+            }
+        }
+
+        @Test
+        @DisplayName("庫存與版本原地更新，移除後查不到")
+        void updateStockAndRemove_ShouldApplyInPlace() {
+            // Arrange
+            store.put(product(1, "iPhone 15", "29900.00", true, 7L, "手機"));
+            long used = store.usedBytes();
+
+            // Act
+            boolean updated = store.updateStockQuantity(1, 3, 5);
+            boolean missing = store.updateStockQuantity(9, 3, 5);
+
+            // Assert
+            assertThat(updated).isTrue();
+            assertThat(missing).isFalse();
+            assertThat(store.get(1).stockQuantity()).isEqualTo(3);
+            assertThat(store.get(1).version()).isEqualTo(5);
+            assertThat(store.usedBytes()).isEqualTo(used);
+
+            assertThat(store.remove(1)).isTrue();
+            assertThat(store.remove(1)).isFalse();
+            assertThat(store.get(1)).isNull();
+            assertThat(store.size()).isZero();
+        }
+    }
+
+    private static CatalogProduct product(long id, String name, String price, boolean active,
+                                          Long categoryId, String categoryName) {
+        return new CatalogProduct(id, name, new BigDecimal(price), "說明 " + id, 10, "https://example.com/" + id,
+            active, categoryId, categoryName, CREATED, CREATED.plusHours(id), id, categoryId != null ? CREATED : null);
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.TestDataFixture;
+import com.ecommerce.dto.CatalogBrowseDTO;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.UpdateProductRequest;
+import com.ecommerce.entity.Category;
+import com.ecommerce.event.DomainEventBus;
+import com.ecommerce.monitoring.MaxQueries;
+import com.ecommerce.search.FuzzySearchService;
+import com.ecommerce.service.CatalogReadService;
+import com.ecommerce.service.ProductSearchService;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static com.ecommerce.event.EventBusTestSupport.awaitConsumers;
+import static com.ecommerce.event.EventBusTestSupport.publishOutOfOrderStock;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 堆積外商品資料整合測試（開啟 record-store-enabled）
+ *
+ * 資料由事件匯流排的消費者執行緒非同步更新，斷言前先等消費者追上
+ */
+@SpringBootTest(properties = "ecommerce.catalog.record-store-enabled=true")
+@ActiveProfiles("test")
+@DisplayName("堆積外商品資料整合測試")
+class ProductRecordStoreServiceTest {
+
+    @Autowired
+    private ProductRecordStoreService recordStoreService;
+
+    @Autowired
+    private TestDataFixture testData;
+
+    @Autowired
+    private CatalogFacetService facetService;
+
+    @Autowired
+    private FuzzySearchService fuzzySearchService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogReadService catalogReadService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    private Category phones;
+    private ProductDTO phone;
+    private ProductDTO discontinued;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        testData.cleanUp();
+        phones = testData.category("手機");
+        recordStoreService.rebuild();
+        facetService.rebuild();
+        fuzzySearchService.rebuild();
+        phone = testData.product("iPhone 15", "29900.00", 10, phones.getId());
+        discontinued = testData.product("iPhone 12", "9900.00", 10, phones.getId());
+        productService.updateProduct(phone.getId(), UpdateProductRequest.builder().stockQuantity(4).build());
+        productService.deleteProduct(discontinued.getId());
+        awaitConsumers(eventBus, recordStoreService.getName(), facetService.getName(), fuzzySearchService.getName());
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.cleanUp();
+    }
+
+    @Test
+    @MaxQueries(0)
+    @DisplayName("單筆查詢由堆積外資料解碼，不查資料庫")
+    void getProductById_ShouldNotQueryDatabase() {
+        // Act
+        ProductDTO result = catalogReadService.getProductById(phone.getId());
+
+        // Assert
+        assertThat(result.getName()).isEqualTo("iPhone 15");
+        assertThat(result.getStockQuantity()).isEqualTo(4);
+        assertThat(result.getCategoryName()).isEqualTo("手機");
+    }
+
+    @Test
+    @DisplayName("分面瀏覽與容錯搜尋的結果商品由堆積外資料解碼，已停用的不列出")
+    void browseAndFuzzySearch_ShouldHydrateFromRecordStore() {
+        // Act
+        CatalogBrowseDTO browse = productSearchService.browseProducts(List.of(phones.getId()), null, null, false, 0, 10);
+        List<ProductDTO> fuzzy = productSearchService.fuzzySearchProducts("iphnoe", 10);
+
+        // Assert
+        assertThat(browse.getItems()).extracting(ProductDTO::getId).containsExactly(phone.getId());
+        assertThat(fuzzy).extracting(ProductDTO::getId).containsExactly(phone.getId());
+        assertThat(fuzzy.get(0).getStockQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("較新的庫存事件先到時，晚到的舊事件不應蓋掉原地更新的庫存")
+    void staleStockEvent_ShouldBeIgnored() throws InterruptedException {
+        // Act：版本 3（3 → 2）先發布，版本 2（4 → 3）後到
+        publishOutOfOrderStock(eventBus, phone.getId(), 4, 3, 2);
+        awaitConsumers(eventBus, recordStoreService.getName(), facetService.getName(), fuzzySearchService.getName());
+
+        // Assert
+        assertThat(recordStoreService.find(phone.getId())).map(CatalogProduct::stockQuantity).contains(2);
+    }
+}
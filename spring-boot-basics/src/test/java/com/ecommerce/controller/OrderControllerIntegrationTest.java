@@ -1,13 +1,19 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.CreateOrderRequest;
+import com.ecommerce.dto.OrderDTO;
 import com.ecommerce.dto.OrderItemRequest;
 import com.ecommerce.entity.Category;
 import com.ecommerce.entity.Product;
+import com.ecommerce.idempotency.IdempotencyStore;
+import com.ecommerce.monitoring.MaxQueries;
+import com.ecommerce.monitoring.SqlStatsFilter;
 import com.ecommerce.repository.CategoryRepository;
 import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.OutboxEventRepository;
 import com.ecommerce.repository.ProductRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,12 +22,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -33,7 +43,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  *
  * @SpringBootTest: 載入完整應用程式上下文
  * @AutoConfigureMockMvc: 自動配置 MockMvc
- * @Transactional: 每個測試方法執行後自動回滾
+ * @Transactional: 每個測試方法執行後自動回滾（SqlBudgetTests 除外）
+ * @MaxQueries: 限制單一請求的 SQL 語句數，防止 N+1 回歸
  *
  * 整合測試特點：
  * - 使用真實的資料庫（H2）
@@ -62,12 +73,22 @@ class OrderControllerIntegrationTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private IdempotencyStore<OrderDTO> orderIdempotencyStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Product testProduct1;
     private Product testProduct2;
 
     @BeforeEach
     void setUp() {
         // 清理資料
+        outboxEventRepository.deleteAll();
         orderRepository.deleteAll();
         productRepository.deleteAll();
         categoryRepository.deleteAll();
@@ -103,8 +124,101 @@ class OrderControllerIntegrationTest {
     @DisplayName("POST /api/v1/orders - 創建訂單")
     class CreateOrderTests {
 
+        @Test
+        @DisplayName("庫存不足時應返回 400")
+        void shouldReturn400WhenInsufficientStock() throws Exception {
+            // Arrange
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerName("客戶")
+                .customerEmail("test@example.com")
+                .shippingAddress("地址")
+                .items(List.of(
+                    OrderItemRequest.builder()
+                        .productId(testProduct1.getId())
+                        .quantity(60)  // 庫存只有 50，超過庫存但不超過驗證上限 99
+                        .build()
+                ))
+                .build();
+
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("庫存不足")));
+
+            // 驗證庫存未被扣減
+            Product unchangedProduct = productRepository.findById(testProduct1.getId()).orElseThrow();
+            assertThat(unchangedProduct.getStockQuantity()).isEqualTo(50);
+        }
+
+        @Test
+        @DisplayName("商品不存在時應返回 404")
+        void shouldReturn404WhenProductNotFound() throws Exception {
+            // Arrange
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerName("客戶")
+                .customerEmail("test@example.com")
+                .shippingAddress("地址")
+                .items(List.of(
+                    OrderItemRequest.builder()
+                        .productId(99999L)
+                        .quantity(1)
+                        .build()
+                ))
+                .build();
+
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("驗證失敗時應返回 400")
+        void shouldReturn400WhenValidationFails() throws Exception {
+            // Arrange: 缺少必填欄位
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerName("")  // 空名稱
+                .customerEmail("invalid-email")  // 無效 email
+                .items(List.of())  // 空項目
+                .build();
+
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.customerName").exists())
+                .andExpect(jsonPath("$.errors.customerEmail").exists())
+                .andExpect(jsonPath("$.errors.shippingAddress").exists())
+                .andExpect(jsonPath("$.errors.items").exists());
+        }
+    }
+
+    /**
+     * 不開測試交易：請求的交易真正提交，提交時 flush 的 INSERT / UPDATE 才會計入 @MaxQueries，
+     * 商品也不會從測試交易的持久化上下文取得而少算查詢；資料已提交，在 @AfterEach 中清除
+     *
+     * 每個商品：查詢商品、更新庫存；每張訂單：訂單、訂單項目與 outbox 事件的 INSERT（JDBC batch）
+     */
+    @Nested
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("POST /api/v1/orders - SQL 語句數")
+    class SqlBudgetTests {
+
+        @AfterEach
+        void tearDown() {
+            outboxEventRepository.deleteAll();
+            orderRepository.deleteAll();
+            productRepository.deleteAll();
+            categoryRepository.deleteAll();
+        }
+
         @Test
         @DisplayName("成功創建訂單")
+        @MaxQueries(6)
         void shouldCreateOrderSuccessfully() throws Exception {
             // Arrange
             CreateOrderRequest request = CreateOrderRequest.builder()
@@ -139,6 +253,7 @@ class OrderControllerIntegrationTest {
 
         @Test
         @DisplayName("創建包含多個商品的訂單")
+        @MaxQueries(8)
         void shouldCreateOrderWithMultipleItems() throws Exception {
             // Arrange
             CreateOrderRequest request = CreateOrderRequest.builder()
@@ -167,19 +282,50 @@ class OrderControllerIntegrationTest {
         }
 
         @Test
-        @DisplayName("庫存不足時應返回 400")
-        void shouldReturn400WhenInsufficientStock() throws Exception {
-            // Arrange
+        @DisplayName("請求帶 X-SQL-Stats 標頭時才輸出 SQL 統計標頭")
+        void shouldReturnSqlStatsHeadersOnlyWhenRequested() throws Exception {
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/orders/customer").param("email", "test@example.com")
+                    .header(SqlStatsFilter.REQUEST_HEADER, "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatsFilter.HEADER_STATEMENTS));
+            mockMvc.perform(get("/api/v1/orders/customer").param("email", "test@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(SqlStatsFilter.HEADER_STATEMENTS));
+        }
+    }
+
+    /**
+     * 二級快取在各節點本機：直接更新資料列模擬另一個節點的提交，本節點的快取仍是舊庫存
+     */
+    @Nested
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("POST /api/v1/orders - 其他節點提交的庫存")
+    class OtherNodeStockTests {
+
+        @AfterEach
+        void tearDown() {
+            outboxEventRepository.deleteAll();
+            orderRepository.deleteAll();
+            productRepository.deleteAll();
+            categoryRepository.deleteAll();
+        }
+
+        @Test
+        @DisplayName("快取中的庫存過期時，應以資料庫的庫存判斷是否足夠")
+        void shouldCheckStockAgainstDatabaseNotCache() throws Exception {
+            // Arrange：讀一次放進二級快取（50 件），再由「其他節點」賣到剩 1 件
+            assertThat(productRepository.findById(testProduct1.getId()).orElseThrow().getStockQuantity())
+                .isEqualTo(50);
+            jdbcTemplate.update("UPDATE products SET stock_quantity = 1, version = version + 1 WHERE id = ?",
+                testProduct1.getId());
+            assertThat(productRepository.findById(testProduct1.getId()).orElseThrow().getStockQuantity())
+                .isEqualTo(50);
             CreateOrderRequest request = CreateOrderRequest.builder()
                 .customerName("客戶")
                 .customerEmail("test@example.com")
                 .shippingAddress("地址")
-                .items(List.of(
-                    OrderItemRequest.builder()
-                        .productId(testProduct1.getId())
-                        .quantity(60)  // 庫存只有 50，超過庫存但不超過驗證上限 99
-                        .build()
-                ))
+                .items(List.of(OrderItemRequest.builder().productId(testProduct1.getId()).quantity(2).build()))
                 .build();
 
             // Act & Assert
@@ -188,54 +334,105 @@ class OrderControllerIntegrationTest {
                     .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value(containsString("庫存不足")));
-
-            // 驗證庫存未被扣減
-            Product unchangedProduct = productRepository.findById(testProduct1.getId()).orElseThrow();
-            assertThat(unchangedProduct.getStockQuantity()).isEqualTo(50);
         }
+    }
 
-        @Test
-        @DisplayName("商品不存在時應返回 404")
-        void shouldReturn404WhenProductNotFound() throws Exception {
-            // Arrange
-            CreateOrderRequest request = CreateOrderRequest.builder()
-                .customerName("客戶")
+    @Nested
+    @DisplayName("POST /api/v1/orders - Idempotency-Key")
+    class IdempotencyKeyTests {
+
+        private CreateOrderRequest request(int quantity) {
+            return CreateOrderRequest.builder()
+                .customerName("王小明")
                 .customerEmail("test@example.com")
-                .shippingAddress("地址")
+                .shippingAddress("台北市信義區信義路五段7號")
                 .items(List.of(
                     OrderItemRequest.builder()
-                        .productId(99999L)
-                        .quantity(1)
+                        .productId(testProduct1.getId())
+                        .quantity(quantity)
                         .build()
                 ))
                 .build();
+        }
+
+        private MvcResult createOrder(String key, CreateOrderRequest request) throws Exception {
+            return mockMvc.perform(post("/api/v1/orders")
+                    .header("Idempotency-Key", key)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+        }
+
+        @Test
+        @DisplayName("重試應回傳第一次建立的訂單，只扣一次庫存")
+        void shouldReplayFromMemory() throws Exception {
+            // Arrange
+            String key = UUID.randomUUID().toString();
+            MvcResult first = createOrder(key, request(2));
+
+            // Act
+            MvcResult retry = createOrder(key, request(2));
+
+            // Assert
+            assertThat(first.getResponse().getStatus()).isEqualTo(201);
+            assertThat(first.getResponse().getHeader("Idempotent-Replayed")).isNull();
+            assertThat(retry.getResponse().getStatus()).isEqualTo(201);
+            assertThat(retry.getResponse().getHeader("Idempotent-Replayed")).isEqualTo("true");
+            assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+            assertThat(orderRepository.count()).isEqualTo(1);
+            assertThat(productRepository.findById(testProduct1.getId()).orElseThrow().getStockQuantity())
+                .isEqualTo(48);
+        }
+
+        @Test
+        @DisplayName("記憶體已清空（如重啟）時應由資料表查回原訂單")
+        void shouldReplayFromDatabase() throws Exception {
+            // Arrange
+            String key = UUID.randomUUID().toString();
+            Long orderId = objectMapper.readTree(createOrder(key, request(2)).getResponse().getContentAsString())
+                .get("id").asLong();
+            orderIdempotencyStore.clear();
 
             // Act & Assert
             mockMvc.perform(post("/api/v1/orders")
+                    .header("Idempotency-Key", key)
                     .contentType(MediaType.APPLICATION_JSON)
-                    .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isNotFound());
+                    .content(objectMapper.writeValueAsString(request(2))))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(orderId));
+            assertThat(orderRepository.count()).isEqualTo(1);
         }
 
         @Test
-        @DisplayName("驗證失敗時應返回 400")
-        void shouldReturn400WhenValidationFails() throws Exception {
-            // Arrange: 缺少必填欄位
-            CreateOrderRequest request = CreateOrderRequest.builder()
-                .customerName("")  // 空名稱
-                .customerEmail("invalid-email")  // 無效 email
-                .items(List.of())  // 空項目
-                .build();
+        @DisplayName("同一個鍵用於不同內容應返回 422")
+        void shouldRejectKeyReusedWithDifferentBody() throws Exception {
+            // Arrange
+            String key = UUID.randomUUID().toString();
+            createOrder(key, request(2));
 
             // Act & Assert
             mockMvc.perform(post("/api/v1/orders")
+                    .header("Idempotency-Key", key)
                     .contentType(MediaType.APPLICATION_JSON)
-                    .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.errors.customerName").exists())
-                .andExpect(jsonPath("$.errors.customerEmail").exists())
-                .andExpect(jsonPath("$.errors.shippingAddress").exists())
-                .andExpect(jsonPath("$.errors.items").exists());
+                    .content(objectMapper.writeValueAsString(request(3))))
+                .andExpect(status().isUnprocessableEntity());
+            assertThat(orderRepository.count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("失敗的請求不保留鍵，補足庫存後可用同一個鍵重試")
+        void shouldNotKeepKeyOfFailedRequest() throws Exception {
+            // Arrange
+            String key = UUID.randomUUID().toString();
+            assertThat(createOrder(key, request(60)).getResponse().getStatus()).isEqualTo(400);
+            Product product = productRepository.findById(testProduct1.getId()).orElseThrow();
+            product.increaseStock(50);
+            productRepository.save(product);
+
+            // Act & Assert
+            assertThat(createOrder(key, request(60)).getResponse().getStatus()).isEqualTo(201);
+            assertThat(orderRepository.count()).isEqualTo(1);
         }
     }
 
@@ -281,4 +478,71 @@ class OrderControllerIntegrationTest {
             assertThat(restoredProduct.getStockQuantity()).isEqualTo(50);
         }
     }
+
+    @Nested
+    @DisplayName("GET /api/v1/orders/{id} - 條件式 GET")
+    class ConditionalGetTests {
+
+        private Long createOrder() throws Exception {
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerName("王小明")
+                .customerEmail("test@example.com")
+                .shippingAddress("台北市信義區信義路五段7號")
+                .items(List.of(OrderItemRequest.builder().productId(testProduct1.getId()).quantity(1).build()))
+                .build();
+            MvcResult result = mockMvc.perform(post("/api/v1/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+            return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+        }
+
+        @Test
+        @DisplayName("If-None-Match 相符時應回應 304，依 ID 與訂單編號查詢皆同")
+        void whenETagMatches_shouldReturn304() throws Exception {
+            // Arrange
+            Long orderId = createOrder();
+            MvcResult first = mockMvc.perform(get("/api/v1/orders/{id}", orderId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+            String etag = first.getResponse().getHeader("ETag");
+            String orderNumber = objectMapper.readTree(first.getResponse().getContentAsString())
+                .get("orderNumber").asText();
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/orders/{id}", orderId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+            mockMvc.perform(get("/api/v1/orders/number/{orderNumber}", orderNumber).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        }
+
+        @Test
+        @DisplayName("訂單狀態改變後舊的 ETag 不再相符")
+        void whenStatusChanged_shouldReturn200() throws Exception {
+            // Arrange
+            Long orderId = createOrder();
+            String etag = mockMvc.perform(get("/api/v1/orders/{id}", orderId))
+                .andReturn().getResponse().getHeader("ETag");
+            Thread.sleep(2);
+
+            // Act
+            mockMvc.perform(patch("/api/v1/orders/{id}/status", orderId).param("status", "PAID"))
+                .andExpect(status().isOk());
+
+            // Assert
+            mockMvc.perform(get("/api/v1/orders/{id}", orderId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.status").value("PAID"));
+        }
+
+        @Test
+        @DisplayName("訂單不存在時應回應 404")
+        void whenOrderNotExists_shouldReturn404() throws Exception {
+            mockMvc.perform(get("/api/v1/orders/{id}", 999999L).header("If-None-Match", "\"o0\""))
+                .andExpect(status().isNotFound());
+        }
+    }
 }
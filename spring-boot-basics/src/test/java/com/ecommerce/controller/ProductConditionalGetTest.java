@@ -0,0 +1,256 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.CreateProductRequest;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.UpdateProductRequest;
+import com.ecommerce.entity.Category;
+import com.ecommerce.job.DeactivateOutOfStockProductsJob;
+import com.ecommerce.job.JobRunner;
+import com.ecommerce.job.JobTrigger;
+import com.ecommerce.job.PurgeInactiveProductsJob;
+import com.ecommerce.monitoring.MaxQueries;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 商品 API 條件式 GET 整合測試
+ *
+ * 不開測試交易：商品異動必須真正提交，列表的版本號才會在提交後推進
+ * 304 的請求以 @MaxQueries 確認只執行版本查詢，不載入商品
+ * listing-version-ttl=0s（application-test.yml）：列表版本每次都查資料庫，模擬其他節點的異動立即可見
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("商品 API 條件式 GET 測試")
+class ProductConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JobRunner jobRunner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private Category phones;
+    private ProductDTO phone;
+    private String productETag;
+    private String listingETag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cleanUp();
+        phones = categoryRepository.save(Category.builder().name("手機").build());
+        phone = productService.createProduct(CreateProductRequest.builder()
+            .name("iPhone 15").price(new BigDecimal("29900.00")).stockQuantity(10).categoryId(phones.getId()).build());
+        productETag = eTagOf("/api/v1/products/" + phone.getId());
+        listingETag = eTagOf("/api/v1/products/category/" + phones.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/products/{id}")
+    class ProductTests {
+
+        @Test
+        @DisplayName("回應應帶強 ETag")
+        void shouldReturnStrongETag() {
+            assertThat(productETag).startsWith("\"").endsWith("\"");
+        }
+
+        @Test
+        @DisplayName("If-None-Match 相符時應回應 304，只執行版本查詢")
+        @MaxQueries(1)
+        void whenETagMatches_shouldReturn304WithoutLoadingProduct() throws Exception {
+            mockMvc.perform(get("/api/v1/products/" + phone.getId()).header(HttpHeaders.IF_NONE_MATCH, productETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, productETag))
+                .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("商品修改後舊的 ETag 不再相符，應回應 200 與新的 ETag")
+        void whenProductChanged_shouldReturn200WithNewETag() throws Exception {
+            // Arrange
+            productService.updateProduct(phone.getId(), UpdateProductRequest.builder().stockQuantity(3).build());
+
+            // Act & Assert
+            String changed = mockMvc.perform(get("/api/v1/products/" + phone.getId())
+                    .header(HttpHeaders.IF_NONE_MATCH, productETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertThat(changed).isNotNull().isNotEqualTo(productETag);
+        }
+
+        @Test
+        @DisplayName("分類改名後舊的 ETag 不再相符（新舊名稱的 hashCode 相同也一樣）")
+        void whenCategoryRenamed_shouldReturn200WithNewETag() throws Exception {
+            // Arrange："Aa" 與 "BB" 的 String.hashCode 相同，商品本身沒有修改
+            Category category = categoryRepository.save(Category.builder().name("Aa").build());
+            ProductDTO cable = productService.createProduct(CreateProductRequest.builder()
+                .name("充電線").price(new BigDecimal("590.00")).stockQuantity(10).categoryId(category.getId()).build());
+            String before = eTagOf("/api/v1/products/" + cable.getId());
+            category.setName("BB");
+            categoryRepository.save(category);
+
+            // Act & Assert
+            String changed = mockMvc.perform(get("/api/v1/products/" + cable.getId())
+                    .header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryName").value("BB"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertThat(changed).isNotNull().isNotEqualTo(before);
+        }
+
+        @Test
+        @DisplayName("批次停用無庫存商品（不經過實體）後商品的 ETag 應改變")
+        void whenBulkDeactivated_shouldReturn200WithNewETag() throws Exception {
+            // Arrange
+            productService.updateProduct(phone.getId(), UpdateProductRequest.builder().stockQuantity(0).build());
+            String beforeJob = eTagOf("/api/v1/products/" + phone.getId());
+
+            // Act
+            jobRunner.submit(DeactivateOutOfStockProductsJob.NAME, JobTrigger.MANUAL).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            mockMvc.perform(get("/api/v1/products/" + phone.getId()).header(HttpHeaders.IF_NONE_MATCH, beforeJob))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(false));
+        }
+
+        @Test
+        @DisplayName("商品不存在時應回應 404")
+        void whenProductNotExists_shouldReturn404() throws Exception {
+            mockMvc.perform(get("/api/v1/products/999999").header(HttpHeaders.IF_NONE_MATCH, productETag))
+                .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("商品列表")
+    class ListingTests {
+
+        @Test
+        @DisplayName("If-None-Match 相符時應回應 304，只執行版本查詢")
+        @MaxQueries(1)
+        void whenETagMatches_shouldReturn304WithoutLoadingProducts() throws Exception {
+            mockMvc.perform(get("/api/v1/products/category/" + phones.getId())
+                    .header(HttpHeaders.IF_NONE_MATCH, listingETag))
+                .andExpect(status().isNotModified());
+        }
+
+        @Test
+        @DisplayName("商品異動提交後列表的 ETag 應改變")
+        void whenProductChanged_shouldChangeListingETag() throws Exception {
+            // Act
+            productService.updateProduct(phone.getId(), UpdateProductRequest.builder()
+                .price(new BigDecimal("27900.00")).build());
+
+            // Assert
+            mockMvc.perform(get("/api/v1/products/category/" + phones.getId())
+                    .header(HttpHeaders.IF_NONE_MATCH, listingETag))
+                .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("其他節點直接修改資料庫（本節點沒有事件）後列表的 ETag 應改變")
+        void whenChangedElsewhere_shouldChangeListingETag() throws Exception {
+            // Act
+            jdbcTemplate.update("UPDATE products SET price = price + 1, updated_at = ? WHERE id = ?",
+                LocalDateTime.now().plusSeconds(1), phone.getId());
+
+            // Assert
+            mockMvc.perform(get("/api/v1/products/category/" + phones.getId())
+                    .header(HttpHeaders.IF_NONE_MATCH, listingETag))
+                .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("批次停用無庫存商品（不發布事件）後列表的 ETag 應改變")
+        void whenBulkDeactivated_shouldChangeListingETag() throws Exception {
+            // Arrange
+            productService.updateProduct(phone.getId(), UpdateProductRequest.builder().stockQuantity(0).build());
+            String beforeJob = eTagOf("/api/v1/products/category/" + phones.getId());
+
+            // Act
+            jobRunner.submit(DeactivateOutOfStockProductsJob.NAME, JobTrigger.MANUAL).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            mockMvc.perform(get("/api/v1/products/category/" + phones.getId())
+                    .header(HttpHeaders.IF_NONE_MATCH, beforeJob))
+                .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("刪除停用商品的排程執行後，關鍵字搜尋的 ETag 應改變")
+        void whenPurged_shouldChangeSearchETag() throws Exception {
+            // Arrange：關鍵字搜尋仍會列出停用的商品
+            productService.updateProduct(phone.getId(), UpdateProductRequest.builder().stockQuantity(0).build());
+            productService.deleteProduct(phone.getId());
+            String beforeJob = eTagOf("/api/v1/products/search?keyword=iPhone");
+
+            // Act
+            jobRunner.submit(PurgeInactiveProductsJob.NAME, JobTrigger.MANUAL).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertThat(productRepository.findById(phone.getId())).isEmpty();
+            mockMvc.perform(get("/api/v1/products/search?keyword=iPhone").header(HttpHeaders.IF_NONE_MATCH, beforeJob))
+                .andExpect(status().isOk());
+        }
+    }
+
+    private String eTagOf(String url) throws Exception {
+        return mockMvc.perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void cleanUp() {
+        outboxEventRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+}
@@ -4,6 +4,7 @@ import com.ecommerce.dto.CreateProductRequest;
 import com.ecommerce.dto.ProductDTO;
 import com.ecommerce.dto.UpdateProductRequest;
 import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.service.CatalogReadService;
 import com.ecommerce.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Disabled;
@@ -35,7 +36,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  *
  * @SpringBootTest: 載入完整的 Spring Context
  * @AutoConfigureMockMvc: 自動配置 MockMvc
- * @MockBean: Mock ProductService 以隔離測試
+ * @MockBean: Mock ProductService（寫入）與 CatalogReadService（查詢）以隔離測試
  */
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -62,6 +63,9 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private CatalogReadService catalogReadService;
+
     @Nested
     @DisplayName("GET /api/v1/products")
     class GetAllProductsTests {
@@ -76,7 +80,7 @@ class ProductControllerTest {
             ProductDTO product2 = ProductDTO.builder()
                 .id(2L).name("商品B").price(new BigDecimal("200")).build();
 
-            when(productService.getAllProducts(any(Pageable.class)))
+            when(catalogReadService.getAllProducts(any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of(product1, product2)));
 
             // Act & Assert
@@ -106,7 +110,7 @@ class ProductControllerTest {
                 .active(true)
                 .build();
 
-            when(productService.getProductById(1L)).thenReturn(product);
+            when(catalogReadService.getProductById(1L)).thenReturn(product);
 
             // Act & Assert
             mockMvc.perform(get("/api/v1/products/1"))
@@ -120,7 +124,7 @@ class ProductControllerTest {
         @DisplayName("商品不存在時應返回 404")
         void whenProductNotExists_shouldReturn404() throws Exception {
             // Arrange
-            when(productService.getProductById(999L))
+            when(catalogReadService.getProductById(999L))
                 .thenThrow(new ResourceNotFoundException("商品", "id", 999L));
 
             // Act & Assert
@@ -310,7 +314,7 @@ class ProductControllerTest {
             ProductDTO product = ProductDTO.builder()
                 .id(1L).name("iPhone 15 Pro").build();
 
-            when(productService.searchProducts("iPhone")).thenReturn(List.of(product));
+            when(catalogReadService.searchProducts("iPhone")).thenReturn(List.of(product));
 
             // Act & Assert
             mockMvc.perform(get("/api/v1/products/search")
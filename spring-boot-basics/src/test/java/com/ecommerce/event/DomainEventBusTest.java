@@ -0,0 +1,303 @@
+package com.ecommerce.event;
+
+import com.ecommerce.dto.CreateProductRequest;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 事件匯流排測試
+ */
+@DisplayName("DomainEventBus 測試")
+class DomainEventBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DomainEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+    private DomainEventBus startBus(int ringSize, DomainEventConsumer... consumers) {
+        EventBusProperties properties = new EventBusProperties();
+        properties.setRingSize(ringSize);
+        properties.setPublishTimeout(Duration.ofMillis(20));
+        bus = new DomainEventBus(List.of(consumers), properties, meterRegistry);
+        bus.start();
+        return bus;
+    }
+
+    private static DomainEvent event(long productId) {
+        return new ProductChangedEvent(productId, ProductChangedEvent.Change.UPDATED);
+    }
+
+    @Nested
+    @DisplayName("發布與消費")
+    class PublishTests {
+
+        @Test
+        @DisplayName("每個消費者都應依發布順序收到所有事件")
+        void shouldDeliverAllEventsInOrderToEveryConsumer() throws Exception {
+            // Arrange
+            RecordingConsumer first = new RecordingConsumer("first", 100);
+            RecordingConsumer second = new RecordingConsumer("second", 100);
+            startBus(64, first, second);
+
+            // Act
+            for (int i = 0; i < 100; i++) {
+                assertThat(bus.publish(event(i))).isTrue();
+            }
+
+            // Assert
+            assertThat(first.await()).isTrue();
+            assertThat(second.await()).isTrue();
+            assertThat(first.productIds()).isEqualTo(second.productIds()).isSorted().hasSize(100);
+            assertThat(first.batchEnds).isPositive();
+            assertThat(meterRegistry.counter("ecommerce.eventbus.published").count()).isEqualTo(100);
+        }
+
+        @Test
+        @DisplayName("消費者拋出例外時應略過該事件並繼續消費")
+        void shouldContinueAfterConsumerFailure() throws Exception {
+            // Arrange
+            RecordingConsumer consumer = new RecordingConsumer("flaky", 2) {
+                @Override
+                public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+                    if (sequence == 0) {
+                        throw new IllegalStateException("處理失敗");
+                    }
+                    super.onEvent(event, sequence, endOfBatch);
+                }
+            };
+            startBus(8, consumer);
+
+            // Act
+            for (int i = 0; i < 3; i++) {
+                bus.publish(event(i));
+            }
+
+            // Assert
+            assertThat(consumer.await()).isTrue();
+            assertThat(consumer.productIds()).containsExactly(1L, 2L);
+            assertThat(meterRegistry.counter("ecommerce.eventbus.errors", "consumer", "flaky").count()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("背壓")
+    class BackpressureTests {
+
+        @Test
+        @DisplayName("緩衝區滿且等待逾時應丟棄事件，不會無限成長")
+        void shouldDropWhenSlowConsumerFillsBuffer() throws Exception {
+            // Arrange: 消費者卡在第一個事件，緩衝區只有 4 格
+            CountDownLatch release = new CountDownLatch(1);
+            DomainEventConsumer blocked = new DomainEventConsumer() {
+                @Override
+                public String getName() {
+                    return "blocked";
+                }
+
+                @Override
+                public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) throws Exception {
+                    release.await();
+                }
+            };
+            startBus(4, blocked);
+
+            // Act
+            int accepted = 0;
+            for (int i = 0; i < 10; i++) {
+                if (bus.publish(event(i))) {
+                    accepted++;
+                }
+            }
+
+            // Assert
+            assertThat(accepted).isEqualTo(4);
+            assertThat(meterRegistry.counter("ecommerce.eventbus.dropped").count()).isEqualTo(6);
+            assertThat(bus.getLag("blocked")).isEqualTo(4);
+            release.countDown();
+        }
+
+        @Test
+        @DisplayName("丟棄事件後應通知消費者一次（連續丟棄合併），讓它整份重建")
+        void shouldNotifyConsumersAfterDrop() throws Exception {
+            // Arrange
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch dropped = new CountDownLatch(1);
+            AtomicInteger notifications = new AtomicInteger();
+            DomainEventConsumer blocked = new DomainEventConsumer() {
+                @Override
+                public String getName() {
+                    return "blocked";
+                }
+
+                @Override
+                public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) throws Exception {
+                    release.await();
+                }
+
+                @Override
+                public void onDropped() {
+                    notifications.incrementAndGet();
+                    dropped.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            startBus(4, blocked);
+
+            // Act：丟棄 6 個事件；第一次通知還在執行時的丟棄只會再排定一輪
+            for (int i = 0; i < 10; i++) {
+                bus.publish(event(i));
+            }
+            assertThat(dropped.await(5, TimeUnit.SECONDS)).isTrue();
+            bus.publish(event(10));
+            bus.publish(event(11));
+            release.countDown();
+
+            // Assert
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (notifications.get() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(notifications.get()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("所有消費者處理完後應清除槽位的事件參照")
+        void shouldClearSlotAfterAllConsumers() throws Exception {
+            // Arrange
+            RecordingConsumer first = new RecordingConsumer("first", 1);
+            RecordingConsumer second = new RecordingConsumer("second", 1);
+            startBus(8, first, second);
+
+            // Act
+            bus.publish(event(1));
+
+            // Assert
+            assertThat(first.await()).isTrue();
+            assertThat(second.await()).isTrue();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (bus.slotEvent(0) != null && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(bus.slotEvent(0)).isNull();
+        }
+    }
+
+    /**
+     * 交易提交後才發布
+     */
+    @Nested
+    @SpringBootTest
+    @ActiveProfiles("test")
+    @DisplayName("交易整合")
+    class TransactionTests {
+
+        @Autowired
+        private ProductService productService;
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @Autowired
+        private RecordingConsumer productEvents;
+
+        @Test
+        @DisplayName("提交後應發布，回滾則不發布")
+        void shouldPublishOnlyAfterCommit() throws Exception {
+            // Arrange
+            CreateProductRequest request = CreateProductRequest.builder()
+                .name("測試商品")
+                .price(new BigDecimal("100.00"))
+                .stockQuantity(5)
+                .build();
+
+            // Act: 回滾的交易
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                productService.createProduct(request);
+                status.setRollbackOnly();
+            });
+            ProductDTO committed = productService.createProduct(request);
+
+            // Assert
+            assertThat(productEvents.await()).isTrue();
+            assertThat(productEvents.productIds()).containsExactly(committed.getId());
+        }
+
+        @TestConfiguration
+        static class ConsumerConfig {
+
+            @Bean
+            RecordingConsumer productEvents() {
+                return new RecordingConsumer("test-recorder", 1);
+            }
+        }
+    }
+
+    static class RecordingConsumer implements DomainEventConsumer {
+
+        private final String name;
+        private final CountDownLatch received;
+        final List<DomainEvent> events = new CopyOnWriteArrayList<>();
+        volatile int batchEnds;
+
+        RecordingConsumer(String name, int expected) {
+            this.name = name;
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+            if (event instanceof ProductChangedEvent) {
+                events.add(event);
+                received.countDown();
+            }
+            if (endOfBatch) {
+                batchEnds++;
+            }
+        }
+
+        boolean await() throws InterruptedException {
+            return received.await(5, TimeUnit.SECONDS);
+        }
+
+        List<Long> productIds() {
+            return events.stream().map(e -> ((ProductChangedEvent) e).productId()).toList();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.event;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 事件匯流排整合測試的共用工具
+ *
+ * 消費者在自己的執行緒非同步處理事件，斷言前先等指定的消費者追上（lag 歸零）
+ *
+ * <pre>
+ * productService.updateProduct(...);
+ * EventBusTestSupport.awaitConsumers(eventBus, lowStockService.getName());
+ * </pre>
+ */
+public final class EventBusTestSupport {
+
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private EventBusTestSupport() {
+    }
+
+    /**
+     * 等待所有指定的消費者處理完已發布的事件，逾時（5 秒）則斷言失敗
+     */
+    public static void awaitConsumers(DomainEventBus bus, String... consumerNames) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (lagging(bus, consumerNames) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        for (String name : consumerNames) {
+            assertThat(bus.getLag(name)).as(name).isZero();
+        }
+    }
+
+    /**
+     * 模擬兩筆庫存異動的發布順序與提交順序相反：
+     * 版本 3（middle → latest）先發布，版本 2（initial → middle）後到；
+     * 消費者應略過晚到的舊事件，最後的庫存為 latest
+     */
+    public static void publishOutOfOrderStock(DomainEventBus bus, long productId, int initial, int middle, int latest) {
+        bus.publish(new StockChangedEvent(productId, null, middle, latest, StockChangedEvent.Reason.ORDER_CREATED, 3));
+        bus.publish(new StockChangedEvent(productId, null, initial, middle, StockChangedEvent.Reason.ORDER_CREATED, 2));
+    }
+
+    private static boolean lagging(DomainEventBus bus, String... consumerNames) {
+        for (String name : consumerNames) {
+            if (bus.getLag(name) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
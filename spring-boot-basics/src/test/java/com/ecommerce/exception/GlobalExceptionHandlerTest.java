@@ -0,0 +1,97 @@
+package com.ecommerce.exception;
+
+import com.ecommerce.exception.GlobalExceptionHandler.ErrorResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 業務錯誤與全域異常處理器單元測試
+ */
+@DisplayName("GlobalExceptionHandler 單元測試")
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Nested
+    @DisplayName("DomainException")
+    class DomainExceptionTests {
+
+        @Test
+        @DisplayName("不應填入堆疊追蹤")
+        void shouldNotFillInStackTrace() {
+            // Act
+            ResourceNotFoundException ex = new ResourceNotFoundException("商品", "id", 999L);
+
+            // Assert
+            assertThat(ex.getStackTrace()).isEmpty();
+            assertThat(ex.getSuppressed()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("訊息應延遲組出並快取")
+        void shouldFormatMessageLazilyAndCacheIt() {
+            // Arrange
+            InsufficientStockException ex = new InsufficientStockException(1L, 5, 2);
+
+            // Act
+            String first = ex.getMessage();
+            String second = ex.getMessage();
+
+            // Assert
+            assertThat(first).isEqualTo("商品 ID 1 庫存不足: 需要 5 件，但只有 2 件");
+            assertThat(second).isSameAs(first);
+        }
+    }
+
+    @Nested
+    @DisplayName("業務錯誤回應")
+    class DomainErrorResponseTests {
+
+        @Test
+        @DisplayName("資源不存在應返回 404")
+        void shouldReturn404ForResourceNotFound() {
+            // Act
+            ResponseEntity<ErrorResponse> response =
+                handler.handleDomainException(new ResourceNotFoundException("商品", "id", 999L));
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+            assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+            assertThat(response.getBody().getError()).isEqualTo("Not Found");
+            assertThat(response.getBody().getMessage()).isEqualTo("商品 不存在: id = '999'");
+            assertThat(response.getBody().getTimestamp()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("庫存不足應返回 400")
+        void shouldReturn400ForInsufficientStock() {
+            // Act
+            ResponseEntity<ErrorResponse> response =
+                handler.handleDomainException(new InsufficientStockException(1L, 5, 2));
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody().getStatus()).isEqualTo(400);
+            assertThat(response.getBody().getError()).isEqualTo("Bad Request");
+        }
+
+        @Test
+        @DisplayName("不同回應應共用預先建立的標頭")
+        void shouldReuseTemplateHeaders() {
+            // Act
+            ResponseEntity<ErrorResponse> first =
+                handler.handleDomainException(new ResourceNotFoundException("商品", "id", 1L));
+            ResponseEntity<ErrorResponse> second =
+                handler.handleDomainException(new InsufficientStockException(1L, 5, 2));
+
+            // Assert
+            assertThat(second.getHeaders()).isSameAs(first.getHeaders());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 冪等鍵存放區單元測試
+ */
+@DisplayName("IdempotencyStore 單元測試")
+class IdempotencyStoreTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final IdempotencyStore<String> store = new IdempotencyStore<>(3, Duration.ofSeconds(10), clock::get);
+
+    @Nested
+    @DisplayName("reserve - 保留鍵")
+    class ReserveTests {
+
+        @Test
+        @DisplayName("第一個請求取得執行權，重複請求取得同一個 Entry")
+        void shouldGrantFirstReservationOnly() {
+            // Act
+            IdempotencyStore.Reservation<String> first = store.reserve("k", "hash");
+            IdempotencyStore.Reservation<String> second = store.reserve("k", "hash");
+
+            // Assert
+            assertThat(first.acquired()).isTrue();
+            assertThat(second.acquired()).isFalse();
+            assertThat(second.entry()).isSameAs(first.entry());
+        }
+
+        @Test
+        @DisplayName("重複請求應等到第一個請求完成並取得相同結果")
+        void shouldWaitForInFlightResult() throws Exception {
+            // Arrange
+            IdempotencyStore.Entry<String> entry = store.reserve("k", "hash").entry();
+            CountDownLatch waiting = new CountDownLatch(1);
+            CompletableFuture<String> duplicate = CompletableFuture.supplyAsync(() -> {
+                IdempotencyStore.Reservation<String> reservation = store.reserve("k", "hash");
+                waiting.countDown();
+                return reservation.entry().getResult().join();
+            });
+            assertThat(waiting.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Act
+            store.complete(entry, "order-1");
+
+            // Assert
+            assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo("order-1");
+        }
+
+        @Test
+        @DisplayName("失敗後應移除鍵，下一個請求重新取得執行權")
+        void shouldReleaseKeyOnFailure() {
+            // Arrange
+            IdempotencyStore.Entry<String> entry = store.reserve("k", "hash").entry();
+
+            // Act
+            store.fail(entry, new IllegalStateException("庫存不足"));
+
+            // Assert
+            assertThatThrownBy(() -> entry.getResult().join()).hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(store.reserve("k", "hash").acquired()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("淘汰")
+    class EvictionTests {
+
+        @Test
+        @DisplayName("過期的鍵應可重新保留")
+        void shouldExpireAfterTtl() {
+            // Arrange
+            store.complete(store.reserve("k", "hash").entry(), "order-1");
+
+            // Act
+            clock.addAndGet(Duration.ofSeconds(11).toNanos());
+
+            // Assert
+            assertThat(store.reserve("k", "hash").acquired()).isTrue();
+        }
+
+        @Test
+        @DisplayName("超過上限時應淘汰最舊的鍵")
+        void shouldEvictEldestBeyondCapacity() {
+            // Arrange
+            for (String key : new String[]{"a", "b", "c"}) {
+                store.complete(store.reserve(key, "hash").entry(), key);
+            }
+
+            // Act
+            store.reserve("d", "hash");
+
+            // Assert
+            assertThat(store.size()).isEqualTo(3);
+            assertThat(store.reserve("a", "hash").acquired()).isTrue();
+            assertThat(store.reserve("c", "hash").acquired()).isFalse();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.ecommerce.inventory;
+
+import com.ecommerce.TestDataFixture;
+import com.ecommerce.dto.CreateOrderRequest;
+import com.ecommerce.dto.LowStockAlertDTO;
+import com.ecommerce.dto.OrderDTO;
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.UpdateProductRequest;
+import com.ecommerce.event.DomainEventBus;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.ProductInsightService;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static com.ecommerce.event.EventBusTestSupport.awaitConsumers;
+import static com.ecommerce.event.EventBusTestSupport.publishOutOfOrderStock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 低庫存索引與警示整合測試
+ *
+ * 索引由事件匯流排的消費者執行緒非同步更新，斷言前先等消費者追上
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("低庫存索引與警示整合測試")
+class LowStockServiceTest {
+
+    @Autowired
+    private LowStockService lowStockService;
+
+    @Autowired
+    private TestDataFixture testData;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductInsightService productInsightService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    private ProductDTO keyboard;
+    private ProductDTO mouse;
+    private long lastAlert;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        testData.cleanUp();
+        lowStockService.rebuild();
+        keyboard = testData.product("機械鍵盤", "990.00", 12, null);
+        mouse = testData.product("無線滑鼠", "990.00", 30, null);
+        awaitConsumers(eventBus, lowStockService.getName());
+        List<LowStockAlertDTO> existing = productInsightService.getLowStockAlerts(0, 1000);
+        lastAlert = existing.isEmpty() ? 0 : existing.get(existing.size() - 1).getSequence();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.cleanUp();
+    }
+
+    @Test
+    @DisplayName("下單、取消、修改庫存後，低庫存查詢依庫存排序並發出跨過門檻的警示")
+    void stockMutations_ShouldUpdateIndexAndEmitAlerts() throws InterruptedException {
+        // Act：鍵盤 12 → 4（跨過 10），滑鼠 30 → 0（跨過 10 與 1）
+        OrderDTO order = orderService.createOrder(order(keyboard.getId(), 8));
+        productService.updateProduct(mouse.getId(), UpdateProductRequest.builder().stockQuantity(0).build());
+        awaitConsumers(eventBus, lowStockService.getName());
+        List<ProductDTO> lowStock = productInsightService.getLowStockProducts(10);
+
+        // Assert
+        assertThat(lowStock).extracting(ProductDTO::getId).containsExactly(mouse.getId(), keyboard.getId());
+        assertThat(productInsightService.getLowStockAlerts(lastAlert, 100))
+            .extracting(LowStockAlertDTO::getProductId, LowStockAlertDTO::getThreshold, LowStockAlertDTO::getDirection)
+            .containsExactly(
+                tuple(keyboard.getId(), 10, LowStockAlert.Direction.BELOW),
+                tuple(mouse.getId(), 1, LowStockAlert.Direction.BELOW),
+                tuple(mouse.getId(), 10, LowStockAlert.Direction.BELOW));
+
+        // Act：取消訂單，鍵盤回到 12
+        orderService.cancelOrder(order.getId());
+        awaitConsumers(eventBus, lowStockService.getName());
+
+        // Assert
+        assertThat(productInsightService.getLowStockProducts(10)).extracting(ProductDTO::getId).containsExactly(mouse.getId());
+        List<LowStockAlertDTO> alerts = productInsightService.getLowStockAlerts(lastAlert, 100);
+        assertThat(alerts.get(alerts.size() - 1).getDirection()).isEqualTo(LowStockAlert.Direction.RECOVERED);
+        assertThat(alerts.get(alerts.size() - 1).getProductId()).isEqualTo(keyboard.getId());
+    }
+
+    @Test
+    @DisplayName("停用的商品不列入低庫存，也不發出警示")
+    void deactivatedProduct_ShouldLeaveIndex() throws InterruptedException {
+        // Act
+        productService.deleteProduct(keyboard.getId());
+        awaitConsumers(eventBus, lowStockService.getName());
+        productService.updateProduct(keyboard.getId(), UpdateProductRequest.builder().stockQuantity(0).build());
+        awaitConsumers(eventBus, lowStockService.getName());
+
+        // Assert
+        assertThat(productInsightService.getLowStockProducts(100)).extracting(ProductDTO::getId).containsExactly(mouse.getId());
+        assertThat(productInsightService.getLowStockAlerts(lastAlert, 100)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("較新的庫存事件先到時，晚到的舊事件不應蓋掉索引中的庫存")
+    void staleStockEvent_ShouldBeIgnored() throws InterruptedException {
+        // Act：版本 3（9 → 4）先發布，版本 2（12 → 9）後到
+        publishOutOfOrderStock(eventBus, keyboard.getId(), 12, 9, 4);
+        awaitConsumers(eventBus, lowStockService.getName());
+
+        // Assert：索引中仍是 4，低於 5
+        assertThat(productInsightService.getLowStockProducts(5)).extracting(ProductDTO::getId).containsExactly(keyboard.getId());
+    }
+
+    private static CreateOrderRequest order(Long productId, int quantity) {
+        return CreateOrderRequest.builder()
+            .customerName("王小明")
+            .customerEmail("customer@example.com")
+            .shippingAddress("台北市信義區信義路五段7號")
+            .items(List.of(OrderItemRequest.builder().productId(productId).quantity(quantity).build()))
+            .build();
+    }
+}
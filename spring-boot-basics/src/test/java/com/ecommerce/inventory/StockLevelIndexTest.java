@@ -0,0 +1,91 @@
+package com.ecommerce.inventory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 庫存索引單元測試
+ */
+@DisplayName("庫存索引測試")
+class StockLevelIndexTest {
+
+    private StockLevelIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new StockLevelIndex(16);
+        index.put(1, 50);
+        index.put(2, 3);
+        index.put(3, 0);
+        index.put(4, 3);
+        index.put(5, 9);
+    }
+
+    @Nested
+    @DisplayName("範圍查詢")
+    class RangeTests {
+
+        @Test
+        @DisplayName("應依（庫存, 商品 ID）排序回傳庫存小於門檻的商品")
+        void below_ShouldReturnSortedRange() {
+            // Act & Assert
+            assertThat(index.below(10, 100)).containsExactly(3, 2, 4, 5);
+            assertThat(index.below(1, 100)).containsExactly(3);
+            assertThat(index.below(0, 100)).isEmpty();
+            assertThat(index.countBelow(10)).isEqualTo(4);
+            assertThat(index.countBelow(Integer.MAX_VALUE)).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("超過 limit 時只回傳前面幾筆")
+        void below_WithLimit_ShouldTruncate() {
+            assertThat(index.below(10, 2)).containsExactly(3, 2);
+        }
+    }
+
+    @Nested
+    @DisplayName("變更")
+    class ChangeTests {
+
+        @Test
+        @DisplayName("更新庫存時應移到新的位置並回傳原本的庫存")
+        void put_WhenStockChanges_ShouldMove() {
+            // Act
+            int previous = index.put(1, 2);
+            int missing = index.put(6, 7);
+
+            // Assert
+            assertThat(previous).isEqualTo(50);
+            assertThat(missing).isEqualTo(StockLevelIndex.ABSENT);
+            assertThat(index.below(10, 100)).containsExactly(3, 1, 2, 4, 6, 5);
+            assertThat(index.stockOf(1)).isEqualTo(2);
+            assertThat(index.size()).isEqualTo(6);
+        }
+
+        @Test
+        @DisplayName("移除後不再出現，移除最後一個商品的庫存數量也一併清掉")
+        void remove_ShouldDropFromRange() {
+            // Act
+            int removed = index.remove(3);
+            int missing = index.remove(3);
+
+            // Assert
+            assertThat(removed).isZero();
+            assertThat(missing).isEqualTo(StockLevelIndex.ABSENT);
+            assertThat(index.below(1, 100)).isEmpty();
+            assertThat(index.stockOf(3)).isEqualTo(StockLevelIndex.ABSENT);
+            assertThat(index.size()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("負數庫存應拋出例外")
+        void put_WhenNegative_ShouldThrow() {
+            assertThatThrownBy(() -> index.put(7, -1)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.ecommerce.job;
+
+import com.ecommerce.dto.CreateOrderRequest;
+import com.ecommerce.dto.OrderDTO;
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.OrderStatus;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * 取消超時未付款訂單工作整合測試
+ *
+ * 工作在自己的執行緒與交易中執行，測試本身不能使用 @Transactional，
+ * 資料在 @AfterEach 中清除。
+ */
+@SpringBootTest(properties = {
+    "ecommerce.job.definitions.cancel-unpaid-orders.chunk-size=2",
+    "ecommerce.job.definitions.cancel-unpaid-orders.pause-between-chunks=0ms",
+    "ecommerce.job.definitions.cancel-unpaid-orders.parameters.unpaid-hours=0"
+})
+@ActiveProfiles("test")
+@DisplayName("CancelUnpaidOrdersJob 整合測試")
+class CancelUnpaidOrdersJobTest {
+
+    @Autowired
+    private JobRunner jobRunner;
+
+    @SpyBean
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+
+        Category category = categoryRepository.save(Category.builder().name("電子產品").build());
+        product = productRepository.save(Product.builder()
+            .name("AirPods Pro")
+            .price(new BigDecimal("7990.00"))
+            .stockQuantity(10)
+            .category(category)
+            .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("應分區塊取消所有超時訂單並恢復庫存")
+    void shouldCancelUnpaidOrdersInChunks() throws Exception {
+        // Arrange: 5 筆訂單，chunk-size=2 會分成 3 個區塊
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            orderIds.add(createOrder().getId());
+        }
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(5);
+
+        // Act
+        JobRun run = jobRunner.submit(CancelUnpaidOrdersJob.NAME, JobTrigger.MANUAL).get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(run.status()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(run.rows()).isEqualTo(5);
+        assertThat(orderRepository.findAllById(orderIds))
+            .allSatisfy(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED));
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("單筆訂單取消失敗時應略過，同區塊的其他訂單照常取消")
+    void whenOneOrderFails_shouldCancelOthers() throws Exception {
+        // Arrange: 3 筆訂單，chunk-size=2，第一個區塊的第一筆取消失敗
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orderIds.add(createOrder().getId());
+        }
+        Long failing = orderIds.get(0);
+        doThrow(new IllegalStateException("訂單已被付款")).when(orderService).cancelOrder(failing);
+
+        // Act
+        JobRun run = jobRunner.submit(CancelUnpaidOrdersJob.NAME, JobTrigger.MANUAL).get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(run.status()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(run.rows()).isEqualTo(2);
+        assertThat(orderRepository.findById(failing).orElseThrow().getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(orderRepository.findAllById(orderIds.subList(1, 3)))
+            .allSatisfy(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED));
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(9);
+    }
+
+    private OrderDTO createOrder() {
+        return orderService.createOrder(CreateOrderRequest.builder()
+            .customerName("客戶")
+            .customerEmail("test@example.com")
+            .shippingAddress("台北市")
+            .items(List.of(OrderItemRequest.builder()
+                .productId(product.getId())
+                .quantity(1)
+                .build()))
+            .build());
+    }
+}
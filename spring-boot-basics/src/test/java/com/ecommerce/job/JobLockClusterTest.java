@@ -0,0 +1,129 @@
+package com.ecommerce.job;
+
+import com.ecommerce.ECommerceApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 叢集租約鎖測試
+ *
+ * 啟動兩個應用程式上下文（node-a、node-b），共用同一個檔案模式的 H2 資料庫，
+ * 模擬兩個實例競爭同一個工作。
+ * 兩個上下文都使用 ddl-auto=update，避免後啟動的實例刪掉前一個建立的表。
+ */
+@DisplayName("叢集租約鎖測試")
+class JobLockClusterTest {
+
+    private static final String JOB = DeactivateOutOfStockProductsJob.NAME;
+
+    @TempDir
+    static Path databaseDir;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        String url = "jdbc:h2:file:" + databaseDir.resolve("cluster") + ";DB_CLOSE_DELAY=-1";
+        nodeA = startNode("node-a", url);
+        nodeB = startNode("node-b", url);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, String url) {
+        // 以命令列參數傳入，優先於 application.yml（builder.properties() 只是預設值）
+        return new SpringApplicationBuilder(ECommerceApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .run(
+                "--spring.datasource.url=" + url,
+                "--spring.jpa.hibernate.ddl-auto=update",
+                // 兩個上下文在同一個 JVM，不共用 JCache CacheManager
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "--ecommerce.job.lock.node-id=" + nodeId,
+                "--ecommerce.job.lock.lease-duration=1s");
+    }
+
+    private static JobLockManager lockManager(ConfigurableApplicationContext node) {
+        return node.getBean(JobLockManager.class);
+    }
+
+    @Test
+    @DisplayName("同一時間只有一個節點能取得租約，釋放後由另一個節點接手並取得更大的 fencing token")
+    void shouldGrantLeaseToOneNodeAtATime() {
+        // Arrange
+        JobLease leaseA = lockManager(nodeA).tryAcquire(JOB).orElseThrow();
+
+        // Act & Assert: node-b 取不到
+        assertThat(lockManager(nodeB).tryAcquire(JOB)).isEmpty();
+
+        // Act & Assert: node-a 釋放後 node-b 接手
+        lockManager(nodeA).release(leaseA);
+        JobLease leaseB = lockManager(nodeB).tryAcquire(JOB).orElseThrow();
+        assertThat(leaseB.owner()).isEqualTo("node-b");
+        assertThat(leaseB.fencingToken()).isGreaterThan(leaseA.fencingToken());
+
+        // Assert: node-a 的舊 token 無法續約，也無法通過寫入前的確認
+        assertThat(lockManager(nodeA).renew(leaseA)).isFalse();
+        TransactionTemplate transaction = nodeA.getBean(TransactionTemplate.class);
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> lockManager(nodeA).verify(leaseA)))
+            .isInstanceOf(LeaseLostException.class);
+
+        lockManager(nodeB).release(leaseB);
+    }
+
+    @Test
+    @DisplayName("持有節點當掉（不續約也不釋放）時，租約過期後應由其他節點接手")
+    void shouldFailOverAfterLeaseExpires() throws Exception {
+        // Arrange: node-a 取得租約後「當掉」
+        JobLease leaseA = lockManager(nodeA).tryAcquire(JOB).orElseThrow();
+        assertThat(lockManager(nodeB).tryAcquire(JOB)).isEmpty();
+
+        // Act: 等待超過租約長度
+        TimeUnit.MILLISECONDS.sleep(1_500);
+        Optional<JobLease> leaseB = lockManager(nodeB).tryAcquire(JOB);
+
+        // Assert
+        assertThat(leaseB).isPresent();
+        assertThat(leaseB.get().fencingToken()).isGreaterThan(leaseA.fencingToken());
+
+        lockManager(nodeB).release(leaseB.get());
+    }
+
+    @Test
+    @DisplayName("另一個節點持有租約時，JobRunner 應記錄為 SKIPPED")
+    void shouldSkipJobWhenOtherNodeHoldsLease() throws Exception {
+        // Arrange
+        JobLease leaseA = lockManager(nodeA).tryAcquire(JOB).orElseThrow();
+
+        // Act
+        JobRun run = nodeB.getBean(JobRunner.class).submit(JOB, JobTrigger.SCHEDULED).get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(run.status()).isEqualTo(JobStatus.SKIPPED);
+
+        lockManager(nodeA).release(leaseA);
+        JobRun retried = nodeB.getBean(JobRunner.class).submit(JOB, JobTrigger.SCHEDULED).get(10, TimeUnit.SECONDS);
+        assertThat(retried.status()).isEqualTo(JobStatus.SUCCEEDED);
+    }
+}
@@ -0,0 +1,277 @@
+package com.ecommerce.job;
+
+import com.ecommerce.exception.JobAlreadyRunningException;
+import com.ecommerce.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 背景工作執行器單元測試
+ */
+@DisplayName("JobRunner 單元測試")
+class JobRunnerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JobProperties properties = new JobProperties();
+    private JobRunner jobRunner;
+
+    @AfterEach
+    void tearDown() {
+        if (jobRunner != null) {
+            jobRunner.destroy();
+        }
+    }
+
+    private final JobLockManager lockManager = mock(JobLockManager.class);
+
+    @BeforeEach
+    void setUp() {
+        when(lockManager.getLeaseDuration()).thenReturn(Duration.ofMinutes(1));
+        when(lockManager.tryAcquire(anyString())).thenAnswer(invocation ->
+            Optional.of(new JobLease(invocation.getArgument(0), "node-a", 1)));
+    }
+
+    private JobRunner runnerFor(MaintenanceJob... jobs) {
+        jobRunner = new JobRunner(List.of(jobs), properties, mock(PlatformTransactionManager.class),
+            meterRegistry, lockManager);
+        return jobRunner;
+    }
+
+    private static MaintenanceJob job(String name, JobBody body) {
+        return new MaintenanceJob() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public long run(JobExecutionContext context) throws Exception {
+                return body.run(context);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface JobBody {
+        long run(JobExecutionContext context) throws Exception;
+    }
+
+    @Nested
+    @DisplayName("執行與記錄")
+    class RunTests {
+
+        @Test
+        @DisplayName("成功執行應記錄資料列數與指標")
+        void shouldRecordRunAndMetrics() throws Exception {
+            // Arrange
+            JobRunner runner = runnerFor(job("sample", context -> 42));
+
+            // Act
+            JobRun run = runner.submit("sample", JobTrigger.MANUAL).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertThat(run.status()).isEqualTo(JobStatus.SUCCEEDED);
+            assertThat(run.rows()).isEqualTo(42);
+            assertThat(runner.getHistory("sample")).containsExactly(run);
+            assertThat(meterRegistry.get("ecommerce.job.duration")
+                .tag("job", "sample").tag("status", "SUCCEEDED").timer().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("ecommerce.job.rows").tag("job", "sample").summary().totalAmount())
+                .isEqualTo(42);
+        }
+
+        @Test
+        @DisplayName("工作拋出例外應記錄為 FAILED")
+        void shouldRecordFailure() throws Exception {
+            // Arrange
+            JobRunner runner = runnerFor(job("broken", context -> {
+                throw new IllegalStateException("資料庫無法連線");
+            }));
+
+            // Act
+            JobRun run = runner.submit("broken", JobTrigger.MANUAL).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertThat(run.status()).isEqualTo(JobStatus.FAILED);
+            assertThat(run.error()).isEqualTo("資料庫無法連線");
+            assertThat(runner.getSummaries()).singleElement()
+                .satisfies(summary -> assertThat(summary.running()).isFalse());
+        }
+
+        @Test
+        @DisplayName("執行記錄應只保留設定的筆數，由新到舊")
+        void shouldKeepBoundedHistory() throws Exception {
+            // Arrange
+            properties.setHistorySize(2);
+            JobRunner runner = runnerFor(job("sample", context -> 1));
+
+            // Act
+            for (int i = 0; i < 3; i++) {
+                runner.submit("sample", i == 2 ? JobTrigger.SCHEDULED : JobTrigger.MANUAL).get(5, TimeUnit.SECONDS);
+            }
+
+            // Assert
+            assertThat(runner.getHistory("sample"))
+                .extracting(JobRun::trigger)
+                .containsExactly(JobTrigger.SCHEDULED, JobTrigger.MANUAL);
+        }
+
+        @Test
+        @DisplayName("不存在的工作應拋出 ResourceNotFoundException")
+        void shouldRejectUnknownJob() {
+            // Arrange
+            JobRunner runner = runnerFor();
+
+            // Act & Assert
+            assertThatThrownBy(() -> runner.submit("unknown", JobTrigger.MANUAL))
+                .isInstanceOf(ResourceNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("重疊防護")
+    class OverlapTests {
+
+        @Test
+        @DisplayName("執行中再次觸發應被拒絕並計數")
+        void shouldRejectOverlappingRun() throws Exception {
+            // Arrange
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            JobRunner runner = runnerFor(job("slow", context -> {
+                started.countDown();
+                release.await();
+                return 0;
+            }));
+            CompletableFuture<JobRun> first = runner.submit("slow", JobTrigger.MANUAL);
+            started.await(5, TimeUnit.SECONDS);
+
+            // Act & Assert
+            assertThatThrownBy(() -> runner.submit("slow", JobTrigger.MANUAL))
+                .isInstanceOf(JobAlreadyRunningException.class);
+            runner.trigger("slow");
+            assertThat(meterRegistry.get("ecommerce.job.skipped").tag("job", "slow").counter().count())
+                .isEqualTo(2);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).status()).isEqualTo(JobStatus.SUCCEEDED);
+            assertThat(runner.submit("slow", JobTrigger.MANUAL).get(5, TimeUnit.SECONDS).status())
+                .isEqualTo(JobStatus.SUCCEEDED);
+        }
+    }
+
+    @Nested
+    @DisplayName("叢集租約")
+    class LeaseTests {
+
+        @Test
+        @DisplayName("租約由其他節點持有時應記錄為 SKIPPED")
+        void shouldSkipWhenLeaseHeldElsewhere() throws Exception {
+            // Arrange
+            when(lockManager.tryAcquire("sample")).thenReturn(Optional.empty());
+            JobRunner runner = runnerFor(job("sample", context -> 42));
+
+            // Act
+            JobRun run = runner.submit("sample", JobTrigger.SCHEDULED).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertThat(run.status()).isEqualTo(JobStatus.SKIPPED);
+            assertThat(meterRegistry.get("ecommerce.job.skipped")
+                .tag("job", "sample").tag("reason", "lease").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("執行結束後應釋放租約")
+        void shouldReleaseLeaseAfterRun() throws Exception {
+            // Arrange
+            JobRunner runner = runnerFor(job("sample", context -> 1));
+
+            // Act
+            runner.submit("sample", JobTrigger.MANUAL).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            verify(lockManager).release(new JobLease("sample", "node-a", 1));
+        }
+
+        @Test
+        @DisplayName("區塊確認租約失敗時應中止執行")
+        void shouldAbortWhenLeaseLost() throws Exception {
+            // Arrange
+            JobProperties.Definition definition = new JobProperties.Definition();
+            definition.setChunkSize(1);
+            definition.setPauseBetweenChunks(Duration.ZERO);
+            properties.getDefinitions().put("chunked", definition);
+            JobLease lease = new JobLease("chunked", "node-a", 1);
+            doThrow(new LeaseLostException(lease)).when(lockManager).verify(lease);
+            List<Long> written = new ArrayList<>();
+
+            JobRunner runner = runnerFor(job("chunked", context -> context.processInChunks(
+                (afterId, limit) -> List.of(afterId + 1),
+                chunk -> {
+                    written.addAll(chunk);
+                    return chunk.size();
+                })));
+
+            // Act
+            JobRun run = runner.submit("chunked", JobTrigger.MANUAL).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertThat(run.status()).isEqualTo(JobStatus.FAILED);
+            assertThat(run.error()).contains("租約已失去");
+            assertThat(written).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("分區塊處理")
+    class ChunkTests {
+
+        @Test
+        @DisplayName("單一區塊失敗時應繼續處理後續區塊，並標記為 FAILED")
+        void shouldContinueAfterFailedChunk() throws Exception {
+            // Arrange
+            JobProperties.Definition definition = new JobProperties.Definition();
+            definition.setChunkSize(2);
+            definition.setPauseBetweenChunks(Duration.ZERO);
+            properties.getDefinitions().put("chunked", definition);
+            List<Long> ids = List.of(1L, 2L, 3L, 4L, 5L);
+
+            JobRunner runner = runnerFor(job("chunked", context -> context.processInChunks(
+                (afterId, limit) -> ids.stream().filter(id -> id > afterId).limit(limit).toList(),
+                chunk -> {
+                    if (chunk.contains(3L)) {
+                        throw new IllegalStateException("區塊失敗");
+                    }
+                    return chunk.size();
+                })));
+
+            // Act
+            JobRun run = runner.submit("chunked", JobTrigger.MANUAL).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertThat(run.rows()).isEqualTo(3);   // [1,2] 與 [5] 成功，[3,4] 失敗
+            assertThat(run.status()).isEqualTo(JobStatus.FAILED);
+            assertThat(run.error()).contains("1 個區塊");
+        }
+    }
+}
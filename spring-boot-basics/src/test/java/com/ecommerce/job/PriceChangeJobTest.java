@@ -0,0 +1,210 @@
+package com.ecommerce.job;
+
+import com.ecommerce.dto.PriceChangeDTO;
+import com.ecommerce.dto.PriceChangeRequest;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.PriceChange;
+import com.ecommerce.entity.PriceChangeStatus;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.PriceChangeRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.PriceChangeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批次調價工作整合測試
+ *
+ * 工作在自己的執行緒與交易中執行，測試本身不能使用 @Transactional，
+ * 資料在 @AfterEach 中清除。
+ * chunk-size=2、區塊間不暫停，設定在 application-test.yml
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("PriceChangeJob 整合測試")
+class PriceChangeJobTest {
+
+    @Autowired
+    private JobRunner jobRunner;
+
+    @Autowired
+    private PriceChangeService priceChangeService;
+
+    @Autowired
+    private PriceChangeRepository priceChangeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Category category;
+    private List<Long> productIds;
+    private Long otherProductId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        category = categoryRepository.save(Category.builder().name("電子產品").build());
+        Category other = categoryRepository.save(Category.builder().name("書籍").build());
+
+        // 5 個商品，chunk-size=2 會分成 3 個區塊
+        productIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            productIds.add(productRepository.save(product("商品" + i, category)).getId());
+        }
+        otherProductId = productRepository.save(product("其他分類商品", other)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("提交後應分區塊調整分類下所有商品價格並標記完成")
+    void shouldApplyPriceChangeInChunks() throws Exception {
+        // Act
+        PriceChangeDTO submitted = priceChangeService.submit(PriceChangeRequest.builder()
+            .categoryId(category.getId())
+            .multiplier(new BigDecimal("1.1"))
+            .build());
+        PriceChangeDTO result = awaitCompletion(submitted.getId());
+
+        // Assert
+        assertThat(submitted.getTotalCount()).isEqualTo(5);
+        assertThat(result.getStatus()).isEqualTo(PriceChangeStatus.COMPLETED);
+        assertThat(result.getProcessedCount()).isEqualTo(5);
+        assertThat(result.getLastProductId()).isEqualTo(productIds.get(4));
+        assertThat(result.getCompletedAt()).isNotNull();
+        assertThat(productRepository.findAllById(productIds))
+            .allSatisfy(p -> assertThat(p.getPrice()).isEqualByComparingTo("110.00"));
+        assertThat(productRepository.findById(otherProductId).orElseThrow().getPrice())
+            .isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    @DisplayName("中斷的作業應從檢查點續跑，已調整的商品不重複調整")
+    void shouldResumeFromCheckpoint() throws Exception {
+        // Arrange: 模擬前兩個商品已調整、節點在第二個區塊後當掉（狀態停在 RUNNING）
+        for (Long id : productIds.subList(0, 2)) {
+            Product product = productRepository.findById(id).orElseThrow();
+            product.setPrice(new BigDecimal("200.00"));
+            productRepository.save(product);
+        }
+        PriceChange change = priceChangeRepository.save(PriceChange.builder()
+            .categoryId(category.getId())
+            .multiplier(new BigDecimal("2"))
+            .status(PriceChangeStatus.RUNNING)
+            .lastProductId(productIds.get(1))
+            .processedCount(2)
+            .totalCount(5)
+            .build());
+
+        // Act: 排程觸發
+        JobRun run = jobRunner.submit(PriceChangeJob.NAME, JobTrigger.SCHEDULED).get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(run.status()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(run.rows()).isEqualTo(3);
+        PriceChangeDTO result = priceChangeService.getPriceChange(change.getId());
+        assertThat(result.getStatus()).isEqualTo(PriceChangeStatus.COMPLETED);
+        assertThat(result.getProcessedCount()).isEqualTo(5);
+        assertThat(productRepository.findAllById(productIds))
+            .allSatisfy(p -> assertThat(p.getPrice()).isEqualByComparingTo("200.00"));
+    }
+
+    @Test
+    @DisplayName("區塊執行時有訂單同時修改商品，調價仍應完成且不覆蓋庫存")
+    void shouldCompleteWhenOrderModifiesProductConcurrently() throws Exception {
+        // Arrange
+        PriceChange change = priceChangeRepository.save(PriceChange.builder()
+            .categoryId(category.getId())
+            .multiplier(new BigDecimal("1.1"))
+            .status(PriceChangeStatus.PENDING)
+            .totalCount(5)
+            .build());
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act：模擬下單的交易鎖住第一個商品並扣庫存（版本加一），作業開始處理區塊後才提交
+        CompletableFuture<Void> order = CompletableFuture.runAsync(() ->
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Product product = productRepository.findAllByIdForUpdate(List.of(productIds.get(0))).get(0);
+                product.setStockQuantity(3);
+                productRepository.saveAndFlush(product);
+                locked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<JobRun> run = jobRunner.submit(PriceChangeJob.NAME, JobTrigger.SCHEDULED);
+        awaitStatus(change.getId(), PriceChangeStatus.RUNNING);
+        // 持有鎖一段時間（短於 H2 的鎖等待逾時）再提交
+        Thread.sleep(200);
+        release.countDown();
+        order.get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(run.get(10, TimeUnit.SECONDS).status()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(priceChangeService.getPriceChange(change.getId()).getStatus())
+            .isEqualTo(PriceChangeStatus.COMPLETED);
+        Product first = productRepository.findById(productIds.get(0)).orElseThrow();
+        assertThat(first.getPrice()).isEqualByComparingTo("110.00");
+        assertThat(first.getStockQuantity()).isEqualTo(3);
+    }
+
+    private PriceChangeDTO awaitCompletion(Long id) throws InterruptedException {
+        return awaitStatus(id, PriceChangeStatus.COMPLETED);
+    }
+
+    private PriceChangeDTO awaitStatus(Long id, PriceChangeStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        PriceChangeDTO change = priceChangeService.getPriceChange(id);
+        while (change.getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            change = priceChangeService.getPriceChange(id);
+        }
+        return change;
+    }
+
+    private Product product(String name, Category category) {
+        return Product.builder()
+            .name(name)
+            .price(new BigDecimal("100.00"))
+            .stockQuantity(10)
+            .category(category)
+            .build();
+    }
+
+    private void cleanUp() {
+        priceChangeRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.monitoring;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 限制測試方法執行期間的 SQL 語句數
+ *
+ * 統計範圍從 @BeforeEach 之後開始、到測試方法結束為止，
+ * 不包含測試資料的準備。超過上限或偵測到 N+1 候選時測試失敗。
+ *
+ * <pre>
+ * &#64;Test
+ * &#64;MaxQueries(4)
+ * void shouldCreateOrder() { ... }
+ * </pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(MaxQueriesExtension.class)
+public @interface MaxQueries {
+
+    /**
+     * 允許的最大語句數
+     */
+    int value();
+
+    /**
+     * 同一條 SELECT 以不同參數執行達到此次數即視為 N+1；0 表示不檢查
+     */
+    int nPlusOneThreshold() default 3;
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.monitoring;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link MaxQueries} 的 JUnit 5 擴充
+ *
+ * BeforeTestExecutionCallback 在 @BeforeEach 之後執行，
+ * 因此統計只涵蓋測試方法本身（例如 MockMvc 請求）。
+ */
+public class MaxQueriesExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final Namespace NAMESPACE = Namespace.create(MaxQueriesExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementRecorder.begin());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementStats stats = context.getStore(NAMESPACE)
+            .remove(context.getUniqueId(), SqlStatementStats.class);
+        if (stats == null) {
+            return;
+        }
+        SqlStatementRecorder.end(stats);
+
+        MaxQueries maxQueries = context.getRequiredTestMethod().getAnnotation(MaxQueries.class);
+        assertThat(stats.getStatementCount())
+            .as("測試方法執行的 SQL 語句數")
+            .isLessThanOrEqualTo(maxQueries.value());
+
+        if (maxQueries.nPlusOneThreshold() > 0) {
+            List<String> candidates = stats.findNPlusOneCandidates(maxQueries.nPlusOneThreshold());
+            assertThat(candidates)
+                .as("N+1 候選查詢")
+                .isEmpty();
+        }
+    }
+}
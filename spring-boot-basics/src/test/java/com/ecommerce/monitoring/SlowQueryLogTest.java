@@ -0,0 +1,145 @@
+package com.ecommerce.monitoring;
+
+import com.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 慢查詢記錄測試
+ */
+@DisplayName("慢查詢記錄測試")
+class SlowQueryLogTest {
+
+    @Nested
+    @DisplayName("環形緩衝區")
+    class RingBufferTests {
+
+        private SlowQueryLog slowQueryLog;
+
+        @BeforeEach
+        void setUp() {
+            SqlStatsProperties.SlowQuery properties = new SqlStatsProperties.SlowQuery();
+            properties.setCapacity(3);
+            slowQueryLog = new SlowQueryLog(properties);
+        }
+
+        @Test
+        @DisplayName("應由新到舊列出記錄")
+        void shouldListNewestFirst() {
+            // Act
+            slowQueryLog.record(query("select 1"));
+            slowQueryLog.record(query("select 2"));
+
+            // Assert
+            assertThat(slowQueryLog.recent())
+                .extracting(SlowQuery::sql)
+                .containsExactly("select 2", "select 1");
+        }
+
+        @Test
+        @DisplayName("超過容量時應覆寫最舊的記錄")
+        void shouldOverwriteOldestWhenFull() {
+            // Act
+            for (int i = 1; i <= 5; i++) {
+                slowQueryLog.record(query("select " + i));
+            }
+
+            // Assert
+            assertThat(slowQueryLog.recent())
+                .extracting(SlowQuery::sql)
+                .containsExactly("select 5", "select 4", "select 3");
+            assertThat(slowQueryLog.getTotal()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("未達門檻的語句不算慢查詢")
+        void shouldCompareAgainstThreshold() {
+            // Arrange
+            SqlStatsProperties.SlowQuery properties = new SqlStatsProperties.SlowQuery();
+            properties.setThreshold(Duration.ofMillis(100));
+            SlowQueryLog log = new SlowQueryLog(properties);
+
+            // Assert
+            assertThat(log.isSlow(99)).isFalse();
+            assertThat(log.isSlow(100)).isTrue();
+        }
+
+        private SlowQuery query(String sql) {
+            return new SlowQuery(LocalDateTime.now(), sql, List.of(), 500, null, null);
+        }
+    }
+
+    /**
+     * 門檻設為 0，讓每條語句都被記錄
+     */
+    @Nested
+    @SpringBootTest(properties = "ecommerce.sql-stats.slow-query.threshold=0ms")
+    @AutoConfigureMockMvc
+    @ActiveProfiles("test")
+    @DisplayName("整合測試")
+    class IntegrationTests {
+
+        @Autowired
+        private SlowQueryLog slowQueryLog;
+
+        @Autowired
+        private ProductRepository productRepository;
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @BeforeEach
+        void setUp() {
+            slowQueryLog.clear();
+        }
+
+        @Test
+        @DisplayName("應記錄參數、Repository 方法與執行計畫")
+        void shouldCaptureParametersRepositoryMethodAndPlan() {
+            // Act
+            productRepository.findByPriceBetween(new BigDecimal("100"), new BigDecimal("200"));
+
+            // Assert
+            assertThat(slowQueryLog.recent()).anySatisfy(query -> {
+                assertThat(query.repositoryMethod()).isEqualTo("ProductRepository.findByPriceBetween");
+                assertThat(query.parameters()).containsExactly("100", "200");
+                assertThat(query.plan()).containsIgnoringCase("PRODUCTS");
+            });
+        }
+
+        @Test
+        @DisplayName("管理端點應列出並可清空慢查詢")
+        void shouldExposeAndClearThroughEndpoint() throws Exception {
+            // Arrange
+            productRepository.findByNameContaining("iPhone");
+
+            // Act & Assert
+            mockMvc.perform(get("/actuator/slowqueries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queries[0].repositoryMethod").value("ProductRepository.findByNameContaining"))
+                .andExpect(jsonPath("$.queries[0].plan").isNotEmpty());
+
+            mockMvc.perform(delete("/actuator/slowqueries"))
+                .andExpect(status().isNoContent());
+            assertThat(slowQueryLog.recent()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL 統計單元測試
+ */
+@DisplayName("SqlStatementStats 單元測試")
+class SqlStatementStatsTest {
+
+    private static final String SELECT_PRODUCT = "select p.id, p.name from products p where p.id=?";
+
+    @Nested
+    @DisplayName("N+1 偵測")
+    class NPlusOneTests {
+
+        @Test
+        @DisplayName("同一條 SELECT 以不同參數重複執行應被標記")
+        void shouldDetectRepeatedSelectWithDifferentParameters() {
+            // Arrange
+            SqlStatementStats stats = new SqlStatementStats();
+
+            // Act
+            for (int id = 1; id <= 3; id++) {
+                stats.recordStatement(SELECT_PRODUCT, Integer.hashCode(id), 1_000);
+            }
+
+            // Assert
+            assertThat(stats.getStatementCount()).isEqualTo(3);
+            assertThat(stats.findNPlusOneCandidates(3)).containsExactly(SELECT_PRODUCT);
+        }
+
+        @Test
+        @DisplayName("相同參數的重複查詢不算 N+1")
+        void shouldIgnoreRepeatedSelectWithSameParameters() {
+            // Arrange
+            SqlStatementStats stats = new SqlStatementStats();
+
+            // Act
+            for (int i = 0; i < 3; i++) {
+                stats.recordStatement(SELECT_PRODUCT, Integer.hashCode(1), 1_000);
+            }
+
+            // Assert
+            assertThat(stats.findNPlusOneCandidates(3)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("重複的 UPDATE 不算 N+1")
+        void shouldIgnoreRepeatedUpdates() {
+            // Arrange
+            SqlStatementStats stats = new SqlStatementStats();
+            String update = "update products set stock_quantity=? where id=?";
+
+            // Act
+            for (int id = 1; id <= 5; id++) {
+                stats.recordStatement(update, Integer.hashCode(id), 1_000);
+            }
+            stats.addRows(5);
+
+            // Assert
+            assertThat(stats.getRowCount()).isEqualTo(5);
+            assertThat(stats.findNPlusOneCandidates(3)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("巢狀範圍")
+    class NestedScopeTests {
+
+        @Test
+        @DisplayName("內層範圍的語句應同時計入外層範圍")
+        void shouldRecordIntoAllActiveScopes() {
+            // Arrange
+            SqlStatementStats outer = SqlStatementRecorder.begin();
+            SqlStatementStats inner = SqlStatementRecorder.begin();
+
+            // Act
+            SqlStatementRecorder.recordStatement(SELECT_PRODUCT, 1, 1_000);
+            SqlStatementRecorder.end(inner);
+            SqlStatementRecorder.recordStatement(SELECT_PRODUCT, 2, 1_000);
+            SqlStatementRecorder.end(outer);
+
+            // Assert
+            assertThat(inner.getStatementCount()).isEqualTo(1);
+            assertThat(outer.getStatementCount()).isEqualTo(2);
+        }
+    }
+}
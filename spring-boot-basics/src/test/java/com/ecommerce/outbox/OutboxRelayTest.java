@@ -0,0 +1,253 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.dto.CreateOrderRequest;
+import com.ecommerce.dto.OrderDTO;
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.OutboxEvent;
+import com.ecommerce.entity.OutboxEventType;
+import com.ecommerce.entity.Product;
+import com.ecommerce.event.OrderCreatedEvent;
+import com.ecommerce.event.StockChangedEvent;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Outbox 整合測試
+ *
+ * Relay 在自己的交易中執行，測試本身不能使用 @Transactional，
+ * 資料在 @AfterEach 中清除。
+ * batch-size=2、max-attempts=2 設定在 application-test.yml
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Outbox 整合測試")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private RecordingSink recordingSink;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        Category category = categoryRepository.save(Category.builder().name("電子產品").build());
+        product = productRepository.save(Product.builder()
+            .name("AirPods Pro")
+            .price(new BigDecimal("7990.00"))
+            .stockQuantity(10)
+            .category(category)
+            .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        recordingSink.fail = false;
+        recordingSink.poisonId = null;
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("建立與取消訂單應寫入事件，Relay 依序發送後整批刪除")
+    void shouldRelayEventsInOrderAndDelete() throws Exception {
+        // Arrange: 建立（庫存 + 訂單）與取消（庫存 + 狀態）共 4 個事件，batch-size=2 分兩批
+        OrderDTO order = createOrder();
+        orderService.cancelOrder(order.getId());
+        assertThat(outboxEventRepository.count()).isEqualTo(4);
+        double publishedBefore = meterRegistry.counter("ecommerce.outbox.published").count();
+
+        // Act
+        int published = outboxRelay.relay();
+
+        // Assert
+        assertThat(published).isEqualTo(4);
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(recordingSink.messages).extracting(OutboxMessage::type).containsExactly(
+            OutboxEventType.STOCK_CHANGED,
+            OutboxEventType.ORDER_CREATED,
+            OutboxEventType.STOCK_CHANGED,
+            OutboxEventType.ORDER_STATUS_CHANGED);
+        assertThat(recordingSink.messages).extracting(OutboxMessage::id).isSorted();
+
+        OrderCreatedEvent created = objectMapper.readValue(
+            recordingSink.messages.get(1).payload(), OrderCreatedEvent.class);
+        assertThat(created.orderId()).isEqualTo(order.getId());
+        assertThat(created.items()).singleElement()
+            .satisfies(item -> assertThat(item.productId()).isEqualTo(product.getId()));
+
+        StockChangedEvent restored = objectMapper.readValue(
+            recordingSink.messages.get(2).payload(), StockChangedEvent.class);
+        assertThat(restored.previousQuantity()).isEqualTo(9);
+        assertThat(restored.quantity()).isEqualTo(10);
+        assertThat(restored.reason()).isEqualTo(StockChangedEvent.Reason.ORDER_CANCELLED);
+
+        assertThat(meterRegistry.counter("ecommerce.outbox.published").count() - publishedBefore)
+            .isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Sink 失敗時事件應保留，下次輪詢重送")
+    void shouldKeepEventsWhenSinkFails() {
+        // Arrange
+        createOrder();
+        recordingSink.fail = true;
+
+        // Act
+        int published = outboxRelay.relay();
+
+        // Assert
+        assertThat(published).isZero();
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+        // Act: 恢復後重送
+        recordingSink.fail = false;
+        assertThat(outboxRelay.relay()).isEqualTo(2);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("單一事件持續失敗時其他事件照常發送，失敗達上限後停放")
+    void shouldIsolateAndParkPoisonEvent() {
+        // Arrange: 最舊的事件無法處理，batch-size=2 時與下一個事件同批
+        createOrder();
+        OutboxEvent poison = outboxEventRepository.findAll(Sort.by("id")).get(0);
+        recordingSink.poisonId = poison.getId();
+        double parkedBefore = meterRegistry.counter("ecommerce.outbox.parked").count();
+
+        // Act: 第一次失敗，其他事件照常發送
+        assertThat(outboxRelay.relay()).isEqualTo(1);
+
+        // Assert
+        OutboxEvent failed = outboxEventRepository.findById(poison.getId()).orElseThrow();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getParkedAt()).isNull();
+        assertThat(failed.getLastError()).contains("無法處理的事件");
+
+        // Act: 第二次失敗達到 max-attempts=2，停放後不再阻塞後面的事件
+        createOrder();
+        assertThat(outboxRelay.relay()).isEqualTo(1);
+        assertThat(outboxRelay.relay()).isEqualTo(1);
+
+        // Assert
+        OutboxEvent parked = outboxEventRepository.findById(poison.getId()).orElseThrow();
+        assertThat(parked.getAttempts()).isEqualTo(2);
+        assertThat(parked.getParkedAt()).isNotNull();
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+        assertThat(recordingSink.messages).hasSize(3)
+            .extracting(OutboxMessage::id).doesNotContain(poison.getId());
+        assertThat(meterRegistry.counter("ecommerce.outbox.parked").count() - parkedBefore).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("下單失敗時不應留下事件")
+    void shouldNotWriteEventsWhenOrderRollsBack() {
+        // Act
+        assertThatThrownBy(() -> orderService.createOrder(request(100)));
+
+        // Assert
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    private OrderDTO createOrder() {
+        return orderService.createOrder(request(1));
+    }
+
+    private CreateOrderRequest request(int quantity) {
+        return CreateOrderRequest.builder()
+            .customerName("客戶")
+            .customerEmail("test@example.com")
+            .shippingAddress("台北市")
+            .items(List.of(OrderItemRequest.builder()
+                .productId(product.getId())
+                .quantity(quantity)
+                .build()))
+            .build();
+    }
+
+    private void cleanUp() {
+        recordingSink.messages.clear();
+        outboxEventRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @TestConfiguration
+    static class SinkConfig {
+
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements OutboxSink {
+
+        final List<OutboxMessage> messages = new ArrayList<>();
+        volatile boolean fail;
+        volatile Long poisonId;
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        @Override
+        public void publish(List<OutboxMessage> messages) {
+            if (fail) {
+                throw new IllegalStateException("下游無法連線");
+            }
+            if (messages.stream().anyMatch(message -> poisonId != null && message.id() == poisonId)) {
+                throw new IllegalArgumentException("無法處理的事件");
+            }
+            this.messages.addAll(messages);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.recommendation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 共同購買模型單元測試
+ */
+@DisplayName("共同購買模型測試")
+class CoOccurrenceModelTest {
+
+    @Nested
+    @DisplayName("LongIntHashMap")
+    class LongIntHashMapTests {
+
+        @Test
+        @DisplayName("擴容後應保留所有鍵值")
+        void addTo_ShouldKeepValuesAcrossResize() {
+            // Arrange
+            LongIntHashMap map = new LongIntHashMap(4);
+
+            // Act
+            for (long i = 1; i <= 10_000; i++) {
+                map.addTo(CoOccurrenceModel.pairKey(i, i + 1), (int) i);
+            }
+            map.addTo(CoOccurrenceModel.pairKey(2, 1), 5);
+
+            // Assert
+            assertThat(map.size()).isEqualTo(10_000);
+            assertThat(map.get(CoOccurrenceModel.pairKey(1, 2))).isEqualTo(6);
+            assertThat(map.get(CoOccurrenceModel.pairKey(9_999, 10_000))).isEqualTo(9_999);
+            assertThat(map.get(CoOccurrenceModel.pairKey(1, 3))).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("增量更新")
+    class AddOrderTests {
+
+        @Test
+        @DisplayName("應依共同出現次數排序，且兩端對稱")
+        void related_ShouldRankByCoOccurrence() {
+            // Arrange
+            CoOccurrenceModel model = new CoOccurrenceModel(10);
+
+            // Act
+            model.addOrder(new long[]{1, 2, 3});
+            model.addOrder(new long[]{1, 3});
+            model.addOrder(new long[]{1, 3, 4});
+
+            // Assert
+            assertThat(model.related(1, 10)).containsExactly(
+                new CoOccurrenceModel.Neighbor(3, 3),
+                new CoOccurrenceModel.Neighbor(2, 1),
+                new CoOccurrenceModel.Neighbor(4, 1));
+            assertThat(model.related(3, 1)).containsExactly(new CoOccurrenceModel.Neighbor(1, 3));
+            assertThat(model.related(99, 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("每個商品只保留前 K 名，後來居上者可擠掉最後一名")
+        void related_ShouldKeepOnlyTopK() {
+            // Arrange
+            CoOccurrenceModel model = new CoOccurrenceModel(2);
+            model.addOrder(new long[]{1, 2});
+            model.addOrder(new long[]{1, 2});
+            model.addOrder(new long[]{1, 3});
+
+            // Act
+            model.addOrder(new long[]{1, 4});
+            model.addOrder(new long[]{1, 4});
+
+            // Assert
+            assertThat(model.related(1, 10)).extracting(CoOccurrenceModel.Neighbor::productId)
+                .containsExactly(2L, 4L);
+        }
+    }
+
+    @Nested
+    @DisplayName("壓縮與重建")
+    class CompactionTests {
+
+        @Test
+        @DisplayName("壓縮應只丟掉不在任何一端前 K 名的配對")
+        void compact_ShouldDropPairsOutsideTopK() {
+            // Arrange
+            CoOccurrenceModel model = new CoOccurrenceModel(1);
+            model.addOrder(new long[]{1, 2});
+            model.addOrder(new long[]{1, 2});
+            model.addOrder(new long[]{1, 3});
+            model.addOrder(new long[]{3, 4});
+            model.addOrder(new long[]{3, 4});
+            List<CoOccurrenceModel.Neighbor> before = model.related(1, 1);
+
+            // Act
+            int removed = model.compact();
+
+            // Assert：(1,3) 不在 1 的前 1 名，也不在 3 的前 1 名（3 的是 4）
+            assertThat(removed).isEqualTo(1);
+            assertThat(model.pairCount(1, 3)).isZero();
+            assertThat(model.pairCount(1, 2)).isEqualTo(2);
+            assertThat(model.related(1, 1)).isEqualTo(before);
+        }
+
+        @Test
+        @DisplayName("由配對次數重建應與增量更新相同")
+        void fromPairs_ShouldMatchIncrementalModel() {
+            // Arrange
+            long[][] orders = {{1, 2, 3}, {2, 3}, {3, 4, 5}, {1, 3}, {2, 3, 5}};
+            CoOccurrenceModel incremental = new CoOccurrenceModel(2);
+            LongIntHashMap pairs = new LongIntHashMap(16);
+            for (long[] order : orders) {
+                incremental.addOrder(order);
+                CoOccurrenceModel.countPairs(order, pairs);
+            }
+
+            // Act
+            CoOccurrenceModel rebuilt = CoOccurrenceModel.fromPairs(2, pairs);
+
+            // Assert：名次相同次數的先後可能不同，只比較次數
+            for (long id = 1; id <= 5; id++) {
+                assertThat(rebuilt.related(id, 2)).extracting(CoOccurrenceModel.Neighbor::count)
+                    .isEqualTo(incremental.related(id, 2).stream().map(CoOccurrenceModel.Neighbor::count).toList());
+            }
+            assertThat(rebuilt.related(3, 1)).containsExactly(new CoOccurrenceModel.Neighbor(2, 3));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.ecommerce.recommendation;
+
+import com.ecommerce.TestDataFixture;
+import com.ecommerce.dto.CreateOrderRequest;
+import com.ecommerce.dto.OrderItemRequest;
+import com.ecommerce.dto.RelatedProductDTO;
+import com.ecommerce.entity.Product;
+import com.ecommerce.event.DomainEventBus;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.ProductInsightService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.ecommerce.event.EventBusTestSupport.awaitConsumers;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 共同購買推薦整合測試
+ *
+ * 模型由事件匯流排的消費者執行緒非同步更新，斷言前先等消費者追上
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("共同購買推薦整合測試")
+class RelatedProductsServiceTest {
+
+    @Autowired
+    private RelatedProductsService relatedProductsService;
+
+    @Autowired
+    private TestDataFixture testData;
+
+    @Autowired
+    private ProductInsightService productInsightService;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product phone;
+    private Product cable;
+    private Product caseProduct;
+
+    @BeforeEach
+    void setUp() {
+        testData.cleanUp();
+        phone = product("iPhone 15");
+        cable = product("充電線");
+        caseProduct = product("手機殼");
+        relatedProductsService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.cleanUp();
+    }
+
+    @Test
+    @DisplayName("建立訂單後應即時推薦共同購買的商品，且不列出已停用的商品")
+    void shouldUpdateIncrementallyOnOrderCreated() throws InterruptedException {
+        // Act
+        createOrder(phone, cable, caseProduct);
+        createOrder(phone, caseProduct);
+        awaitConsumers(eventBus, relatedProductsService.getName());
+
+        // Assert
+        assertThat(productInsightService.getRelatedProducts(phone.getId(), 10))
+            .extracting(RelatedProductDTO::getProductId, RelatedProductDTO::getCoPurchaseCount)
+            .containsExactly(
+                tuple(caseProduct.getId(), 2),
+                tuple(cable.getId(), 1));
+
+        // 下單後庫存與版本號已改變，重新讀取再停用（用舊的實體儲存會觸發樂觀鎖衝突）
+        Product deactivated = productRepository.findById(caseProduct.getId()).orElseThrow();
+        deactivated.setActive(false);
+        productRepository.save(deactivated);
+        assertThat(productInsightService.getRelatedProducts(phone.getId(), 10))
+            .extracting(RelatedProductDTO::getProductId)
+            .containsExactly(cable.getId());
+    }
+
+    @Test
+    @DisplayName("從歷史訂單重建的結果應與增量更新一致")
+    void rebuild_ShouldMatchIncrementalState() throws InterruptedException {
+        // Arrange
+        createOrder(phone, cable);
+        createOrder(phone, cable, caseProduct);
+        createOrder(cable, caseProduct);
+        awaitConsumers(eventBus, relatedProductsService.getName());
+        List<List<CoOccurrenceModel.Neighbor>> incremental = related();
+
+        // Act
+        relatedProductsService.rebuild();
+
+        // Assert
+        assertThat(related()).isEqualTo(incremental);
+        assertThat(incremental.get(1)).extracting(CoOccurrenceModel.Neighbor::count).containsExactly(2, 2);
+    }
+
+    private List<List<CoOccurrenceModel.Neighbor>> related() {
+        // 依商品 ID 排序，避免同次數的先後影響比較
+        return Arrays.asList(phone, cable, caseProduct).stream()
+            .map(product -> relatedProductsService.related(product.getId(), 10).stream()
+                .sorted((a, b) -> Long.compare(a.productId(), b.productId()))
+                .toList())
+            .toList();
+    }
+
+    private Product product(String name) {
+        return productRepository.save(Product.builder()
+            .name(name).price(new BigDecimal("100.00")).stockQuantity(10).build());
+    }
+
+    private void createOrder(Product... products) {
+        orderService.createOrder(CreateOrderRequest.builder()
+            .customerName("王小明")
+            .customerEmail("related@example.com")
+            .shippingAddress("台北市信義區")
+            .items(Arrays.stream(products)
+                .map(product -> OrderItemRequest.builder().productId(product.getId()).quantity(1).build())
+                .toList())
+            .build());
+    }
+}
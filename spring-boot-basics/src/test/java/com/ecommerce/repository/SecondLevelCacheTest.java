@@ -0,0 +1,125 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 二級快取與查詢快取測試
+ *
+ * 透過 Hibernate Statistics 驗證：
+ * - 再次載入同一實體時應命中二級快取，而非查詢資料庫
+ * - 標記為可快取的查詢，第二次執行應命中查詢快取
+ *
+ * @Transactional(NOT_SUPPORTED): 停用 @DataJpaTest 預設的測試事務。
+ * Hibernate 不會快取「同一事務中新增」的實體（尚未提交），
+ * 因此測試資料必須先提交，每次 Repository 呼叫也各自使用新的 Persistence Context。
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("二級快取測試")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Statistics statistics;
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        category = categoryRepository.save(Category.builder().name("快取分類").build());
+        product = productRepository.save(Product.builder()
+            .name("快取商品")
+            .price(new BigDecimal("100"))
+            .stockQuantity(10)
+            .active(true)
+            .category(category)
+            .build());
+
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.delete(product);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    @DisplayName("分類查詢 - 第二次載入應命中二級快取，不再查詢資料庫")
+    void categoryFindById_ShouldHitSecondLevelCache() {
+        // Act: 第一次從資料庫載入並放入快取
+        categoryRepository.findById(category.getId()).orElseThrow();
+        long loadsAfterFirst = statistics.getEntityLoadCount();
+
+        // Act: 第二次應從二級快取取得
+        categoryRepository.findById(category.getId()).orElseThrow();
+
+        // Assert
+        assertThat(statistics.getDomainDataRegionStatistics(Category.class.getName()).getHitCount())
+            .isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(loadsAfterFirst);
+    }
+
+    @Test
+    @DisplayName("分類代理 - 商品關聯的分類應從二級快取初始化")
+    void categoryProxy_ShouldBeInitializedFromCache() {
+        // Arrange: 先讓分類進入快取
+        categoryRepository.findById(category.getId()).orElseThrow();
+
+        // Act: 透過商品的延遲載入關聯讀取分類名稱
+        String categoryName = new TransactionTemplate(transactionManager).execute(status ->
+            productRepository.findByCategoryIdAndActiveTrue(category.getId()).get(0)
+                .getCategory().getName());
+
+        // Assert
+        assertThat(categoryName).isEqualTo("快取分類");
+        assertThat(statistics.getDomainDataRegionStatistics(Category.class.getName()).getHitCount())
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("統計分類商品數 - 第二次執行應命中查詢快取")
+    void countActiveProductsByCategory_ShouldHitQueryCache() {
+        // Act
+        long first = productRepository.countActiveProductsByCategory(category.getId());
+        long second = productRepository.countActiveProductsByCategory(category.getId());
+
+        // Assert
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+}
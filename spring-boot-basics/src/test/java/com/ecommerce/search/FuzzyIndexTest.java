@@ -0,0 +1,81 @@
+package com.ecommerce.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 模糊搜尋索引單元測試
+ */
+@DisplayName("模糊搜尋索引測試")
+class FuzzyIndexTest {
+
+    @Nested
+    @DisplayName("編輯距離")
+    class DistanceTests {
+
+        @Test
+        @DisplayName("相鄰字元對調算一次編輯，超過上界提早回傳 max + 1")
+        void boundedDistance_ShouldCountTranspositionAsOneEdit() {
+            assertThat(FuzzyIndex.boundedDistance("iphnoe", "iphone", 2)).isEqualTo(1);
+            assertThat(FuzzyIndex.boundedDistance("galxy", "galaxy", 2)).isEqualTo(1);
+            assertThat(FuzzyIndex.boundedDistance("smasung", "samsung", 2)).isEqualTo(1);
+            assertThat(FuzzyIndex.boundedDistance("keyboard", "mouse", 2)).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("搜尋")
+    class SearchTests {
+
+        private final FuzzyIndex index = new FuzzyIndex(2);
+
+        SearchTests() {
+            index.put(1, "Apple iPhone 15 Pro");
+            index.put(2, "Samsung Galaxy S24");
+            index.put(3, "iPhone 充電線");
+            index.put(4, "Phone Stand");
+        }
+
+        @Test
+        @DisplayName("拼錯字應找到商品，完全符合的排前面")
+        void search_ShouldTolerateTyposAndRankExactMatchesFirst() {
+            assertThat(ids(index.search("iphnoe", 10))).containsExactly(1L, 3L);
+            assertThat(ids(index.search("smasung galxy", 10))).containsExactly(2L);
+            assertThat(ids(index.search("iphone pro", 10))).startsWith(1L);
+            assertThat(ids(index.search("ｉＰｈｏｎｅ 充電線", 10))).startsWith(3L);
+        }
+
+        @Test
+        @DisplayName("型號不容許編輯，距離超過上界不列出")
+        void search_ShouldBoundEditDistance() {
+            assertThat(ids(index.search("s25", 10))).isEmpty();
+            assertThat(ids(index.search("s24", 10))).containsExactly(2L);
+            assertThat(ids(index.search("ipxyzq", 10))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("更新與停用的商品以墓碑排除")
+        void put_ShouldReplacePreviousName() {
+            // Act
+            index.put(2, "Samsung Galaxy Tab");
+            index.remove(4);
+
+            // Assert
+            assertThat(ids(index.search("s24", 10))).isEmpty();
+            assertThat(ids(index.search("galaxy tab", 10))).containsExactly(2L);
+            assertThat(ids(index.search("stand", 10))).isEmpty();
+            assertThat(index.size()).isEqualTo(3);
+            assertThat(index.stats().deletedDocs()).isEqualTo(2);
+            assertThat(index.stats().estimatedBytes()).isPositive();
+        }
+    }
+
+    private static List<Long> ids(List<FuzzyIndex.Match> matches) {
+        return matches.stream().map(FuzzyIndex.Match::productId).toList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.search;
+
+import com.ecommerce.TestDataFixture;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductSuggestionDTO;
+import com.ecommerce.dto.UpdateProductRequest;
+import com.ecommerce.event.DomainEventBus;
+import com.ecommerce.service.ProductSearchService;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+
+import static com.ecommerce.event.EventBusTestSupport.awaitConsumers;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 商品名稱自動完成整合測試
+ *
+ * 索引由事件匯流排的消費者執行緒非同步更新，斷言前先等消費者追上
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("商品名稱自動完成整合測試")
+class ProductSuggestServiceTest {
+
+    @Autowired
+    private ProductSuggestService suggestService;
+
+    @Autowired
+    private TestDataFixture testData;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    @BeforeEach
+    void setUp() {
+        testData.cleanUp();
+        suggestService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testData.cleanUp();
+    }
+
+    @Test
+    @DisplayName("新增、改名、停用商品應即時反映在自動完成中")
+    void shouldUpdateIncrementallyOnProductWrites() throws InterruptedException {
+        // Act
+        ProductDTO created = testData.product("Galaxy S24 Ultra", "41900.00", 5, null);
+        awaitConsumers(eventBus, suggestService.getName());
+
+        // Assert：全形、大小寫不拘，任一詞的開頭都可以
+        assertThat(productSearchService.suggestProducts("ｇａｌ", 8))
+            .containsExactly(new ProductSuggestionDTO(created.getId(), "Galaxy S24 Ultra"));
+        assertThat(productSearchService.suggestProducts("ULT", 8)).hasSize(1);
+
+        // Act
+        productService.updateProduct(created.getId(), UpdateProductRequest.builder().name("三星 Galaxy S24").build());
+        awaitConsumers(eventBus, suggestService.getName());
+
+        // Assert
+        assertThat(productSearchService.suggestProducts("ult", 8)).isEmpty();
+        assertThat(productSearchService.suggestProducts("三星", 8)).hasSize(1);
+
+        // Act
+        productService.deleteProduct(created.getId());
+        awaitConsumers(eventBus, suggestService.getName());
+
+        // Assert
+        assertThat(productSearchService.suggestProducts("gal", 8)).isEmpty();
+    }
+}
@@ -0,0 +1,126 @@
+package com.ecommerce.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 自動完成前綴樹單元測試
+ */
+@DisplayName("自動完成前綴樹測試")
+class SuggestTrieTest {
+
+    private static final SuggestTrie.Suggestion IPHONE = new SuggestTrie.Suggestion(1, "iPhone 15 Pro", 50);
+    private static final SuggestTrie.Suggestion IPAD = new SuggestTrie.Suggestion(2, "iPad Air", 80);
+    private static final SuggestTrie.Suggestion CABLE = new SuggestTrie.Suggestion(3, "蘋果iPhone充電線", 10);
+
+    @Nested
+    @DisplayName("正規化")
+    class NormalizerTests {
+
+        @Test
+        @DisplayName("全形轉半形、轉小寫並合併空白")
+        void normalize_ShouldFoldWidthCaseAndSpaces() {
+            assertThat(TextNormalizer.normalize("  ｉＰｈｏｎｅ　１５   PRO ")).isEqualTo("iphone 15 pro");
+        }
+
+        @Test
+        @DisplayName("每個詞的開頭與中英文交界都可作為起點")
+        void suffixes_ShouldStartAtWordAndScriptBoundaries() {
+            assertThat(TextNormalizer.suffixesForPrefixMatch("蘋果iphone充電線 (2m)"))
+                .containsExactly("蘋果iphone充電線 (2m)", "iphone充電線 (2m)", "充電線 (2m)", "2m)");
+        }
+    }
+
+    @Nested
+    @DisplayName("查詢")
+    class SuggestTests {
+
+        @Test
+        @DisplayName("前綴結束在壓縮邊中間時應回傳整個子樹，依人氣排序")
+        void suggest_ShouldMatchInsideCompressedEdgesAndRankByScore() {
+            // Arrange
+            SuggestTrie trie = build(IPHONE, IPAD, CABLE);
+
+            // Act & Assert
+            assertThat(ids(trie.suggest("ip", 10))).containsExactly(2L, 1L, 3L);
+            assertThat(ids(trie.suggest("ipho", 10))).containsExactly(1L, 3L);
+            assertThat(ids(trie.suggest("pro", 10))).containsExactly(1L);
+            assertThat(ids(trie.suggest("充電", 10))).containsExactly(3L);
+            assertThat(ids(trie.suggest("ipx", 10))).isEmpty();
+            assertThat(ids(trie.suggest("ip", 1))).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("同一商品以多個鍵符合時只出現一次")
+        void suggest_ShouldNotRepeatProducts() {
+            // Arrange
+            SuggestTrie trie = build(new SuggestTrie.Suggestion(1, "Pro Pro Max", 1));
+
+            // Act & Assert
+            assertThat(trie.suggest("pro", 10)).hasSize(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("增量更新")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("增量加入應與批次建立的結果相同")
+        void with_ShouldMatchBuilder() {
+            // Arrange
+            SuggestTrie incremental = SuggestTrie.empty(10);
+            for (SuggestTrie.Suggestion suggestion : List.of(CABLE, IPHONE, IPAD)) {
+                for (String key : keys(suggestion)) {
+                    incremental = incremental.with(key, suggestion);
+                }
+            }
+            SuggestTrie built = build(IPHONE, IPAD, CABLE);
+
+            // Act & Assert
+            for (String prefix : List.of("i", "ip", "iph", "ipa", "a", "15", "蘋", "充")) {
+                assertThat(incremental.suggest(prefix, 10)).as(prefix).isEqualTo(built.suggest(prefix, 10));
+            }
+        }
+
+        @Test
+        @DisplayName("移除後不再出現，原本的樹不受影響")
+        void without_ShouldRemoveWithoutMutatingPreviousVersion() {
+            // Arrange
+            SuggestTrie before = build(IPHONE, IPAD);
+
+            // Act
+            SuggestTrie after = before;
+            for (String key : keys(IPHONE)) {
+                after = after.without(key, IPHONE.productId());
+            }
+
+            // Assert
+            assertThat(ids(after.suggest("ip", 10))).containsExactly(2L);
+            assertThat(after.suggest("15", 10)).isEmpty();
+            assertThat(ids(before.suggest("ip", 10))).containsExactly(2L, 1L);
+            assertThat(after.without("nothing", 1)).isSameAs(after);
+        }
+    }
+
+    private static SuggestTrie build(SuggestTrie.Suggestion... suggestions) {
+        SuggestTrie.Builder builder = SuggestTrie.builder(10);
+        for (SuggestTrie.Suggestion suggestion : suggestions) {
+            keys(suggestion).forEach(key -> builder.add(key, suggestion));
+        }
+        return builder.build();
+    }
+
+    private static List<String> keys(SuggestTrie.Suggestion suggestion) {
+        return TextNormalizer.suffixesForPrefixMatch(TextNormalizer.normalize(suggestion.name()));
+    }
+
+    private static List<Long> ids(List<SuggestTrie.Suggestion> suggestions) {
+        return suggestions.stream().map(SuggestTrie.Suggestion::productId).toList();
+    }
+}
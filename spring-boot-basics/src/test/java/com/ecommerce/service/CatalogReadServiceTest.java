@@ -0,0 +1,210 @@
+package com.ecommerce.service;
+
+import com.ecommerce.catalog.CatalogReplicaService;
+import com.ecommerce.catalog.CatalogVersion;
+import com.ecommerce.catalog.ProductRecordStoreService;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.ProductVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 商品目錄讀取服務單元測試
+ *
+ * 未開啟記憶體快照與堆積外商品資料：current() 回傳 Optional.empty()、isReady() 回傳 false，查詢走資料庫；
+ * 快照的查詢見 CatalogReplicaServiceTest，堆積外商品資料見 ProductRecordStoreServiceTest
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("商品目錄讀取服務單元測試")
+class CatalogReadServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CatalogReplicaService catalogReplicaService;
+
+    @Mock
+    private ProductRecordStoreService productRecordStoreService;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @InjectMocks
+    private CatalogReadService catalogReadService;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        Category testCategory = Category.builder()
+            .id(1L)
+            .name("電子產品")
+            .build();
+
+        testProduct = Product.builder()
+            .id(1L)
+            .name("iPhone 15 Pro")
+            .price(new BigDecimal("35900"))
+            .stockQuantity(50)
+            .active(true)
+            .category(testCategory)
+            .build();
+    }
+
+    @Nested
+    @DisplayName("查詢商品測試")
+    class GetProductTests {
+
+        @Test
+        @DisplayName("根據 ID 查詢商品 - 成功")
+        void getProductById_WhenExists_ShouldReturnProductDTO() {
+            // Arrange: 設定 Mock 行為
+            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+            // Act: 執行被測方法
+            ProductDTO result = catalogReadService.getProductById(1L);
+
+            // Assert: 驗證結果
+            assertThat(result).isNotNull();
+            assertThat(result.getId()).isEqualTo(1L);
+            assertThat(result.getName()).isEqualTo("iPhone 15 Pro");
+            assertThat(result.getPrice()).isEqualByComparingTo(new BigDecimal("35900"));
+
+            // Verify: 驗證 Mock 被呼叫
+            verify(productRepository, times(1)).findById(1L);
+        }
+
+        @Test
+        @DisplayName("根據 ID 查詢商品 - 商品不存在時應拋出異常")
+        void getProductById_WhenNotExists_ShouldThrowException() {
+            // Arrange
+            when(productRepository.findById(999L)).thenReturn(Optional.empty());
+
+            // Act & Assert
+            assertThatThrownBy(() -> catalogReadService.getProductById(999L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("商品")
+                .hasMessageContaining("999");
+
+            verify(productRepository, times(1)).findById(999L);
+        }
+
+        @Test
+        @DisplayName("商品 ETag - 只查版本欄位，不載入商品；商品版本不同時 ETag 也不同")
+        void getProductETag_ShouldUseVersionLookupOnly() {
+            // Arrange
+            LocalDateTime categoryUpdatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+            when(productRepository.findVersionById(1L))
+                .thenReturn(Optional.of(new ProductVersion(3L, 1L, categoryUpdatedAt)))
+                .thenReturn(Optional.of(new ProductVersion(4L, 1L, categoryUpdatedAt)));
+
+            // Act
+            String first = catalogReadService.getProductETag(1L);
+            String second = catalogReadService.getProductETag(1L);
+
+            // Assert
+            assertThat(first).startsWith("\"").endsWith("\"").isNotEqualTo(second);
+            verify(productRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("商品 ETag - 商品不存在時應拋出異常")
+        void getProductETag_WhenNotExists_ShouldThrowException() {
+            // Arrange
+            when(productRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+            // Act & Assert
+            assertThatThrownBy(() -> catalogReadService.getProductETag(999L))
+                .isInstanceOf(ResourceNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("查詢所有商品（分頁）")
+        void getAllProducts_ShouldReturnPageOfProducts() {
+            // Arrange
+            List<Product> products = List.of(testProduct);
+            Page<Product> productPage = new PageImpl<>(products);
+            Pageable pageable = PageRequest.of(0, 10);
+
+            when(productRepository.findByActiveTrue(pageable)).thenReturn(productPage);
+
+            // Act
+            Page<ProductDTO> result = catalogReadService.getAllProducts(pageable);
+
+            // Assert
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.getContent().get(0).getName()).isEqualTo("iPhone 15 Pro");
+
+            verify(productRepository).findByActiveTrue(pageable);
+        }
+
+        @Test
+        @DisplayName("搜尋商品")
+        void searchProducts_ShouldReturnMatchingProducts() {
+            // Arrange
+            when(productRepository.findByNameContaining("iPhone"))
+                .thenReturn(List.of(testProduct));
+
+            // Act
+            List<ProductDTO> results = catalogReadService.searchProducts("iPhone");
+
+            // Assert
+            assertThat(results)
+                .hasSize(1)
+                .first()
+                .satisfies(dto -> assertThat(dto.getName()).contains("iPhone"));
+        }
+    }
+
+    @Nested
+    @DisplayName("依 ID 批次查詢測試")
+    class FindAllTests {
+
+        @Test
+        @DisplayName("依傳入順序回傳，activeOnly 時略過已停用與不存在的商品")
+        void findAll_ShouldKeepOrderAndSkipInactive() {
+            // Arrange
+            Product inactive = Product.builder()
+                .id(2L)
+                .name("舊款 iPhone")
+                .price(new BigDecimal("9900"))
+                .stockQuantity(3)
+                .active(false)
+                .build();
+            when(productRepository.findAllById(List.of(2L, 999L, 1L))).thenReturn(List.of(testProduct, inactive));
+
+            // Act
+            List<ProductDTO> all = catalogReadService.findAll(List.of(2L, 999L, 1L), false);
+            List<ProductDTO> active = catalogReadService.findAll(List.of(2L, 999L, 1L), true);
+
+            // Assert
+            assertThat(all).extracting(ProductDTO::getId).containsExactly(2L, 1L);
+            assertThat(active).extracting(ProductDTO::getId).containsExactly(1L);
+        }
+    }
+}
@@ -9,6 +9,8 @@ import com.ecommerce.entity.OrderStatus;
 import com.ecommerce.entity.Product;
 import com.ecommerce.exception.InsufficientStockException;
 import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.outbox.OutboxWriter;
+import com.ecommerce.event.StockChangedEvent;
 import com.ecommerce.repository.OrderRepository;
 import com.ecommerce.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -45,6 +47,9 @@ class OrderServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private OutboxWriter outboxWriter;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -81,7 +86,7 @@ class OrderServiceTest {
                 ))
                 .build();
 
-            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+            when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(testProduct));
             when(productRepository.save(any(Product.class))).thenReturn(testProduct);
             when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
                 Order order = invocation.getArgument(0);
@@ -105,6 +110,10 @@ class OrderServiceTest {
 
             // 驗證訂單被保存
             verify(orderRepository).save(any(Order.class));
+
+            // 驗證 outbox 事件與訂單在同一個流程中寫入
+            verify(outboxWriter).stockChanged(any(Product.class), eq(50), eq(StockChangedEvent.Reason.ORDER_CREATED));
+            verify(outboxWriter).orderCreated(any(Order.class));
         }
 
         @Test
@@ -126,8 +135,7 @@ class OrderServiceTest {
                 ))
                 .build();
 
-            when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
-            when(productRepository.findById(2L)).thenReturn(Optional.of(product2));
+            when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(product1, product2));
             when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
             when(orderRepository.save(any(Order.class))).thenAnswer(inv -> {
                 Order o = inv.getArgument(0);
@@ -160,15 +168,16 @@ class OrderServiceTest {
                 ))
                 .build();
 
-            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+            when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(testProduct));
 
             // Act & Assert
             assertThatThrownBy(() -> orderService.createOrder(request))
                 .isInstanceOf(InsufficientStockException.class)
                 .hasMessageContaining("庫存不足");
 
-            // 驗證訂單沒有被保存
+            // 驗證訂單沒有被保存，也沒有寫入事件
             verify(orderRepository, never()).save(any());
+            verifyNoInteractions(outboxWriter);
         }
 
         @Test
@@ -187,7 +196,7 @@ class OrderServiceTest {
                 ))
                 .build();
 
-            when(productRepository.findById(999L)).thenReturn(Optional.empty());
+            when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of());
 
             // Act & Assert
             assertThatThrownBy(() -> orderService.createOrder(request))
@@ -222,6 +231,7 @@ class OrderServiceTest {
             testProduct.setStockQuantity(45);  // 已扣減過
 
             when(orderRepository.findByIdWithItems(1L)).thenReturn(Optional.of(order));
+            when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(testProduct));
             when(productRepository.save(any(Product.class))).thenReturn(testProduct);
             when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -235,6 +245,7 @@ class OrderServiceTest {
             ArgumentCaptor<Product> productCaptor = ArgumentCaptor.forClass(Product.class);
             verify(productRepository).save(productCaptor.capture());
             assertThat(productCaptor.getValue().getStockQuantity()).isEqualTo(50);  // 45 + 5
+            verify(outboxWriter).orderStatusChanged(any(Order.class), eq(OrderStatus.PENDING));
         }
 
         @Test
@@ -6,6 +6,7 @@ import com.ecommerce.dto.UpdateProductRequest;
 import com.ecommerce.entity.Category;
 import com.ecommerce.entity.Product;
 import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.outbox.OutboxWriter;
 import com.ecommerce.repository.CategoryRepository;
 import com.ecommerce.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,13 +17,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,7 +28,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
- * 商品服務單元測試
+ * 商品服務單元測試（新增、修改、停用；查詢見 CatalogReadServiceTest）
  *
  * @ExtendWith(MockitoExtension.class): 啟用 Mockito 支援
  *
@@ -53,6 +50,12 @@ class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * @InjectMocks: 創建被測物件，並注入上面的 Mock
      */
@@ -79,82 +82,6 @@ class ProductServiceTest {
             .build();
     }
 
-    @Nested
-    @DisplayName("查詢商品測試")
-    class GetProductTests {
-
-        @Test
-        @DisplayName("根據 ID 查詢商品 - 成功")
-        void getProductById_WhenExists_ShouldReturnProductDTO() {
-            // Arrange: 設定 Mock 行為
-            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-
-            // Act: 執行被測方法
-            ProductDTO result = productService.getProductById(1L);
-
-            // Assert: 驗證結果
-            assertThat(result).isNotNull();
-            assertThat(result.getId()).isEqualTo(1L);
-            assertThat(result.getName()).isEqualTo("iPhone 15 Pro");
-            assertThat(result.getPrice()).isEqualByComparingTo(new BigDecimal("35900"));
-
-            // Verify: 驗證 Mock 被呼叫
-            verify(productRepository, times(1)).findById(1L);
-        }
-
-        @Test
-        @DisplayName("根據 ID 查詢商品 - 商品不存在時應拋出異常")
-        void getProductById_WhenNotExists_ShouldThrowException() {
-            // Arrange
-            when(productRepository.findById(999L)).thenReturn(Optional.empty());
-
-            // Act & Assert
-            assertThatThrownBy(() -> productService.getProductById(999L))
-                .isInstanceOf(ResourceNotFoundException.class)
-                .hasMessageContaining("商品")
-                .hasMessageContaining("999");
-
-            verify(productRepository, times(1)).findById(999L);
-        }
-
-        @Test
-        @DisplayName("查詢所有商品（分頁）")
-        void getAllProducts_ShouldReturnPageOfProducts() {
-            // Arrange
-            List<Product> products = List.of(testProduct);
-            Page<Product> productPage = new PageImpl<>(products);
-            Pageable pageable = PageRequest.of(0, 10);
-
-            when(productRepository.findByActiveTrue(pageable)).thenReturn(productPage);
-
-            // Act
-            Page<ProductDTO> result = productService.getAllProducts(pageable);
-
-            // Assert
-            assertThat(result.getContent()).hasSize(1);
-            assertThat(result.getContent().get(0).getName()).isEqualTo("iPhone 15 Pro");
-
-            verify(productRepository).findByActiveTrue(pageable);
-        }
-
-        @Test
-        @DisplayName("搜尋商品")
-        void searchProducts_ShouldReturnMatchingProducts() {
-            // Arrange
-            when(productRepository.findByNameContaining("iPhone"))
-                .thenReturn(List.of(testProduct));
-
-            // Act
-            List<ProductDTO> results = productService.searchProducts("iPhone");
-
-            // Assert
-            assertThat(results)
-                .hasSize(1)
-                .first()
-                .satisfies(dto -> assertThat(dto.getName()).contains("iPhone"));
-        }
-    }
-
     @Nested
     @DisplayName("創建商品測試")
     class CreateProductTests {
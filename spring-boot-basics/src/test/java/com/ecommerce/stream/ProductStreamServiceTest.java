@@ -0,0 +1,242 @@
+package com.ecommerce.stream;
+
+import com.ecommerce.TestDataFixture;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.UpdateProductRequest;
+import com.ecommerce.entity.Category;
+import com.ecommerce.event.DomainEventBus;
+import com.ecommerce.event.StockChangedEvent;
+import com.ecommerce.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 商品異動串流整合測試
+ *
+ * MockMvc 的非同步回應會累積寫出的內容，斷言前輪詢直到出現預期的事件
+ * max-pending-products=2（application-test.yml）：待送 3 個商品立即寫出，5 個視為慢速消費者
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("商品異動串流整合測試")
+class ProductStreamServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestDataFixture testData;
+
+    @Autowired
+    private ProductStreamService streamService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    /**
+     * 慢速消費者測試訂閱的分類（不存在於資料庫，事件自帶分類，不查資料庫）
+     */
+    private static final long SLOW_CATEGORY = 900_000L;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category phones;
+    private ProductDTO phone;
+
+    @BeforeEach
+    void setUp() {
+        testData.cleanUp();
+        phones = testData.category("手機");
+        phone = testData.product("iPhone 15", "29900.00", 10, phones.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        // MockMvc 的非同步回應不會自行結束：重新啟動以關閉這個測試留下的訂閱
+        streamService.stop();
+        streamService.start();
+        testData.cleanUp();
+    }
+
+    @Test
+    @DisplayName("依商品與分類訂閱的連線都應收到提交後的庫存與價格異動")
+    void subscribers_ShouldReceiveDeltasAfterCommit() throws Exception {
+        // Arrange
+        MockHttpServletResponse byProduct = subscribe("/api/v1/products/stream?productIds=" + phone.getId());
+        MockHttpServletResponse byCategory = subscribe("/api/v1/products/stream?categoryIds=" + phones.getId());
+
+        // Act
+        productService.updateProduct(phone.getId(), UpdateProductRequest.builder()
+            .stockQuantity(3).price(new BigDecimal("27900.00")).build());
+
+        // Assert
+        for (MockHttpServletResponse response : new MockHttpServletResponse[]{byProduct, byCategory}) {
+            String content = await(response, body -> body.contains("\"stockQuantity\":3") && body.contains("27900"));
+            assertThat(content).startsWith(":subscribed");
+            assertThat(content).contains("event:delta");
+            assertThat(content).contains("\"productId\":" + phone.getId());
+            assertThat(response.getContentType()).startsWith("text/event-stream");
+        }
+    }
+
+    @Test
+    @DisplayName("其他節點提交的異動（本節點沒有事件）應由輪詢資料庫推送")
+    void otherNodeCommit_ShouldBePushedFromDatabase() throws Exception {
+        // Arrange
+        MockHttpServletResponse byCategory = subscribe("/api/v1/products/stream?categoryIds=" + phones.getId());
+
+        // Act：直接更新資料列，模擬另一個節點的交易，不經過本節點的事件匯流排
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 2, price = 25900.00, version = version + 1,"
+            + " updated_at = ? WHERE id = ?", Timestamp.valueOf(LocalDateTime.now()), phone.getId());
+
+        // Assert
+        String content = await(byCategory, body -> body.contains("\"stockQuantity\":2"));
+        assertThat(content).contains("25900");
+    }
+
+    @Test
+    @DisplayName("較新的庫存事件先到時，不應再推送晚到的舊庫存")
+    void staleStockEvent_ShouldNotBePushed() throws Exception {
+        // Arrange
+        MockHttpServletResponse byCategory = subscribe("/api/v1/products/stream?categoryIds=" + phones.getId());
+
+        // Act：版本 3（7 → 4）先發布，版本 2（10 → 7）後到；事件自帶分類，不查資料庫
+        eventBus.publish(new StockChangedEvent(phone.getId(), phones.getId(), 7, 4,
+            StockChangedEvent.Reason.ORDER_CREATED, 3));
+        eventBus.publish(new StockChangedEvent(phone.getId(), phones.getId(), 10, 7,
+            StockChangedEvent.Reason.ORDER_CREATED, 2));
+        await(byCategory, body -> body.contains("\"stockQuantity\":4"));
+        Thread.sleep(200);
+
+        // Assert
+        assertThat(byCategory.getContentAsString()).doesNotContain("\"stockQuantity\":7");
+    }
+
+    @Test
+    @DisplayName("寫出卡住的慢速消費者應被關閉，事件匯流排不等它，其他連線照常推送")
+    void slowConsumer_ShouldBeEvictedWithoutBlockingEventBus() throws Exception {
+        // Arrange
+        SseEmitter slow = streamService.subscribe(Set.of(), Set.of(SLOW_CATEGORY));
+        MockHttpServletResponse other = subscribe("/api/v1/products/stream?productIds=" + phone.getId());
+        int subscribers = streamService.getSubscriberCount();
+        double evictionsBefore = meterRegistry.counter("ecommerce.stream.evictions").count();
+
+        // Act：持有 emitter 的鎖，模擬卡在 socket 上的 send（send 與 complete 都同步於 emitter）
+        synchronized (slow) {
+            for (long id = 1; id <= 10; id++) {
+                eventBus.publish(new StockChangedEvent(SLOW_CATEGORY + id, SLOW_CATEGORY, 1, 0,
+                    StockChangedEvent.Reason.ORDER_CREATED, 0));
+            }
+            eventBus.publish(new StockChangedEvent(phone.getId(), phones.getId(), 10, 5,
+                StockChangedEvent.Reason.ORDER_CREATED, 0));
+
+            // Assert：鎖還沒釋放，消費者執行緒已關閉慢速連線並繼續處理後面的事件
+            await(other, body -> body.contains("\"stockQuantity\":5"));
+            assertThat(streamService.getSubscriberCount()).isEqualTo(subscribers - 1);
+            assertThat(meterRegistry.counter("ecommerce.stream.evictions").count() - evictionsBefore)
+                .isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("閒置的連線應定期收到心跳")
+    void idleSubscriber_ShouldReceiveHeartbeat() throws Exception {
+        // Act
+        MockHttpServletResponse idle = subscribe("/api/v1/products/stream?productIds=" + phone.getId());
+
+        // Assert
+        await(idle, body -> body.contains(":heartbeat"));
+    }
+
+    @Test
+    @DisplayName("同一商品在送出前的多次異動應合併為一筆最新值")
+    void pendingDeltas_ShouldBeCoalescedPerProduct() {
+        // Arrange
+        ProductStreamService.Subscriber subscriber =
+            new ProductStreamService.Subscriber(new SseEmitter(), Set.of(1L), Set.of());
+
+        // Act
+        subscriber.offer(ProductDelta.stock(1L, 9), 2);
+        subscriber.offer(ProductDelta.product(1L, new BigDecimal("990.00"), true), 2);
+        subscriber.offer(ProductDelta.stock(1L, 7), 2);
+        ProductStreamService.Offer offer = subscriber.offer(ProductDelta.stock(2L, 3), 2);
+
+        // Assert：兩個商品仍在上限內，各保留最新的欄位值
+        assertThat(offer).isEqualTo(ProductStreamService.Offer.QUEUED);
+        assertThat(subscriber.drain()).containsExactly(
+            new ProductDelta(1L, 7, new BigDecimal("990.00"), true),
+            ProductDelta.stock(2L, 3));
+        assertThat(subscriber.drain()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("沒有指定商品或分類、數量超過上限時應回傳 400")
+    void subscribe_WhenInvalid_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/v1/products/stream"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/products/stream?productIds=1,2,3&categoryIds=4"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("訂閱已滿時應回傳 503")
+    void subscribe_WhenFull_ShouldReturn503() throws Exception {
+        // Arrange
+        while (streamService.getSubscriberCount() < 20) {
+            subscribe("/api/v1/products/stream?productIds=1");
+        }
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/products/stream?productIds=1").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(status().isServiceUnavailable());
+    }
+
+    private MockHttpServletResponse subscribe(String url) throws Exception {
+        return mockMvc.perform(get(url).accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+    }
+
+    private static String await(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        String content = response.getContentAsString();
+        while (!condition.test(content) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertThat(condition.test(content)).as(content).isTrue();
+        return content;
+    }
+}
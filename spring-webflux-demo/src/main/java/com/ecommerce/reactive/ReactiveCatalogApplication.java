@@ -0,0 +1,22 @@
+package com.ecommerce.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 響應式商品目錄應用程式入口
+ *
+ * 與 spring-boot-basics 的 ProductController 提供相同的查詢契約，
+ * 但改用 WebFlux（Netty 事件迴圈）+ R2DBC（非阻塞資料庫驅動），
+ * 用於比較讀取密集流量下 Servlet 與 Reactive 兩種堆疊的表現。
+ *
+ * 套件位於 com.ecommerce.reactive，元件掃描不會觸及 spring-boot-basics 的 Bean，
+ * 只共用其 com.ecommerce.dto 中的 DTO。
+ */
+@SpringBootApplication
+public class ReactiveCatalogApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveCatalogApplication.class, args);
+    }
+}
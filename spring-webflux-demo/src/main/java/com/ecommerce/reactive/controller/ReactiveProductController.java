@@ -0,0 +1,81 @@
+package com.ecommerce.reactive.controller;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.reactive.service.ReactiveProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 響應式商品 API 控制器
+ *
+ * 與 spring-boot-basics 的 ProductController 相同的唯讀契約：
+ * 列表、單筆、搜尋、分類、低庫存。
+ *
+ * 回傳 Flux 的端點同時支援：
+ * - application/json: 以 JSON 陣列輸出（逐元素寫出，不先收集成 List）
+ * - application/x-ndjson: 每行一筆，客戶端可邊收邊處理
+ *
+ * 差異：列表端點以 Flux 串流內容，分頁總數改由 GET /count 提供，
+ * 而非 Servlet 版本的 Page JSON 包裝（Page 需要先收集完整內容才能輸出）。
+ */
+@RestController
+@RequestMapping("/api/v1/products")
+@RequiredArgsConstructor
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+
+    /**
+     * 查詢所有商品（分頁）
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductDTO> getAllProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return productService.getAllProducts(page, size);
+    }
+
+    /**
+     * 上架商品總數
+     */
+    @GetMapping("/count")
+    public Mono<Long> countProducts() {
+        return productService.countActiveProducts();
+    }
+
+    /**
+     * 根據 ID 查詢商品
+     */
+    @GetMapping("/{id}")
+    public Mono<ProductDTO> getProductById(@PathVariable Long id) {
+        return productService.getProductById(id);
+    }
+
+    /**
+     * 搜尋商品
+     */
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductDTO> searchProducts(@RequestParam String keyword) {
+        return productService.searchProducts(keyword);
+    }
+
+    /**
+     * 根據分類查詢商品
+     */
+    @GetMapping(value = "/category/{categoryId}",
+                produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductDTO> getProductsByCategory(@PathVariable Long categoryId) {
+        return productService.getProductsByCategory(categoryId);
+    }
+
+    /**
+     * 查詢低庫存商品
+     */
+    @GetMapping(value = "/low-stock", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductDTO> getLowStockProducts(@RequestParam(defaultValue = "10") int threshold) {
+        return productService.getLowStockProducts(threshold);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 商品實體（R2DBC）
+ *
+ * 對應與 spring-boot-basics 相同結構的 products 表。
+ * R2DBC 沒有 JPA 的關聯映射（@ManyToOne），分類以外鍵欄位 categoryId 表示，
+ * 需要分類名稱時由查詢自行 JOIN。
+ *
+ * @Table: Spring Data Relational 的表映射註解（非 jakarta.persistence）
+ */
+@Table("products")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Product {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private BigDecimal price;
+
+    private String description;
+
+    @Column("stock_quantity")
+    private Integer stockQuantity;
+
+    @Column("image_url")
+    private String imageUrl;
+
+    private Boolean active;
+
+    @Column("category_id")
+    private Long categoryId;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.reactive.exception;
+
+import com.ecommerce.exception.GlobalExceptionHandler.ErrorResponse;
+import com.ecommerce.exception.ResourceNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+
+/**
+ * 響應式全域異常處理器
+ *
+ * @RestControllerAdvice 在 WebFlux 中同樣適用，
+ * 錯誤回應沿用 spring-boot-basics 的 ErrorResponse 格式，讓兩個版本的錯誤契約一致。
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    /**
+     * 處理資源不存在異常
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFound(ResourceNotFoundException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.NOT_FOUND.value())
+            .error("Not Found")
+            .message(ex.getMessage())
+            .build();
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.reactive.repository;
+
+import com.ecommerce.reactive.entity.Product;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 響應式商品倉儲介面
+ *
+ * ReactiveCrudRepository 的方法皆回傳 Mono / Flux：
+ * - 查詢不會阻塞呼叫執行緒
+ * - Flux 依下游請求量（request(n)）逐批從資料庫拉取資料列，天然具備背壓
+ *
+ * 查詢條件與 spring-boot-basics 的 ProductRepository 保持一致。
+ */
+@Repository
+public interface ProductRepository extends ReactiveCrudRepository<Product, Long> {
+
+    String SELECT_VIEW = """
+        SELECT p.id, p.name, p.price, p.description, p.stock_quantity, p.image_url,
+               p.active, c.name AS category_name, p.created_at
+        FROM products p
+        LEFT JOIN categories c ON c.id = p.category_id
+        """;
+
+    /**
+     * 查詢上架中的商品（分頁），預設依建立時間排序
+     */
+    @Query(SELECT_VIEW + " WHERE p.active = true ORDER BY p.created_at, p.id LIMIT :limit OFFSET :offset")
+    Flux<ProductView> findActive(@Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * 上架中商品總數（分頁資訊用）
+     */
+    @Query("SELECT COUNT(*) FROM products WHERE active = true")
+    Mono<Long> countActive();
+
+    /**
+     * 根據 ID 查詢
+     */
+    @Query(SELECT_VIEW + " WHERE p.id = :id")
+    Mono<ProductView> findViewById(@Param("id") Long id);
+
+    /**
+     * 根據名稱模糊查詢（LIKE %keyword%）
+     */
+    @Query(SELECT_VIEW + " WHERE p.name LIKE CONCAT('%', :keyword, '%') ORDER BY p.id")
+    Flux<ProductView> findByNameContaining(@Param("keyword") String keyword);
+
+    /**
+     * 根據分類 ID 查詢上架商品
+     */
+    @Query(SELECT_VIEW + " WHERE p.category_id = :categoryId AND p.active = true ORDER BY p.id")
+    Flux<ProductView> findByCategoryIdAndActiveTrue(@Param("categoryId") Long categoryId);
+
+    /**
+     * 查詢庫存低於閾值的上架商品
+     */
+    @Query(SELECT_VIEW + " WHERE p.stock_quantity < :threshold AND p.active = true ORDER BY p.stock_quantity, p.id")
+    Flux<ProductView> findLowStockProducts(@Param("threshold") int threshold);
+}
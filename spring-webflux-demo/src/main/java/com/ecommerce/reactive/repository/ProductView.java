@@ -0,0 +1,23 @@
+package com.ecommerce.reactive.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 商品查詢投影
+ *
+ * 由 products JOIN categories 的查詢結果直接映射（欄位名稱以 snake_case 對應），
+ * 一次取得 ProductDTO 所需的全部欄位，避免逐筆查詢分類。
+ */
+public record ProductView(
+    Long id,
+    String name,
+    BigDecimal price,
+    String description,
+    Integer stockQuantity,
+    String imageUrl,
+    Boolean active,
+    String categoryName,
+    LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.reactive.service;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.reactive.repository.ProductRepository;
+import com.ecommerce.reactive.repository.ProductView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 響應式商品服務
+ *
+ * 與 spring-boot-basics 的 ProductService 相同的查詢語意，但全程不阻塞：
+ * - 回傳 Flux 時，資料列在被訂閱後才會逐批讀取
+ * - limitRate(prefetch): 限制每次向上游請求的數量，
+ *   慢速客戶端只會讓讀取暫停，而不會在記憶體中堆積整個結果集
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveProductService {
+
+    private final ProductRepository productRepository;
+
+    /**
+     * 每次向資料庫請求的資料列數量
+     */
+    @Value("${catalog.stream.prefetch:64}")
+    private int prefetch;
+
+    /**
+     * 查詢上架商品（分頁）
+     */
+    public Flux<ProductDTO> getAllProducts(int page, int size) {
+        log.debug("查詢所有商品，page: {}, size: {}", page, size);
+        return productRepository.findActive(size, (long) page * size)
+            .limitRate(prefetch)
+            .map(ReactiveProductService::toDTO);
+    }
+
+    /**
+     * 上架商品總數
+     */
+    public Mono<Long> countActiveProducts() {
+        return productRepository.countActive();
+    }
+
+    /**
+     * 根據 ID 查詢商品
+     */
+    public Mono<ProductDTO> getProductById(Long id) {
+        log.debug("查詢商品 ID: {}", id);
+        return productRepository.findViewById(id)
+            .map(ReactiveProductService::toDTO)
+            .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("商品", "id", id)));
+    }
+
+    /**
+     * 根據關鍵字搜尋商品
+     */
+    public Flux<ProductDTO> searchProducts(String keyword) {
+        log.debug("搜尋商品，關鍵字: {}", keyword);
+        return productRepository.findByNameContaining(keyword)
+            .limitRate(prefetch)
+            .map(ReactiveProductService::toDTO);
+    }
+
+    /**
+     * 根據分類查詢商品
+     */
+    public Flux<ProductDTO> getProductsByCategory(Long categoryId) {
+        log.debug("查詢分類 {} 的商品", categoryId);
+        return productRepository.findByCategoryIdAndActiveTrue(categoryId)
+            .limitRate(prefetch)
+            .map(ReactiveProductService::toDTO);
+    }
+
+    /**
+     * 查詢低庫存商品
+     */
+    public Flux<ProductDTO> getLowStockProducts(int threshold) {
+        log.debug("查詢低庫存商品，閾值: {}", threshold);
+        return productRepository.findLowStockProducts(threshold)
+            .limitRate(prefetch)
+            .map(ReactiveProductService::toDTO);
+    }
+
+    /**
+     * 投影轉換為共用的 ProductDTO
+     */
+    private static ProductDTO toDTO(ProductView view) {
+        return ProductDTO.builder()
+            .id(view.id())
+            .name(view.name())
+            .price(view.price())
+            .description(view.description())
+            .stockQuantity(view.stockQuantity())
+            .imageUrl(view.imageUrl())
+            .active(view.active())
+            .categoryName(view.categoryName())
+            .createdAt(view.createdAt())
+            .build();
+    }
+}
@@ -0,0 +1,17 @@
+-- 與 spring-boot-basics DataInitializer 相同的示範資料
+INSERT INTO categories (id, name, description, created_at, updated_at) VALUES
+    (1, '電子產品', '各種電子產品與3C配件', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    (2, '服飾', '男女服飾與配件', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    (3, '食品', '各式食品與零食', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+INSERT INTO products (name, price, stock_quantity, description, category_id, active, created_at, updated_at) VALUES
+    ('iPhone 15 Pro', 35900, 50, 'Apple 最新旗艦手機，搭載 A17 Pro 晶片', 1, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('iPhone 15', 29900, 80, 'Apple iPhone 15，全新動態島設計', 1, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('MacBook Pro 14"', 59900, 30, 'M3 Pro 晶片，14 吋 Liquid Retina XDR 顯示器', 1, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('AirPods Pro 2', 7990, 100, '主動式降噪，適應性音訊', 1, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('iPad Air', 19900, 60, 'M1 晶片，10.9 吋 Liquid Retina 顯示器', 1, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('純棉 T-Shirt', 590, 200, '100% 純棉材質，舒適透氣', 2, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('牛仔褲', 1290, 150, '經典直筒版型，百搭款式', 2, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('運動外套', 1990, 80, '防風防水材質，適合戶外活動', 2, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('綜合堅果', 299, 300, '嚴選多種堅果，健康零食首選', 3, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    ('有機茶葉禮盒', 899, 50, '台灣高山有機茶葉，精美禮盒包裝', 3, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
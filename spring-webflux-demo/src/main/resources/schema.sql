@@ -0,0 +1,25 @@
+-- 與 spring-boot-basics 的 JPA 實體相同的表結構
+CREATE TABLE IF NOT EXISTS categories (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name        VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    created_at  TIMESTAMP,
+    updated_at  TIMESTAMP,
+    CONSTRAINT uk_category_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id             BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name           VARCHAR(200)   NOT NULL,
+    price          DECIMAL(10, 2) NOT NULL,
+    description    TEXT,
+    stock_quantity INT            NOT NULL DEFAULT 0,
+    image_url      VARCHAR(500),
+    active         BOOLEAN        DEFAULT TRUE,
+    category_id    BIGINT REFERENCES categories (id),
+    created_at     TIMESTAMP,
+    updated_at     TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_name ON products (name);
+CREATE INDEX IF NOT EXISTS idx_product_category ON products (category_id);
@@ -0,0 +1,127 @@
+package com.ecommerce.reactive.controller;
+
+import com.ecommerce.dto.ProductDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 響應式商品 API 測試
+ *
+ * @AutoConfigureWebTestClient: 自動配置 WebTestClient（WebFlux 版的 MockMvc）
+ * 測試資料來自 schema.sql / data.sql
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+@DisplayName("響應式商品 API 測試")
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Nested
+    @DisplayName("GET /api/v1/products")
+    class GetAllProductsTests {
+
+        @Test
+        @DisplayName("應依分頁參數返回商品")
+        void shouldReturnRequestedPage() {
+            webTestClient.get().uri("/api/v1/products?page=0&size=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductDTO.class)
+                .hasSize(3);
+        }
+
+        @Test
+        @DisplayName("NDJSON 串流應可逐筆消費並支援背壓")
+        void shouldStreamNdjsonWithBackpressure() {
+            Flux<ProductDTO> stream = webTestClient.get().uri("/api/v1/products?size=100")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProductDTO.class)
+                .getResponseBody();
+
+            // 每次只請求 2 筆，驗證下游可控制拉取速度
+            StepVerifier.create(stream, 2)
+                .expectNextCount(2)
+                .thenRequest(8)
+                .expectNextCount(8)
+                .verifyComplete();
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/products/{id}")
+    class GetProductByIdTests {
+
+        @Test
+        @DisplayName("商品存在時應返回含分類名稱的商品詳情")
+        void whenProductExists_shouldReturnProduct() {
+            webTestClient.get().uri("/api/v1/products/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.name").isEqualTo("iPhone 15 Pro")
+                .jsonPath("$.categoryName").isEqualTo("電子產品");
+        }
+
+        @Test
+        @DisplayName("商品不存在時應返回 404")
+        void whenProductNotExists_shouldReturn404() {
+            webTestClient.get().uri("/api/v1/products/999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").value(message -> assertThat((String) message).contains("商品"));
+        }
+    }
+
+    @Test
+    @DisplayName("搜尋應返回名稱包含關鍵字的商品")
+    void searchShouldReturnMatchingProducts() {
+        webTestClient.get().uri("/api/v1/products/search?keyword=iPhone")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(ProductDTO.class)
+            .value(products -> assertThat(products)
+                .hasSize(2)
+                .allMatch(p -> p.getName().contains("iPhone")));
+    }
+
+    @Test
+    @DisplayName("分類查詢應只返回該分類商品")
+    void byCategoryShouldReturnCategoryProducts() {
+        webTestClient.get().uri("/api/v1/products/category/2")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(ProductDTO.class)
+            .value(products -> assertThat(products)
+                .hasSize(3)
+                .allMatch(p -> "服飾".equals(p.getCategoryName())));
+    }
+
+    @Test
+    @DisplayName("低庫存查詢應返回庫存低於閾值的商品")
+    void lowStockShouldReturnProductsBelowThreshold() {
+        webTestClient.get().uri("/api/v1/products/low-stock?threshold=51")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(ProductDTO.class)
+            .value(products -> assertThat(products)
+                .extracting(ProductDTO::getStockQuantity)
+                .allMatch(stock -> stock < 51)
+                .hasSize(3));
+    }
+}